@@ -0,0 +1,57 @@
+package com.plantrack.benchmarks;
+
+import com.plantrack.backend.dto.DashboardStatsDTO;
+import com.plantrack.backend.service.AnalyticsCube;
+import com.plantrack.backend.service.AssignmentIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AnalyticsCube reads at the BenchmarkState scale (50k users seed 1.8M initiatives).
+ * The cube's estimated footprint is printed once per trial, next to its initiative count.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class AnalyticsCubeBenchmark {
+
+    @Setup(Level.Trial)
+    public void reportFootprint(BenchmarkState state) {
+        System.out.printf("%nanalytics cube: users=%d initiatives=%d footprint=%.1f MB%n",
+                state.users, state.analyticsCube.initiativeCount(), state.analyticsCube.footprintBytes() / 1e6);
+    }
+
+    @Benchmark
+    public DashboardStatsDTO dashboardStats(BenchmarkState state) {
+        return state.analyticsCube.dashboardStats();
+    }
+
+    @Benchmark
+    public AssignmentIndex userAssignments(BenchmarkState state) {
+        return state.analyticsCube.assignmentIndex(state.nextUserId());
+    }
+
+    @Benchmark
+    public AnalyticsCube.DepartmentTotals departmentTotals(BenchmarkState state) {
+        return state.analyticsCube.departmentTotals(state.nextDepartment());
+    }
+
+    @Benchmark
+    public AnalyticsCube.DepartmentTotals[] allDepartmentTotals(BenchmarkState state) {
+        return state.analyticsCube.departmentTotalsByCode();
+    }
+}
@@ -0,0 +1,53 @@
+package com.plantrack.benchmarks;
+
+import com.plantrack.backend.dto.BadgeDTO;
+import com.plantrack.backend.dto.DepartmentalInsightsDTO;
+import com.plantrack.backend.dto.GamifiedVelocityDTO;
+import com.plantrack.backend.dto.LeaderboardEntryDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AnalyticsService read paths, called directly (no HTTP, no result cache).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AnalyticsServiceBenchmark {
+
+    @Benchmark
+    public List<LeaderboardEntryDTO> leaderboard(BenchmarkState state) {
+        return state.analyticsService.getLeaderboard("OVERALL", null, 10);
+    }
+
+    @Benchmark
+    public List<LeaderboardEntryDTO> departmentLeaderboard(BenchmarkState state) {
+        return state.analyticsService.getLeaderboard("OVERALL", state.nextDepartment(), 10);
+    }
+
+    @Benchmark
+    public List<GamifiedVelocityDTO> allGamifiedVelocity(BenchmarkState state) {
+        return state.analyticsService.getAllGamifiedVelocity(null, null, null, null, null, null, null, null, null);
+    }
+
+    // Reads the persisted badges; rule evaluation is in BadgeEvaluationBenchmark
+    @Benchmark
+    public List<BadgeDTO> calculateBadges(BenchmarkState state) {
+        return state.analyticsService.calculateBadges(state.nextUserId());
+    }
+
+    @Benchmark
+    public List<DepartmentalInsightsDTO> departmentalInsights(BenchmarkState state) {
+        return state.analyticsService.getDepartmentalInsights();
+    }
+}
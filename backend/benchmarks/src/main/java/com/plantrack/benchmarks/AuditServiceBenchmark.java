@@ -0,0 +1,47 @@
+package com.plantrack.benchmarks;
+
+import com.plantrack.backend.dto.AuditLogPageDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AuditService.logStatusChange throughput from several request threads, outside any
+ * transaction. Compare -p auditAsync=false (one insert per call on the caller) with
+ * -p auditAsync=true (batch-inserted; when the journal or queue is full callers write
+ * their own entries, so the result is the sustained rate, not just the hand-over rate),
+ * and -p auditJournal=false,true for the in-memory queue against the mapped journal.
+ *
+ * getByEntity reads a page for one initiative, decoding the dictionary ids (action,
+ * actor, entity type, details template) of each row; run both against the commit before
+ * dictionary encoding for the insert and query throughput change.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AuditServiceBenchmark {
+
+    @Benchmark
+    public void logStatusChange(BenchmarkState state) {
+        long initiativeId = 1 + ThreadLocalRandom.current().nextInt(10_000);
+        state.auditService.logStatusChange("INITIATIVE", initiativeId, "IN_PROGRESS", "COMPLETED",
+                "Initiative '{}' status changed from {} to {}", "Initiative " + initiativeId, "IN_PROGRESS", "COMPLETED");
+    }
+
+    @Benchmark
+    public AuditLogPageDTO getByEntity(BenchmarkState state) {
+        long initiativeId = 1 + ThreadLocalRandom.current().nextInt(10_000);
+        return state.auditService.getByEntity("INITIATIVE", initiativeId, null, 50);
+    }
+}
@@ -0,0 +1,53 @@
+package com.plantrack.benchmarks;
+
+import com.plantrack.backend.event.InitiativeChangedEvent;
+import com.plantrack.backend.event.UserChangedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Badge rule evaluation for one event, through the BadgeAwardService listeners (each in
+ * its own transaction, as after a commit). The data is not changed between invocations,
+ * so this is the per-event cost of evaluation itself: the affected users' departments,
+ * the Rising Star and Speed Demon slices read from the rank trees, the current holders,
+ * the held-badge read and the rules. Awards and revocations only happen on the first pass.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BadgeEvaluationBenchmark {
+
+    // An initiative assigned to one user is completed
+    @Benchmark
+    public void initiativeCompleted(BenchmarkState state) {
+        long userId = state.nextUserId();
+        state.badgeAwardService.onInitiativeChanged(new InitiativeChangedEvent(1L, "IN_PROGRESS", "COMPLETED",
+                Set.of(userId), Set.of(userId), null, LocalDateTime.now()));
+    }
+
+    // An initiative moves between two users, changing both users' ranks, usually in two departments
+    @Benchmark
+    public void initiativeReassigned(BenchmarkState state) {
+        long from = state.nextUserId();
+        long to = state.nextUserId();
+        state.badgeAwardService.onInitiativeChanged(new InitiativeChangedEvent(1L, "IN_PROGRESS", "IN_PROGRESS",
+                Set.of(from), Set.of(to), null, null));
+    }
+
+    // A user update (e.g. a department move), re-ranking the user within the department
+    @Benchmark
+    public void userChanged(BenchmarkState state) {
+        state.badgeAwardService.onUserChanged(new UserChangedEvent(state.nextUserId(), false));
+    }
+}
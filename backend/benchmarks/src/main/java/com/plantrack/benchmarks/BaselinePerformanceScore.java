@@ -0,0 +1,106 @@
+package com.plantrack.benchmarks;
+
+import com.plantrack.backend.dto.PerformanceScoreDTO;
+import com.plantrack.backend.model.Initiative;
+import com.plantrack.backend.model.User;
+import com.plantrack.backend.repository.InitiativeRepository;
+import com.plantrack.backend.repository.UserRepository;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * AnalyticsService.calculatePerformanceScore as it was before the leaderboard trees and
+ * the analytics cube: every user's score is recomputed from a full initiative scan to
+ * rank one user, i.e. users + 1 calls of initiativeRepository.findAll() per request.
+ * Kept here, unchanged apart from the repositories being passed in, as the "before"
+ * side of PerformanceScoreBenchmark.
+ */
+final class BaselinePerformanceScore {
+
+    private final UserRepository userRepository;
+    private final InitiativeRepository initiativeRepository;
+
+    BaselinePerformanceScore(UserRepository userRepository, InitiativeRepository initiativeRepository) {
+        this.userRepository = userRepository;
+        this.initiativeRepository = initiativeRepository;
+    }
+
+    PerformanceScoreDTO calculatePerformanceScore(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        List<Initiative> userInitiatives = initiativesOf(userId);
+        int tasksAssigned = userInitiatives.size();
+        int tasksCompleted = (int) userInitiatives.stream()
+                .filter(i -> "COMPLETED".equalsIgnoreCase(i.getStatus()))
+                .count();
+        PerformanceScoreDTO own = score(user, tasksAssigned, tasksCompleted);
+
+        // Calculate actual ranks by comparing with all users
+        List<PerformanceScoreDTO> allScores = userRepository.findAll().stream()
+                .map(u -> {
+                    List<Initiative> uInitiatives = initiativesOf(u.getUserId());
+                    int uTasksCompleted = (int) uInitiatives.stream()
+                            .filter(i -> "COMPLETED".equalsIgnoreCase(i.getStatus()))
+                            .count();
+                    return score(u, uInitiatives.size(), uTasksCompleted);
+                })
+                .sorted(Comparator.comparing(PerformanceScoreDTO::getOverallScore).reversed())
+                .collect(Collectors.toList());
+
+        int rank = 1;
+        for (int i = 0; i < allScores.size(); i++) {
+            if (allScores.get(i).getUserId().equals(userId)) {
+                rank = i + 1;
+                break;
+            }
+        }
+
+        List<PerformanceScoreDTO> departmentScores = allScores.stream()
+                .filter(s -> user.getDepartment() != null &&
+                            s.getDepartment() != null &&
+                            s.getDepartment().equals(user.getDepartment()))
+                .sorted(Comparator.comparing(PerformanceScoreDTO::getOverallScore).reversed())
+                .collect(Collectors.toList());
+
+        int departmentRank = 1;
+        for (int i = 0; i < departmentScores.size(); i++) {
+            if (departmentScores.get(i).getUserId().equals(userId)) {
+                departmentRank = i + 1;
+                break;
+            }
+        }
+
+        double overallScore = own.getOverallScore();
+        String performanceTier = overallScore >= 85 ? "TOP_PERFORMER" :
+                                 overallScore >= 65 ? "CONSISTENT" : "NEEDS_IMPROVEMENT";
+        return new PerformanceScoreDTO(
+                userId, user.getName(), user.getDepartment(),
+                overallScore, own.getCompletionRate(), own.getSpeedScore(), own.getQualityScore(),
+                own.getConsistencyScore(), rank, departmentRank, rank, departmentRank,
+                performanceTier, 0.0
+        );
+    }
+
+    private List<Initiative> initiativesOf(Long userId) {
+        return initiativeRepository.findAll().stream()
+                .filter(i -> i.getAssignedUsers() != null && !i.getAssignedUsers().isEmpty() &&
+                        i.getAssignedUsers().stream()
+                                .anyMatch(assignedUser -> assignedUser.getUserId().equals(userId)))
+                .collect(Collectors.toList());
+    }
+
+    private static PerformanceScoreDTO score(User user, int tasksAssigned, int tasksCompleted) {
+        double completionRate = tasksAssigned > 0 ? ((double) tasksCompleted / tasksAssigned) * 100 : 0.0;
+        double averageTasksPerWeek = tasksCompleted / 8.0;
+        double speedScore = Math.min(100, (averageTasksPerWeek / 5.0) * 100);
+        double qualityScore = completionRate;
+        double consistencyScore = completionRate > 80 ? 90.0 : completionRate > 50 ? 70.0 : 50.0;
+        double overallScore = (completionRate * 0.4) + (speedScore * 0.3) + (qualityScore * 0.2) + (consistencyScore * 0.1);
+        return new PerformanceScoreDTO(user.getUserId(), user.getName(), user.getDepartment(),
+                overallScore, completionRate, speedScore, qualityScore, consistencyScore,
+                0, 0, 0, 0, "", 0.0);
+    }
+}
@@ -0,0 +1,202 @@
+package com.plantrack.benchmarks;
+
+import com.plantrack.backend.util.AuditTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic data generator for the benchmark database.
+ *
+ * The same scale and seed always produce the same rows (ids, departments, statuses,
+ * assignees, completion days). Dates are relative to the day of the run so the rolling
+ * windows (weekly/monthly velocity, streaks) see the same shape whenever it runs.
+ *
+ * Rows go straight in through JDBC batches with explicit ids; the application's startup
+ * rebuilds (analytics cube, leaderboard, rollups, streaks, badges) then pick them up.
+ */
+public final class BenchmarkDataset {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkDataset.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String[] PLAN_STATUSES = {"PLANNED", "IN_PROGRESS", "COMPLETED", "ON_HOLD", "CANCELLED"};
+    private static final String[] PLAN_PRIORITIES = {"LOW", "MEDIUM", "HIGH", "CRITICAL"};
+    private static final String[] MILESTONE_STATUSES = {"PLANNED", "IN_PROGRESS", "COMPLETED"};
+
+    /**
+     * Row counts: plans, milestones and initiatives are per parent row.
+     */
+    public record Scale(int users, int departments, int plansPerUser, int milestonesPerPlan,
+                        int initiativesPerMilestone, long seed) {}
+
+    public record Summary(int users, int plans, int milestones, int initiatives, int assignments) {}
+
+    private BenchmarkDataset() {}
+
+    public static Summary seed(JdbcTemplate jdbcTemplate, Scale scale) {
+        long startTime = System.currentTimeMillis();
+        Random random = new Random(scale.seed());
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+
+        Batch users = new Batch(jdbcTemplate, null,
+                "INSERT INTO users (user_id, name, email, password, department, role, status) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        for (int user = 1; user <= scale.users(); user++) {
+            users.add(user, "Bench User " + user, "bench" + user + "@plantrack.test", "Bench@123",
+                    departmentName(random.nextInt(scale.departments())),
+                    user == 1 ? "ADMIN" : (user % 10 == 0 ? "MANAGER" : "EMPLOYEE"), "ACTIVE");
+        }
+        users.flush();
+
+        Batch plans = new Batch(jdbcTemplate, null,
+                "INSERT INTO plans (plan_id, title, description, priority, status, start_date, end_date, user_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+        Batch milestones = new Batch(jdbcTemplate, plans,
+                "INSERT INTO milestones (milestone_id, title, due_date, completion_percent, status, plan_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)");
+        Batch initiatives = new Batch(jdbcTemplate, milestones,
+                "INSERT INTO initiatives (initiative_id, title, description, status, completed_at, milestone_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)");
+        Batch assignees = new Batch(jdbcTemplate, initiatives,
+                "INSERT INTO initiative_assignees (initiative_id, user_id) VALUES (?, ?)");
+
+        // audit_logs refers to actions, entity types, actors and details templates by audit_dictionary id
+        Batch actors = new Batch(jdbcTemplate, null, "INSERT INTO audit_dictionary (kind, name) VALUES ('ACTOR', ?)");
+        for (int user = 1; user <= scale.users(); user++) {
+            actors.add(String.valueOf(user));
+        }
+        actors.flush();
+        Map<String, Integer> actorIds = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM audit_dictionary WHERE kind = 'ACTOR'",
+                (RowCallbackHandler) rs -> actorIds.put(rs.getString(2), rs.getInt(1)));
+        Batch auditLogs = new Batch(jdbcTemplate, null,
+                "INSERT INTO audit_logs (action_id, actor_id, entity_type_id, entity_id, details_template_id, details_params, " +
+                "timestamp, old_value, new_value) VALUES (" + dictionaryId(jdbcTemplate, "ACTION", "UPDATE_STATUS") + ", ?, " +
+                dictionaryId(jdbcTemplate, "ENTITY_TYPE", "INITIATIVE") + ", ?, " +
+                dictionaryId(jdbcTemplate, "TEMPLATE", "Initiative '{}' status changed from {} to {}") +
+                ", ?, ?, 'IN_PROGRESS', 'COMPLETED')");
+
+        long planId = 0;
+        long milestoneId = 0;
+        long initiativeId = 0;
+        for (int owner = 1; owner <= scale.users(); owner++) {
+            for (int p = 0; p < scale.plansPerUser(); p++) {
+                planId++;
+                LocalDateTime start = today.minusDays(random.nextInt(365));
+                plans.add(planId, "Plan " + planId, "Benchmark plan " + planId,
+                        PLAN_PRIORITIES[random.nextInt(PLAN_PRIORITIES.length)],
+                        PLAN_STATUSES[random.nextInt(PLAN_STATUSES.length)],
+                        Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(90)), owner);
+
+                for (int m = 0; m < scale.milestonesPerPlan(); m++) {
+                    milestoneId++;
+                    milestones.add(milestoneId, "Milestone " + milestoneId,
+                            Timestamp.valueOf(start.plusDays(30L * (m + 1))),
+                            (double) (random.nextInt(5) * 25),
+                            MILESTONE_STATUSES[random.nextInt(MILESTONE_STATUSES.length)], planId);
+
+                    for (int i = 0; i < scale.initiativesPerMilestone(); i++) {
+                        initiativeId++;
+                        String status = initiativeStatus(random);
+                        Timestamp completedAt = null;
+                        if ("COMPLETED".equals(status)) {
+                            completedAt = Timestamp.valueOf(today.minusDays(random.nextInt(180))
+                                    .plusMinutes(random.nextInt(24 * 60)));
+                            auditLogs.add(actorIds.get(String.valueOf(owner)), initiativeId,
+                                    AuditTemplate.join("Initiative " + initiativeId, "IN_PROGRESS", "COMPLETED"), completedAt);
+                        }
+                        initiatives.add(initiativeId, "Initiative " + initiativeId, "Benchmark initiative " + initiativeId,
+                                status, completedAt, milestoneId);
+                        for (int assignee : assigneesFor(random, owner, scale.users())) {
+                            assignees.add(initiativeId, assignee);
+                        }
+                    }
+                }
+            }
+        }
+        assignees.flush();
+        auditLogs.flush();
+
+        Summary summary = new Summary(scale.users(), (int) planId, (int) milestoneId, (int) initiativeId, assignees.rows);
+        logger.info("Benchmark dataset seeded: users={}, plans={}, milestones={}, initiatives={}, assignments={}, duration={}ms",
+                summary.users(), summary.plans(), summary.milestones(), summary.initiatives(), summary.assignments(),
+                System.currentTimeMillis() - startTime);
+        return summary;
+    }
+
+    private static int dictionaryId(JdbcTemplate jdbcTemplate, String kind, String name) {
+        jdbcTemplate.update("INSERT INTO audit_dictionary (kind, name) VALUES (?, ?)", kind, name);
+        return jdbcTemplate.queryForObject("SELECT id FROM audit_dictionary WHERE kind = ? AND name = ?",
+                Integer.class, kind, name);
+    }
+
+    public static String departmentName(int index) {
+        return String.format("Department-%02d", index);
+    }
+
+    // 40% completed, 35% in progress, 25% planned
+    private static String initiativeStatus(Random random) {
+        int roll = random.nextInt(100);
+        return roll < 40 ? "COMPLETED" : (roll < 75 ? "IN_PROGRESS" : "PLANNED");
+    }
+
+    // One to three distinct users; the plan owner is the first assignee half of the time
+    private static Set<Integer> assigneesFor(Random random, int owner, int users) {
+        int count = Math.min(users, 1 + random.nextInt(3));
+        Set<Integer> assignees = new LinkedHashSet<>();
+        if (random.nextBoolean()) {
+            assignees.add(owner);
+        }
+        while (assignees.size() < count) {
+            assignees.add(1 + random.nextInt(users));
+        }
+        return assignees;
+    }
+
+    // Buffers rows for one insert statement and writes them BATCH_SIZE at a time; the
+    // parent (the table the rows reference) is always flushed first
+    private static final class Batch {
+        private final JdbcTemplate jdbcTemplate;
+        private final Batch parent;
+        private final String sql;
+        private final List<Object[]> pending = new ArrayList<>(BATCH_SIZE);
+        private int rows;
+
+        Batch(JdbcTemplate jdbcTemplate, Batch parent, String sql) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.parent = parent;
+            this.sql = sql;
+        }
+
+        void add(Object... values) {
+            pending.add(values);
+            rows++;
+            if (pending.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (parent != null) {
+                parent.flush();
+            }
+            if (!pending.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, pending);
+                pending.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.plantrack.benchmarks;
+
+import com.plantrack.backend.BackendApplication;
+import com.plantrack.backend.repository.InitiativeRepository;
+import com.plantrack.backend.repository.UserRepository;
+import com.plantrack.backend.service.AnalyticsCube;
+import com.plantrack.backend.service.AnalyticsService;
+import com.plantrack.backend.service.AuditService;
+import com.plantrack.backend.service.BadgeAwardService;
+import com.plantrack.backend.service.ReportService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A running main-service against an embedded H2 database (MySQL mode) holding a seeded
+ * dataset, shared by every benchmark invocation of a trial.
+ *
+ * Setup starts the application twice: once to let Hibernate create the schema and seed
+ * it, then again on the seeded database so every startup rebuild (analytics cube,
+ * leaderboard trees, completion rollup, streaks, badges) runs the way it does in
+ * production. Benchmarks call the services directly, so HTTP and the result cache are
+ * not measured.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkState {
+
+    // Before/after comparisons run at all three; narrow with e.g. -p users=1000
+    @Param({"1000", "10000", "50000"})
+    public int users;
+
+    @Param("10")
+    public int departments;
+
+    @Param("3")
+    public int plansPerUser;
+
+    @Param("3")
+    public int milestonesPerPlan;
+
+    @Param("4")
+    public int initiativesPerMilestone;
+
+    @Param("42")
+    public long seed;
+
+    // audit.writer.async; run with -p auditAsync=false,true to compare inline and batched audit writes
+    @Param("true")
+    public boolean auditAsync;
+
+    // audit.journal.enabled (with auditAsync); -p auditJournal=false,true compares the in-memory queue and the journal
+    @Param("true")
+    public boolean auditJournal;
+
+    public AnalyticsService analyticsService;
+    public AnalyticsCube analyticsCube;
+    public ReportService reportService;
+    public AuditService auditService;
+    public BadgeAwardService badgeAwardService;
+    // calculatePerformanceScore as it was before the rank trees, for PerformanceScoreBenchmark
+    BaselinePerformanceScore baselinePerformanceScore;
+
+    // Rotated through by the per-user / per-department benchmarks
+    public long[] userIds;
+    public String[] departmentNames;
+
+    private ConfigurableApplicationContext context;
+    // Local audit journal, search index and archive of the trial
+    private Path dataDir;
+    private int nextUser;
+    private int nextDepartment;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("plantrack-bench-data");
+        BenchmarkDataset.Scale scale = new BenchmarkDataset.Scale(users, departments, plansPerUser,
+                milestonesPerPlan, initiativesPerMilestone, seed);
+
+        try (ConfigurableApplicationContext schema = start("create")) {
+            BenchmarkDataset.seed(schema.getBean(JdbcTemplate.class), scale);
+        }
+        context = start("none");
+        analyticsService = context.getBean(AnalyticsService.class);
+        analyticsCube = context.getBean(AnalyticsCube.class);
+        reportService = context.getBean(ReportService.class);
+        auditService = context.getBean(AuditService.class);
+        badgeAwardService = context.getBean(BadgeAwardService.class);
+        baselinePerformanceScore = new BaselinePerformanceScore(context.getBean(UserRepository.class),
+                context.getBean(InitiativeRepository.class));
+
+        Random random = new Random(seed);
+        userIds = new long[Math.min(users, 256)];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = 1 + random.nextInt(users);
+        }
+        departmentNames = analyticsService.getAllDepartments().toArray(new String[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    public long nextUserId() {
+        long userId = userIds[nextUser];
+        nextUser = (nextUser + 1) % userIds.length;
+        return userId;
+    }
+
+    public String nextDepartment() {
+        String department = departmentNames[nextDepartment];
+        nextDepartment = (nextDepartment + 1) % departmentNames.length;
+        return department;
+    }
+
+    private ConfigurableApplicationContext start(String ddlAuto) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url",
+                "jdbc:h2:mem:plantrack-bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.hibernate.ddl-auto", ddlAuto);
+        properties.put("spring.jpa.show-sql", "false");
+        // H2 has no MySQL-style row streaming; a positive fetch size is the closest equivalent
+        properties.put("analytics.cube.fetch-size", "1000");
+        properties.put("audit.writer.async", String.valueOf(auditAsync));
+        properties.put("audit.journal.enabled", String.valueOf(auditJournal));
+        properties.put("audit.journal.dir", dataDir.resolve("audit-journal").toString());
+        properties.put("audit.search.dir", dataDir.resolve("audit-search").toString());
+        properties.put("audit.archive.dir", dataDir.resolve("audit-archive").toString());
+        properties.put("eureka.client.enabled", "false");
+        properties.put("spring.cloud.discovery.enabled", "false");
+        properties.put("server.port", "0");
+        properties.put("jwt.secret", "benchmark-only-secret-benchmark-only-secret-0123456789");
+        properties.put("jwt.expiration-ms", "3600000");
+        properties.put("logging.level.com.plantrack.backend", "WARN");
+
+        // Passed as command-line arguments so they win over main-service's application.properties
+        String[] args = properties.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(BackendApplication.class).run(args);
+    }
+}
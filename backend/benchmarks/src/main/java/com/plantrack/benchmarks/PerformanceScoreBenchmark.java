@@ -0,0 +1,42 @@
+package com.plantrack.benchmarks;
+
+import com.plantrack.backend.dto.PerformanceScoreDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One user's performance score, before (a full initiative scan per user ranked) and after
+ * (the analytics cube's assignment index plus the leaderboard trees), at the
+ * BenchmarkState user counts.
+ *
+ * The baseline costs O(users x initiatives) per call, so it runs as single shots; at
+ * 50k users one call scans 1.8M initiatives 50,001 times and is best left to a long run
+ * on its own (see the pom for the command).
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class PerformanceScoreBenchmark {
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public PerformanceScoreDTO current(BenchmarkState state) {
+        return state.analyticsService.calculatePerformanceScore(state.nextUserId(), null);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public PerformanceScoreDTO baseline(BenchmarkState state) {
+        return state.baselinePerformanceScore.calculatePerformanceScore(state.nextUserId());
+    }
+}
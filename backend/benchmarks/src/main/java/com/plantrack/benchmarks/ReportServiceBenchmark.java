@@ -0,0 +1,29 @@
+package com.plantrack.benchmarks;
+
+import com.plantrack.backend.model.Report;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReportService.generateDepartmentReport, rotating through the seeded departments.
+ * Each call saves a report row, as it does in production.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReportServiceBenchmark {
+
+    @Benchmark
+    public Report generateDepartmentReport(BenchmarkState state) {
+        return state.reportService.generateDepartmentReport(state.nextDepartment());
+    }
+}
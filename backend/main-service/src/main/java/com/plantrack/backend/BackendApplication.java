@@ -4,12 +4,14 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 
 @EnableDiscoveryClient
 @SpringBootApplication
 @EnableJpaAuditing // <--- Enables automatic dates (CreatedDate)
 @EnableFeignClients()
+@EnableScheduling // Score snapshots and other periodic analytics jobs
 public class BackendApplication {
 
 	public static void main(String[] args) {
@@ -13,6 +13,9 @@ public class FeignAuthForwardingConfig {
     @Bean
     public RequestInterceptor authForwardingInterceptor() {
         return template -> {
+            // Calls that set their own credentials (scheduled jobs) keep them
+            if (template.headers().containsKey("Authorization")) return;
+
             ServletRequestAttributes attrs =
                     (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
 
@@ -89,6 +89,10 @@ public class SecurityConfig {
                 // 9. AUDIT LOGS (Admin only)
                 .requestMatchers("/api/audit-logs/**").hasRole("ADMIN")
 
+                // 10. ACTUATOR (health is public for probes, metrics are Admin only)
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                 .anyRequest().authenticated()
             )
             .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
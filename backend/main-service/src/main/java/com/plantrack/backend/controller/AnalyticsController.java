@@ -1,13 +1,17 @@
 package com.plantrack.backend.controller;
 
 import com.plantrack.backend.dto.*;
+import com.plantrack.backend.service.AnalyticsResultCache;
 import com.plantrack.backend.service.AnalyticsService;
+import com.plantrack.backend.service.LeaderboardService;
+import com.plantrack.backend.service.StreakService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
@@ -16,6 +20,15 @@ public class AnalyticsController {
     @Autowired
     private AnalyticsService analyticsService;
 
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private AnalyticsResultCache resultCache;
+
+    @Autowired
+    private StreakService streakService;
+
     // Get Dashboard Statistics
     @GetMapping("/dashboard/stats")
     public ResponseEntity<DashboardStatsDTO> getDashboardStats() {
@@ -25,28 +38,30 @@ public class AnalyticsController {
     // Get Analytics for a specific User
     @GetMapping("/users/{userId}/analytics")
     public ResponseEntity<AnalyticsDTO> getUserAnalytics(@PathVariable Long userId) {
-        return ResponseEntity.ok(analyticsService.getUserAnalytics(userId));
+        return ResponseEntity.ok(resultCache.get("user-analytics",
+                () -> analyticsService.getUserAnalytics(userId), userId));
     }
 
     // Get Departmental Insights (All authenticated users for gamification)
     @GetMapping("/analytics/departmental-insights")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
     public ResponseEntity<List<DepartmentalInsightsDTO>> getDepartmentalInsights() {
-        return ResponseEntity.ok(analyticsService.getDepartmentalInsights());
+        return ResponseEntity.ok(resultCache.get("departmental-insights", analyticsService::getDepartmentalInsights));
     }
 
     // Get Velocity Metrics for a specific user
     @GetMapping("/analytics/velocity/{userId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public ResponseEntity<VelocityMetricsDTO> getUserVelocity(@PathVariable Long userId) {
-        return ResponseEntity.ok(analyticsService.getUserVelocity(userId));
+        return ResponseEntity.ok(resultCache.get("velocity",
+                () -> analyticsService.getUserVelocity(userId), userId));
     }
 
     // Get Velocity Metrics for all users (Admin only)
     @GetMapping("/analytics/velocity")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<VelocityMetricsDTO>> getAllUsersVelocity() {
-        return ResponseEntity.ok(analyticsService.getAllUsersVelocity());
+        return ResponseEntity.ok(resultCache.get("velocity-all", analyticsService::getAllUsersVelocity));
     }
 
     // ============================================================
@@ -66,25 +81,50 @@ public class AnalyticsController {
             @RequestParam(required = false) String performanceTier,
             @RequestParam(required = false) String sortBy,
             @RequestParam(required = false, defaultValue = "desc") String sortOrder) {
-        return ResponseEntity.ok(analyticsService.getAllGamifiedVelocity(
+        return ResponseEntity.ok(resultCache.get("gamified-velocity",
+                () -> analyticsService.getAllGamifiedVelocity(
+                        department, search, minCompletionRate, maxCompletionRate,
+                        minTasks, maxTasks, performanceTier, sortBy, sortOrder),
                 department, search, minCompletionRate, maxCompletionRate,
                 minTasks, maxTasks, performanceTier, sortBy, sortOrder));
     }
 
+    // Get one keyset-paginated page of gamified velocity (filters evaluated in the database).
+    // search matches a case-insensitive substring of name or department, as /gamified-velocity
+    // does; department and performanceTier match case-insensitively here, but exactly there
+    @GetMapping("/analytics/gamified-velocity/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
+    public ResponseEntity<GamifiedVelocityPageDTO> getGamifiedVelocityPage(
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Double minCompletionRate,
+            @RequestParam(required = false) Double maxCompletionRate,
+            @RequestParam(required = false) Integer minTasks,
+            @RequestParam(required = false) Integer maxTasks,
+            @RequestParam(required = false) String performanceTier,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") int size) {
+        return ResponseEntity.ok(analyticsService.getGamifiedVelocityPage(
+                department, search, minCompletionRate, maxCompletionRate,
+                minTasks, maxTasks, performanceTier, cursor, size));
+    }
+
     // Get performance score for a specific user
     @GetMapping("/analytics/performance-score/{userId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public ResponseEntity<PerformanceScoreDTO> getPerformanceScore(
             @PathVariable Long userId,
             @RequestParam(required = false) String department) {
-        return ResponseEntity.ok(analyticsService.calculatePerformanceScore(userId, department));
+        return ResponseEntity.ok(resultCache.get("performance-score",
+                () -> analyticsService.calculatePerformanceScore(userId, department), userId, department));
     }
 
     // Get badges for a specific user
     @GetMapping("/analytics/badges/{userId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
     public ResponseEntity<List<BadgeDTO>> getUserBadges(@PathVariable Long userId) {
-        return ResponseEntity.ok(analyticsService.calculateBadges(userId));
+        return ResponseEntity.ok(resultCache.get("badges",
+                () -> analyticsService.calculateBadges(userId), userId));
     }
 
     // Get leaderboard
@@ -94,14 +134,29 @@ public class AnalyticsController {
             @RequestParam(required = false, defaultValue = "OVERALL") String metricType,
             @RequestParam(required = false) String department,
             @RequestParam(required = false, defaultValue = "50") int limit) {
-        return ResponseEntity.ok(analyticsService.getLeaderboard(metricType, department, limit));
+        return ResponseEntity.ok(resultCache.get("leaderboard",
+                () -> analyticsService.getLeaderboard(metricType, department, limit), metricType, department, limit));
+    }
+
+    // Compare the incremental leaderboard against a full recompute (Admin only)
+    @GetMapping("/analytics/leaderboard/consistency")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> verifyLeaderboard() {
+        return ResponseEntity.ok(leaderboardService.verifyConsistency());
+    }
+
+    // Rebuild activity streak bitmaps from the audit log (Admin only)
+    @PostMapping("/analytics/streaks/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildStreaks() {
+        return ResponseEntity.ok(streakService.rebuildFromAudit());
     }
 
     // Get all departments
     @GetMapping("/analytics/departments")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
     public ResponseEntity<List<String>> getAllDepartments() {
-        return ResponseEntity.ok(analyticsService.getAllDepartments());
+        return ResponseEntity.ok(resultCache.get("departments", analyticsService::getAllDepartments));
     }
 
     // Get gamified velocity for a specific user
@@ -110,6 +165,7 @@ public class AnalyticsController {
     public ResponseEntity<GamifiedVelocityDTO> getUserGamifiedVelocity(
             @PathVariable Long userId,
             @RequestParam(required = false) String department) {
-        return ResponseEntity.ok(analyticsService.getGamifiedVelocity(userId, department));
+        return ResponseEntity.ok(resultCache.get("gamified-velocity-user",
+                () -> analyticsService.getGamifiedVelocity(userId, department), userId, department));
     }
 }
\ No newline at end of file
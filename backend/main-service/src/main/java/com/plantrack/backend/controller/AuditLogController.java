@@ -1,68 +1,142 @@
 package com.plantrack.backend.controller;
 
-import com.plantrack.backend.model.AuditLog;
-import com.plantrack.backend.repository.AuditLogRepository;
+import com.plantrack.backend.dto.AuditLogPageDTO;
+import com.plantrack.backend.service.AuditArchiveService;
+import com.plantrack.backend.service.AuditSearchService;
+import com.plantrack.backend.service.AuditService;
+import com.plantrack.backend.service.ExportService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/audit-logs")
 public class AuditLogController {
 
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditService auditService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private AuditArchiveService auditArchiveService;
+
+    @Autowired
+    private AuditSearchService auditSearchService;
+
+    // Every listing is a keyset page, newest first; pass nextCursor back as ?cursor= for the next page
+    // GET /api/audit-logs?size=50&cursor=...
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<AuditLog>> getAllAuditLogs() {
-        return ResponseEntity.ok(auditLogRepository.findAll());
+    public ResponseEntity<AuditLogPageDTO> getAllAuditLogs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(auditService.getAuditLogs(cursor, size));
     }
 
     @GetMapping("/entity/{entityType}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<AuditLog>> getByEntityType(@PathVariable String entityType) {
-        return ResponseEntity.ok(auditLogRepository.findByEntityTypeOrderByTimestampDesc(entityType));
+    public ResponseEntity<AuditLogPageDTO> getByEntityType(
+            @PathVariable String entityType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(auditService.getByEntityType(entityType, cursor, size));
     }
 
     @GetMapping("/user/{performedBy}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<AuditLog>> getByUser(@PathVariable String performedBy) {
-        return ResponseEntity.ok(auditLogRepository.findByPerformedByOrderByTimestampDesc(performedBy));
+    public ResponseEntity<AuditLogPageDTO> getByUser(
+            @PathVariable String performedBy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(auditService.getByUser(performedBy, cursor, size));
     }
 
     @GetMapping("/action/{action}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<AuditLog>> getByAction(@PathVariable String action) {
-        return ResponseEntity.ok(auditLogRepository.findByActionOrderByTimestampDesc(action));
+    public ResponseEntity<AuditLogPageDTO> getByAction(
+            @PathVariable String action,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(auditService.getByAction(action, cursor, size));
     }
 
     @GetMapping("/entity/{entityType}/{entityId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<AuditLog>> getByEntity(@PathVariable String entityType, @PathVariable Long entityId) {
-        return ResponseEntity.ok(auditLogRepository.findByEntityTypeAndEntityIdOrderByTimestampDesc(entityType, entityId));
+    public ResponseEntity<AuditLogPageDTO> getByEntity(
+            @PathVariable String entityType,
+            @PathVariable Long entityId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(auditService.getByEntity(entityType, entityId, cursor, size));
     }
 
     @GetMapping("/date-range")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<AuditLog>> getByDateRange(
+    public ResponseEntity<AuditLogPageDTO> getByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        return ResponseEntity.ok(auditLogRepository.findByDateRange(startDate, endDate));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(auditService.getByDateRange(startDate, endDate, cursor, size));
     }
 
     @GetMapping("/user/{performedBy}/date-range")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<AuditLog>> getByUserAndDateRange(
+    public ResponseEntity<AuditLogPageDTO> getByUserAndDateRange(
             @PathVariable String performedBy,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        return ResponseEntity.ok(auditLogRepository.findByUserAndDateRange(performedBy, startDate, endDate));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(auditService.getByUserAndDateRange(performedBy, startDate, endDate, cursor, size));
     }
-}
 
+    // Full-text search over details, oldValue and newValue: words, "phrases" and prefix* (all required), newest first
+    // GET /api/audit-logs/search?q="status from" plan*&entityType=PLAN&startDate=...&endDate=...&size=50
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AuditLogPageDTO> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String performedBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(auditSearchService.search(q, entityType, action, performedBy, startDate, endDate,
+                cursor, size));
+    }
+
+    // Stream audit logs as CSV or NDJSON (optionally gzip-encoded) without buffering them
+    // GET /api/audit-logs/export?format=ndjson&entityType=PLAN&startDate=...&endDate=...&gzip=true
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportService.Format exportFormat = ExportService.Format.of(format);
+        return ExportResponses.stream("audit-logs", exportFormat, gzip,
+                out -> exportService.exportAuditLogs(exportFormat, out, entityType, startDate, endDate));
+    }
+
+    // Add upcoming monthly partitions and archive expired months now instead of waiting for the nightly run
+    // POST /api/audit-logs/archive
+    @PostMapping("/archive")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> archive() {
+        return ResponseEntity.ok(auditArchiveService.maintain(LocalDate.now()));
+    }
+}
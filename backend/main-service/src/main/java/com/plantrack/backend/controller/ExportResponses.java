@@ -0,0 +1,49 @@
+package com.plantrack.backend.controller;
+
+import com.plantrack.backend.service.ExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Builds the streaming response for the export endpoints: content type, attachment file
+ * name and, when requested, gzip content encoding applied while the rows are written.
+ */
+final class ExportResponses {
+
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    interface ExportBody {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private ExportResponses() {}
+
+    static ResponseEntity<StreamingResponseBody> stream(String name, ExportService.Format format, boolean gzip,
+                                                        ExportBody body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, format.contentType() + ";charset=UTF-8");
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(name + "." + format.extension())
+                .build());
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        StreamingResponseBody stream = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                body.writeTo(compressed);
+                compressed.finish();
+            } else {
+                body.writeTo(out);
+            }
+        };
+        return ResponseEntity.ok().headers(headers).body(stream);
+    }
+}
@@ -1,6 +1,7 @@
 package com.plantrack.backend.controller;
 
 import com.plantrack.backend.model.Plan;
+import com.plantrack.backend.service.ExportService;
 import com.plantrack.backend.service.PlanService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -14,6 +15,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -27,6 +29,9 @@ public class PlanController {
     @Autowired
     private PlanService planService;
 
+    @Autowired
+    private ExportService exportService;
+
     @PostMapping("/users/{userId}/plans")
     public ResponseEntity<Plan> createPlan(@PathVariable Long userId, @Valid @RequestBody Plan plan) {
         return ResponseEntity.ok(planService.createPlan(userId, plan));
@@ -41,6 +46,18 @@ public class PlanController {
         return ResponseEntity.ok(planService.getAllPlans(pageable));
     }
 
+    // Stream plans as CSV or NDJSON (optionally gzip-encoded), optionally for one owner
+    // GET /api/plans/export?format=ndjson&userId=5&gzip=true
+    @GetMapping("/plans/export")
+    public ResponseEntity<StreamingResponseBody> exportPlans(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportService.Format exportFormat = ExportService.Format.of(format);
+        return ExportResponses.stream("plans", exportFormat, gzip,
+                out -> exportService.exportPlans(exportFormat, out, userId));
+    }
+
     @GetMapping("/users/{userId}/plans")
     public ResponseEntity<List<Plan>> getPlansByUser(@PathVariable Long userId) {
         return ResponseEntity.ok(planService.getPlansByUserId(userId));
@@ -1,11 +1,21 @@
 package com.plantrack.backend.controller;
 
 import com.plantrack.backend.model.Report;
+import com.plantrack.backend.service.ExportService;
+import com.plantrack.backend.service.ReportRetentionService;
 import com.plantrack.backend.service.ReportService;
+import com.plantrack.backend.service.WeeklyDigestService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -14,6 +24,15 @@ public class ReportController {
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private ReportRetentionService reportRetentionService;
+
+    @Autowired
+    private WeeklyDigestService weeklyDigestService;
+
+    @Autowired
+    private ExportService exportService;
+
     // Generate a new report for a department
     // POST /api/reports/generate?department=IT
     @PostMapping("/generate")
@@ -21,10 +40,60 @@ public class ReportController {
         return reportService.generateDepartmentReport(department);
     }
 
-    // Get history of reports for a department
-    // GET /api/reports?department=IT
+    // Generate reports for every department in one batch (one read of the cube, one transaction)
+    // POST /api/reports/generate-all
+    @PostMapping("/generate-all")
+    public Map<String, Object> generateAllReports() {
+        return reportService.generateAllDepartmentReports();
+    }
+
+    // Compare the maintained report counters with a full recompute from the database (Admin only:
+    // four full scans, and confirmed drift rebuilds the analytics cube under its write lock)
+    // POST /api/reports/verify-drift
+    @PostMapping("/verify-drift")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> verifyDrift() {
+        return reportService.verifyDrift();
+    }
+
+    // Deliver last week's analytics digest to admins now (no-op if that week was already delivered)
+    // POST /api/reports/weekly-digest
+    @PostMapping("/weekly-digest")
+    public Map<String, Object> deliverWeeklyDigest() {
+        return weeklyDigestService.deliverLastWeek();
+    }
+
+    // Get one page of a department's report history, newest first, optionally date-bounded
+    // GET /api/reports?department=IT&from=2025-01-01T00:00:00&to=2025-04-01T00:00:00&granularity=WEEKLY&page=0&size=20
     @GetMapping
-    public List<Report> getReports(@RequestParam String department) {
-        return reportService.getReportsByDepartment(department);
+    public Page<Report> getReports(
+            @RequestParam String department,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String granularity,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return reportService.getReportsByDepartment(department, from, to, granularity, page, size);
+    }
+
+    // Fold expired raw reports into weekly and weekly into monthly aggregates now (Admin only:
+    // the raw rows are deleted for good)
+    // POST /api/reports/retention
+    @PostMapping("/retention")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> applyRetention() {
+        return reportRetentionService.applyRetention(LocalDate.now());
+    }
+
+    // Stream report history as CSV or NDJSON (optionally gzip-encoded), all departments by default
+    // GET /api/reports/export?format=csv&department=IT&gzip=true
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReports(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String department,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportService.Format exportFormat = ExportService.Format.of(format);
+        return ExportResponses.stream("reports", exportFormat, gzip,
+                out -> exportService.exportReports(exportFormat, out, department));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package com.plantrack.backend.dto;
+
+import com.plantrack.backend.model.AuditLog;
+
+import java.util.List;
+
+public class AuditLogPageDTO {
+    private List<AuditLog> items;
+    private int size;
+    private boolean hasMore;
+    private String nextCursor; // Pass back as ?cursor= to fetch the following page; null on the last page
+
+    public AuditLogPageDTO() {}
+
+    public AuditLogPageDTO(List<AuditLog> items, int size, boolean hasMore, String nextCursor) {
+        this.items = items;
+        this.size = size;
+        this.hasMore = hasMore;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<AuditLog> getItems() { return items; }
+    public void setItems(List<AuditLog> items) { this.items = items; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
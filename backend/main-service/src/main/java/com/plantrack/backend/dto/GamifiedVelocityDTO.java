@@ -19,6 +19,7 @@ public class GamifiedVelocityDTO {
     private double improvementPercentage;
     private int streakDays;
     private int streakWeeks;
+    private int longestStreakDays;
 
     public GamifiedVelocityDTO() {}
 
@@ -27,7 +28,8 @@ public class GamifiedVelocityDTO {
                                double averageTasksPerWeek, double averageTasksPerMonth,
                                double overallScore, int rank, int departmentRank,
                                String performanceTier, List<BadgeDTO> badges,
-                               double improvementPercentage, int streakDays, int streakWeeks) {
+                               double improvementPercentage, int streakDays, int streakWeeks,
+                               int longestStreakDays) {
         this.userId = userId;
         this.userName = userName;
         this.department = department;
@@ -44,6 +46,7 @@ public class GamifiedVelocityDTO {
         this.improvementPercentage = improvementPercentage;
         this.streakDays = streakDays;
         this.streakWeeks = streakWeeks;
+        this.longestStreakDays = longestStreakDays;
     }
 
     // Getters and Setters
@@ -94,5 +97,8 @@ public class GamifiedVelocityDTO {
 
     public int getStreakWeeks() { return streakWeeks; }
     public void setStreakWeeks(int streakWeeks) { this.streakWeeks = streakWeeks; }
+
+    public int getLongestStreakDays() { return longestStreakDays; }
+    public void setLongestStreakDays(int longestStreakDays) { this.longestStreakDays = longestStreakDays; }
 }
 
@@ -0,0 +1,32 @@
+package com.plantrack.backend.dto;
+
+import java.util.List;
+
+public class GamifiedVelocityPageDTO {
+    private List<GamifiedVelocityDTO> items;
+    private int size;
+    private boolean hasMore;
+    private String nextCursor; // Pass back as ?cursor= to fetch the following page; null on the last page
+
+    public GamifiedVelocityPageDTO() {}
+
+    public GamifiedVelocityPageDTO(List<GamifiedVelocityDTO> items, int size, boolean hasMore, String nextCursor) {
+        this.items = items;
+        this.size = size;
+        this.hasMore = hasMore;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<GamifiedVelocityDTO> getItems() { return items; }
+    public void setItems(List<GamifiedVelocityDTO> items) { this.items = items; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
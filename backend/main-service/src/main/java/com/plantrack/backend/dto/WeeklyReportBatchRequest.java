@@ -0,0 +1,15 @@
+package com.plantrack.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeeklyReportBatchRequest {
+    private String digestKey; // e.g. "weekly-report:2025-03-10"; the receiver skips admins it already has for this key
+    private List<WeeklyReportRequest> reports;
+}
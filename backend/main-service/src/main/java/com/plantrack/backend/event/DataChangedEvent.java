@@ -0,0 +1,8 @@
+package com.plantrack.backend.event;
+
+/**
+ * Published after any plan or milestone write (create, update, cancel, delete).
+ * Used to invalidate cached analytics that do not need per-initiative detail.
+ */
+public record DataChangedEvent(String entityType, Long entityId) {
+}
@@ -0,0 +1,65 @@
+package com.plantrack.backend.event;
+
+import com.plantrack.backend.model.Initiative;
+import com.plantrack.backend.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Published whenever an initiative's status or assignees change (including create,
+ * cascade cancellation and deletion). Analytics components listen to this to keep
+ * their in-memory structures current without rescanning the initiatives table.
+ *
+ * A null newStatus with no new assignees means the initiative was deleted.
+ * The completedAt pair is the completion timestamp before and after the change
+ * (null while the initiative is not completed).
+ */
+public record InitiativeChangedEvent(Long initiativeId,
+                                     String oldStatus,
+                                     String newStatus,
+                                     Set<Long> oldAssigneeIds,
+                                     Set<Long> newAssigneeIds,
+                                     LocalDateTime oldCompletedAt,
+                                     LocalDateTime newCompletedAt) {
+
+    public InitiativeChangedEvent {
+        oldAssigneeIds = oldAssigneeIds != null ? Set.copyOf(oldAssigneeIds) : Collections.emptySet();
+        newAssigneeIds = newAssigneeIds != null ? Set.copyOf(newAssigneeIds) : Collections.emptySet();
+    }
+
+    public boolean statusChanged() {
+        return !Objects.equals(oldStatus, newStatus);
+    }
+
+    public boolean assigneesChanged() {
+        return !oldAssigneeIds.equals(newAssigneeIds);
+    }
+
+    public boolean completionChanged() {
+        return !Objects.equals(oldCompletedAt, newCompletedAt);
+    }
+
+    /**
+     * Every user whose counters may have moved: previous and current assignees.
+     */
+    public Set<Long> affectedUserIds() {
+        Set<Long> affected = new HashSet<>(oldAssigneeIds);
+        affected.addAll(newAssigneeIds);
+        return affected;
+    }
+
+    public static Set<Long> assigneeIdsOf(Initiative initiative) {
+        if (initiative.getAssignedUsers() == null) {
+            return Collections.emptySet();
+        }
+        return initiative.getAssignedUsers().stream()
+                .map(User::getUserId)
+                .filter(userId -> userId != null)
+                .collect(Collectors.toSet());
+    }
+}
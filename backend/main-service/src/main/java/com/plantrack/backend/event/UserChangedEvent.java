@@ -0,0 +1,7 @@
+package com.plantrack.backend.event;
+
+/**
+ * Published when a user is created, updated (name/department/status) or deleted.
+ */
+public record UserChangedEvent(Long userId, boolean deleted) {
+}
@@ -3,11 +3,13 @@ package com.plantrack.backend.feign;
 import com.plantrack.backend.dto.CreateNotificationRequest;
 import com.plantrack.backend.dto.InitiativeAssignedRequest;
 import com.plantrack.backend.dto.StatusUpdateRequest;
+import com.plantrack.backend.dto.WeeklyReportBatchRequest;
 import com.plantrack.backend.dto.WeeklyReportRequest;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @FeignClient("notification-service")
@@ -27,4 +29,10 @@ public interface NotificationService {
     @PostMapping("/api/notifications/weekly-report")
     @ResponseStatus(HttpStatus.CREATED)
     public void notifyWeeklyReport(@RequestBody WeeklyReportRequest req);
+
+    // Called from scheduled jobs, so the caller supplies the Authorization header
+    @PostMapping("/api/notifications/weekly-report/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public void notifyWeeklyReports(@RequestHeader("Authorization") String authorization,
+                                    @RequestBody WeeklyReportBatchRequest req);
 }
@@ -0,0 +1,44 @@
+package com.plantrack.backend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * A string audit_logs refers to by id: an action, entity type, actor or details template.
+ * Entries are only ever added, so an id keeps its value for as long as logs refer to it.
+ */
+@Entity
+@Table(name = "audit_dictionary", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_audit_dictionary_kind_name", columnNames = {"kind", "name"})
+})
+public class AuditDictionaryEntry {
+
+    public enum Kind { ACTION, ENTITY_TYPE, ACTOR, TEMPLATE }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Kind kind;
+
+    @Column(nullable = false, length = 500)
+    private String name;
+
+    public AuditDictionaryEntry() {}
+
+    public AuditDictionaryEntry(Kind kind, String name) {
+        this.kind = kind;
+        this.name = name;
+    }
+
+    // Getters and Setters
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+
+    public Kind getKind() { return kind; }
+    public void setKind(Kind kind) { this.kind = kind; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+}
@@ -0,0 +1,42 @@
+package com.plantrack.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * How far a local audit journal has been drained into audit_logs. One row per journal
+ * (each instance has its own, identified by the id in its directory); the audit writer
+ * moves the position in the same transaction as the entries it inserts.
+ */
+@Entity
+@Table(name = "audit_journal_checkpoints")
+public class AuditJournalCheckpoint {
+
+    @Id
+    @Column(name = "journal_id", length = 36)
+    private String journalId;
+
+    @Column(nullable = false)
+    private long position;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public AuditJournalCheckpoint() {}
+
+    public AuditJournalCheckpoint(String journalId, long position, LocalDateTime updatedAt) {
+        this.journalId = journalId;
+        this.position = position;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+    public String getJournalId() { return journalId; }
+    public void setJournalId(String journalId) { this.journalId = journalId; }
+
+    public long getPosition() { return position; }
+    public void setPosition(long position) { this.position = position; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -1,29 +1,62 @@
 package com.plantrack.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.plantrack.backend.util.AuditTemplate;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
+/**
+ * An audit log row. Action, actor, entity type and the details template are stored as
+ * audit_dictionary ids; the strings are filled in by AuditDictionary on write and read.
+ * Details are the template rendered with the row's parameters.
+ */
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        // Keyset pages are ordered by (timestamp, id); InnoDB appends the id to every secondary index
+        @Index(name = "idx_audit_logs_timestamp", columnList = "timestamp"),
+        @Index(name = "idx_audit_logs_entity", columnList = "entity_type_id, entity_id, timestamp"),
+        @Index(name = "idx_audit_logs_actor", columnList = "actor_id, timestamp"),
+        @Index(name = "idx_audit_logs_action", columnList = "action_id, timestamp")
+})
 public class AuditLog {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false)
+    @Transient
     private String action;       // e.g., "CREATE", "UPDATE", "DELETE", "UPDATE_STATUS"
 
-    @Column(nullable = false)
+    @Transient
     private String performedBy;  // e.g., "bob@corp.com" or user ID
 
-    @Column(nullable = false)
+    @Transient
     private String entityType;   // e.g., "PLAN", "MILESTONE", "INITIATIVE", "USER"
 
+    @JsonIgnore
+    @Column(nullable = false)
+    private Integer actionId;
+
+    @JsonIgnore
+    @Column(nullable = false)
+    private Integer actorId;
+
+    @JsonIgnore
+    @Column(nullable = false)
+    private Integer entityTypeId;
+
     private Long entityId;       // ID of the entity that was modified
 
+    @JsonIgnore
+    @Transient
+    private String detailsTemplate;  // e.g., "Plan '{}' status changed from {} to {}"
+
+    @JsonIgnore
+    private Integer detailsTemplateId;
+
+    @JsonIgnore
     @Column(length = 1000)
-    private String details;      // e.g., "Changed Status from PLANNED to COMPLETED"
+    private String detailsParams;    // Template parameters, see AuditTemplate
 
     @Column(nullable = false)
     private LocalDateTime timestamp;
@@ -36,12 +69,14 @@ public class AuditLog {
         this.timestamp = LocalDateTime.now();
     }
 
-    public AuditLog(String action, String performedBy, String entityType, Long entityId, String details) {
+    public AuditLog(String action, String performedBy, String entityType, Long entityId,
+                    String detailsTemplate, String detailsParams) {
         this.action = action;
         this.performedBy = performedBy;
         this.entityType = entityType;
         this.entityId = entityId;
-        this.details = details;
+        this.detailsTemplate = detailsTemplate;
+        this.detailsParams = detailsParams;
         this.timestamp = LocalDateTime.now();
     }
 
@@ -58,11 +93,35 @@ public class AuditLog {
     public String getEntityType() { return entityType; }
     public void setEntityType(String entityType) { this.entityType = entityType; }
 
+    public Integer getActionId() { return actionId; }
+    public void setActionId(Integer actionId) { this.actionId = actionId; }
+
+    public Integer getActorId() { return actorId; }
+    public void setActorId(Integer actorId) { this.actorId = actorId; }
+
+    public Integer getEntityTypeId() { return entityTypeId; }
+    public void setEntityTypeId(Integer entityTypeId) { this.entityTypeId = entityTypeId; }
+
     public Long getEntityId() { return entityId; }
     public void setEntityId(Long entityId) { this.entityId = entityId; }
 
-    public String getDetails() { return details; }
-    public void setDetails(String details) { this.details = details; }
+    public String getDetails() { return AuditTemplate.render(detailsTemplate, detailsParams); }
+
+    // Free text is kept verbatim as the only parameter of the "{}" template
+    public void setDetails(String details) {
+        this.detailsTemplate = details != null ? AuditTemplate.VERBATIM : null;
+        this.detailsTemplateId = null;
+        this.detailsParams = details != null ? AuditTemplate.join(details) : null;
+    }
+
+    public String getDetailsTemplate() { return detailsTemplate; }
+    public void setDetailsTemplate(String detailsTemplate) { this.detailsTemplate = detailsTemplate; }
+
+    public Integer getDetailsTemplateId() { return detailsTemplateId; }
+    public void setDetailsTemplateId(Integer detailsTemplateId) { this.detailsTemplateId = detailsTemplateId; }
+
+    public String getDetailsParams() { return detailsParams; }
+    public void setDetailsParams(String detailsParams) { this.detailsParams = detailsParams; }
 
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
@@ -72,4 +131,4 @@ public class AuditLog {
 
     public String getNewValue() { return newValue; }
     public void setNewValue(String newValue) { this.newValue = newValue; }
-}
\ No newline at end of file
+}
@@ -15,6 +15,7 @@ import jakarta.persistence.OneToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.List;
@@ -37,6 +38,10 @@ public class Initiative {
     @Column(nullable = false)
     private String status; // PLANNED, IN_PROGRESS, COMPLETED
 
+    // Set when the status moves to COMPLETED, cleared when it moves away (drives velocity rollups)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime completedAt;
+
     // --- RELATIONSHIP: Initiative belongs to a Milestone ---
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "milestone_id", nullable = false)
@@ -72,7 +77,19 @@ public class Initiative {
     public void setDescription(String description) { this.description = description; }
 
     public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public void setStatus(String status) {
+        boolean wasCompleted = "COMPLETED".equalsIgnoreCase(this.status);
+        boolean isCompleted = "COMPLETED".equalsIgnoreCase(status);
+        if (isCompleted && !wasCompleted) {
+            this.completedAt = LocalDateTime.now();
+        } else if (!isCompleted) {
+            this.completedAt = null;
+        }
+        this.status = status;
+    }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
 
     public Milestone getMilestone() { return milestone; }
     public void setMilestone(Milestone milestone) { this.milestone = milestone; }
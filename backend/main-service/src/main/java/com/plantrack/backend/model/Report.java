@@ -5,8 +5,16 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
+/**
+ * Department report. Recent reports are RAW (one per generation); retention folds older
+ * ones into WEEKLY and then MONTHLY rows whose metrics are sample-weighted averages of
+ * the sampleCount raw reports they replace, dated at the start of their period.
+ */
 @Entity
-@Table(name = "reports")
+@Table(name = "reports", indexes = {
+        @Index(name = "idx_reports_scope_date", columnList = "scope, generated_date"),
+        @Index(name = "idx_reports_granularity_date", columnList = "granularity, generated_date")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Report {
 
@@ -21,6 +29,13 @@ public class Report {
     @Column(nullable = false, updatable = false)
     private LocalDateTime generatedDate;
 
+    @Column(nullable = false, length = 10)
+    private String granularity = "RAW"; // RAW, WEEKLY, MONTHLY
+
+    // Raw reports folded into this row (1 for RAW)
+    @Column(name = "sample_count", nullable = false)
+    private int sampleCount = 1;
+
     // --- OPTIMAL DATA STRUCTURE: EMBEDDED METRICS ---
     // This groups the stats in Java but saves them as columns in the same table.
     @Embedded
@@ -38,6 +53,8 @@ public class Report {
     public String getScope() { return scope; }
     public void setScope(String scope) { this.scope = scope; }
     public LocalDateTime getGeneratedDate() { return generatedDate; }
+    public String getGranularity() { return granularity; }
+    public int getSampleCount() { return sampleCount; }
     public ReportMetrics getMetrics() { return metrics; }
     public void setMetrics(ReportMetrics metrics) { this.metrics = metrics; }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.plantrack.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Serialized per-user day activity bitmap (see ActivityBitmap), one row per user,
+ * so streaks survive restarts without replaying audit_logs.
+ */
+@Entity
+@Table(name = "user_activity_bitmaps")
+public class UserActivityBitmap {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Lob
+    @Column(name = "bitmap", nullable = false)
+    private byte[] bitmap;
+
+    @Column(name = "active_days", nullable = false)
+    private int activeDays;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public UserActivityBitmap() {}
+
+    public UserActivityBitmap(Long userId, byte[] bitmap, int activeDays, LocalDateTime updatedAt) {
+        this.userId = userId;
+        this.bitmap = bitmap;
+        this.activeDays = activeDays;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public byte[] getBitmap() { return bitmap; }
+    public void setBitmap(byte[] bitmap) { this.bitmap = bitmap; }
+
+    public int getActiveDays() { return activeDays; }
+    public void setActiveDays(int activeDays) { this.activeDays = activeDays; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
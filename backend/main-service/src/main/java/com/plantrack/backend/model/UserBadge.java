@@ -0,0 +1,54 @@
+package com.plantrack.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A badge awarded to a user. One row per (user, badge); awardedAt is when the
+ * rule first fired.
+ */
+@Entity
+@Table(name = "user_badges",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_badges_user_badge", columnNames = {"user_id", "badge_id"}))
+public class UserBadge {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "badge_id", nullable = false, length = 50)
+    private String badgeId;
+
+    @Column(name = "awarded_at", nullable = false)
+    private LocalDateTime awardedAt;
+
+    private String criteria; // Evidence at award time, e.g. "Completion rate: 97.0%"
+
+    public UserBadge() {}
+
+    public UserBadge(Long userId, String badgeId, LocalDateTime awardedAt, String criteria) {
+        this.userId = userId;
+        this.badgeId = badgeId;
+        this.awardedAt = awardedAt;
+        this.criteria = criteria;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getBadgeId() { return badgeId; }
+    public void setBadgeId(String badgeId) { this.badgeId = badgeId; }
+
+    public LocalDateTime getAwardedAt() { return awardedAt; }
+    public void setAwardedAt(LocalDateTime awardedAt) { this.awardedAt = awardedAt; }
+
+    public String getCriteria() { return criteria; }
+    public void setCriteria(String criteria) { this.criteria = criteria; }
+}
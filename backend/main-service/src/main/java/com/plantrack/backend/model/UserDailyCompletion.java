@@ -0,0 +1,50 @@
+package com.plantrack.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Per-user, per-day count of initiatives completed. Maintained incrementally on
+ * initiative status transitions so velocity series are a short indexed range scan.
+ */
+@Entity
+@Table(name = "user_daily_completions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_daily_completions_user_date",
+                columnNames = {"user_id", "activity_date"}),
+        indexes = @Index(name = "idx_user_daily_completions_date", columnList = "activity_date"))
+public class UserDailyCompletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "activity_date", nullable = false)
+    private LocalDate activityDate;
+
+    @Column(name = "completed_count", nullable = false)
+    private int completedCount;
+
+    public UserDailyCompletion() {}
+
+    public UserDailyCompletion(Long userId, LocalDate activityDate, int completedCount) {
+        this.userId = userId;
+        this.activityDate = activityDate;
+        this.completedCount = completedCount;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public LocalDate getActivityDate() { return activityDate; }
+    public void setActivityDate(LocalDate activityDate) { this.activityDate = activityDate; }
+
+    public int getCompletedCount() { return completedCount; }
+    public void setCompletedCount(int completedCount) { this.completedCount = completedCount; }
+}
@@ -0,0 +1,87 @@
+package com.plantrack.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed per-user scoring metrics (one row per user), kept in sync with the
+ * leaderboard so filtered, keyset-paginated listings run as indexed queries.
+ */
+@Entity
+@Table(name = "user_metrics", indexes = {
+        // Same direction as the keyset order (overall_score DESC, user_id ASC), so pages are index range scans
+        @Index(name = "idx_user_metrics_score", columnList = "overall_score DESC, user_id"),
+        @Index(name = "idx_user_metrics_department_score", columnList = "department, overall_score DESC, user_id"),
+        @Index(name = "idx_user_metrics_tier_score", columnList = "performance_tier, overall_score DESC, user_id")
+})
+public class UserMetrics {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "user_name", nullable = false)
+    private String userName;
+
+    private String department;
+
+    @Column(name = "tasks_assigned", nullable = false)
+    private int tasksAssigned;
+
+    @Column(name = "tasks_completed", nullable = false)
+    private int tasksCompleted;
+
+    @Column(name = "completion_rate", nullable = false)
+    private double completionRate;
+
+    @Column(name = "average_tasks_per_week", nullable = false)
+    private double averageTasksPerWeek;
+
+    @Column(name = "average_tasks_per_month", nullable = false)
+    private double averageTasksPerMonth;
+
+    @Column(name = "overall_score", nullable = false)
+    private double overallScore;
+
+    @Column(name = "performance_tier", nullable = false)
+    private String performanceTier;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public UserMetrics() {}
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public int getTasksAssigned() { return tasksAssigned; }
+    public void setTasksAssigned(int tasksAssigned) { this.tasksAssigned = tasksAssigned; }
+
+    public int getTasksCompleted() { return tasksCompleted; }
+    public void setTasksCompleted(int tasksCompleted) { this.tasksCompleted = tasksCompleted; }
+
+    public double getCompletionRate() { return completionRate; }
+    public void setCompletionRate(double completionRate) { this.completionRate = completionRate; }
+
+    public double getAverageTasksPerWeek() { return averageTasksPerWeek; }
+    public void setAverageTasksPerWeek(double averageTasksPerWeek) { this.averageTasksPerWeek = averageTasksPerWeek; }
+
+    public double getAverageTasksPerMonth() { return averageTasksPerMonth; }
+    public void setAverageTasksPerMonth(double averageTasksPerMonth) { this.averageTasksPerMonth = averageTasksPerMonth; }
+
+    public double getOverallScore() { return overallScore; }
+    public void setOverallScore(double overallScore) { this.overallScore = overallScore; }
+
+    public String getPerformanceTier() { return performanceTier; }
+    public void setPerformanceTier(String performanceTier) { this.performanceTier = performanceTier; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,75 @@
+package com.plantrack.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Point-in-time score and ranks for one user, written by the scheduled snapshot job.
+ * granularity is DAILY or WEEKLY; weekly snapshots are the baseline for improvement
+ * and rank-change metrics.
+ */
+@Entity
+@Table(name = "user_score_snapshots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_score_snapshots_user",
+                columnNames = {"user_id", "granularity", "snapshot_date"}),
+        indexes = @Index(name = "idx_user_score_snapshots_date", columnList = "granularity, snapshot_date"))
+public class UserScoreSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(nullable = false, length = 10)
+    private String granularity; // DAILY, WEEKLY
+
+    @Column(name = "overall_score", nullable = false)
+    private double overallScore;
+
+    @Column(name = "overall_rank", nullable = false)
+    private int overallRank;
+
+    @Column(name = "department_rank", nullable = false)
+    private int departmentRank;
+
+    @Column(name = "completion_rate", nullable = false)
+    private double completionRate;
+
+    @Column(name = "tasks_completed", nullable = false)
+    private int tasksCompleted;
+
+    public UserScoreSnapshot() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public LocalDate getSnapshotDate() { return snapshotDate; }
+    public void setSnapshotDate(LocalDate snapshotDate) { this.snapshotDate = snapshotDate; }
+
+    public String getGranularity() { return granularity; }
+    public void setGranularity(String granularity) { this.granularity = granularity; }
+
+    public double getOverallScore() { return overallScore; }
+    public void setOverallScore(double overallScore) { this.overallScore = overallScore; }
+
+    public int getOverallRank() { return overallRank; }
+    public void setOverallRank(int overallRank) { this.overallRank = overallRank; }
+
+    public int getDepartmentRank() { return departmentRank; }
+    public void setDepartmentRank(int departmentRank) { this.departmentRank = departmentRank; }
+
+    public double getCompletionRate() { return completionRate; }
+    public void setCompletionRate(double completionRate) { this.completionRate = completionRate; }
+
+    public int getTasksCompleted() { return tasksCompleted; }
+    public void setTasksCompleted(int tasksCompleted) { this.tasksCompleted = tasksCompleted; }
+}
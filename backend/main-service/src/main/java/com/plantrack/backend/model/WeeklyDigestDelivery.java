@@ -0,0 +1,50 @@
+package com.plantrack.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Record of a delivered weekly analytics digest. One row per week (keyed by its
+ * Monday); its presence is what stops a restarted or re-triggered job from sending
+ * the same week again.
+ */
+@Entity
+@Table(name = "weekly_digest_deliveries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_weekly_digest_deliveries_week", columnNames = "week_start"))
+public class WeeklyDigestDelivery {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "week_start", nullable = false)
+    private LocalDate weekStart;
+
+    @Column(nullable = false)
+    private int recipients;
+
+    @Column(name = "delivered_at", nullable = false)
+    private LocalDateTime deliveredAt;
+
+    public WeeklyDigestDelivery() {}
+
+    public WeeklyDigestDelivery(LocalDate weekStart, int recipients, LocalDateTime deliveredAt) {
+        this.weekStart = weekStart;
+        this.recipients = recipients;
+        this.deliveredAt = deliveredAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDate getWeekStart() { return weekStart; }
+    public void setWeekStart(LocalDate weekStart) { this.weekStart = weekStart; }
+
+    public int getRecipients() { return recipients; }
+    public void setRecipients(int recipients) { this.recipients = recipients; }
+
+    public LocalDateTime getDeliveredAt() { return deliveredAt; }
+    public void setDeliveredAt(LocalDateTime deliveredAt) { this.deliveredAt = deliveredAt; }
+}
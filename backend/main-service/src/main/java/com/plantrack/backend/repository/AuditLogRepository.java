@@ -1,6 +1,7 @@
 package com.plantrack.backend.repository;
 
 import com.plantrack.backend.model.AuditLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,27 +9,69 @@ import org.springframework.data.repository.query.Param;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Audit log reads are keyset pages ordered by (timestamp, id) descending: rows strictly
+ * before the (beforeTimestamp, beforeId) position, limited by the Pageable. The first
+ * page passes an open position rather than nulls, so "timestamp <= :beforeTimestamp"
+ * is always a range on the index's timestamp column.
+ *
+ * Action, actor and entity type filters take audit_dictionary ids (see AuditDictionary);
+ * the rows returned still need decoding.
+ */
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
-    
-    // Find by entity type
-    List<AuditLog> findByEntityTypeOrderByTimestampDesc(String entityType);
-    
-    // Find by user (performedBy)
-    List<AuditLog> findByPerformedByOrderByTimestampDesc(String performedBy);
-    
-    // Find by action type
-    List<AuditLog> findByActionOrderByTimestampDesc(String action);
-    
-    // Find by entity
-    List<AuditLog> findByEntityTypeAndEntityIdOrderByTimestampDesc(String entityType, Long entityId);
-    
-    // Find by date range
-    @Query("SELECT a FROM AuditLog a WHERE a.timestamp BETWEEN :startDate AND :endDate ORDER BY a.timestamp DESC")
-    List<AuditLog> findByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-    
-    // Find by user and date range
-    @Query("SELECT a FROM AuditLog a WHERE a.performedBy = :performedBy AND a.timestamp BETWEEN :startDate AND :endDate ORDER BY a.timestamp DESC")
-    List<AuditLog> findByUserAndDateRange(@Param("performedBy") String performedBy, 
-                                          @Param("startDate") LocalDateTime startDate, 
-                                          @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+
+    String BEFORE = "a.timestamp <= :beforeTimestamp AND (a.timestamp < :beforeTimestamp OR a.id < :beforeId) ";
+    String NEWEST_FIRST = "ORDER BY a.timestamp DESC, a.id DESC";
+
+    // All entries (served by idx_audit_logs_timestamp)
+    @Query("SELECT a FROM AuditLog a WHERE " + BEFORE + NEWEST_FIRST)
+    List<AuditLog> findPage(@Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                            @Param("beforeId") long beforeId,
+                            Pageable pageable);
+
+    // Find by entity type (idx_audit_logs_entity prefix)
+    @Query("SELECT a FROM AuditLog a WHERE a.entityTypeId = :entityTypeId AND " + BEFORE + NEWEST_FIRST)
+    List<AuditLog> findPageByEntityType(@Param("entityTypeId") int entityTypeId,
+                                        @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                        @Param("beforeId") long beforeId,
+                                        Pageable pageable);
+
+    // Find by user (idx_audit_logs_actor)
+    @Query("SELECT a FROM AuditLog a WHERE a.actorId = :actorId AND " + BEFORE + NEWEST_FIRST)
+    List<AuditLog> findPageByActor(@Param("actorId") int actorId,
+                                   @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                   @Param("beforeId") long beforeId,
+                                   Pageable pageable);
+
+    // Find by action type (idx_audit_logs_action)
+    @Query("SELECT a FROM AuditLog a WHERE a.actionId = :actionId AND " + BEFORE + NEWEST_FIRST)
+    List<AuditLog> findPageByAction(@Param("actionId") int actionId,
+                                    @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                    @Param("beforeId") long beforeId,
+                                    Pageable pageable);
+
+    // Find by entity (idx_audit_logs_entity)
+    @Query("SELECT a FROM AuditLog a WHERE a.entityTypeId = :entityTypeId AND a.entityId = :entityId AND " +
+           BEFORE + NEWEST_FIRST)
+    List<AuditLog> findPageByEntity(@Param("entityTypeId") int entityTypeId,
+                                    @Param("entityId") Long entityId,
+                                    @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                    @Param("beforeId") long beforeId,
+                                    Pageable pageable);
+
+    // Find by date range; the range end is the first page's position (idx_audit_logs_timestamp)
+    @Query("SELECT a FROM AuditLog a WHERE a.timestamp >= :startDate AND " + BEFORE + NEWEST_FIRST)
+    List<AuditLog> findPageByDateRange(@Param("startDate") LocalDateTime startDate,
+                                       @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                       @Param("beforeId") long beforeId,
+                                       Pageable pageable);
+
+    // Find by user and date range (idx_audit_logs_actor)
+    @Query("SELECT a FROM AuditLog a WHERE a.actorId = :actorId AND a.timestamp >= :startDate AND " +
+           BEFORE + NEWEST_FIRST)
+    List<AuditLog> findPageByActorAndDateRange(@Param("actorId") int actorId,
+                                               @Param("startDate") LocalDateTime startDate,
+                                               @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                               @Param("beforeId") long beforeId,
+                                               Pageable pageable);
+}
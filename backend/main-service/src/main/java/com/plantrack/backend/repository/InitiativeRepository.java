@@ -1,5 +1,6 @@
 package com.plantrack.backend.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -7,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.plantrack.backend.model.Initiative;
+import com.plantrack.backend.repository.projection.UserAssignmentCounts;
 
 public interface InitiativeRepository extends JpaRepository<Initiative, Long> {
     List<Initiative> findByMilestoneMilestoneId(Long milestoneId);
@@ -17,4 +19,18 @@ public interface InitiativeRepository extends JpaRepository<Initiative, Long> {
            "LEFT JOIN FETCH i.assignedUsers u " +
            "WHERE u.userId = :userId")
     List<Initiative> findByAssignedUserUserId(@Param("userId") Long userId);
+
+    // Assigned/completed counters for every assignee in one pass (ordered by userId for AssignmentIndex)
+    @Query("SELECT new com.plantrack.backend.repository.projection.UserAssignmentCounts(" +
+           "u.userId, COUNT(i), SUM(CASE WHEN UPPER(i.status) = 'COMPLETED' THEN 1 ELSE 0 END)) " +
+           "FROM Initiative i JOIN i.assignedUsers u " +
+           "GROUP BY u.userId ORDER BY u.userId")
+    List<UserAssignmentCounts> countAssignmentsByUser();
+
+    // Same counters restricted to a set of assignees (incremental leaderboard refresh)
+    @Query("SELECT new com.plantrack.backend.repository.projection.UserAssignmentCounts(" +
+           "u.userId, COUNT(i), SUM(CASE WHEN UPPER(i.status) = 'COMPLETED' THEN 1 ELSE 0 END)) " +
+           "FROM Initiative i JOIN i.assignedUsers u " +
+           "WHERE u.userId IN :userIds GROUP BY u.userId ORDER BY u.userId")
+    List<UserAssignmentCounts> countAssignmentsForUsers(@Param("userIds") Collection<Long> userIds);
 }
\ No newline at end of file
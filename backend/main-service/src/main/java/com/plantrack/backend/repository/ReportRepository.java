@@ -1,10 +1,22 @@
 package com.plantrack.backend.repository;
 
 import com.plantrack.backend.model.Report;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import java.util.List;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 
 public interface ReportRepository extends JpaRepository<Report, Long> {
-    // Find reports for a specific department, ordered by newest first
-    List<Report> findByScopeOrderByGeneratedDateDesc(String scope);
+
+    // Reports for a department in [from, to), optionally one granularity (served by idx_reports_scope_date)
+    @Query("SELECT r FROM Report r WHERE r.scope = :scope AND r.generatedDate >= :from AND r.generatedDate < :to " +
+           "AND (:granularity IS NULL OR r.granularity = :granularity)")
+    Page<Report> findByScopeAndDateRange(@Param("scope") String scope,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("granularity") String granularity,
+                                         Pageable pageable);
 }
\ No newline at end of file
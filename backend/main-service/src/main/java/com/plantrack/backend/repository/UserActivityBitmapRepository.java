@@ -0,0 +1,7 @@
+package com.plantrack.backend.repository;
+
+import com.plantrack.backend.model.UserActivityBitmap;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface UserActivityBitmapRepository extends JpaRepository<UserActivityBitmap, Long> {
+}
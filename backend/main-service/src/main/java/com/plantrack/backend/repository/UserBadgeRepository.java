@@ -0,0 +1,27 @@
+package com.plantrack.backend.repository;
+
+import com.plantrack.backend.model.UserBadge;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserBadgeRepository extends JpaRepository<UserBadge, Long> {
+
+    // Served by uk_user_badges_user_badge (user_id prefix)
+    List<UserBadge> findByUserIdOrderByAwardedAtAsc(Long userId);
+
+    List<UserBadge> findByUserIdIn(Collection<Long> userIds);
+
+    // Users of the departments holding any of the badges, so badges they lost to others' changes can be revoked
+    @Query("SELECT DISTINCT b.userId FROM UserBadge b, UserMetrics m " +
+           "WHERE m.userId = b.userId AND m.department IN :departments AND b.badgeId IN :badgeIds")
+    List<Long> findHolderIds(@Param("departments") Collection<String> departments,
+                             @Param("badgeIds") Collection<String> badgeIds);
+
+    @Transactional
+    void deleteByUserId(Long userId);
+}
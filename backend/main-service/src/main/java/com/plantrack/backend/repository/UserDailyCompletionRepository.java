@@ -0,0 +1,54 @@
+package com.plantrack.backend.repository;
+
+import com.plantrack.backend.model.UserDailyCompletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface UserDailyCompletionRepository extends JpaRepository<UserDailyCompletion, Long> {
+
+    // Range scan on (user_id, activity_date) for one user's velocity series
+    List<UserDailyCompletion> findByUserIdAndActivityDateGreaterThanEqualOrderByActivityDate(Long userId, LocalDate from);
+
+    // All users' buckets since a date (team velocity)
+    List<UserDailyCompletion> findByActivityDateGreaterThanEqual(LocalDate from);
+
+    // Add delta (may be negative) to a user's counter for a day, creating the row if needed
+    @Modifying
+    @Query(value = "INSERT INTO user_daily_completions (user_id, activity_date, completed_count) " +
+                   "VALUES (:userId, :activityDate, GREATEST(:delta, 0)) " +
+                   "ON DUPLICATE KEY UPDATE completed_count = GREATEST(completed_count + :delta, 0)",
+           nativeQuery = true)
+    int applyDelta(@Param("userId") Long userId, @Param("activityDate") LocalDate activityDate, @Param("delta") int delta);
+
+    // Backfill step 1: stamp completed initiatives with the time of their last transition to COMPLETED
+    // (falling back to the CREATE audit row for initiatives created as completed); audit_logs refers to
+    // entity types and actions by audit_dictionary id
+    @Modifying
+    @Query(value = "UPDATE initiatives i SET i.completed_at = COALESCE(" +
+                   "(SELECT MAX(a.timestamp) FROM audit_logs a " +
+                   " JOIN audit_dictionary t ON t.id = a.entity_type_id AND t.kind = 'ENTITY_TYPE' AND t.name = 'INITIATIVE' " +
+                   " JOIN audit_dictionary s ON s.id = a.action_id AND s.kind = 'ACTION' AND s.name = 'UPDATE_STATUS' " +
+                   " WHERE a.entity_id = i.initiative_id AND UPPER(a.new_value) = 'COMPLETED'), " +
+                   "(SELECT MIN(a.timestamp) FROM audit_logs a " +
+                   " JOIN audit_dictionary t ON t.id = a.entity_type_id AND t.kind = 'ENTITY_TYPE' AND t.name = 'INITIATIVE' " +
+                   " JOIN audit_dictionary s ON s.id = a.action_id AND s.kind = 'ACTION' AND s.name = 'CREATE' " +
+                   " WHERE a.entity_id = i.initiative_id)) " +
+                   "WHERE UPPER(i.status) = 'COMPLETED' AND i.completed_at IS NULL",
+           nativeQuery = true)
+    int backfillCompletedAt();
+
+    // Backfill step 2: rebuild every counter from initiative completion timestamps
+    @Modifying
+    @Query(value = "INSERT INTO user_daily_completions (user_id, activity_date, completed_count) " +
+                   "SELECT ia.user_id, DATE(i.completed_at), COUNT(*) FROM initiatives i " +
+                   "JOIN initiative_assignees ia ON ia.initiative_id = i.initiative_id " +
+                   "WHERE i.completed_at IS NOT NULL " +
+                   "GROUP BY ia.user_id, DATE(i.completed_at)",
+           nativeQuery = true)
+    int rebuildFromInitiatives();
+}
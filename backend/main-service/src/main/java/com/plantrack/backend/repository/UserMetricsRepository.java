@@ -0,0 +1,18 @@
+package com.plantrack.backend.repository;
+
+import com.plantrack.backend.model.UserMetrics;
+import com.plantrack.backend.repository.projection.DepartmentVelocityAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserMetricsRepository extends JpaRepository<UserMetrics, Long> {
+
+    @Query("SELECT new com.plantrack.backend.repository.projection.DepartmentVelocityAggregate(" +
+           "m.department, COUNT(m), SUM(m.averageTasksPerWeek)) " +
+           "FROM UserMetrics m WHERE m.department IN :departments GROUP BY m.department")
+    List<DepartmentVelocityAggregate> aggregateByDepartment(@Param("departments") Collection<String> departments);
+}
@@ -1,6 +1,7 @@
 package com.plantrack.backend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.plantrack.backend.model.User;
@@ -9,4 +10,14 @@ import com.plantrack.backend.model.User;
 public interface UserRepository extends JpaRepository<User, Long> {
     // Add this lookup method
     java.util.Optional<User> findByEmail(String email);
+
+    // Non-empty department names, without loading User entities
+    @Query("SELECT DISTINCT u.department FROM User u " +
+           "WHERE u.department IS NOT NULL AND u.department <> '' ORDER BY u.department")
+    java.util.List<String> findDistinctDepartments();
+
+    // Ids of admins that are not deactivated
+    @Query("SELECT u.userId FROM User u WHERE UPPER(u.role) = 'ADMIN' " +
+           "AND (u.status IS NULL OR UPPER(u.status) <> 'INACTIVE') ORDER BY u.userId")
+    java.util.List<Long> findActiveAdminIds();
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.plantrack.backend.repository;
+
+import com.plantrack.backend.model.UserScoreSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface UserScoreSnapshotRepository extends JpaRepository<UserScoreSnapshot, Long> {
+
+    @Query("SELECT MAX(s.snapshotDate) FROM UserScoreSnapshot s WHERE s.granularity = :granularity")
+    Optional<LocalDate> findLatestSnapshotDate(@Param("granularity") String granularity);
+
+    // Every user's row for one snapshot (served by idx_user_score_snapshots_date)
+    List<UserScoreSnapshot> findByGranularityAndSnapshotDate(String granularity, LocalDate snapshotDate);
+
+    // Downsampling: keep the Monday daily rows that are about to expire as weekly rows
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO user_score_snapshots " +
+                   "(user_id, snapshot_date, granularity, overall_score, overall_rank, department_rank, completion_rate, tasks_completed) " +
+                   "SELECT user_id, snapshot_date, 'WEEKLY', overall_score, overall_rank, department_rank, completion_rate, tasks_completed " +
+                   "FROM user_score_snapshots WHERE granularity = 'DAILY' AND snapshot_date < :cutoff AND WEEKDAY(snapshot_date) = 0",
+           nativeQuery = true)
+    int promoteMondayDailies(@Param("cutoff") LocalDate cutoff);
+
+    // Bounded delete so retention never holds long locks; callers loop until it returns 0
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM user_score_snapshots WHERE granularity = :granularity AND snapshot_date < :cutoff LIMIT :batchSize",
+           nativeQuery = true)
+    int deleteOlderThan(@Param("granularity") String granularity, @Param("cutoff") LocalDate cutoff,
+                        @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,12 @@
+package com.plantrack.backend.repository;
+
+import com.plantrack.backend.model.WeeklyDigestDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+
+public interface WeeklyDigestDeliveryRepository extends JpaRepository<WeeklyDigestDelivery, Long> {
+
+    // Served by uk_weekly_digest_deliveries_week
+    boolean existsByWeekStart(LocalDate weekStart);
+}
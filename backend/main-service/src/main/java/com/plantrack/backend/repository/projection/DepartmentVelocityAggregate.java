@@ -0,0 +1,7 @@
+package com.plantrack.backend.repository.projection;
+
+/**
+ * Department headcount and summed average tasks per week, from user_metrics.
+ */
+public record DepartmentVelocityAggregate(String department, Long size, Double totalTasksPerWeek) {
+}
@@ -0,0 +1,8 @@
+package com.plantrack.backend.repository.projection;
+
+/**
+ * Per-user initiative counters produced by a GROUP BY over initiative_assignees.
+ * Used to build {@link com.plantrack.backend.service.AssignmentIndex} without hydrating Initiative entities.
+ */
+public record UserAssignmentCounts(Long userId, Long assigned, Long completed) {
+}
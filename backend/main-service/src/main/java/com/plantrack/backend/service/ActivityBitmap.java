@@ -0,0 +1,231 @@
+package com.plantrack.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Sparse day bitmap: bit d is set when the user was active on epoch day d.
+ *
+ * Only non-empty 64-day words are stored, as a sorted word index array plus the words
+ * themselves, so a year of daily activity is six longs. Streaks are computed a word at
+ * a time (trailing/leading-ones counts and shift-and erosion) instead of day by day.
+ *
+ * The serialized form is a varint word count, then per word a varint gap from the
+ * previous word index and the 8-byte word.
+ *
+ * Not thread-safe; StreakService synchronizes on the instance.
+ */
+public final class ActivityBitmap {
+
+    private int[] wordIndexes;
+    private long[] words;
+    private int size;
+
+    public ActivityBitmap() {
+        this(new int[4], new long[4], 0);
+    }
+
+    private ActivityBitmap(int[] wordIndexes, long[] words, int size) {
+        this.wordIndexes = wordIndexes;
+        this.words = words;
+        this.size = size;
+    }
+
+    /**
+     * Mark the day active. Returns true if it was not already set.
+     */
+    public boolean set(long epochDay) {
+        int index = wordIndex(epochDay);
+        long bit = 1L << (epochDay & 63);
+        int slot = Arrays.binarySearch(wordIndexes, 0, size, index);
+        if (slot >= 0) {
+            if ((words[slot] & bit) != 0) {
+                return false;
+            }
+            words[slot] |= bit;
+            return true;
+        }
+
+        slot = -slot - 1;
+        if (size == words.length) {
+            wordIndexes = Arrays.copyOf(wordIndexes, size * 2);
+            words = Arrays.copyOf(words, size * 2);
+        }
+        System.arraycopy(wordIndexes, slot, wordIndexes, slot + 1, size - slot);
+        System.arraycopy(words, slot, words, slot + 1, size - slot);
+        wordIndexes[slot] = index;
+        words[slot] = bit;
+        size++;
+        return true;
+    }
+
+    public boolean get(long epochDay) {
+        int slot = Arrays.binarySearch(wordIndexes, 0, size, wordIndex(epochDay));
+        return slot >= 0 && (words[slot] & (1L << (epochDay & 63))) != 0;
+    }
+
+    public int activeDays() {
+        int days = 0;
+        for (int i = 0; i < size; i++) {
+            days += Long.bitCount(words[i]);
+        }
+        return days;
+    }
+
+    /**
+     * Consecutive active days ending today, or ending yesterday if today has no activity yet.
+     */
+    public int currentStreak(long today) {
+        long day = get(today) ? today : today - 1;
+        int streak = 0;
+        while (true) {
+            int slot = Arrays.binarySearch(wordIndexes, 0, size, wordIndex(day));
+            if (slot < 0) {
+                return streak;
+            }
+            int bit = (int) (day & 63);
+            // Ones from 'bit' downwards: move it to the top and count leading ones
+            int ones = Long.numberOfLeadingZeros(~(words[slot] << (63 - bit)));
+            streak += ones;
+            if (ones <= bit) {
+                return streak;
+            }
+            day -= ones;
+        }
+    }
+
+    /**
+     * Longest run of consecutive active days ever recorded.
+     */
+    public int longestStreak() {
+        int longest = 0;
+        int run = 0;
+        for (int i = 0; i < size; i++) {
+            long word = words[i];
+            if (i == 0 || wordIndexes[i] != wordIndexes[i - 1] + 1) {
+                run = 0;
+            }
+            if (word == -1L) {
+                run += 64;
+            } else {
+                // Low ones extend the run carried from the previous word, high ones start the next
+                longest = Math.max(longest, run + Long.numberOfTrailingZeros(~word));
+                longest = Math.max(longest, longestRun(word));
+                run = Long.numberOfLeadingZeros(~word);
+            }
+            longest = Math.max(longest, run);
+        }
+        return longest;
+    }
+
+    /**
+     * Consecutive Monday-based weeks with at least one active day, ending this week
+     * (or last week if this week has no activity yet).
+     */
+    public int currentWeekStreak(long today) {
+        long weekStart = today - Math.floorMod(today + 3, 7);
+        if (!anySet(weekStart, weekStart + 6)) {
+            weekStart -= 7;
+        }
+        int streak = 0;
+        while (anySet(weekStart, weekStart + 6)) {
+            streak++;
+            weekStart -= 7;
+        }
+        return streak;
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 + size * 10);
+        writeVarint(out, size);
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            writeVarint(out, i == 0 ? zigZag(wordIndexes[i]) : wordIndexes[i] - previous);
+            previous = wordIndexes[i];
+            long word = words[i];
+            for (int shift = 0; shift < 64; shift += 8) {
+                out.write((int) (word >>> shift));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static ActivityBitmap fromBytes(byte[] bytes) {
+        int[] position = {0};
+        int size = (int) readVarint(bytes, position);
+        int[] wordIndexes = new int[Math.max(4, size)];
+        long[] words = new long[Math.max(4, size)];
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            long value = readVarint(bytes, position);
+            previous = i == 0 ? unZigZag(value) : previous + value;
+            wordIndexes[i] = (int) previous;
+            long word = 0;
+            for (int shift = 0; shift < 64; shift += 8) {
+                word |= (bytes[position[0]++] & 0xFFL) << shift;
+            }
+            words[i] = word;
+        }
+        return new ActivityBitmap(wordIndexes, words, size);
+    }
+
+    // --- internals ---
+
+    private static int wordIndex(long epochDay) {
+        return (int) (epochDay >> 6);
+    }
+
+    // True if any day in [from, to] is set; at most two word probes for a week
+    private boolean anySet(long from, long to) {
+        for (long start = from; start <= to; start = (start | 63) + 1) {
+            long end = Math.min(to, start | 63);
+            int slot = Arrays.binarySearch(wordIndexes, 0, size, wordIndex(start));
+            if (slot >= 0) {
+                int low = (int) (start & 63);
+                int high = (int) (end & 63);
+                long mask = (-1L >>> (63 - high)) & (-1L << low);
+                if ((words[slot] & mask) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Each shift-and strips one day from every run, so the iteration count is the longest run
+    private static int longestRun(long word) {
+        int length = 0;
+        while (word != 0) {
+            word &= word << 1;
+            length++;
+        }
+        return length;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(byte[] bytes, int[] position) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = bytes[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,1109 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.dto.DashboardStatsDTO;
+import com.plantrack.backend.event.DataChangedEvent;
+import com.plantrack.backend.event.InitiativeChangedEvent;
+import com.plantrack.backend.event.UserChangedEvent;
+import com.plantrack.backend.repository.projection.UserAssignmentCounts;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Resident columnar copy of the user / plan / milestone / initiative data that the
+ * analytics and report endpoints aggregate over.
+ *
+ * Rows live in primitive column arrays addressed by slot; ids resolve to slots through
+ * {@link LongIntHashMap}, departments (shared {@link DepartmentDictionary} codes) and statuses
+ * are dictionary-encoded. The aggregates
+ * the endpoints ask for (per-user counters, per-department report counters, department x
+ * status initiative counts, global status counts) are maintained on write, so reads are
+ * O(1), O(departments) or O(users) and never touch the database.
+ *
+ * Built before the web server starts from one streaming scan per table (initiatives and
+ * their assignees in a single ordered join), then kept current from the plan, milestone,
+ * initiative and user change events; each refresh re-reads only the changed row. A user
+ * delete publishes events for the plans and initiatives its cascade removes, and then drops
+ * the user from the initiatives they were assigned to and their department in memory.
+ * Refreshes (and rebuilds) are serialized from their read to their apply, so a refresh
+ * never applies a row older than one already applied; they are primary-key reads.
+ *
+ * Footprint per initiative: 8 (id) + 1 (status) + 4 (assignee array reference; single
+ * assignee arrays are shared per user) + 8 (entry in the assignee's initiative list, used
+ * to move their initiatives on a department change) + ~24 (id -> slot table at load
+ * factor <= 0.5), plus array growth slack. Reported as analytics.cube.bytes; read latency
+ * as analytics.cube.query{query} (p50/p95/p99). AnalyticsCubeBenchmark measures both.
+ */
+@Service
+public class AnalyticsCube implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsCube.class);
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_STATUSES = Byte.MAX_VALUE;
+    private static final int NO_DEPARTMENT = DepartmentDictionary.NO_DEPARTMENT;
+    private static final int[] NO_ASSIGNEES = new int[0];
+
+    // Fixed codes, encoded first on every reset
+    private static final int COMPLETED = 0;
+    private static final int IN_PROGRESS = 1;
+    private static final int PLANNED = 2;
+
+    /**
+     * A department's totals as reports need them (department matched case-insensitively).
+     */
+    public record DepartmentTotals(int users, int plans, int completedPlans,
+                                   int milestones, double milestonePercentSum,
+                                   int initiatives, int completedInitiatives) {
+
+        public DepartmentTotals plus(DepartmentTotals other) {
+            return new DepartmentTotals(users + other.users, plans + other.plans,
+                    completedPlans + other.completedPlans, milestones + other.milestones,
+                    milestonePercentSum + other.milestonePercentSum,
+                    initiatives + other.initiatives, completedInitiatives + other.completedInitiatives);
+        }
+    }
+
+    public record PlanCounts(int total, int completed) {}
+
+    /**
+     * Distinct initiatives with at least one assignee in a department, by status.
+     */
+    public record InitiativeCounts(int total, int completed, int inProgress, int planned) {}
+
+    private static final InitiativeCounts NO_INITIATIVES = new InitiativeCounts(0, 0, 0, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DepartmentDictionary departmentDictionary;
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the result
+    @Value("${analytics.cube.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> queryTimers = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Held by rebuild and every refresh from the database read through to the apply
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private final StringDictionary statuses = new StringDictionary();
+
+    // Users (a delete unmaps its slot; slots are reclaimed by the next rebuild). Plans and initiatives
+    // can create a slot before the user's own row is seen, so existing users are counted separately.
+    private final LongIntHashMap userSlots = new LongIntHashMap(INITIAL_CAPACITY);
+    private long[] userIds;
+    private boolean[] userExists;
+    private int existingUsers;
+    private int[] userDepartment;
+    private int[] userAssigned;
+    private int[] userCompleted;
+    private int[] userPlans;
+    private int[] userPlansCompleted;
+    private int[] userMilestones;
+    private double[] userMilestonePercent;
+    private int[][] singleAssignee;
+    private long[][] userInitiatives;       // ids of the initiatives the user is assigned to
+    private int[] userInitiativeCount;
+    private int userCount;
+
+    // Plans
+    private final LongIntHashMap planSlots = new LongIntHashMap(INITIAL_CAPACITY);
+    private long[] planIds;
+    private int[] planOwner;
+    private byte[] planStatus;
+    private int planCount;
+
+    // Milestones
+    private final LongIntHashMap milestoneSlots = new LongIntHashMap(INITIAL_CAPACITY);
+    private long[] milestoneIds;
+    private long[] milestonePlanIds;
+    private int[] milestoneOwner;
+    private byte[] milestoneStatus;
+    private double[] milestonePercent;
+    private int milestoneCount;
+
+    // Initiatives (assignee arrays are immutable once stored)
+    private final LongIntHashMap initiativeSlots = new LongIntHashMap(INITIAL_CAPACITY);
+    private long[] initiativeIds;
+    private byte[] initiativeStatus;
+    private int[][] initiativeAssignees;
+    private int initiativeCount;
+
+    // Maintained aggregates, indexed by status code (department rows by department code)
+    private final int[] plansByStatus = new int[MAX_STATUSES];
+    private final int[] milestonesByStatus = new int[MAX_STATUSES];
+    private final int[] initiativesByStatus = new int[MAX_STATUSES];
+    private int[][] departmentInitiatives;
+    // Spellings of a department that differ only in case share a group (cube-local codes), and an
+    // initiative counts once per group as well, as reports count it
+    private final StringDictionary departmentGroups = new StringDictionary();
+    private int[] departmentGroup;
+    private int[][] groupInitiatives;
+    private int[] departmentUsers;
+    private int[] departmentPlans;
+    private int[] departmentPlansCompleted;
+    private int[] departmentMilestones;
+    private double[] departmentMilestonePercent;
+
+    public AnalyticsCube(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        reset();
+        Gauge.builder("analytics.cube.bytes", this, AnalyticsCube::footprintBytes)
+                .description("Estimated heap held by the analytics cube")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("analytics.cube.initiatives", this, AnalyticsCube::initiativeCount)
+                .description("Initiatives resident in the analytics cube")
+                .register(meterRegistry);
+    }
+
+    // ============================================================
+    // BUILD AND MAINTENANCE
+    // ============================================================
+
+    /**
+     * Runs once every singleton (and the JPA schema update) is ready, before requests are served.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Reload every column from the database. Readers wait on the write lock until it completes.
+     */
+    public void rebuild() {
+        long startTime = System.currentTimeMillis();
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(fetchSize);
+
+        updateLock.lock();
+        lock.writeLock().lock();
+        try {
+            reset();
+            streaming.query("SELECT user_id, department FROM users",
+                    (RowCallbackHandler) rs -> setUser(rs.getLong(1), rs.getString(2)));
+            streaming.query("SELECT plan_id, user_id, status FROM plans",
+                    (RowCallbackHandler) rs -> setPlan(rs.getLong(1), userSlot(rs.getLong(2)), rs.getString(3)));
+            streaming.query("SELECT m.milestone_id, m.plan_id, m.status, m.completion_percent, p.user_id " +
+                            "FROM milestones m JOIN plans p ON p.plan_id = m.plan_id",
+                    (RowCallbackHandler) rs -> setMilestone(rs.getLong(1), rs.getLong(2), userSlot(rs.getLong(5)),
+                            rs.getString(3), rs.getDouble(4)));
+
+            // One row per (initiative, assignee), grouped by initiative
+            InitiativeRows rows = new InitiativeRows();
+            streaming.query("SELECT i.initiative_id, i.status, a.user_id FROM initiatives i " +
+                            "LEFT JOIN initiative_assignees a ON a.initiative_id = i.initiative_id " +
+                            "ORDER BY i.initiative_id",
+                    (RowCallbackHandler) rs -> rows.add(rs.getLong(1), rs.getString(2), rs.getLong(3), rs.wasNull()));
+            rows.flush();
+        } finally {
+            lock.writeLock().unlock();
+            updateLock.unlock();
+        }
+
+        logger.info("Analytics cube built: users={}, plans={}, milestones={}, initiatives={}, bytes={}, duration={}ms",
+                userCount, planCount, milestoneCount, initiativeCount, footprintBytes(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(AnalyticsDataVersion.MAINTENANCE_ORDER)
+    public void onDataChanged(DataChangedEvent event) {
+        if ("PLAN".equals(event.entityType())) {
+            refreshPlan(event.entityId());
+        } else if ("MILESTONE".equals(event.entityType())) {
+            refreshMilestone(event.entityId());
+        }
+    }
+
+    // Always refreshed: milestone progress moves with initiative writes that change nothing else
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(AnalyticsDataVersion.MAINTENANCE_ORDER)
+    public void onInitiativeChanged(InitiativeChangedEvent event) {
+        refreshInitiative(event.initiativeId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(AnalyticsDataVersion.MAINTENANCE_ORDER)
+    public void onUserChanged(UserChangedEvent event) {
+        updateLock.lock();
+        try {
+            if (event.deleted()) {
+                lock.writeLock().lock();
+                try {
+                    removeUser(event.userId());
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                return;
+            }
+            List<String> department = jdbcTemplate.queryForList(
+                    "SELECT department FROM users WHERE user_id = ?", String.class, event.userId());
+            if (department.isEmpty()) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                setUser(event.userId(), department.get(0));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void refreshPlan(Long planId) {
+        updateLock.lock();
+        try {
+            List<Object[]> plan = jdbcTemplate.query("SELECT user_id, status FROM plans WHERE plan_id = ?",
+                    (rs, i) -> new Object[] {rs.getLong(1), rs.getString(2)}, planId);
+            List<Object[]> milestones = plan.isEmpty() ? List.of() : jdbcTemplate.query(
+                    "SELECT milestone_id, status, completion_percent FROM milestones WHERE plan_id = ?",
+                    (rs, i) -> new Object[] {rs.getLong(1), rs.getString(2), rs.getDouble(3)}, planId);
+
+            lock.writeLock().lock();
+            try {
+                // Cascades (cancel, delete) change the plan's milestones without their own events
+                Set<Long> stale = milestonesOfPlan(planId);
+                if (plan.isEmpty()) {
+                    removePlan(planId);
+                } else {
+                    int owner = userSlot((Long) plan.get(0)[0]);
+                    setPlan(planId, owner, (String) plan.get(0)[1]);
+                    for (Object[] milestone : milestones) {
+                        Long milestoneId = (Long) milestone[0];
+                        setMilestone(milestoneId, planId, owner, (String) milestone[1], (Double) milestone[2]);
+                        stale.remove(milestoneId);
+                    }
+                }
+                stale.forEach(this::removeMilestone);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void refreshMilestone(Long milestoneId) {
+        updateLock.lock();
+        try {
+            List<Object[]> milestone = jdbcTemplate.query(
+                    "SELECT m.plan_id, m.status, m.completion_percent, p.user_id " +
+                    "FROM milestones m JOIN plans p ON p.plan_id = m.plan_id WHERE m.milestone_id = ?",
+                    (rs, i) -> new Object[] {rs.getLong(1), rs.getString(2), rs.getDouble(3), rs.getLong(4)}, milestoneId);
+
+            lock.writeLock().lock();
+            try {
+                if (milestone.isEmpty()) {
+                    removeMilestone(milestoneId);
+                } else {
+                    Object[] row = milestone.get(0);
+                    setMilestone(milestoneId, (Long) row[0], userSlot((Long) row[3]), (String) row[1], (Double) row[2]);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void refreshInitiative(Long initiativeId) {
+        updateLock.lock();
+        try {
+            List<Object[]> rows = jdbcTemplate.query(
+                    "SELECT i.status, i.milestone_id, a.user_id FROM initiatives i " +
+                    "LEFT JOIN initiative_assignees a ON a.initiative_id = i.initiative_id WHERE i.initiative_id = ?",
+                    (rs, i) -> {
+                        long userId = rs.getLong(3);
+                        return new Object[] {rs.getString(1), rs.getLong(2), rs.wasNull() ? null : userId};
+                    }, initiativeId);
+
+            lock.writeLock().lock();
+            try {
+                if (rows.isEmpty()) {
+                    removeInitiative(initiativeId);
+                    return;
+                }
+                int[] assignees = new int[rows.size()];
+                int count = 0;
+                for (Object[] row : rows) {
+                    if (row[2] != null) {
+                        assignees[count++] = userSlot((Long) row[2]);
+                    }
+                }
+                setInitiative(initiativeId, (String) rows.get(0)[0], assigneeArray(assignees, count));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            refreshMilestone((Long) rows.get(0)[1]);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    // ============================================================
+    // READS
+    // ============================================================
+
+    public DashboardStatsDTO dashboardStats() {
+        long startTime = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            return new DashboardStatsDTO(planCount,
+                    initiativesByStatus[IN_PROGRESS] + initiativesByStatus[PLANNED],
+                    milestonesByStatus[COMPLETED], existingUsers);
+        } finally {
+            lock.readLock().unlock();
+            record("dashboard", startTime);
+        }
+    }
+
+    /**
+     * Initiative counts for a department code (an initiative counts once per department).
+     */
+    public InitiativeCounts initiativeCounts(int departmentCode) {
+        long startTime = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            if (departmentCode < 0 || departmentCode >= departmentInitiatives.length
+                    || departmentInitiatives[departmentCode] == null) {
+                return NO_INITIATIVES;
+            }
+            int[] counts = departmentInitiatives[departmentCode];
+            int total = 0;
+            for (int status = 0; status < statuses.size(); status++) {
+                total += counts[status];
+            }
+            return new InitiativeCounts(total, counts[COMPLETED], counts[IN_PROGRESS], counts[PLANNED]);
+        } finally {
+            lock.readLock().unlock();
+            record("department-initiatives", startTime);
+        }
+    }
+
+    /**
+     * Assigned/completed counters for every user with at least one assignment.
+     */
+    public AssignmentIndex assignmentIndex() {
+        long startTime = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            List<UserAssignmentCounts> rows = new ArrayList<>();
+            for (int user = 0; user < userCount; user++) {
+                if (userAssigned[user] > 0) {
+                    rows.add(new UserAssignmentCounts(userIds[user], (long) userAssigned[user], (long) userCompleted[user]));
+                }
+            }
+            return AssignmentIndex.of(rows);
+        } finally {
+            lock.readLock().unlock();
+            record("assignments", startTime);
+        }
+    }
+
+    public AssignmentIndex assignmentIndex(Long userId) {
+        long startTime = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            int user = userSlots.get(userId);
+            if (user < 0 || userAssigned[user] == 0) {
+                return AssignmentIndex.empty();
+            }
+            return AssignmentIndex.of(List.of(
+                    new UserAssignmentCounts(userId, (long) userAssigned[user], (long) userCompleted[user])));
+        } finally {
+            lock.readLock().unlock();
+            record("assignments-user", startTime);
+        }
+    }
+
+    /**
+     * Plans owned by the user.
+     */
+    public PlanCounts planCounts(Long userId) {
+        long startTime = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            int user = userSlots.get(userId);
+            return user < 0 ? new PlanCounts(0, 0) : new PlanCounts(userPlans[user], userPlansCompleted[user]);
+        } finally {
+            lock.readLock().unlock();
+            record("plans-user", startTime);
+        }
+    }
+
+    /**
+     * Totals for every department whose name equals the given one ignoring case. Plans and
+     * milestones are attributed to the plan owner's department, initiatives to their assignees'.
+     * An initiative assigned into two spellings of the same department counts once.
+     */
+    public DepartmentTotals departmentTotals(String department) {
+        long startTime = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            int group = department != null ? departmentGroups.codeOf(department.toLowerCase(Locale.ROOT)) : -1;
+            return group < 0 ? new DepartmentTotals(0, 0, 0, 0, 0.0, 0, 0) : groupTotals(group);
+        } finally {
+            lock.readLock().unlock();
+            record("department-totals", startTime);
+        }
+    }
+
+    /**
+     * Totals for every department, keyed by lower-cased name (spellings that differ only in
+     * case together, as {@link #departmentTotals(String)} returns them).
+     */
+    public Map<String, DepartmentTotals> departmentTotalsByName() {
+        long startTime = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            Map<String, DepartmentTotals> totals = new HashMap<>();
+            for (int group = 0; group < departmentGroups.size(); group++) {
+                totals.put(departmentGroups.valueOf(group), groupTotals(group));
+            }
+            return totals;
+        } finally {
+            lock.readLock().unlock();
+            record("department-totals-by-name", startTime);
+        }
+    }
+
+    /**
+     * Maintained totals for every department, indexed by department code (exact spelling, so an
+     * initiative counts once per spelling; null where the cube holds no row for the code).
+     */
+    public DepartmentTotals[] departmentTotalsByCode() {
+        long startTime = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            DepartmentTotals[] totals = new DepartmentTotals[departmentInitiatives.length];
+            for (int code = 0; code < totals.length; code++) {
+                if (departmentInitiatives[code] != null) {
+                    totals[code] = totalsOf(code);
+                }
+            }
+            return totals;
+        } finally {
+            lock.readLock().unlock();
+            record("department-totals-all", startTime);
+        }
+    }
+
+    public int initiativeCount() {
+        return initiativeCount;
+    }
+
+    /**
+     * Approximate heap held by the columns, slot tables and aggregates (compressed oops).
+     */
+    public long footprintBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = userSlots.footprintBytes() + planSlots.footprintBytes()
+                    + milestoneSlots.footprintBytes() + initiativeSlots.footprintBytes();
+
+            int users = userIds.length;
+            bytes += arrayBytes(users, 8) + arrayBytes(users, 1) + 6 * arrayBytes(users, 4) + arrayBytes(users, 8)
+                    + 3 * arrayBytes(users, 4);
+            for (int user = 0; user < userCount; user++) {
+                if (singleAssignee[user] != null) {
+                    bytes += arrayBytes(1, 4);
+                }
+                if (userInitiatives[user] != null) {
+                    bytes += arrayBytes(userInitiatives[user].length, 8);
+                }
+            }
+
+            bytes += arrayBytes(planIds.length, 8) + arrayBytes(planIds.length, 4) + arrayBytes(planIds.length, 1);
+
+            int milestones = milestoneIds.length;
+            bytes += 2 * arrayBytes(milestones, 8) + arrayBytes(milestones, 4)
+                    + arrayBytes(milestones, 1) + arrayBytes(milestones, 8);
+
+            int initiatives = initiativeIds.length;
+            bytes += arrayBytes(initiatives, 8) + arrayBytes(initiatives, 1) + arrayBytes(initiatives, 4);
+            for (int slot = 0; slot < initiativeCount; slot++) {
+                int[] assignees = initiativeAssignees[slot];
+                if (assignees.length > 1) {
+                    bytes += arrayBytes(assignees.length, 4);
+                }
+            }
+
+            int departments = departmentInitiatives.length;
+            bytes += 3 * arrayBytes(MAX_STATUSES, 4) + arrayBytes(departments, 4)
+                    + 5 * arrayBytes(departments, 4) + arrayBytes(departments, 8)
+                    + arrayBytes(groupInitiatives.length, 4);
+            for (int[] counts : departmentInitiatives) {
+                if (counts != null) {
+                    bytes += arrayBytes(MAX_STATUSES, 4);
+                }
+            }
+            bytes += (long) departmentGroups.size() * arrayBytes(MAX_STATUSES, 4);
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ============================================================
+    // COLUMN UPDATES (write lock held)
+    // ============================================================
+
+    private void reset() {
+        statuses.clear();
+        statuses.encode("COMPLETED");
+        statuses.encode("IN_PROGRESS");
+        statuses.encode("PLANNED");
+
+        userSlots.clear();
+        userIds = new long[INITIAL_CAPACITY];
+        userExists = new boolean[INITIAL_CAPACITY];
+        existingUsers = 0;
+        userDepartment = new int[INITIAL_CAPACITY];
+        userAssigned = new int[INITIAL_CAPACITY];
+        userCompleted = new int[INITIAL_CAPACITY];
+        userPlans = new int[INITIAL_CAPACITY];
+        userPlansCompleted = new int[INITIAL_CAPACITY];
+        userMilestones = new int[INITIAL_CAPACITY];
+        userMilestonePercent = new double[INITIAL_CAPACITY];
+        singleAssignee = new int[INITIAL_CAPACITY][];
+        userInitiatives = new long[INITIAL_CAPACITY][];
+        userInitiativeCount = new int[INITIAL_CAPACITY];
+        userCount = 0;
+
+        planSlots.clear();
+        planIds = new long[INITIAL_CAPACITY];
+        planOwner = new int[INITIAL_CAPACITY];
+        planStatus = new byte[INITIAL_CAPACITY];
+        planCount = 0;
+
+        milestoneSlots.clear();
+        milestoneIds = new long[INITIAL_CAPACITY];
+        milestonePlanIds = new long[INITIAL_CAPACITY];
+        milestoneOwner = new int[INITIAL_CAPACITY];
+        milestoneStatus = new byte[INITIAL_CAPACITY];
+        milestonePercent = new double[INITIAL_CAPACITY];
+        milestoneCount = 0;
+
+        initiativeSlots.clear();
+        initiativeIds = new long[INITIAL_CAPACITY];
+        initiativeStatus = new byte[INITIAL_CAPACITY];
+        initiativeAssignees = new int[INITIAL_CAPACITY][];
+        initiativeCount = 0;
+
+        Arrays.fill(plansByStatus, 0);
+        Arrays.fill(milestonesByStatus, 0);
+        Arrays.fill(initiativesByStatus, 0);
+        departmentInitiatives = new int[16][];
+        departmentGroups.clear();
+        departmentGroup = new int[16];
+        groupInitiatives = new int[16][];
+        departmentUsers = new int[16];
+        departmentPlans = new int[16];
+        departmentPlansCompleted = new int[16];
+        departmentMilestones = new int[16];
+        departmentMilestonePercent = new double[16];
+    }
+
+    // --- users ---
+
+    // Slot for the user, creating an empty row for ids not seen yet
+    private int userSlot(long userId) {
+        int slot = userSlots.get(userId);
+        if (slot >= 0) {
+            return slot;
+        }
+        slot = userCount++;
+        if (slot == userIds.length) {
+            int capacity = grow(slot);
+            userIds = Arrays.copyOf(userIds, capacity);
+            userExists = Arrays.copyOf(userExists, capacity);
+            userDepartment = Arrays.copyOf(userDepartment, capacity);
+            userAssigned = Arrays.copyOf(userAssigned, capacity);
+            userCompleted = Arrays.copyOf(userCompleted, capacity);
+            userPlans = Arrays.copyOf(userPlans, capacity);
+            userPlansCompleted = Arrays.copyOf(userPlansCompleted, capacity);
+            userMilestones = Arrays.copyOf(userMilestones, capacity);
+            userMilestonePercent = Arrays.copyOf(userMilestonePercent, capacity);
+            singleAssignee = Arrays.copyOf(singleAssignee, capacity);
+            userInitiatives = Arrays.copyOf(userInitiatives, capacity);
+            userInitiativeCount = Arrays.copyOf(userInitiativeCount, capacity);
+        }
+        userIds[slot] = userId;
+        userDepartment[slot] = NO_DEPARTMENT;
+        userSlots.put(userId, slot);
+        return slot;
+    }
+
+    // A row of the users table: marks the slot as an existing user and sets the department
+    private void setUser(long userId, String department) {
+        int user = userSlot(userId);
+        if (!userExists[user]) {
+            userExists[user] = true;
+            existingUsers++;
+        }
+        setUserDepartment(user, departmentCode(department));
+    }
+
+    // The user's plans and the initiatives of their milestones arrive as their own events first;
+    // their remaining assignments were deleted with the row, without events
+    private void removeUser(long userId) {
+        int user = userSlots.get(userId);
+        if (user < 0) {
+            return;
+        }
+        long[] assigned = userInitiativeCount[user] == 0
+                ? new long[0] : Arrays.copyOf(userInitiatives[user], userInitiativeCount[user]);
+        for (long initiativeId : assigned) {
+            int slot = initiativeSlots.get(initiativeId);
+            int[] remaining = new int[initiativeAssignees[slot].length];
+            int count = 0;
+            for (int assignee : initiativeAssignees[slot]) {
+                if (assignee != user) {
+                    remaining[count++] = assignee;
+                }
+            }
+            setInitiative(initiativeId, statuses.valueOf(initiativeStatus[slot]), assigneeArray(remaining, count));
+        }
+        if (userExists[user]) {
+            userExists[user] = false;
+            existingUsers--;
+        }
+        setUserDepartment(user, NO_DEPARTMENT);
+        singleAssignee[user] = null;
+        userInitiatives[user] = null;
+        userSlots.remove(userId);
+    }
+
+    // Moves the initiatives the user is assigned to (their initiative list) between department buckets
+    private void setUserDepartment(int user, int department) {
+        if (userDepartment[user] == department) {
+            return;
+        }
+        int[] assigned = new int[userInitiativeCount[user]];
+        for (int i = 0; i < assigned.length; i++) {
+            assigned[i] = initiativeSlots.get(userInitiatives[user][i]);
+        }
+        for (int slot : assigned) {
+            applyInitiative(slot, -1);
+        }
+        applyUserToDepartment(user, -1);
+        userDepartment[user] = department;
+        applyUserToDepartment(user, 1);
+        for (int slot : assigned) {
+            applyInitiative(slot, 1);
+        }
+    }
+
+    // Adds (or removes) the user's own plan and milestone counters to their department's
+    private void applyUserToDepartment(int user, int delta) {
+        int department = userDepartment[user];
+        if (department == NO_DEPARTMENT) {
+            return;
+        }
+        departmentUsers[department] += delta;
+        departmentPlans[department] += delta * userPlans[user];
+        departmentPlansCompleted[department] += delta * userPlansCompleted[user];
+        departmentMilestones[department] += delta * userMilestones[user];
+        departmentMilestonePercent[department] += delta * userMilestonePercent[user];
+    }
+
+    private int departmentCode(String department) {
+        if (department == null || department.isEmpty()) {
+            return NO_DEPARTMENT;
+        }
+        // Codes are shared with other services, so this one may skip ahead of the array
+        int code = departmentDictionary.encode(department);
+        if (code >= departmentInitiatives.length) {
+            int capacity = Math.max(code + 1, grow(departmentInitiatives.length));
+            departmentInitiatives = Arrays.copyOf(departmentInitiatives, capacity);
+            departmentGroup = Arrays.copyOf(departmentGroup, capacity);
+            departmentUsers = Arrays.copyOf(departmentUsers, capacity);
+            departmentPlans = Arrays.copyOf(departmentPlans, capacity);
+            departmentPlansCompleted = Arrays.copyOf(departmentPlansCompleted, capacity);
+            departmentMilestones = Arrays.copyOf(departmentMilestones, capacity);
+            departmentMilestonePercent = Arrays.copyOf(departmentMilestonePercent, capacity);
+        }
+        if (departmentInitiatives[code] == null) {
+            departmentInitiatives[code] = new int[MAX_STATUSES];
+            int group = departmentGroups.encode(department.toLowerCase(Locale.ROOT));
+            if (group == groupInitiatives.length) {
+                groupInitiatives = Arrays.copyOf(groupInitiatives, grow(group));
+            }
+            if (groupInitiatives[group] == null) {
+                groupInitiatives[group] = new int[MAX_STATUSES];
+            }
+            departmentGroup[code] = group;
+        }
+        return code;
+    }
+
+    private int statusCode(String status) {
+        String normalized = status != null ? status.toUpperCase(Locale.ROOT) : "";
+        int code = statuses.codeOf(normalized);
+        if (code >= 0) {
+            return code;
+        }
+        if (statuses.size() == MAX_STATUSES) {
+            throw new IllegalStateException("Too many distinct statuses in analytics cube");
+        }
+        return statuses.encode(normalized);
+    }
+
+    // --- plans ---
+
+    private void setPlan(long planId, int owner, String status) {
+        int slot = planSlots.get(planId);
+        if (slot < 0) {
+            slot = planCount++;
+            if (slot == planIds.length) {
+                int capacity = grow(slot);
+                planIds = Arrays.copyOf(planIds, capacity);
+                planOwner = Arrays.copyOf(planOwner, capacity);
+                planStatus = Arrays.copyOf(planStatus, capacity);
+            }
+            planIds[slot] = planId;
+            planSlots.put(planId, slot);
+        } else {
+            applyPlan(slot, -1);
+        }
+        planOwner[slot] = owner;
+        planStatus[slot] = (byte) statusCode(status);
+        applyPlan(slot, 1);
+    }
+
+    private void removePlan(long planId) {
+        int slot = planSlots.remove(planId);
+        if (slot < 0) {
+            return;
+        }
+        applyPlan(slot, -1);
+        int last = --planCount;
+        if (slot != last) {
+            planIds[slot] = planIds[last];
+            planOwner[slot] = planOwner[last];
+            planStatus[slot] = planStatus[last];
+            planSlots.put(planIds[slot], slot);
+        }
+    }
+
+    private void applyPlan(int slot, int delta) {
+        int owner = planOwner[slot];
+        int department = userDepartment[owner];
+        boolean completed = planStatus[slot] == COMPLETED;
+        plansByStatus[planStatus[slot]] += delta;
+        userPlans[owner] += delta;
+        if (completed) {
+            userPlansCompleted[owner] += delta;
+        }
+        if (department != NO_DEPARTMENT) {
+            departmentPlans[department] += delta;
+            if (completed) {
+                departmentPlansCompleted[department] += delta;
+            }
+        }
+    }
+
+    // --- milestones ---
+
+    private Set<Long> milestonesOfPlan(long planId) {
+        Set<Long> ids = new HashSet<>();
+        for (int slot = 0; slot < milestoneCount; slot++) {
+            if (milestonePlanIds[slot] == planId) {
+                ids.add(milestoneIds[slot]);
+            }
+        }
+        return ids;
+    }
+
+    private void setMilestone(long milestoneId, long planId, int owner, String status, double percent) {
+        int slot = milestoneSlots.get(milestoneId);
+        if (slot < 0) {
+            slot = milestoneCount++;
+            if (slot == milestoneIds.length) {
+                int capacity = grow(slot);
+                milestoneIds = Arrays.copyOf(milestoneIds, capacity);
+                milestonePlanIds = Arrays.copyOf(milestonePlanIds, capacity);
+                milestoneOwner = Arrays.copyOf(milestoneOwner, capacity);
+                milestoneStatus = Arrays.copyOf(milestoneStatus, capacity);
+                milestonePercent = Arrays.copyOf(milestonePercent, capacity);
+            }
+            milestoneIds[slot] = milestoneId;
+            milestoneSlots.put(milestoneId, slot);
+        } else {
+            applyMilestone(slot, -1);
+        }
+        milestonePlanIds[slot] = planId;
+        milestoneOwner[slot] = owner;
+        milestoneStatus[slot] = (byte) statusCode(status);
+        milestonePercent[slot] = percent;
+        applyMilestone(slot, 1);
+    }
+
+    private void removeMilestone(long milestoneId) {
+        int slot = milestoneSlots.remove(milestoneId);
+        if (slot < 0) {
+            return;
+        }
+        applyMilestone(slot, -1);
+        int last = --milestoneCount;
+        if (slot != last) {
+            milestoneIds[slot] = milestoneIds[last];
+            milestonePlanIds[slot] = milestonePlanIds[last];
+            milestoneOwner[slot] = milestoneOwner[last];
+            milestoneStatus[slot] = milestoneStatus[last];
+            milestonePercent[slot] = milestonePercent[last];
+            milestoneSlots.put(milestoneIds[slot], slot);
+        }
+    }
+
+    private void applyMilestone(int slot, int delta) {
+        int owner = milestoneOwner[slot];
+        milestonesByStatus[milestoneStatus[slot]] += delta;
+        userMilestones[owner] += delta;
+        userMilestonePercent[owner] += delta * milestonePercent[slot];
+        int department = userDepartment[owner];
+        if (department != NO_DEPARTMENT) {
+            departmentMilestones[department] += delta;
+            departmentMilestonePercent[department] += delta * milestonePercent[slot];
+        }
+    }
+
+    // --- initiatives ---
+
+    private void setInitiative(long initiativeId, String status, int[] assignees) {
+        int slot = initiativeSlots.get(initiativeId);
+        if (slot < 0) {
+            slot = initiativeCount++;
+            if (slot == initiativeIds.length) {
+                int capacity = grow(slot);
+                initiativeIds = Arrays.copyOf(initiativeIds, capacity);
+                initiativeStatus = Arrays.copyOf(initiativeStatus, capacity);
+                initiativeAssignees = Arrays.copyOf(initiativeAssignees, capacity);
+            }
+            initiativeIds[slot] = initiativeId;
+            initiativeSlots.put(initiativeId, slot);
+            initiativeAssignees[slot] = NO_ASSIGNEES;
+        } else {
+            applyInitiative(slot, -1);
+        }
+        if (initiativeAssignees[slot] != assignees) {
+            unlinkAssignees(initiativeId, initiativeAssignees[slot]);
+            linkAssignees(initiativeId, assignees);
+        }
+        initiativeStatus[slot] = (byte) statusCode(status);
+        initiativeAssignees[slot] = assignees;
+        applyInitiative(slot, 1);
+    }
+
+    private void removeInitiative(long initiativeId) {
+        int slot = initiativeSlots.remove(initiativeId);
+        if (slot < 0) {
+            return;
+        }
+        applyInitiative(slot, -1);
+        unlinkAssignees(initiativeId, initiativeAssignees[slot]);
+        int last = --initiativeCount;
+        if (slot != last) {
+            initiativeIds[slot] = initiativeIds[last];
+            initiativeStatus[slot] = initiativeStatus[last];
+            initiativeAssignees[slot] = initiativeAssignees[last];
+            initiativeSlots.put(initiativeIds[slot], slot);
+        }
+        initiativeAssignees[last] = null;
+    }
+
+    private void applyInitiative(int slot, int delta) {
+        int status = initiativeStatus[slot];
+        int[] assignees = initiativeAssignees[slot];
+        initiativesByStatus[status] += delta;
+        for (int i = 0; i < assignees.length; i++) {
+            int user = assignees[i];
+            userAssigned[user] += delta;
+            if (status == COMPLETED) {
+                userCompleted[user] += delta;
+            }
+            int department = userDepartment[user];
+            if (department != NO_DEPARTMENT && !departmentSeen(assignees, i, department)) {
+                departmentInitiatives[department][status] += delta;
+                if (!groupSeen(assignees, i, departmentGroup[department])) {
+                    groupInitiatives[departmentGroup[department]][status] += delta;
+                }
+            }
+        }
+    }
+
+    private void linkAssignees(long initiativeId, int[] assignees) {
+        for (int user : assignees) {
+            long[] ids = userInitiatives[user];
+            int count = userInitiativeCount[user];
+            if (ids == null) {
+                ids = userInitiatives[user] = new long[4];
+            } else if (count == ids.length) {
+                ids = userInitiatives[user] = Arrays.copyOf(ids, grow(count));
+            }
+            ids[count] = initiativeId;
+            userInitiativeCount[user] = count + 1;
+        }
+    }
+
+    private void unlinkAssignees(long initiativeId, int[] assignees) {
+        for (int user : assignees) {
+            long[] ids = userInitiatives[user];
+            int last = userInitiativeCount[user] - 1;
+            for (int i = last; i >= 0; i--) {
+                if (ids[i] == initiativeId) {
+                    ids[i] = ids[last];
+                    userInitiativeCount[user] = last;
+                    break;
+                }
+            }
+        }
+    }
+
+    // True if an assignee before position 'end' already counted the initiative for the department
+    private boolean departmentSeen(int[] assignees, int end, int department) {
+        for (int i = 0; i < end; i++) {
+            if (userDepartment[assignees[i]] == department) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // True if an assignee before position 'end' already counted the initiative for the group
+    private boolean groupSeen(int[] assignees, int end, int group) {
+        for (int i = 0; i < end; i++) {
+            int department = userDepartment[assignees[i]];
+            if (department != NO_DEPARTMENT && departmentGroup[department] == group) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Single-assignee arrays are shared per user, so most initiatives cost one reference
+    private int[] assigneeArray(int[] assignees, int count) {
+        if (count == 0) {
+            return NO_ASSIGNEES;
+        }
+        if (count == 1) {
+            int user = assignees[0];
+            if (singleAssignee[user] == null) {
+                singleAssignee[user] = new int[] {user};
+            }
+            return singleAssignee[user];
+        }
+        return Arrays.copyOf(assignees, count);
+    }
+
+    /**
+     * Groups the streamed (initiative, assignee) rows of one initiative before storing it.
+     */
+    private final class InitiativeRows {
+        private long initiativeId = -1;
+        private String status;
+        private int[] assignees = new int[4];
+        private int count;
+
+        void add(long id, String rowStatus, long userId, boolean unassigned) {
+            if (id != initiativeId) {
+                flush();
+                initiativeId = id;
+                status = rowStatus;
+            }
+            if (!unassigned) {
+                if (count == assignees.length) {
+                    assignees = Arrays.copyOf(assignees, count * 2);
+                }
+                assignees[count++] = userSlot(userId);
+            }
+        }
+
+        void flush() {
+            if (initiativeId >= 0) {
+                setInitiative(initiativeId, status, assigneeArray(assignees, count));
+            }
+            initiativeId = -1;
+            count = 0;
+        }
+    }
+
+    // ============================================================
+    // HELPERS
+    // ============================================================
+
+    private DepartmentTotals totalsOf(int code) {
+        int[] counts = departmentInitiatives[code];
+        int initiatives = 0;
+        for (int status = 0; status < statuses.size(); status++) {
+            initiatives += counts[status];
+        }
+        return new DepartmentTotals(departmentUsers[code], departmentPlans[code], departmentPlansCompleted[code],
+                departmentMilestones[code], departmentMilestonePercent[code], initiatives, counts[COMPLETED]);
+    }
+
+    // Per-user counters summed over the group's spellings; initiatives counted once for the group
+    private DepartmentTotals groupTotals(int group) {
+        DepartmentTotals totals = new DepartmentTotals(0, 0, 0, 0, 0.0, 0, 0);
+        for (int code = 0; code < departmentInitiatives.length; code++) {
+            if (departmentInitiatives[code] != null && departmentGroup[code] == group) {
+                totals = totals.plus(totalsOf(code));
+            }
+        }
+        int[] counts = groupInitiatives[group];
+        int initiatives = 0;
+        for (int status = 0; status < statuses.size(); status++) {
+            initiatives += counts[status];
+        }
+        return new DepartmentTotals(totals.users(), totals.plans(), totals.completedPlans(), totals.milestones(),
+                totals.milestonePercentSum(), initiatives, counts[COMPLETED]);
+    }
+
+    private static int grow(int capacity) {
+        return capacity + (capacity >> 1);
+    }
+
+    private static long arrayBytes(int length, int elementSize) {
+        return 16L + (((long) length * elementSize + 7) & ~7L);
+    }
+
+    private void record(String query, long startNanos) {
+        queryTimers.computeIfAbsent(query, name -> Timer.builder("analytics.cube.query")
+                        .tag("query", name)
+                        .description("Analytics cube read latency")
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(meterRegistry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,56 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.event.DataChangedEvent;
+import com.plantrack.backend.event.InitiativeChangedEvent;
+import com.plantrack.backend.event.UserChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global version of the data behind analytics. Incremented after every committed plan,
+ * milestone, initiative or user write, and by the jobs that replace derived state
+ * outside those writes (weekly snapshot baseline, streak rebuild, cube rebuild on drift);
+ * cached analytics results are tagged with the version they were computed at and are
+ * stale once it moves on.
+ *
+ * The bump runs after the in-memory maintainers (leaderboard trees, completion rollup),
+ * which listen with {@link #MAINTENANCE_ORDER}, so a result computed at the new version
+ * already sees their updates.
+ */
+@Service
+public class AnalyticsDataVersion {
+
+    public static final int MAINTENANCE_ORDER = 0;
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    public long increment() {
+        return version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onDataChanged(DataChangedEvent event) {
+        increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onInitiativeChanged(InitiativeChangedEvent event) {
+        increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onUserChanged(UserChangedEvent event) {
+        increment();
+    }
+}
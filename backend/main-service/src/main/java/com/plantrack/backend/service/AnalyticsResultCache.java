@@ -0,0 +1,223 @@
+package com.plantrack.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of analytics endpoint results, keyed by endpoint name plus the raw
+ * request parameters and the current date, and tagged with the {@link AnalyticsDataVersion}
+ * they were computed at. Velocity windows and streaks are relative to today, so a result
+ * is never served on a later day; the previous day's entries age out of the LRU.
+ *
+ * - Current version: served directly (hit).
+ * - Older version: the stale value is served and one background refresh recomputes it
+ *   (stale). Entries older than max-stale-ms are recomputed inline instead.
+ * - Absent: computed inline and stored (miss).
+ *
+ * Least-recently-used entries are evicted beyond max-entries.
+ *
+ * Metrics: analytics.cache.requests{result=hit|stale|miss},
+ * analytics.cache.refreshes{outcome=success|failure|rejected}, analytics.cache.evictions
+ * and analytics.cache.size.
+ */
+@Service
+public class AnalyticsResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsResultCache.class);
+
+    private static final class Entry {
+        final Object value;
+        final long version;
+        final long loadedAt;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(Object value, long version, long loadedAt) {
+            this.value = value;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final AnalyticsDataVersion dataVersion;
+    private final long maxStaleMillis;
+    private final Map<String, Entry> entries;
+    private final ThreadPoolExecutor refreshExecutor;
+
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter refreshSuccesses;
+    private final Counter refreshFailures;
+    private final Counter refreshRejections;
+    private final Counter evictions;
+
+    public AnalyticsResultCache(AnalyticsDataVersion dataVersion, MeterRegistry meterRegistry,
+                                @Value("${analytics.cache.max-entries:500}") int maxEntries,
+                                @Value("${analytics.cache.max-stale-ms:60000}") long maxStaleMillis,
+                                @Value("${analytics.cache.refresh-threads:2}") int refreshThreads) {
+        this.dataVersion = dataVersion;
+        this.maxStaleMillis = maxStaleMillis;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxEntries),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "analytics-cache-refresh-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+
+        this.hits = requests(meterRegistry, "hit");
+        this.staleHits = requests(meterRegistry, "stale");
+        this.misses = requests(meterRegistry, "miss");
+        this.refreshSuccesses = refreshes(meterRegistry, "success");
+        this.refreshFailures = refreshes(meterRegistry, "failure");
+        this.refreshRejections = refreshes(meterRegistry, "rejected");
+        this.evictions = Counter.builder("analytics.cache.evictions")
+                .description("Analytics results evicted by the size bound")
+                .register(meterRegistry);
+        Gauge.builder("analytics.cache.size", this, AnalyticsResultCache::size)
+                .description("Cached analytics results")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Return the cached result for the endpoint and parameters, computing it with the
+     * loader when absent or too stale.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String endpoint, Supplier<T> loader, Object... params) {
+        String key = key(endpoint, params) + '|' + LocalDate.now();
+        long version = dataVersion.current();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        if (entry != null && entry.version == version) {
+            hits.increment();
+            return (T) entry.value;
+        }
+        if (entry != null && System.currentTimeMillis() - entry.loadedAt < maxStaleMillis) {
+            staleHits.increment();
+            scheduleRefresh(key, entry, loader);
+            return (T) entry.value;
+        }
+
+        misses.increment();
+        T value = loader.get();
+        store(key, new Entry(value, version, System.currentTimeMillis()));
+        return value;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Endpoint name plus the parameters exactly as received: the services filter
+     * case-sensitively and tell a blank value from an absent one, so the key must too.
+     * Each value is length-prefixed, so no two parameter lists share a key.
+     */
+    static String key(String endpoint, Object... params) {
+        StringBuilder key = new StringBuilder(endpoint);
+        for (Object param : params) {
+            if (param == null) {
+                key.append("|-");
+                continue;
+            }
+            String text = String.valueOf(param);
+            key.append('|').append(text.length()).append(':').append(text);
+        }
+        return key.toString();
+    }
+
+    private void scheduleRefresh(String key, Entry stale, Supplier<?> loader) {
+        if (!stale.refreshing.compareAndSet(false, true)) {
+            return; // another request already triggered the refresh
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                long version = dataVersion.current();
+                try {
+                    store(key, new Entry(loader.get(), version, System.currentTimeMillis()));
+                    refreshSuccesses.increment();
+                } catch (RuntimeException e) {
+                    refreshFailures.increment();
+                    stale.refreshing.set(false);
+                    logger.warn("Analytics cache refresh failed: key={}", key, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshRejections.increment();
+            stale.refreshing.set(false);
+            logger.debug("Analytics cache refresh rejected (queue full): key={}", key);
+        }
+    }
+
+    private void store(String key, Entry entry) {
+        synchronized (entries) {
+            Entry existing = entries.get(key);
+            // Never replace a result with one computed at an older version
+            if (existing == null || existing.version <= entry.version) {
+                entries.put(key, entry);
+            }
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("analytics.cache.requests")
+                .tag("result", result)
+                .description("Analytics endpoint lookups by cache outcome")
+                .register(meterRegistry);
+    }
+
+    private static Counter refreshes(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("analytics.cache.refreshes")
+                .tag("outcome", outcome)
+                .description("Background recomputations of stale analytics results")
+                .register(meterRegistry);
+    }
+}
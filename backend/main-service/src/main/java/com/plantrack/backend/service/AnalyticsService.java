@@ -1,23 +1,18 @@
 package com.plantrack.backend.service;
 
 import com.plantrack.backend.dto.*;
-import com.plantrack.backend.model.Initiative;
-import com.plantrack.backend.model.Milestone;
-import com.plantrack.backend.model.Plan;
-import com.plantrack.backend.model.PlanStatus;
 import com.plantrack.backend.model.User;
-import com.plantrack.backend.repository.InitiativeRepository;
-import com.plantrack.backend.repository.MilestoneRepository;
-import com.plantrack.backend.repository.PlanRepository;
+import com.plantrack.backend.model.UserMetrics;
 import com.plantrack.backend.repository.UserRepository;
+import com.plantrack.backend.util.KeysetCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.Comparator;
 
@@ -27,35 +22,42 @@ public class AnalyticsService {
     private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
 
     @Autowired
-    private PlanRepository planRepository;
+    private UserRepository userRepository;
 
     @Autowired
-    private MilestoneRepository milestoneRepository;
+    private LeaderboardService leaderboardService;
 
     @Autowired
-    private InitiativeRepository initiativeRepository;
+    private DashboardStatsCache dashboardStatsCache;
 
     @Autowired
-    private UserRepository userRepository;
+    private CompletionRollupService completionRollupService;
+
+    @Autowired
+    private UserMetricsService userMetricsService;
+
+    @Autowired
+    private BadgeAwardService badgeAwardService;
+
+    @Autowired
+    private AnalyticsCube analyticsCube;
+
+    @Autowired
+    private StreakService streakService;
+
+    @Autowired
+    private DepartmentDictionary departmentDictionary;
 
     public AnalyticsDTO getUserAnalytics(Long userId) {
         logger.debug("Calculating user analytics: userId={}", userId);
         
-        // 1. Fetch all plans for the user
-        List<Plan> userPlans = planRepository.findByUserUserId(userId);
-
-        int totalPlans = userPlans.size();
-        int completedPlans = 0;
-        int pendingPlans = 0;
-
-        // 2. Loop and Count
-        for (Plan plan : userPlans) {
-            if (plan.getStatus() == PlanStatus.COMPLETED) {
-                completedPlans++;
-            } else {
-                pendingPlans++;
-            }
-        }
+        // 1. Plan counters for the user, maintained by the analytics cube
+        AnalyticsCube.PlanCounts planCounts = analyticsCube.planCounts(userId);
+
+        // 2. Completed vs everything else
+        int totalPlans = planCounts.total();
+        int completedPlans = planCounts.completed();
+        int pendingPlans = totalPlans - completedPlans;
 
         // 3. Calculate Percentage (Avoid division by zero)
         double percentage = (totalPlans == 0) ? 0.0 : ((double) completedPlans / totalPlans) * 100;
@@ -68,76 +70,40 @@ public class AnalyticsService {
     }
 
     public DashboardStatsDTO getDashboardStats() {
+        return dashboardStatsCache.get(this::computeDashboardStats);
+    }
+
+    private DashboardStatsDTO computeDashboardStats() {
         logger.debug("Calculating dashboard statistics");
         long startTime = System.currentTimeMillis();
         
-        // Get total plans
-        int totalPlans = (int) planRepository.count();
-
-        // Get active initiatives (status is IN_PROGRESS or PLANNED)
-        List<Initiative> allInitiatives = initiativeRepository.findAll();
-        int activeInitiatives = 0;
-        for (Initiative initiative : allInitiatives) {
-            String status = initiative.getStatus();
-            if (status != null && (status.equals("IN_PROGRESS") || status.equals("PLANNED"))) {
-                activeInitiatives++;
-            }
-        }
-
-        // Get completed milestones
-        List<Milestone> allMilestones = milestoneRepository.findAll();
-        int completedMilestones = 0;
-        for (Milestone milestone : allMilestones) {
-            if (milestone.getStatus() != null && milestone.getStatus().equals("COMPLETED")) {
-                completedMilestones++;
-            }
-        }
-
-        // Get total users
-        int totalUsers = (int) userRepository.count();
+        // Total plans, active (IN_PROGRESS or PLANNED) initiatives, completed milestones, total users
+        DashboardStatsDTO stats = analyticsCube.dashboardStats();
 
         long duration = System.currentTimeMillis() - startTime;
         logger.info("Dashboard stats calculated: totalPlans={}, activeInitiatives={}, completedMilestones={}, totalUsers={}, duration={}ms", 
-                totalPlans, activeInitiatives, completedMilestones, totalUsers, duration);
+                stats.getTotalPlans(), stats.getActiveInitiatives(), stats.getCompletedMilestones(), stats.getTotalUsers(), duration);
 
-        return new DashboardStatsDTO(totalPlans, activeInitiatives, completedMilestones, totalUsers);
+        return stats;
     }
 
     /**
      * Get departmental insights - analyze performance by department
      */
     public List<DepartmentalInsightsDTO> getDepartmentalInsights() {
-        List<User> allUsers = userRepository.findAll();
-        Map<String, List<User>> usersByDepartment = allUsers.stream()
-                .filter(u -> u.getDepartment() != null && !u.getDepartment().isEmpty())
-                .collect(Collectors.groupingBy(User::getDepartment));
-
-        List<DepartmentalInsightsDTO> insights = new ArrayList<>();
+        long startTime = System.currentTimeMillis();
 
-        for (Map.Entry<String, List<User>> entry : usersByDepartment.entrySet()) {
-            String department = entry.getKey();
-            List<User> departmentUsers = entry.getValue();
-            List<Long> userIds = departmentUsers.stream()
-                    .map(User::getUserId)
-                    .collect(Collectors.toList());
+        // Cached department list; per-department status counts are read from the cube by code
+        List<String> departments = departmentDictionary.departments();
+        List<DepartmentalInsightsDTO> insights = new ArrayList<>(departments.size());
 
-            // Get all initiatives assigned to users in this department
-            List<Initiative> departmentInitiatives = initiativeRepository.findAll().stream()
-                    .filter(i -> i.getAssignedUsers() != null && !i.getAssignedUsers().isEmpty() &&
-                            i.getAssignedUsers().stream()
-                                    .anyMatch(user -> userIds.contains(user.getUserId())))
-                    .collect(Collectors.toList());
+        for (String department : departments) {
+            AnalyticsCube.InitiativeCounts counts = analyticsCube.initiativeCounts(departmentDictionary.codeOf(department));
 
-            int total = departmentInitiatives.size();
-            int completed = (int) departmentInitiatives.stream()
-                    .filter(i -> "COMPLETED".equalsIgnoreCase(i.getStatus()))
-                    .count();
-            int inProgress = (int) departmentInitiatives.stream()
-                    .filter(i -> "IN_PROGRESS".equalsIgnoreCase(i.getStatus()))
-                    .count();
-            int planned = (int) departmentInitiatives.stream()
-                    .filter(i -> "PLANNED".equalsIgnoreCase(i.getStatus()))
-                    .count();
+            int total = counts.total();
+            int completed = counts.completed();
+            int inProgress = counts.inProgress();
+            int planned = counts.planned();
 
             double completionRate = total > 0 ? ((double) completed / total) * 100 : 0.0;
 
@@ -160,6 +126,8 @@ public class AnalyticsService {
             ));
         }
 
+        logger.debug("Departmental insights calculated: departments={}, duration={}ms",
+                insights.size(), System.currentTimeMillis() - startTime);
         return insights;
     }
 
@@ -170,46 +138,7 @@ public class AnalyticsService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Get all initiatives assigned to this user
-        List<Initiative> userInitiatives = initiativeRepository.findAll().stream()
-                .filter(i -> i.getAssignedUsers() != null && !i.getAssignedUsers().isEmpty() &&
-                        i.getAssignedUsers().stream()
-                                .anyMatch(assignedUser -> assignedUser.getUserId().equals(userId)))
-                .collect(Collectors.toList());
-
-        int tasksAssigned = userInitiatives.size();
-        int tasksCompleted = (int) userInitiatives.stream()
-                .filter(i -> "COMPLETED".equalsIgnoreCase(i.getStatus()))
-                .count();
-
-        double completionRate = tasksAssigned > 0 ? ((double) tasksCompleted / tasksAssigned) * 100 : 0.0;
-
-        // Weekly velocity (simplified - would need createdDate/completedDate in real system)
-        Map<LocalDate, Integer> weeklyVelocity = new HashMap<>();
-        LocalDate now = LocalDate.now();
-        for (int i = 0; i < 8; i++) {
-            LocalDate weekStart = now.minusWeeks(i).with(java.time.DayOfWeek.MONDAY);
-            weeklyVelocity.put(weekStart, 0); // Placeholder
-        }
-
-        // Monthly velocity
-        Map<String, Integer> monthlyVelocity = new HashMap<>();
-        for (int i = 0; i < 6; i++) {
-            LocalDate monthStart = now.minusMonths(i).withDayOfMonth(1);
-            String monthKey = monthStart.getYear() + "-" + String.format("%02d", monthStart.getMonthValue());
-            monthlyVelocity.put(monthKey, 0); // Placeholder
-        }
-
-        // Calculate averages (simplified)
-        double averageTasksPerWeek = tasksCompleted / 8.0; // Over last 8 weeks
-        double averageTasksPerMonth = tasksCompleted / 6.0; // Over last 6 months
-
-        return new VelocityMetricsDTO(
-                userId, user.getName(), user.getDepartment(),
-                tasksAssigned, tasksCompleted, completionRate,
-                weeklyVelocity, monthlyVelocity,
-                averageTasksPerWeek, averageTasksPerMonth
-        );
+        return buildVelocity(user, analyticsCube.assignmentIndex(userId), completionRollupService.seriesFor(userId));
     }
 
     /**
@@ -217,8 +146,11 @@ public class AnalyticsService {
      */
     public List<VelocityMetricsDTO> getAllUsersVelocity() {
         List<User> allUsers = userRepository.findAll();
+        AssignmentIndex index = loadAssignmentIndex();
+        Map<Long, CompletionRollupService.CompletionSeries> series = completionRollupService.seriesForAll();
+        CompletionRollupService.CompletionSeries noCompletions = completionRollupService.emptySeries();
         return allUsers.stream()
-                .map(u -> getUserVelocity(u.getUserId()))
+                .map(u -> buildVelocity(u, index, series.getOrDefault(u.getUserId(), noCompletions)))
                 .collect(Collectors.toList());
     }
 
@@ -233,245 +165,61 @@ public class AnalyticsService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Get user's initiatives
-        List<Initiative> userInitiatives = initiativeRepository.findAll().stream()
-                .filter(i -> i.getAssignedUsers() != null && !i.getAssignedUsers().isEmpty() &&
-                        i.getAssignedUsers().stream()
-                                .anyMatch(assignedUser -> assignedUser.getUserId().equals(userId)))
-                .collect(Collectors.toList());
-
-        int tasksAssigned = userInitiatives.size();
-        int tasksCompleted = (int) userInitiatives.stream()
-                .filter(i -> "COMPLETED".equalsIgnoreCase(i.getStatus()))
-                .count();
-
-        double completionRate = tasksAssigned > 0 ? ((double) tasksCompleted / tasksAssigned) * 100 : 0.0;
-
-        // Speed score: based on completion rate and average tasks per week
-        double averageTasksPerWeek = tasksCompleted / 8.0;
-        double speedScore = Math.min(100, (averageTasksPerWeek / 5.0) * 100); // Normalize to 5 tasks/week = 100
-
-        // Quality score: based on completion rate
-        double qualityScore = completionRate;
-
-        // Consistency score: variance in completion (simplified - would need historical data)
-        double consistencyScore = completionRate > 80 ? 90.0 : completionRate > 50 ? 70.0 : 50.0;
-
-        // Overall weighted score
-        double overallScore = (completionRate * 0.4) + (speedScore * 0.3) + (qualityScore * 0.2) + (consistencyScore * 0.1);
-
-        // Determine performance tier
-        String performanceTier = overallScore >= 85 ? "TOP_PERFORMER" :
-                                 overallScore >= 65 ? "CONSISTENT" : "NEEDS_IMPROVEMENT";
-
-        // Calculate actual ranks by comparing with all users
-        List<User> allUsers = userRepository.findAll();
-        List<PerformanceScoreDTO> allScores = allUsers.stream()
-                .map(u -> {
-                    List<Initiative> uInitiatives = initiativeRepository.findAll().stream()
-                            .filter(i -> i.getAssignedUsers() != null && !i.getAssignedUsers().isEmpty() &&
-                                    i.getAssignedUsers().stream()
-                                            .anyMatch(au -> au.getUserId().equals(u.getUserId())))
-                            .collect(Collectors.toList());
-                    int uTasksAssigned = uInitiatives.size();
-                    int uTasksCompleted = (int) uInitiatives.stream()
-                            .filter(i -> "COMPLETED".equalsIgnoreCase(i.getStatus()))
-                            .count();
-                    double uCompletionRate = uTasksAssigned > 0 ? ((double) uTasksCompleted / uTasksAssigned) * 100 : 0.0;
-                    double uAvgTasksPerWeek = uTasksCompleted / 8.0;
-                    double uSpeedScore = Math.min(100, (uAvgTasksPerWeek / 5.0) * 100);
-                    double uQualityScore = uCompletionRate;
-                    double uConsistencyScore = uCompletionRate > 80 ? 90.0 : uCompletionRate > 50 ? 70.0 : 50.0;
-                    double uOverallScore = (uCompletionRate * 0.4) + (uSpeedScore * 0.3) + (uQualityScore * 0.2) + (uConsistencyScore * 0.1);
-                    return new PerformanceScoreDTO(u.getUserId(), u.getName(), u.getDepartment(),
-                            uOverallScore, uCompletionRate, uSpeedScore, uQualityScore, uConsistencyScore,
-                            0, 0, 0, 0, "", 0.0);
-                })
-                .sorted(Comparator.comparing(PerformanceScoreDTO::getOverallScore).reversed())
-                .collect(Collectors.toList());
-
-        // Calculate overall rank
-        int rank = 1;
-        for (int i = 0; i < allScores.size(); i++) {
-            if (allScores.get(i).getUserId().equals(userId)) {
-                rank = i + 1;
-                break;
-            }
-        }
-
-        // Calculate department rank
-        List<PerformanceScoreDTO> departmentScores = allScores.stream()
-                .filter(s -> user.getDepartment() != null && 
-                            s.getDepartment() != null && 
-                            s.getDepartment().equals(user.getDepartment()))
-                .sorted(Comparator.comparing(PerformanceScoreDTO::getOverallScore).reversed())
-                .collect(Collectors.toList());
-
-        int departmentRank = 1;
-        for (int i = 0; i < departmentScores.size(); i++) {
-            if (departmentScores.get(i).getUserId().equals(userId)) {
-                departmentRank = i + 1;
-                break;
-            }
-        }
-
-        int previousRank = rank;
-        int previousDepartmentRank = departmentRank;
-        double improvementPercentage = 0.0;
-
-        return new PerformanceScoreDTO(
-                userId, user.getName(), user.getDepartment(),
-                overallScore, completionRate, speedScore, qualityScore, consistencyScore,
-                rank, departmentRank, previousRank, previousDepartmentRank,
-                performanceTier, improvementPercentage
-        );
+        return buildPerformanceScore(user, analyticsCube.assignmentIndex(userId));
     }
 
     /**
      * Get gamified velocity metrics with badges and rankings
+     * (the user's own counters and series, ranks from the leaderboard trees)
      */
     public GamifiedVelocityDTO getGamifiedVelocity(Long userId, String departmentFilter) {
-        VelocityMetricsDTO baseMetrics = getUserVelocity(userId);
-        PerformanceScoreDTO performance = calculatePerformanceScore(userId, departmentFilter);
-        List<BadgeDTO> badges = calculateBadges(userId);
-
-        // Calculate streaks (simplified)
-        int streakDays = 0;
-        int streakWeeks = 0;
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return new GamifiedVelocityDTO(
-                userId, baseMetrics.getUserName(), baseMetrics.getDepartment(),
-                baseMetrics.getTasksAssigned(), baseMetrics.getTasksCompleted(),
-                baseMetrics.getCompletionRate(), baseMetrics.getAverageTasksPerWeek(),
-                baseMetrics.getAverageTasksPerMonth(), performance.getOverallScore(),
-                performance.getRank(), performance.getDepartmentRank(),
-                performance.getPerformanceTier(), badges,
-                performance.getImprovementPercentage(), streakDays, streakWeeks
-        );
+        AssignmentIndex index = analyticsCube.assignmentIndex(userId);
+        return buildGamifiedVelocity(user, buildVelocity(user, index, completionRollupService.seriesFor(userId)),
+                buildPerformanceScore(user, index), badgeAwardService.badgesFor(userId));
     }
 
     /**
-     * Calculate badges for a user (department-aware)
+     * Badges awarded to a user (persisted by the badge award engine)
      */
     public List<BadgeDTO> calculateBadges(Long userId) {
-        List<BadgeDTO> badges = new ArrayList<>();
-        VelocityMetricsDTO metrics = getUserVelocity(userId);
-        PerformanceScoreDTO performance = calculatePerformanceScore(userId, null);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Get department-specific metrics for comparison
-        List<VelocityMetricsDTO> departmentMetrics = getAllUsersVelocity().stream()
-                .filter(m -> user.getDepartment() != null && 
-                            m.getDepartment() != null && 
-                            m.getDepartment().equals(user.getDepartment()))
-                .collect(Collectors.toList());
-
-        // Speed Demon: Complete tasks 25% faster than department average
-        if (!departmentMetrics.isEmpty()) {
-            double deptAvgTasksPerWeek = departmentMetrics.stream()
-                    .mapToDouble(VelocityMetricsDTO::getAverageTasksPerWeek)
-                    .average()
-                    .orElse(0.0);
-            if (deptAvgTasksPerWeek > 0 && metrics.getAverageTasksPerWeek() >= deptAvgTasksPerWeek * 1.25) {
-                badges.add(new BadgeDTO("speed_demon", "Speed Demon",
-                        "Complete tasks 25% faster than department average", "SPEED",
-                        "⚡", LocalDateTime.now(), true,
-                        "Average tasks per week: " + String.format("%.1f", metrics.getAverageTasksPerWeek())));
-            }
-        }
-
-        // Quality Champion: Maintain 95%+ completion rate
-        if (metrics.getCompletionRate() >= 95.0) {
-            badges.add(new BadgeDTO("quality_champion", "Quality Champion",
-                    "Maintain 95%+ completion rate", "QUALITY",
-                    "🏆", LocalDateTime.now(), true,
-                    "Completion rate: " + String.format("%.1f%%", metrics.getCompletionRate())));
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
         }
 
-        // Consistency King: Steady performance
-        if (performance.getConsistencyScore() >= 85.0) {
-            badges.add(new BadgeDTO("consistency_king", "Consistency King",
-                    "Steady performance with high consistency", "CONSISTENCY",
-                    "👑", LocalDateTime.now(), true,
-                    "Consistency score: " + String.format("%.1f", performance.getConsistencyScore())));
-        }
-
-        // Perfect Week: 100% completion for a week (simplified check)
-        if (metrics.getCompletionRate() == 100.0 && metrics.getTasksCompleted() > 0) {
-            badges.add(new BadgeDTO("perfect_week", "Perfect Week",
-                    "100% completion rate", "QUALITY",
-                    "⭐", LocalDateTime.now(), true,
-                    "Perfect completion rate achieved"));
-        }
-
-        // Rising Star: Top 20% in department
-        if (!departmentMetrics.isEmpty() && performance.getDepartmentRank() > 0) {
-            int deptSize = departmentMetrics.size();
-            int topPercent = (int) Math.ceil(deptSize * 0.2);
-            if (performance.getDepartmentRank() <= topPercent) {
-                badges.add(new BadgeDTO("rising_star", "Rising Star",
-                        "Top performer in your department", "IMPROVEMENT",
-                        "🌟", LocalDateTime.now(), true,
-                        "Rank #" + performance.getDepartmentRank() + " in " + user.getDepartment()));
-            }
-        }
-
-        // Team Player: High collaboration (simplified - based on tasks assigned)
-        if (metrics.getTasksAssigned() >= 10) {
-            badges.add(new BadgeDTO("team_player", "Team Player",
-                    "Actively engaged with multiple tasks", "TEAMWORK",
-                    "🤝", LocalDateTime.now(), true,
-                    "Assigned to " + metrics.getTasksAssigned() + " tasks"));
-        }
-
-        return badges;
+        return badgeAwardService.badgesFor(userId);
     }
 
     /**
-     * Get leaderboard entries
+     * Get leaderboard entries (served from the incrementally maintained rank trees)
      */
     public List<LeaderboardEntryDTO> getLeaderboard(String metricType, String departmentFilter, int limit) {
-        List<User> users = userRepository.findAll();
-        if (departmentFilter != null && !departmentFilter.isEmpty()) {
-            users = users.stream()
-                    .filter(u -> departmentFilter.equals(u.getDepartment()))
-                    .collect(Collectors.toList());
-        }
-
-        List<LeaderboardEntryDTO> entries = new ArrayList<>();
-        int rank = 1;
-
-        for (User user : users) {
-            VelocityMetricsDTO metrics = getUserVelocity(user.getUserId());
-            PerformanceScoreDTO performance = calculatePerformanceScore(user.getUserId(), departmentFilter);
-
-            double score = switch (metricType) {
-                case "SPEED" -> metrics.getAverageTasksPerWeek();
-                case "QUALITY" -> metrics.getCompletionRate();
-                case "IMPROVEMENT" -> performance.getImprovementPercentage();
-                default -> performance.getOverallScore();
-            };
+        List<LeaderboardService.Standing> standings = leaderboardService.top(metricType, departmentFilter, 0, limit);
+
+        boolean departmentScoped = departmentFilter != null && !departmentFilter.isEmpty();
+        boolean overall = "OVERALL".equals(LeaderboardService.normalizeMetric(metricType));
+
+        List<LeaderboardEntryDTO> entries = new ArrayList<>(standings.size());
+        for (int i = 0; i < standings.size(); i++) {
+            LeaderboardService.Standing standing = standings.get(i);
+            double score = standing.metric(metricType);
+
+            // Snapshots hold OVERALL ranks only, so rank movement is reported for that metric
+            int rankChange = 0;
+            LeaderboardService.Baseline baseline = overall ? leaderboardService.baselineOf(standing.userId()) : null;
+            if (baseline != null) {
+                int previousRank = departmentScoped ? baseline.departmentRank() : baseline.rank();
+                rankChange = previousRank - (i + 1);
+            }
 
             entries.add(new LeaderboardEntryDTO(
-                    user.getUserId(), user.getName(), user.getDepartment(),
-                    rank++, score, metricType, score, 0, null
+                    standing.userId(), standing.userName(), standing.department(),
+                    i + 1, score, metricType, score, rankChange, null
             ));
         }
 
-        // Sort by score descending
-        entries.sort(Comparator.comparing(LeaderboardEntryDTO::getScore).reversed());
-
-        // Update ranks after sorting
-        for (int i = 0; i < entries.size(); i++) {
-            entries.get(i).setRank(i + 1);
-        }
-
-        // Limit results
-        if (limit > 0 && limit < entries.size()) {
-            entries = entries.subList(0, limit);
-        }
-
         return entries;
     }
 
@@ -482,7 +230,8 @@ public class AnalyticsService {
                                                              Double minCompletionRate, Double maxCompletionRate,
                                                              Integer minTasks, Integer maxTasks,
                                                              String performanceTier, String sortBy, String sortOrder) {
-        List<User> users = userRepository.findAll();
+        List<User> allUsers = userRepository.findAll();
+        List<User> users = allUsers;
 
         // Apply department filter
         if (departmentFilter != null && !departmentFilter.isEmpty()) {
@@ -500,9 +249,12 @@ public class AnalyticsService {
                     .collect(Collectors.toList());
         }
 
-        // Get gamified metrics for all users
+        // Get gamified metrics for all users from one batch over shared aggregates
+        AnalyticsBatch batch = computeBatch(allUsers, loadAssignmentIndex());
+        Map<Long, List<BadgeDTO>> badges = badgeAwardService.badgesFor(
+                users.stream().map(User::getUserId).collect(Collectors.toList()));
         List<GamifiedVelocityDTO> results = users.stream()
-                .map(u -> getGamifiedVelocity(u.getUserId(), departmentFilter))
+                .map(u -> buildGamifiedVelocity(u, batch, badges.getOrDefault(u.getUserId(), new ArrayList<>())))
                 .collect(Collectors.toList());
 
         // Apply filters
@@ -556,18 +308,16 @@ public class AnalyticsService {
         }
 
         // Recalculate ranks after filtering and sorting
-        // Group by department for department ranks
-        Map<String, List<GamifiedVelocityDTO>> byDepartment = results.stream()
-                .filter(r -> r.getDepartment() != null && !r.getDepartment().isEmpty())
-                .collect(Collectors.groupingBy(GamifiedVelocityDTO::getDepartment));
-
-        // Update department ranks
-        byDepartment.forEach((dept, deptResults) -> {
-            deptResults.sort(Comparator.comparing(GamifiedVelocityDTO::getOverallScore).reversed());
-            for (int i = 0; i < deptResults.size(); i++) {
-                deptResults.get(i).setDepartmentRank(i + 1);
+        // Department ranks: one score-ordered pass with a position counter per department code
+        List<GamifiedVelocityDTO> byScore = new ArrayList<>(results);
+        byScore.sort(Comparator.comparing(GamifiedVelocityDTO::getOverallScore).reversed());
+        int[] departmentPositions = new int[departmentCodes(byScore, GamifiedVelocityDTO::getDepartment)];
+        for (GamifiedVelocityDTO result : byScore) {
+            int code = departmentDictionary.codeOf(result.getDepartment());
+            if (code != DepartmentDictionary.NO_DEPARTMENT) {
+                result.setDepartmentRank(++departmentPositions[code]);
             }
-        });
+        }
 
         // Update overall ranks
         for (int i = 0; i < results.size(); i++) {
@@ -577,15 +327,256 @@ public class AnalyticsService {
         return results;
     }
 
+    /**
+     * One keyset page of gamified velocity, ordered by overall score (desc) then userId.
+     * Filters run in the database against user_metrics; rank and departmentRank are the
+     * organisation-wide leaderboard ranks rather than positions within the filtered list.
+     * search has the same substring semantics as getAllGamifiedVelocity; department and
+     * performanceTier are compared case-insensitively (see UserMetricsService.findPage).
+     */
+    public GamifiedVelocityPageDTO getGamifiedVelocityPage(String departmentFilter, String searchQuery,
+                                                          Double minCompletionRate, Double maxCompletionRate,
+                                                          Integer minTasks, Integer maxTasks,
+                                                          String performanceTier, String cursor, int size) {
+        long startTime = System.currentTimeMillis();
+        int pageSize = Math.max(1, Math.min(size, 200));
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        String department = departmentFilter != null && !departmentFilter.isEmpty() ? departmentFilter : null;
+        // Same emptiness rule as getAllGamifiedVelocity: only an empty string means no search
+        String search = searchQuery != null && !searchQuery.isEmpty() ? searchQuery : null;
+        String tier = performanceTier != null && !performanceTier.isEmpty() ? performanceTier : null;
+
+        // Fetch one extra row to know whether another page follows
+        List<UserMetrics> rows = userMetricsService.findPage(department, search,
+                minCompletionRate, maxCompletionRate, minTasks, maxTasks, tier,
+                after != null ? after.score() : null, after != null ? after.userId() : null,
+                pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        // Awarded badges for the page in one query
+        Map<Long, List<BadgeDTO>> badges = badgeAwardService.badgesFor(
+                rows.stream().map(UserMetrics::getUserId).collect(Collectors.toList()));
+
+        List<GamifiedVelocityDTO> items = new ArrayList<>(rows.size());
+        for (UserMetrics row : rows) {
+            items.add(buildGamifiedVelocity(row, badges.getOrDefault(row.getUserId(), new ArrayList<>())));
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            UserMetrics last = rows.get(rows.size() - 1);
+            nextCursor = new KeysetCursor(last.getOverallScore(), last.getUserId()).encode();
+        }
+
+        logger.debug("Gamified velocity page served: items={}, hasMore={}, duration={}ms",
+                items.size(), hasMore, System.currentTimeMillis() - startTime);
+        return new GamifiedVelocityPageDTO(items, pageSize, hasMore, nextCursor);
+    }
+
     /**
      * Get all available departments
      */
     public List<String> getAllDepartments() {
-        return userRepository.findAll().stream()
-                .map(User::getDepartment)
-                .filter(d -> d != null && !d.isEmpty())
-                .distinct()
-                .sorted()
-                .collect(Collectors.toList());
+        return departmentDictionary.departments();
+    }
+
+    /**
+     * Encode every department of the items and return the dictionary size, i.e. the
+     * length of an array indexed by department code.
+     */
+    private <T> int departmentCodes(List<T> items, Function<T, String> department) {
+        for (T item : items) {
+            departmentDictionary.encode(department.apply(item));
+        }
+        return departmentDictionary.size();
+    }
+
+    // ============================================================
+    // SCORING HELPERS (shared assignment index)
+    // ============================================================
+
+    private AssignmentIndex loadAssignmentIndex() {
+        long startTime = System.currentTimeMillis();
+        AssignmentIndex index = analyticsCube.assignmentIndex();
+        logger.debug("Loaded assignment index: users={}, duration={}ms",
+                index.size(), System.currentTimeMillis() - startTime);
+        return index;
+    }
+
+    private VelocityMetricsDTO buildVelocity(User user, AssignmentIndex index,
+                                             CompletionRollupService.CompletionSeries series) {
+        int tasksAssigned = index.assignedCount(user.getUserId());
+        int tasksCompleted = index.completedCount(user.getUserId());
+
+        double completionRate = PerformanceScoring.completionRate(tasksAssigned, tasksCompleted);
+
+        // Weekly (last 8 Mondays) and monthly (last 6 months) series from the daily completion rollup
+        Map<LocalDate, Integer> weeklyVelocity = series.weekly();
+        Map<String, Integer> monthlyVelocity = series.monthly();
+
+        // Calculate averages (simplified)
+        double averageTasksPerWeek = PerformanceScoring.averageTasksPerWeek(tasksCompleted);
+        double averageTasksPerMonth = PerformanceScoring.averageTasksPerMonth(tasksCompleted);
+
+        return new VelocityMetricsDTO(
+                user.getUserId(), user.getName(), user.getDepartment(),
+                tasksAssigned, tasksCompleted, completionRate,
+                weeklyVelocity, monthlyVelocity,
+                averageTasksPerWeek, averageTasksPerMonth
+        );
+    }
+
+    /**
+     * Score a single user without ranks (rank fields are left at 0).
+     */
+    private PerformanceScoreDTO buildUnrankedScore(User user, AssignmentIndex index) {
+        int tasksAssigned = index.assignedCount(user.getUserId());
+        int tasksCompleted = index.completedCount(user.getUserId());
+
+        double completionRate = PerformanceScoring.completionRate(tasksAssigned, tasksCompleted);
+        double speedScore = PerformanceScoring.speedScore(tasksCompleted);
+        double qualityScore = completionRate;
+        double consistencyScore = PerformanceScoring.consistencyScore(completionRate);
+        double overallScore = PerformanceScoring.overallScore(tasksAssigned, tasksCompleted);
+
+        return new PerformanceScoreDTO(user.getUserId(), user.getName(), user.getDepartment(),
+                overallScore, completionRate, speedScore, qualityScore, consistencyScore,
+                0, 0, 0, 0, "", 0.0);
+    }
+
+    private PerformanceScoreDTO buildPerformanceScore(User user, AssignmentIndex index) {
+        PerformanceScoreDTO score = buildUnrankedScore(user, index);
+
+        // Ranks come from the leaderboard trees (O(log n)) instead of sorting every user
+        LeaderboardService.Ranks ranks = leaderboardService.ranksOf(user.getUserId());
+        int rank = ranks.rank();
+        int departmentRank = ranks.departmentRank();
+
+        score.setRank(rank);
+        score.setDepartmentRank(departmentRank);
+        score.setPerformanceTier(PerformanceScoring.performanceTier(score.getOverallScore()));
+        applyBaseline(score);
+        return score;
+    }
+
+    /**
+     * Previous ranks and improvement from the latest weekly snapshot; users without a
+     * snapshot keep their current ranks and 0% improvement.
+     */
+    private void applyBaseline(PerformanceScoreDTO score) {
+        LeaderboardService.Baseline baseline = leaderboardService.baselineOf(score.getUserId());
+        if (baseline == null) {
+            score.setPreviousRank(score.getRank());
+            score.setPreviousDepartmentRank(score.getDepartmentRank());
+            score.setImprovementPercentage(0.0);
+            return;
+        }
+        score.setPreviousRank(baseline.rank());
+        score.setPreviousDepartmentRank(baseline.departmentRank());
+        score.setImprovementPercentage(PerformanceScoring.improvementPercentage(baseline.overallScore(), score.getOverallScore()));
+    }
+
+    // ============================================================
+    // BATCH PIPELINE (gamified velocity / badges)
+    // ============================================================
+
+    /**
+     * Velocity and ranked performance score for a set of users, computed in one pass
+     * over a shared assignment index.
+     */
+    private static final class AnalyticsBatch {
+        private final Map<Long, VelocityMetricsDTO> velocities = new HashMap<>();
+        private final Map<Long, PerformanceScoreDTO> scores = new HashMap<>();
+
+        VelocityMetricsDTO velocity(Long userId) {
+            return velocities.get(userId);
+        }
+
+        PerformanceScoreDTO score(Long userId) {
+            return scores.get(userId);
+        }
+    }
+
+    private AnalyticsBatch computeBatch(List<User> allUsers, AssignmentIndex index) {
+        long startTime = System.currentTimeMillis();
+        AnalyticsBatch batch = new AnalyticsBatch();
+        List<PerformanceScoreDTO> ranked = new ArrayList<>(allUsers.size());
+
+        Map<Long, CompletionRollupService.CompletionSeries> series = completionRollupService.seriesForAll();
+        CompletionRollupService.CompletionSeries noCompletions = completionRollupService.emptySeries();
+
+        // Pass 1: velocity and unranked score
+        for (User user : allUsers) {
+            VelocityMetricsDTO velocity = buildVelocity(user, index, series.getOrDefault(user.getUserId(), noCompletions));
+            PerformanceScoreDTO score = buildUnrankedScore(user, index);
+            score.setPerformanceTier(PerformanceScoring.performanceTier(score.getOverallScore()));
+            batch.velocities.put(user.getUserId(), velocity);
+            batch.scores.put(user.getUserId(), score);
+            ranked.add(score);
+        }
+
+        // Pass 2: one stable sort gives overall and department ranks for everyone
+        ranked.sort(Comparator.comparing(PerformanceScoreDTO::getOverallScore).reversed());
+        int[] departmentPositions = new int[departmentCodes(ranked, PerformanceScoreDTO::getDepartment)];
+        for (int i = 0; i < ranked.size(); i++) {
+            PerformanceScoreDTO score = ranked.get(i);
+            int code = departmentDictionary.codeOf(score.getDepartment());
+            int departmentRank = code != DepartmentDictionary.NO_DEPARTMENT ? ++departmentPositions[code] : 1;
+            score.setRank(i + 1);
+            score.setDepartmentRank(departmentRank);
+            applyBaseline(score);
+        }
+
+        logger.debug("Computed analytics batch: users={}, duration={}ms",
+                allUsers.size(), System.currentTimeMillis() - startTime);
+        return batch;
+    }
+
+    private GamifiedVelocityDTO buildGamifiedVelocity(User user, AnalyticsBatch batch, List<BadgeDTO> badges) {
+        return buildGamifiedVelocity(user, batch.velocity(user.getUserId()), batch.score(user.getUserId()), badges);
+    }
+
+    private GamifiedVelocityDTO buildGamifiedVelocity(User user, VelocityMetricsDTO baseMetrics,
+                                                      PerformanceScoreDTO performance, List<BadgeDTO> badges) {
+        // Streaks from the user's activity bitmap
+        StreakService.Streak streak = streakService.streakOf(user.getUserId());
+
+        return new GamifiedVelocityDTO(
+                user.getUserId(), baseMetrics.getUserName(), baseMetrics.getDepartment(),
+                baseMetrics.getTasksAssigned(), baseMetrics.getTasksCompleted(),
+                baseMetrics.getCompletionRate(), baseMetrics.getAverageTasksPerWeek(),
+                baseMetrics.getAverageTasksPerMonth(), performance.getOverallScore(),
+                performance.getRank(), performance.getDepartmentRank(),
+                performance.getPerformanceTier(), badges,
+                performance.getImprovementPercentage(), streak.currentDays(), streak.currentWeeks(),
+                streak.longestDays()
+        );
+    }
+
+    private GamifiedVelocityDTO buildGamifiedVelocity(UserMetrics row, List<BadgeDTO> badges) {
+        LeaderboardService.Ranks ranks = leaderboardService.ranksOf(row.getUserId());
+        PerformanceScoreDTO performance = new PerformanceScoreDTO(row.getUserId(), row.getUserName(), row.getDepartment(),
+                row.getOverallScore(), row.getCompletionRate(),
+                PerformanceScoring.speedScore(row.getTasksCompleted()), row.getCompletionRate(),
+                PerformanceScoring.consistencyScore(row.getCompletionRate()),
+                ranks.rank(), ranks.departmentRank(), ranks.rank(), ranks.departmentRank(),
+                row.getPerformanceTier(), 0.0);
+        applyBaseline(performance);
+        StreakService.Streak streak = streakService.streakOf(row.getUserId());
+
+        return new GamifiedVelocityDTO(
+                row.getUserId(), row.getUserName(), row.getDepartment(),
+                row.getTasksAssigned(), row.getTasksCompleted(),
+                row.getCompletionRate(), row.getAverageTasksPerWeek(),
+                row.getAverageTasksPerMonth(), row.getOverallScore(),
+                ranks.rank(), ranks.departmentRank(),
+                row.getPerformanceTier(), badges,
+                performance.getImprovementPercentage(), streak.currentDays(), streak.currentWeeks(),
+                streak.longestDays()
+        );
     }
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.repository.projection.UserAssignmentCounts;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable userId -> (assigned, completed) initiative counters.
+ *
+ * Built once per analytics request from a single aggregate query, so scoring
+ * N users costs one database round trip instead of N full initiative scans.
+ * Keys live in a sorted long[] and lookups are a binary search (no boxing).
+ */
+public final class AssignmentIndex {
+
+    private static final AssignmentIndex EMPTY = new AssignmentIndex(new long[0], new int[0], new int[0]);
+
+    private final long[] userIds;
+    private final int[] assigned;
+    private final int[] completed;
+
+    private AssignmentIndex(long[] userIds, int[] assigned, int[] completed) {
+        this.userIds = userIds;
+        this.assigned = assigned;
+        this.completed = completed;
+    }
+
+    public static AssignmentIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build the index from aggregate rows. Rows are expected one per user; they
+     * are sorted here if the query did not already return them ordered.
+     */
+    public static AssignmentIndex of(List<UserAssignmentCounts> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return EMPTY;
+        }
+
+        int size = rows.size();
+        long[] ids = new long[size];
+        int[] assignedCounts = new int[size];
+        int[] completedCounts = new int[size];
+        boolean sorted = true;
+
+        for (int i = 0; i < size; i++) {
+            UserAssignmentCounts row = rows.get(i);
+            ids[i] = row.userId();
+            assignedCounts[i] = row.assigned() != null ? row.assigned().intValue() : 0;
+            completedCounts[i] = row.completed() != null ? row.completed().intValue() : 0;
+            if (i > 0 && ids[i - 1] > ids[i]) {
+                sorted = false;
+            }
+        }
+
+        if (!sorted) {
+            sortByUserId(ids, assignedCounts, completedCounts);
+        }
+        return new AssignmentIndex(ids, assignedCounts, completedCounts);
+    }
+
+    public int assignedCount(long userId) {
+        int slot = Arrays.binarySearch(userIds, userId);
+        return slot >= 0 ? assigned[slot] : 0;
+    }
+
+    public int completedCount(long userId) {
+        int slot = Arrays.binarySearch(userIds, userId);
+        return slot >= 0 ? completed[slot] : 0;
+    }
+
+    public int size() {
+        return userIds.length;
+    }
+
+    private static void sortByUserId(long[] ids, int[] assignedCounts, int[] completedCounts) {
+        Integer[] order = new Integer[ids.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(ids[a], ids[b]));
+
+        long[] idsCopy = ids.clone();
+        int[] assignedCopy = assignedCounts.clone();
+        int[] completedCopy = completedCounts.clone();
+        for (int i = 0; i < order.length; i++) {
+            ids[i] = idsCopy[order[i]];
+            assignedCounts[i] = assignedCopy[order[i]];
+            completedCounts[i] = completedCopy[order[i]];
+        }
+    }
+}
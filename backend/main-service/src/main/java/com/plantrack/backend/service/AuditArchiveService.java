@@ -0,0 +1,340 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.model.AuditLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Monthly partitions for audit_logs and archival of expired months to segment files.
+ *
+ * audit_logs is RANGE-partitioned by month (pYYYYMM, plus a pmax catch-all; see
+ * db/migration/partition_audit_logs.sql). A daily job keeps future-months partitions
+ * split off pmax ahead of time, and moves every month older than hot-months into an
+ * {@link AuditSegment} file under archive-dir, oldest first: rows are streamed into the
+ * segment, the segment is published, then the month's partition is dropped (or, when the
+ * month is not its own partition, its rows are deleted in bounded batches).
+ *
+ * Archived months always precede the hot rows, so the end of the newest segment month is
+ * a watermark: date-range reads take rows at or after it from the table and rows before
+ * it from the segments. A segment is published before its rows leave the table, and a
+ * read holds the watermark steady while it runs, so no row is ever missing or seen twice.
+ */
+@Service
+public class AuditArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditArchiveService.class);
+
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final String SEGMENT_PREFIX = "audit-logs-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int DELETE_BATCH_SIZE = 5000;
+
+    private static final String PARTITIONS_SQL =
+            "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'audit_logs' AND PARTITION_NAME IS NOT NULL";
+    private static final String MONTH_ROWS_SQL =
+            "SELECT " + AuditDictionary.ROW_COLUMNS + " FROM audit_logs WHERE timestamp >= ? AND timestamp < ? " +
+            "ORDER BY timestamp, id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditDictionary auditDictionary;
+
+    @Value("${audit.archive.dir:./data/audit-archive}")
+    private String archiveDir;
+
+    @Value("${audit.archive.hot-months:12}")
+    private int hotMonths;
+
+    @Value("${audit.archive.future-partitions:3}")
+    private int futurePartitions;
+
+    // Same streaming setting as the other full-table scans
+    @Value("${analytics.cube.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    // Published segments by month; added only under the watermark write lock
+    private final NavigableMap<YearMonth, AuditSegment> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantLock archiveLock = new ReentrantLock();
+    // Readers share it; publishing a segment (moving the watermark) waits for them
+    private final ReentrantReadWriteLock watermarkLock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    void loadSegments() {
+        Path directory = Paths.get(archiveDir);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                YearMonth month = YearMonth.parse(name.substring(SEGMENT_PREFIX.length(),
+                        name.length() - SEGMENT_SUFFIX.length()), MONTH_FORMAT);
+                segments.put(month, AuditSegment.open(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load audit archive segments from " + directory, e);
+        }
+        logger.info("Audit archive loaded: dir={}, segments={}, watermark={}", directory, segments.size(), watermark());
+    }
+
+    /**
+     * Start of the oldest month still in the table, or null when nothing is archived.
+     */
+    public LocalDateTime watermark() {
+        return segments.isEmpty() ? null : segments.lastKey().plusMonths(1).atDay(1).atStartOfDay();
+    }
+
+    /**
+     * Run a read against a watermark that does not move until it returns; the argument is
+     * null when nothing is archived.
+     */
+    public <T> T withWatermark(Function<LocalDateTime, T> read) {
+        watermarkLock.readLock().lock();
+        try {
+            return read.apply(watermark());
+        } finally {
+            watermarkLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Archived rows with timestamp >= start, (timestamp, id) before the position and
+     * matching the filter, newest first, at most limit of them.
+     */
+    public List<AuditLog> readArchived(LocalDateTime start, LocalDateTime beforeTimestamp, long beforeId,
+                                       Predicate<AuditLog> filter, int limit) {
+        List<AuditLog> rows = new ArrayList<>();
+        for (AuditSegment segment : segments.descendingMap().values()) {
+            if (rows.size() >= limit) {
+                break;
+            }
+            LocalDateTime max = segment.maxTimestamp();
+            if (max == null) {
+                continue;
+            }
+            if (max.isBefore(start)) {
+                break;
+            }
+            if (segment.minTimestamp().isAfter(beforeTimestamp)) {
+                continue;
+            }
+            try {
+                rows.addAll(segment.readBefore(start, beforeTimestamp, beforeId, filter, limit - rows.size()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read audit segment " + segment.path(), e);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Every archived row matching the filter, oldest first. Rebuilds that also scan the
+     * table run both inside {@link #withWatermark} so no month is read from neither.
+     */
+    public List<AuditLog> readAllArchived(Predicate<AuditLog> filter) {
+        List<AuditLog> rows = new ArrayList<>();
+        for (AuditSegment segment : segments.values()) {
+            try {
+                rows.addAll(segment.readAll(filter));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read audit segment " + segment.path(), e);
+            }
+        }
+        return rows;
+    }
+
+    @Scheduled(cron = "${audit.archive.cron:0 30 2 * * *}")
+    public void maintainScheduled() {
+        maintain(LocalDate.now());
+    }
+
+    public Map<String, Object> maintain(LocalDate today) {
+        if (!archiveLock.tryLock()) {
+            throw new RuntimeException("Audit archival is already running");
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            Set<String> partitions = partitions();
+            int created = partitions.isEmpty() ? 0 : ensurePartitions(partitions, YearMonth.from(today));
+
+            YearMonth cutoff = YearMonth.from(today).minusMonths(hotMonths);
+            List<String> archived = new ArrayList<>();
+            Timestamp oldest;
+            while ((oldest = jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM audit_logs WHERE timestamp < ?",
+                    Timestamp.class, Timestamp.valueOf(cutoff.atDay(1).atStartOfDay()))) != null) {
+                YearMonth month = YearMonth.from(oldest.toLocalDateTime());
+                archiveMonth(month, partitions);
+                archived.add(month.format(MONTH_FORMAT));
+            }
+
+            long duration = System.currentTimeMillis() - startTime;
+            logger.info("Audit archive maintained: partitionsCreated={}, monthsArchived={}, watermark={}, duration={}ms",
+                    created, archived, watermark(), duration);
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("partitioned", !partitions.isEmpty());
+            result.put("partitionsCreated", created);
+            result.put("monthsArchived", archived);
+            result.put("watermark", watermark());
+            result.put("durationMs", duration);
+            return result;
+        } finally {
+            archiveLock.unlock();
+        }
+    }
+
+    // ============================================================
+    // ARCHIVAL
+    // ============================================================
+
+    private void archiveMonth(YearMonth month, Set<String> partitions) {
+        long startTime = System.currentTimeMillis();
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        Path target = Paths.get(archiveDir).resolve(SEGMENT_PREFIX + month.format(MONTH_FORMAT) + SEGMENT_SUFFIX);
+
+        // A segment already on disk means an earlier run stopped before removing the rows
+        long rows = 0;
+        if (!Files.exists(target)) {
+            rows = writeSegment(target, from, to);
+        }
+        AuditSegment segment;
+        try {
+            segment = AuditSegment.open(target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open audit segment " + target, e);
+        }
+        // From here on reads take the month from the segment, so its rows can leave the table
+        watermarkLock.writeLock().lock();
+        try {
+            segments.put(month, segment);
+        } finally {
+            watermarkLock.writeLock().unlock();
+        }
+
+        String partition = month.format(PARTITION_FORMAT);
+        int removed;
+        if (partitions.remove(partition)) {
+            jdbcTemplate.execute("ALTER TABLE audit_logs DROP PARTITION " + partition);
+            removed = -1;
+        } else {
+            removed = deleteInBatches(from, to);
+        }
+        logger.info("Audit month archived: month={}, segment={}, rowsWritten={}, partitionDropped={}, rowsDeleted={}, duration={}ms",
+                month, target, rows, removed < 0, Math.max(removed, 0), System.currentTimeMillis() - startTime);
+    }
+
+    private long writeSegment(Path target, Timestamp from, Timestamp to) {
+        try {
+            Files.createDirectories(target.getParent());
+            try (AuditSegment.Writer writer = new AuditSegment.Writer(target)) {
+                JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+                streaming.setFetchSize(fetchSize);
+                // Segments are self-contained: rows are written with their strings, not dictionary ids
+                streaming.query(MONTH_ROWS_SQL, (RowCallbackHandler) rs -> {
+                    AuditLog row = AuditDictionary.ROW_MAPPER.mapRow(rs, 0);
+                    auditDictionary.decode(List.of(row));
+                    try {
+                        writer.append(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, from, to);
+                writer.finish();
+                return writer.rowCount();
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Failed to write audit segment " + target + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Each statement commits on its own, so deletes never hold locks for long
+    private int deleteInBatches(Timestamp from, Timestamp to) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM audit_logs WHERE timestamp >= ? AND timestamp < ? LIMIT " +
+                    DELETE_BATCH_SIZE, from, to);
+            total += deleted;
+        } while (deleted == DELETE_BATCH_SIZE);
+        return total;
+    }
+
+    // ============================================================
+    // PARTITIONS
+    // ============================================================
+
+    // Partition names of audit_logs; empty when the table is not partitioned (or the database has no such catalog)
+    private Set<String> partitions() {
+        try {
+            return new HashSet<>(jdbcTemplate.queryForList(PARTITIONS_SQL, String.class));
+        } catch (DataAccessException e) {
+            logger.debug("Audit partitions unavailable: error={}", e.getMessage());
+            return new HashSet<>();
+        }
+    }
+
+    // Split this and the next future-partitions months off pmax while it is still empty for them
+    private int ensurePartitions(Set<String> partitions, YearMonth current) {
+        if (!partitions.contains("pmax")) {
+            logger.warn("audit_logs is partitioned without a pmax partition; monthly partitions are not managed");
+            return 0;
+        }
+        int created = 0;
+        for (int i = 0; i <= futurePartitions; i++) {
+            YearMonth month = current.plusMonths(i);
+            String partition = month.format(PARTITION_FORMAT);
+            if (partitions.contains(partition) || hasLaterPartition(partitions, month)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE audit_logs REORGANIZE PARTITION pmax INTO (" +
+                    "PARTITION " + partition + " VALUES LESS THAN (TO_DAYS('" + month.plusMonths(1).atDay(1) + "')), " +
+                    "PARTITION pmax VALUES LESS THAN MAXVALUE)");
+            partitions.add(partition);
+            created++;
+        }
+        return created;
+    }
+
+    // Ranges must increase, so a month can only be split off pmax if no later month already was
+    private static boolean hasLaterPartition(Set<String> partitions, YearMonth month) {
+        String name = month.format(PARTITION_FORMAT);
+        return partitions.stream().anyMatch(p -> p.matches("p\\d{6}") && p.compareTo(name) > 0);
+    }
+}
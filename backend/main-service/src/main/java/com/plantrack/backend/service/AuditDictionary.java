@@ -0,0 +1,196 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.model.AuditDictionaryEntry.Kind;
+import com.plantrack.backend.model.AuditLog;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cached two-way mapping between the strings audit logs repeat (actions, entity types,
+ * actors and details templates) and the audit_dictionary ids audit_logs stores instead.
+ *
+ * Entries are never changed or removed, so the caches only grow and need no
+ * invalidation. A value not cached is looked up in the table (another instance may have
+ * added it) and inserted if still missing, in its own transaction: an id handed out
+ * stays valid even if the audit insert that needed it rolls back.
+ */
+@Service
+public class AuditDictionary {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditDictionary.class);
+
+    /**
+     * Columns read by {@link #ROW_MAPPER}, in order.
+     */
+    static final String ROW_COLUMNS =
+            "id, timestamp, action_id, actor_id, entity_type_id, entity_id, details_template_id, details_params, " +
+            "old_value, new_value";
+
+    /**
+     * Maps {@link #ROW_COLUMNS} to an entry still to be {@link #decode decoded}.
+     */
+    static final RowMapper<AuditLog> ROW_MAPPER = (rs, rowNum) -> {
+        AuditLog row = new AuditLog();
+        row.setId(rs.getLong(1));
+        row.setTimestamp(rs.getTimestamp(2).toLocalDateTime());
+        row.setActionId(rs.getInt(3));
+        row.setActorId(rs.getInt(4));
+        row.setEntityTypeId(rs.getInt(5));
+        long entityId = rs.getLong(6);
+        row.setEntityId(rs.wasNull() ? null : entityId);
+        int templateId = rs.getInt(7);
+        row.setDetailsTemplateId(rs.wasNull() ? null : templateId);
+        row.setDetailsParams(rs.getString(8));
+        row.setOldValue(rs.getString(9));
+        row.setNewValue(rs.getString(10));
+        return row;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<Kind, Map<String, Integer>> ids = new EnumMap<>(Kind.class);
+    private final Map<Kind, Map<Integer, String>> names = new EnumMap<>(Kind.class);
+
+    private TransactionTemplate insertTransaction;
+
+    @PostConstruct
+    void load() {
+        insertTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        insertTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (Kind kind : Kind.values()) {
+            ids.put(kind, new ConcurrentHashMap<>());
+            names.put(kind, new ConcurrentHashMap<>());
+        }
+        long startTime = System.currentTimeMillis();
+        List<Object[]> rows = jdbcTemplate.query("SELECT id, kind, name FROM audit_dictionary",
+                (rs, rowNum) -> new Object[]{rs.getInt(1), rs.getString(2), rs.getString(3)});
+        for (Object[] row : rows) {
+            cache(Kind.valueOf((String) row[1]), (Integer) row[0], (String) row[2]);
+        }
+        logger.info("Audit dictionary loaded: entries={}, duration={}ms", rows.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Id of the value, added to the dictionary if it is new.
+     */
+    public int idOf(Kind kind, String name) {
+        Integer id = ids.get(kind).get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(kind).get(name);
+            if (id != null) {
+                return id;
+            }
+            id = insertTransaction.execute(status -> {
+                Integer stored = select(kind, name);
+                if (stored != null) {
+                    return stored;
+                }
+                try {
+                    jdbcTemplate.update("INSERT INTO audit_dictionary (kind, name) VALUES (?, ?)", kind.name(), name);
+                } catch (DuplicateKeyException e) {
+                    // Added by another instance since the select
+                    logger.debug("Audit dictionary entry added concurrently: kind={}, name={}", kind, name);
+                }
+                return select(kind, name);
+            });
+            if (id == null) {
+                throw new RuntimeException("Audit dictionary entry could not be stored: kind=" + kind + ", name=" + name);
+            }
+            cache(kind, id, name);
+            logger.debug("Audit dictionary entry added: kind={}, id={}, name={}", kind, id, name);
+            return id;
+        }
+    }
+
+    /**
+     * Id of the value, or null if nothing was ever logged with it (queries for it match no rows).
+     */
+    public Integer findId(Kind kind, String name) {
+        if (name == null) {
+            return null;
+        }
+        Integer id = ids.get(kind).get(name);
+        if (id == null) {
+            id = select(kind, name);
+            if (id != null) {
+                cache(kind, id, name);
+            }
+        }
+        return id;
+    }
+
+    public String nameOf(Kind kind, int id) {
+        String name = names.get(kind).get(id);
+        if (name != null) {
+            return name;
+        }
+        // Added by another instance
+        List<String> stored = jdbcTemplate.queryForList("SELECT name FROM audit_dictionary WHERE id = ? AND kind = ?",
+                String.class, id, kind.name());
+        if (stored.isEmpty()) {
+            throw new RuntimeException("Unknown audit dictionary id: kind=" + kind + ", id=" + id);
+        }
+        cache(kind, id, stored.get(0));
+        return stored.get(0);
+    }
+
+    /**
+     * Sets the entry's dictionary ids from its action, actor, entity type and details template.
+     */
+    public void encode(AuditLog entry) {
+        entry.setActionId(idOf(Kind.ACTION, entry.getAction()));
+        entry.setActorId(idOf(Kind.ACTOR, entry.getPerformedBy()));
+        entry.setEntityTypeId(idOf(Kind.ENTITY_TYPE, entry.getEntityType()));
+        entry.setDetailsTemplateId(entry.getDetailsTemplate() != null
+                ? idOf(Kind.TEMPLATE, entry.getDetailsTemplate()) : null);
+    }
+
+    /**
+     * Fills in the strings of rows read from audit_logs; rows without ids (e.g. from
+     * archive segments) already carry them and are left alone.
+     */
+    public List<AuditLog> decode(List<AuditLog> rows) {
+        for (AuditLog row : rows) {
+            if (row.getActionId() == null) {
+                continue;
+            }
+            row.setAction(nameOf(Kind.ACTION, row.getActionId()));
+            row.setPerformedBy(nameOf(Kind.ACTOR, row.getActorId()));
+            row.setEntityType(nameOf(Kind.ENTITY_TYPE, row.getEntityTypeId()));
+            row.setDetailsTemplate(row.getDetailsTemplateId() != null
+                    ? nameOf(Kind.TEMPLATE, row.getDetailsTemplateId()) : null);
+        }
+        return rows;
+    }
+
+    private Integer select(Kind kind, String name) {
+        List<Integer> stored = jdbcTemplate.queryForList("SELECT id FROM audit_dictionary WHERE kind = ? AND name = ?",
+                Integer.class, kind.name(), name);
+        return stored.isEmpty() ? null : stored.get(0);
+    }
+
+    private void cache(Kind kind, int id, String name) {
+        names.get(kind).put(id, name);
+        ids.get(kind).put(name, id);
+    }
+}
@@ -0,0 +1,413 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.model.AuditLog;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of audit log entries not yet in audit_logs.
+ *
+ * The journal is a directory of fixed-size, zero-filled segment files mapped into memory;
+ * an append is an encode and a copy into the mapping, so it survives a process crash as
+ * soon as it returns (the OS writes the pages back), and a force() bounds what a power
+ * loss can take. Records are [length][crc32][payload], the length written last, so a
+ * record is visible only once complete and a zero length marks the end of the data.
+ *
+ * Positions are (segment sequence << 32 | offset). A single reader drains from a
+ * checkpoint it keeps elsewhere and releases whole segments once the checkpoint has
+ * moved past them. Total size is capped at max-segments; appends wait for space.
+ *
+ * A record that fails its checksum ends what can be read from its segment: lengths past
+ * it cannot be trusted, so the reader resumes at the next segment (see {@link #skip}).
+ */
+final class AuditJournal implements AutoCloseable {
+
+    private static final long MAGIC = 0x5054414A524E4C31L; // "PTAJRNL1"
+    private static final int HEADER_BYTES = Long.BYTES;
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES * 2;
+    private static final String SEGMENT_PREFIX = "audit-journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String ID_FILE = "journal.id";
+
+    /**
+     * Entries read, the position just after each of them, and where the next read starts.
+     */
+    record Batch(List<AuditLog> entries, long[] entryEnds, long end) {}
+
+    private final Path directory;
+    private final String id;
+    private final int segmentBytes;
+    private final int maxSegments;
+
+    // Mapped segments by sequence; the last one is being appended to
+    private final NavigableMap<Long, MappedByteBuffer> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition appended = appendLock.newCondition();
+    private final Condition released = appendLock.newCondition();
+
+    // Published after each append; the reader only looks below it
+    private volatile long writePosition;
+    // Segments before this one were forced after their last append; only force() moves it
+    private long forcedSequence;
+
+    private AuditJournal(Path directory, String id, int segmentBytes, int maxSegments) {
+        this.directory = directory;
+        this.id = id;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+    }
+
+    /**
+     * Open (or create) the journal in directory, mapping its segments and finding the
+     * end of the data in the newest one.
+     */
+    static AuditJournal open(Path directory, int segmentBytes, int maxSegments) throws IOException {
+        Files.createDirectories(directory);
+        Path idFile = directory.resolve(ID_FILE);
+        if (!Files.exists(idFile)) {
+            Files.writeString(idFile, UUID.randomUUID().toString(), StandardCharsets.UTF_8);
+        }
+        AuditJournal journal = new AuditJournal(directory, Files.readString(idFile, StandardCharsets.UTF_8).trim(),
+                segmentBytes, maxSegments);
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long sequence = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                journal.segments.put(sequence, journal.map(file, false));
+            }
+        }
+        if (journal.segments.isEmpty()) {
+            journal.segments.put(0L, journal.map(journal.segmentPath(0), true));
+        }
+
+        // Records are only ever complete or absent, so the end is the first one that does not check out
+        Map.Entry<Long, MappedByteBuffer> last = journal.segments.lastEntry();
+        int offset = HEADER_BYTES;
+        int length;
+        while ((length = journal.recordLength(last.getValue(), offset)) > 0) {
+            offset += RECORD_HEADER_BYTES + length;
+        }
+        journal.writePosition = position(last.getKey(), offset);
+        journal.forcedSequence = journal.segments.firstKey();
+        return journal;
+    }
+
+    /**
+     * Identifies this journal (and so its checkpoint) across restarts.
+     */
+    String id() {
+        return id;
+    }
+
+    long writePosition() {
+        return writePosition;
+    }
+
+    /**
+     * Position of the oldest retained data, where draining starts without a checkpoint.
+     */
+    long startPosition() {
+        return position(segments.firstKey(), HEADER_BYTES);
+    }
+
+    /**
+     * Bytes appended but not yet drained past the checkpoint.
+     */
+    long backlogBytes(long checkpoint) {
+        return distance(checkpoint, writePosition);
+    }
+
+    /**
+     * Append an entry; false when the journal stayed full for timeoutMillis.
+     */
+    boolean append(AuditLog entry, long timeoutMillis) throws IOException, InterruptedException {
+        byte[] payload = encode(entry);
+        int recordBytes = RECORD_HEADER_BYTES + payload.length;
+        if (HEADER_BYTES + recordBytes > segmentBytes) {
+            throw new IOException("Audit journal record of " + recordBytes + " bytes exceeds the segment size");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        appendLock.lockInterruptibly();
+        try {
+            long position = writePosition;
+            while (offset(position) + recordBytes > segmentBytes && segments.size() >= maxSegments) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                released.awaitNanos(remaining);
+                // Others may have appended (or rolled over) meanwhile
+                position = writePosition;
+            }
+            if (offset(position) + recordBytes > segmentBytes) {
+                long next = sequence(position) + 1;
+                segments.put(next, map(segmentPath(next), true));
+                position = position(next, HEADER_BYTES);
+            }
+
+            MappedByteBuffer segment = segments.get(sequence(position));
+            int offset = offset(position);
+            segment.put(offset + RECORD_HEADER_BYTES, payload);
+            segment.putInt(offset + Integer.BYTES, (int) crc.getValue());
+            segment.putInt(offset, payload.length);
+            writePosition = position(sequence(position), offset + recordBytes);
+            appended.signalAll();
+            return true;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Wait up to timeoutMillis for data beyond from; true when there is some.
+     */
+    boolean awaitData(long from, long timeoutMillis) throws InterruptedException {
+        if (writePosition != from) {
+            return true;
+        }
+        appendLock.lockInterruptibly();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (writePosition == from && remaining > 0) {
+                remaining = appended.awaitNanos(remaining);
+            }
+            return writePosition != from;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Up to max entries starting at from, with the position after the last one. Reading
+     * stops before an unreadable record; it fails only when that record is the first.
+     */
+    Batch read(long from, int max) throws IOException {
+        List<AuditLog> entries = new ArrayList<>(Math.min(max, 1024));
+        long[] entryEnds = new long[Math.min(max, 1024)];
+        long position = from;
+        long end = writePosition;
+        while (entries.size() < max && position != end) {
+            try {
+                MappedByteBuffer segment = segments.get(sequence(position));
+                if (segment == null) {
+                    throw new IOException("Audit journal segment " + sequence(position) + " is missing");
+                }
+                int offset = offset(position);
+                int length = sequence(position) == sequence(end) && offset >= offset(end) ? 0 : recordLength(segment, offset);
+                if (length == 0) {
+                    // Rest of this segment was left empty when the writer rolled over
+                    position = position(sequence(position) + 1, HEADER_BYTES);
+                    continue;
+                }
+                if (length < 0) {
+                    throw new IOException("Audit journal record at " + Long.toHexString(position) + " is corrupt");
+                }
+                byte[] payload = new byte[length];
+                segment.get(offset + RECORD_HEADER_BYTES, payload);
+                AuditLog entry = decode(payload);
+                position = position(sequence(position), offset + RECORD_HEADER_BYTES + length);
+                if (entries.size() == entryEnds.length) {
+                    entryEnds = Arrays.copyOf(entryEnds, Math.min(max, entryEnds.length * 2));
+                }
+                entryEnds[entries.size()] = position;
+                entries.add(entry);
+            } catch (IOException e) {
+                if (entries.isEmpty()) {
+                    throw e;
+                }
+                break;
+            }
+        }
+        return new Batch(entries, Arrays.copyOf(entryEnds, entries.size()), position);
+    }
+
+    /**
+     * Where reading resumes after an unreadable record at position: just past it when its
+     * checksum holds (only its payload failed to decode), otherwise the start of the next
+     * segment, or the end of the data when the record is in the segment being appended to.
+     */
+    long skip(long position) {
+        long write = writePosition;
+        MappedByteBuffer segment = segments.get(sequence(position));
+        int length = segment != null && position != write ? recordLength(segment, offset(position)) : -1;
+        if (length > 0) {
+            return position(sequence(position), offset(position) + RECORD_HEADER_BYTES + length);
+        }
+        return sequence(position) < sequence(write) ? position(sequence(position) + 1, HEADER_BYTES) : write;
+    }
+
+    /**
+     * Bytes of journal space between two positions.
+     */
+    long distance(long from, long to) {
+        return (sequence(to) - sequence(from)) * (segmentBytes - HEADER_BYTES) + offset(to) - offset(from);
+    }
+
+    /**
+     * Delete the segments wholly before checkpoint.
+     */
+    void release(long checkpoint) throws IOException {
+        long current = sequence(checkpoint);
+        appendLock.lock();
+        try {
+            while (segments.firstKey() < current) {
+                long sequence = segments.pollFirstEntry().getKey();
+                Files.deleteIfExists(segmentPath(sequence));
+            }
+            released.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Force the segment being appended to and every segment rolled over from since the last
+     * call, so the tail of a segment filled between two calls is not left only in memory.
+     */
+    void force() {
+        long current = sequence(writePosition);
+        for (MappedByteBuffer segment : segments.subMap(forcedSequence, true, current, true).values()) {
+            segment.force();
+        }
+        forcedSequence = current;
+    }
+
+    @Override
+    public void close() {
+        segments.values().forEach(MappedByteBuffer::force);
+    }
+
+    // ============================================================
+    // SEGMENTS AND RECORDS
+    // ============================================================
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+
+    private MappedByteBuffer map(Path file, boolean create) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            if (create) {
+                raf.setLength(segmentBytes);
+            } else if (raf.length() != segmentBytes) {
+                throw new IOException("Audit journal segment " + file + " is " + raf.length() +
+                        " bytes, expected " + segmentBytes + " (segment size changed?)");
+            }
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            if (create) {
+                buffer.putLong(0, MAGIC);
+            } else if (buffer.getLong(0) != MAGIC) {
+                throw new IOException("Not an audit journal segment: " + file);
+            }
+            return buffer;
+        }
+    }
+
+    // Payload length of the record at offset: 0 at the end of the data, -1 when it does not check out
+    private int recordLength(MappedByteBuffer segment, int offset) {
+        if (offset + RECORD_HEADER_BYTES > segmentBytes) {
+            return 0;
+        }
+        int length = segment.getInt(offset);
+        if (length == 0) {
+            return 0;
+        }
+        if (length < 0 || offset + RECORD_HEADER_BYTES + length > segmentBytes) {
+            return -1;
+        }
+        byte[] payload = new byte[length];
+        segment.get(offset + RECORD_HEADER_BYTES, payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == segment.getInt(offset + Integer.BYTES) ? length : -1;
+    }
+
+    // Details are journaled as params then template; records from before templates end
+    // after newValue and carry the details themselves where the params now go
+    private static byte[] encode(AuditLog entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(AuditSegment.toMicros(entry.getTimestamp()));
+        out.writeUTF(entry.getAction());
+        out.writeUTF(entry.getPerformedBy());
+        out.writeUTF(entry.getEntityType());
+        out.writeBoolean(entry.getEntityId() != null);
+        if (entry.getEntityId() != null) {
+            out.writeLong(entry.getEntityId());
+        }
+        writeNullable(out, entry.getDetailsParams());
+        writeNullable(out, entry.getOldValue());
+        writeNullable(out, entry.getNewValue());
+        writeNullable(out, entry.getDetailsTemplate());
+        return bytes.toByteArray();
+    }
+
+    private static AuditLog decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        AuditLog entry = new AuditLog();
+        entry.setTimestamp(AuditSegment.fromMicros(in.readLong()));
+        entry.setAction(in.readUTF());
+        entry.setPerformedBy(in.readUTF());
+        entry.setEntityType(in.readUTF());
+        entry.setEntityId(in.readBoolean() ? in.readLong() : null);
+        String details = readNullable(in);
+        entry.setOldValue(readNullable(in));
+        entry.setNewValue(readNullable(in));
+        if (in.available() > 0) {
+            entry.setDetailsParams(details);
+            entry.setDetailsTemplate(readNullable(in));
+        } else {
+            entry.setDetails(details);
+        }
+        return entry;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    static long position(long sequence, int offset) {
+        return sequence << 32 | offset;
+    }
+
+    static long sequence(long position) {
+        return position >>> 32;
+    }
+
+    static int offset(long position) {
+        return (int) position;
+    }
+}
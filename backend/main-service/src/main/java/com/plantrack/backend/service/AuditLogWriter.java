@@ -0,0 +1,548 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.model.AuditLog;
+import com.plantrack.backend.repository.AuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes audit log entries off the request thread.
+ *
+ * Entries (principal and timestamp already captured by the caller) are handed over once
+ * the caller's transaction commits, so rolled-back changes are never audited, and a
+ * single writer thread inserts them with JDBC batches.
+ *
+ * With audit.journal.enabled (the default) the hand-over is an append to the local
+ * memory-mapped {@link AuditJournal}, which survives a crash; the writer drains it from
+ * a checkpoint stored in audit_journal_checkpoints and moved in the same transaction as
+ * each batch insert, so after a restart it replays exactly the entries not yet inserted.
+ * A batch that fails max-attempts times in a row is retried one entry at a time; an entry
+ * that still fails while the database answers is appended to dead-letter.log in the
+ * journal directory and the checkpoint moves past it. Unreadable journal records are
+ * noted there too and skipped. While the database is unreachable nothing is skipped.
+ *
+ * Without the journal, entries go through a bounded in-memory queue flushed when
+ * batch-size entries are waiting or flush-interval-ms after the first one arrived, and
+ * are lost if the process dies first.
+ *
+ * Backpressure: when the journal (or queue) stays full for offer-timeout-ms the caller
+ * inserts its own entry, so entries are never dropped for lack of space. On shutdown new
+ * entries are refused and the backlog drained before the data source goes away.
+ * With audit.writer.async=false every entry is saved inline, as before.
+ *
+ * Metrics: audit.writer.entries{path=journaled|queued|caller}, audit.writer.flush,
+ * audit.writer.dropped, audit.writer.queue.size, audit.journal.backlog.bytes and
+ * audit.journal.dead.letters{reason=insert|unreadable}.
+ */
+@Service
+public class AuditLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_logs (action_id, actor_id, entity_type_id, entity_id, details_template_id, details_params, " +
+            "timestamp, old_value, new_value) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_CHECKPOINT_SQL =
+            "UPDATE audit_journal_checkpoints SET position = ?, updated_at = ? WHERE journal_id = ?";
+
+    private static final int FLUSH_ATTEMPTS = 3;
+    private static final String DEAD_LETTER_FILE = "dead-letter.log";
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private AuditDictionary auditDictionary;
+
+    @Value("${audit.journal.enabled:true}")
+    private boolean journalEnabled;
+
+    @Value("${audit.journal.dir:./data/audit-journal}")
+    private String journalDir;
+
+    @Value("${audit.journal.segment-bytes:16777216}")
+    private int journalSegmentBytes;
+
+    @Value("${audit.journal.max-segments:16}")
+    private int journalMaxSegments;
+
+    @Value("${audit.journal.max-attempts:5}")
+    private int journalMaxAttempts;
+
+    private final boolean async;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long offerTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+    private final BlockingQueue<AuditLog> queue;
+    private final Thread writerThread;
+    private volatile boolean accepting = true;
+
+    // Flushes run in their own transaction: the caller-side fallback runs after the caller's commit
+    private TransactionTemplate flushTransaction;
+
+    // Set when journaling; checkpoint is only moved by the writer thread (and by shutdown after it stopped)
+    private AuditJournal journal;
+    private volatile long checkpoint;
+    // Consecutive failed inserts of the batch at the checkpoint; writer thread only
+    private int failedAttempts;
+
+    private final Counter journaled;
+    private final Counter queued;
+    private final Counter callerWrites;
+    private final Counter dropped;
+    private final Counter deadLetteredInserts;
+    private final Counter deadLetteredRecords;
+    private final Timer flushTimer;
+
+    public AuditLogWriter(MeterRegistry meterRegistry,
+                          @Value("${audit.writer.async:true}") boolean async,
+                          @Value("${audit.writer.queue-capacity:10000}") int queueCapacity,
+                          @Value("${audit.writer.batch-size:500}") int batchSize,
+                          @Value("${audit.writer.flush-interval-ms:200}") long flushIntervalMillis,
+                          @Value("${audit.writer.offer-timeout-ms:50}") long offerTimeoutMillis,
+                          @Value("${audit.writer.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis) {
+        this.async = async;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.writerThread = new Thread(() -> {
+            if (journal != null) {
+                runJournalDrainer();
+            } else {
+                runWriter();
+            }
+        }, "audit-writer");
+        this.writerThread.setDaemon(true);
+
+        this.journaled = Counter.builder("audit.writer.entries")
+                .description("Audit log entries written through the writer")
+                .tag("path", "journaled")
+                .register(meterRegistry);
+        this.queued = Counter.builder("audit.writer.entries")
+                .description("Audit log entries written through the writer")
+                .tag("path", "queued")
+                .register(meterRegistry);
+        this.callerWrites = Counter.builder("audit.writer.entries")
+                .description("Audit log entries written through the writer")
+                .tag("path", "caller")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("audit.writer.dropped")
+                .description("Audit log entries lost after every flush attempt failed")
+                .register(meterRegistry);
+        this.deadLetteredInserts = Counter.builder("audit.journal.dead.letters")
+                .description("Journaled audit log entries moved to the dead-letter file")
+                .tag("reason", "insert")
+                .register(meterRegistry);
+        this.deadLetteredRecords = Counter.builder("audit.journal.dead.letters")
+                .description("Journaled audit log entries moved to the dead-letter file")
+                .tag("reason", "unreadable")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.writer.flush")
+                .description("Audit log batch insert duration")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("audit.writer.queue.size", queue, BlockingQueue::size)
+                .description("Audit log entries waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder("audit.journal.backlog.bytes", this, writer -> writer.journal != null
+                        ? writer.journal.backlogBytes(writer.checkpoint) : 0)
+                .description("Journaled audit log bytes not yet inserted")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        flushTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (async && journalEnabled) {
+            openJournal();
+        }
+        if (async) {
+            writerThread.start();
+        }
+    }
+
+    public void write(AuditLog entry) {
+        if (!async) {
+            auditDictionary.encode(entry);
+            auditLogRepository.save(entry);
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(entry);
+                }
+            });
+        } else {
+            enqueue(entry);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!async) {
+            return;
+        }
+        accepting = false;
+        try {
+            writerThread.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (journal != null) {
+            // Whatever is still journaled is replayed on the next start
+            if (!writerThread.isAlive()) {
+                drainJournal();
+            }
+            journal.close();
+            logger.info("Audit journal closed: pendingBytes={}", journal.backlogBytes(checkpoint));
+            return;
+        }
+        if (writerThread.isAlive()) {
+            logger.warn("Audit writer did not finish within shutdown timeout: pending={}", queue.size());
+            return;
+        }
+        // Entries offered while accepting was being switched off
+        List<AuditLog> late = new ArrayList<>();
+        queue.drainTo(late);
+        if (!late.isEmpty()) {
+            flush(late);
+        }
+    }
+
+    private void enqueue(AuditLog entry) {
+        if (accepting) {
+            try {
+                if (journal != null) {
+                    if (journal.append(entry, offerTimeoutMillis)) {
+                        journaled.increment();
+                        return;
+                    }
+                } else if (queue.offer(entry, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    queued.increment();
+                    return;
+                }
+            } catch (IOException e) {
+                logger.error("Audit journal append failed, writing inline: error={}", e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Journal or queue stayed full (or the writer is stopping): the caller writes its own entry
+        callerWrites.increment();
+        flush(List.of(entry));
+    }
+
+    // ============================================================
+    // JOURNAL
+    // ============================================================
+
+    private void openJournal() throws IOException {
+        journal = AuditJournal.open(Paths.get(journalDir), journalSegmentBytes, journalMaxSegments);
+        List<Long> stored = jdbcTemplate.queryForList(
+                "SELECT position FROM audit_journal_checkpoints WHERE journal_id = ?", Long.class, journal.id());
+        if (stored.isEmpty()) {
+            checkpoint = journal.startPosition();
+            jdbcTemplate.update("INSERT INTO audit_journal_checkpoints (journal_id, position, updated_at) VALUES (?, ?, ?)",
+                    journal.id(), checkpoint, Timestamp.valueOf(LocalDateTime.now()));
+        } else {
+            checkpoint = Math.max(stored.get(0), journal.startPosition());
+        }
+        journal.release(checkpoint);
+        logger.info("Audit journal opened: dir={}, id={}, replayBytes={}", journalDir, journal.id(),
+                journal.backlogBytes(checkpoint));
+    }
+
+    private void runJournalDrainer() {
+        long nextForce = System.nanoTime();
+        while (accepting) {
+            try {
+                if (journal.awaitData(checkpoint, flushIntervalMillis) && !drainJournal()) {
+                    sleepQuietly(flushIntervalMillis * FLUSH_ATTEMPTS);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown is signalled through accepting, not interrupts
+                logger.debug("Audit journal drainer interrupted while waiting");
+            }
+            // Bounds what a power loss (rather than a process crash) can take from the journal
+            if (System.nanoTime() - nextForce >= 0) {
+                journal.force();
+                nextForce = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+            }
+        }
+        drainJournal();
+        logger.info("Audit journal drainer stopped: pendingBytes={}", journal.backlogBytes(checkpoint));
+    }
+
+    // Insert journaled entries until caught up; false when an insert failed (the entries stay journaled)
+    private boolean drainJournal() {
+        while (true) {
+            AuditJournal.Batch batch;
+            try {
+                batch = journal.read(checkpoint, batchSize);
+            } catch (IOException e) {
+                if (!skipUnreadable(e)) {
+                    return false;
+                }
+                continue;
+            }
+            if (batch.end() == checkpoint) {
+                return true;
+            }
+            try {
+                insert(batch.entries(), batch.end());
+                failedAttempts = 0;
+            } catch (RuntimeException e) {
+                if (++failedAttempts < journalMaxAttempts) {
+                    logger.warn("Audit journal flush failed, will retry: entries={}, attempt={}, error={}",
+                            batch.entries().size(), failedAttempts, e.getMessage());
+                    return false;
+                }
+                logger.warn("Audit journal flush failed {} times, inserting entries one by one: entries={}, error={}",
+                        failedAttempts, batch.entries().size(), e.getMessage());
+                if (!insertSeparately(batch)) {
+                    return false;
+                }
+                failedAttempts = 0;
+                continue;
+            }
+            advance(batch.end());
+        }
+    }
+
+    // Each entry in its own transaction; one that fails while the database answers is dead-lettered.
+    // False when the database does not answer (or the dead letter could not be written)
+    private boolean insertSeparately(AuditJournal.Batch batch) {
+        for (int i = 0; i < batch.entries().size(); i++) {
+            AuditLog entry = batch.entries().get(i);
+            long end = batch.entryEnds()[i];
+            try {
+                insert(List.of(entry), end);
+            } catch (RuntimeException e) {
+                if (!databaseReachable()) {
+                    logger.warn("Audit database unreachable, will retry: checkpoint={}, error={}", checkpoint, e.getMessage());
+                    return false;
+                }
+                if (!deadLetter("insert", checkpoint, e.getMessage(), entry) || !saveCheckpoint(end)) {
+                    return false;
+                }
+                deadLetteredInserts.increment();
+                logger.error("Audit journal entry dead-lettered: position={}, action={}, entityType={}, entityId={}, error={}",
+                        Long.toHexString(checkpoint), entry.getAction(), entry.getEntityType(), entry.getEntityId(),
+                        e.getMessage());
+            }
+            advance(end);
+        }
+        return true;
+    }
+
+    // Notes the unreadable record at the checkpoint in the dead-letter file and moves past it
+    private boolean skipUnreadable(IOException error) {
+        long resume = journal.skip(checkpoint);
+        if (!deadLetter("unreadable", checkpoint, error.getMessage(), null) || !saveCheckpoint(resume)) {
+            return false;
+        }
+        deadLetteredRecords.increment();
+        logger.error("Audit journal record unreadable, skipped: position={}, resume={}, skippedBytes={}, error={}",
+                Long.toHexString(checkpoint), Long.toHexString(resume), journal.distance(checkpoint, resume),
+                error.getMessage());
+        advance(resume);
+        return true;
+    }
+
+    private void advance(long position) {
+        checkpoint = position;
+        try {
+            journal.release(checkpoint);
+        } catch (IOException e) {
+            logger.warn("Audit journal segment cleanup failed: error={}", e.getMessage());
+        }
+    }
+
+    private boolean saveCheckpoint(long position) {
+        try {
+            jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, position, Timestamp.valueOf(LocalDateTime.now()), journal.id());
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Audit journal checkpoint update failed, will retry: position={}, error={}",
+                    Long.toHexString(position), e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean databaseReachable() {
+        try {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // One tab-separated key=value line per entry (or unreadable record), forced to disk
+    private boolean deadLetter(String reason, long position, String error, AuditLog entry) {
+        StringBuilder line = new StringBuilder()
+                .append("loggedAt=").append(LocalDateTime.now())
+                .append("\treason=").append(reason)
+                .append("\tposition=").append(Long.toHexString(position))
+                .append("\terror=").append(escape(error));
+        if (entry != null) {
+            line.append("\ttimestamp=").append(entry.getTimestamp())
+                    .append("\taction=").append(escape(entry.getAction()))
+                    .append("\tperformedBy=").append(escape(entry.getPerformedBy()))
+                    .append("\tentityType=").append(escape(entry.getEntityType()))
+                    .append("\tentityId=").append(entry.getEntityId())
+                    .append("\tdetailsTemplate=").append(escape(entry.getDetailsTemplate()))
+                    .append("\tdetailsParams=").append(escape(entry.getDetailsParams()))
+                    .append("\toldValue=").append(escape(entry.getOldValue()))
+                    .append("\tnewValue=").append(escape(entry.getNewValue()));
+        }
+        line.append('\n');
+        Path file = Paths.get(journalDir).resolve(DEAD_LETTER_FILE);
+        try {
+            Files.writeString(file, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+            return true;
+        } catch (IOException e) {
+            logger.error("Audit journal dead-letter write failed, will retry: file={}, error={}", file, e.getMessage());
+            return false;
+        }
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "null";
+        }
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r")
+                .replace("\u001F", "\\u001f");
+    }
+
+    // ============================================================
+    // WRITER THREAD
+    // ============================================================
+
+    private void runWriter() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (accepting) {
+            try {
+                AuditLog first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                queue.drainTo(batch, batchSize - batch.size());
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    AuditLog next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // Shutdown is signalled through accepting, not interrupts; flush what was collected
+                logger.debug("Audit writer interrupted while collecting a batch: entries={}", batch.size());
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+
+        // Shutdown: nothing new is queued once accepting is false, so this empties the queue
+        int drained = 0;
+        while (queue.drainTo(batch, batchSize) > 0) {
+            drained += batch.size();
+            flush(batch);
+            batch.clear();
+        }
+        logger.info("Audit writer stopped: drainedOnShutdown={}", drained);
+    }
+
+    private void flush(List<AuditLog> batch) {
+        for (int attempt = 1; attempt <= FLUSH_ATTEMPTS; attempt++) {
+            try {
+                insert(batch, null);
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Audit log flush failed: entries={}, attempt={}, error={}", batch.size(), attempt, e.getMessage());
+                if (attempt < FLUSH_ATTEMPTS) {
+                    sleepQuietly(flushIntervalMillis * attempt);
+                }
+            }
+        }
+        dropped.increment(batch.size());
+        logger.error("Audit log entries dropped after {} attempts: entries={}", FLUSH_ATTEMPTS, batch.size());
+    }
+
+    // One transaction: the batch and, for journaled entries, the checkpoint just past them.
+    // Dictionary ids are resolved first; new ones are committed on their own
+    private void insert(List<AuditLog> batch, Long journalEnd) {
+        batch.forEach(auditDictionary::encode);
+        flushTimer.record(() -> flushTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batchSize, (ps, entry) -> {
+                ps.setInt(1, entry.getActionId());
+                ps.setInt(2, entry.getActorId());
+                ps.setInt(3, entry.getEntityTypeId());
+                ps.setObject(4, entry.getEntityId(), Types.BIGINT);
+                ps.setObject(5, entry.getDetailsTemplateId(), Types.INTEGER);
+                ps.setString(6, entry.getDetailsParams());
+                ps.setTimestamp(7, Timestamp.valueOf(entry.getTimestamp()));
+                ps.setString(8, entry.getOldValue());
+                ps.setString(9, entry.getNewValue());
+            });
+            if (journalEnd != null) {
+                jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, journalEnd, Timestamp.valueOf(LocalDateTime.now()), journal.id());
+            }
+        }));
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
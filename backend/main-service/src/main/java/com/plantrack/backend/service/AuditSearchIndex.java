@@ -0,0 +1,742 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.model.AuditLog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over audit log text: term -> ascending audit log ids, kept
+ * delta-compressed in memory and intersected lazily from the newest id down.
+ *
+ * Documents are the lower-cased words of details, oldValue and newValue, plus one exact
+ * term per filter field (entity type, action, user) and one per month, so filters and
+ * date ranges narrow candidates in the index too. Phrases are looked up as the
+ * intersection of their words and confirmed against the rows themselves.
+ *
+ * On disk: a snapshot (all postings, delta-encoded) plus a log of documents added since,
+ * replayed on load; compact() folds the log into a new snapshot. Adding a document that
+ * is already indexed is a no-op, so the index can always be caught up from audit_logs.
+ */
+final class AuditSearchIndex {
+
+    // Field terms start with '#', which words never contain, so no word or prefix query reaches them
+    static final String ENTITY_TYPE = "#entityType:";
+    static final String ACTION = "#action:";
+    static final String PERFORMED_BY = "#performedBy:";
+    static final String MONTH = "#month:";
+
+    private static final long MAGIC = 0x5054415544495831L; // "PTAUDIX1"
+    private static final String SNAPSHOT_FILE = "audit-search.snap";
+    private static final String LOG_FILE = "audit-search.log";
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_TERMS = 1000;
+    private static final int BLOCK_IDS = 128;
+    private static final Pattern CLAUSE = Pattern.compile("\"([^\"]*)\"|(\\S+)");
+
+    enum Kind { TERM, PREFIX, PHRASE }
+
+    record Clause(Kind kind, List<String> words) {}
+
+    // Ascending ids in blocks of at most BLOCK_IDS: each block keeps its first id as is, which
+    // doubles as a skip list, and varint deltas for the rest, so a cursor jumps between blocks
+    // without decoding the ones in between. Ids arrive in order while catching up; late ones are
+    // inserted by re-encoding their block
+    private static final class Postings {
+        private long[] firstIds = new long[1];
+        private int[] offsets = new int[1];
+        private int[] counts = new int[1];
+        private int blocks;
+        private byte[] data = new byte[16];
+        private int length;
+        private int size;
+        private long lastId;
+
+        boolean add(long id) {
+            if (size > 0 && id <= lastId) {
+                return insert(id);
+            }
+            if (blocks == 0 || counts[blocks - 1] == BLOCK_IDS) {
+                insertBlock(blocks, id, length, 1);
+            } else {
+                ensureData(length + 10);
+                length = writeVarLong(data, length, id - lastId);
+                counts[blocks - 1]++;
+            }
+            lastId = id;
+            size++;
+            return true;
+        }
+
+        private boolean insert(long id) {
+            int block = Math.max(blockAtOrBelow(id, blocks - 1), 0);
+            long[] ids = new long[BLOCK_IDS + 1];
+            int count = decode(block, ids);
+            int at = Arrays.binarySearch(ids, 0, count, id);
+            if (at >= 0) {
+                return false;
+            }
+            at = -at - 1;
+            System.arraycopy(ids, at, ids, at + 1, count - at);
+            ids[at] = id;
+            rewrite(block, ids, count + 1);
+            size++;
+            return true;
+        }
+
+        // Replace a block's contents with ids, split in two halves when they no longer fit
+        private void rewrite(int block, long[] ids, int count) {
+            int split = count <= BLOCK_IDS ? count : count / 2;
+            byte[] encoded = new byte[count * 10];
+            int firstLength = encodeDeltas(ids, 0, split, encoded, 0);
+            int encodedLength = encodeDeltas(ids, split, count, encoded, firstLength);
+            int start = offsets[block];
+            int end = block + 1 < blocks ? offsets[block + 1] : length;
+            int grow = encodedLength - (end - start);
+            ensureData(length + grow);
+            System.arraycopy(data, end, data, end + grow, length - end);
+            System.arraycopy(encoded, 0, data, start, encodedLength);
+            length += grow;
+            for (int b = block + 1; b < blocks; b++) {
+                offsets[b] += grow;
+            }
+            firstIds[block] = ids[0];
+            counts[block] = split;
+            if (split < count) {
+                insertBlock(block + 1, ids[split], start + firstLength, count - split);
+            }
+        }
+
+        private void insertBlock(int at, long firstId, int offset, int count) {
+            if (blocks == firstIds.length) {
+                int capacity = blocks + (blocks >> 1) + 1;
+                firstIds = Arrays.copyOf(firstIds, capacity);
+                offsets = Arrays.copyOf(offsets, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+            }
+            System.arraycopy(firstIds, at, firstIds, at + 1, blocks - at);
+            System.arraycopy(offsets, at, offsets, at + 1, blocks - at);
+            System.arraycopy(counts, at, counts, at + 1, blocks - at);
+            firstIds[at] = firstId;
+            offsets[at] = offset;
+            counts[at] = count;
+            blocks++;
+        }
+
+        private void ensureData(int capacity) {
+            if (capacity > data.length) {
+                data = Arrays.copyOf(data, Math.max(capacity, data.length + (data.length >> 1)));
+            }
+        }
+
+        /**
+         * Last block at or before from whose first id is at most id, or -1. Gallops
+         * downward from from, since cursors only ever move toward lower ids.
+         */
+        int blockAtOrBelow(long id, int from) {
+            if (from < 0 || firstIds[from] <= id) {
+                return from;
+            }
+            int high = from;
+            int step = 1;
+            int low = high - step;
+            while (low >= 0 && firstIds[low] > id) {
+                high = low;
+                step <<= 1;
+                low = high - step;
+            }
+            int at = Arrays.binarySearch(firstIds, Math.max(low, 0), high, id);
+            return at >= 0 ? at : -at - 2;
+        }
+
+        int decode(int block, long[] into) {
+            int count = counts[block];
+            long id = firstIds[block];
+            into[0] = id;
+            int at = offsets[block];
+            for (int i = 1; i < count; i++) {
+                long delta = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = data[at++];
+                    delta |= (long) (b & 0x7F) << shift;
+                    if (b >= 0) {
+                        break;
+                    }
+                }
+                id += delta;
+                into[i] = id;
+            }
+            return count;
+        }
+
+        Postings from(long minId) {
+            Postings kept = new Postings();
+            long[] ids = new long[BLOCK_IDS];
+            for (int block = 0; block < blocks; block++) {
+                int count = decode(block, ids);
+                for (int i = 0; i < count; i++) {
+                    if (ids[i] >= minId) {
+                        kept.add(ids[i]);
+                    }
+                }
+            }
+            return kept;
+        }
+
+        private static int encodeDeltas(long[] ids, int from, int to, byte[] into, int at) {
+            for (int i = from + 1; i < to; i++) {
+                at = writeVarLong(into, at, ids[i] - ids[i - 1]);
+            }
+            return at;
+        }
+    }
+
+    // Walks ids from high to low; targets never increase from one call to the next
+    private interface IdCursor {
+        long NONE = Long.MIN_VALUE;
+
+        /**
+         * Largest id at or below target, or NONE when there is none left.
+         */
+        long atOrBelow(long target);
+
+        long estimatedSize();
+    }
+
+    private static final class PostingsCursor implements IdCursor {
+        private final Postings postings;
+        private final long[] buffer = new long[BLOCK_IDS];
+        private int block;
+        private int decoded = -1;
+        private int at;
+        private long current = Long.MAX_VALUE;
+
+        PostingsCursor(Postings postings) {
+            this.postings = postings;
+            this.block = postings.blocks - 1;
+        }
+
+        @Override
+        public long atOrBelow(long target) {
+            if (current <= target) {
+                return current;
+            }
+            block = postings.blockAtOrBelow(target, block);
+            if (block < 0) {
+                current = NONE;
+                return NONE;
+            }
+            if (block != decoded) {
+                at = postings.decode(block, buffer) - 1;
+                decoded = block;
+            }
+            // The block starts at or below target, so the search always lands in it
+            int found = Arrays.binarySearch(buffer, 0, at + 1, target);
+            at = found >= 0 ? found : -found - 2;
+            current = buffer[at];
+            return current;
+        }
+
+        @Override
+        public long estimatedSize() {
+            return postings.size;
+        }
+    }
+
+    private static final class UnionCursor implements IdCursor {
+        private final List<PostingsCursor> parts = new ArrayList<>();
+
+        UnionCursor(Collection<Postings> lists) {
+            lists.forEach(postings -> parts.add(new PostingsCursor(postings)));
+        }
+
+        @Override
+        public long atOrBelow(long target) {
+            long best = NONE;
+            for (PostingsCursor part : parts) {
+                best = Math.max(best, part.atOrBelow(target));
+            }
+            return best;
+        }
+
+        @Override
+        public long estimatedSize() {
+            long size = 0;
+            for (PostingsCursor part : parts) {
+                size += part.estimatedSize();
+            }
+            return size;
+        }
+    }
+
+    private final Path directory;
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private DataOutputStream log;
+    private long logDocuments;
+    private long lastId;
+
+    private AuditSearchIndex(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Load the snapshot and replay the log from directory (empty when there is none yet).
+     */
+    static AuditSearchIndex open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        AuditSearchIndex index = new AuditSearchIndex(directory);
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshot)) {
+            index.readSnapshot(snapshot);
+        }
+        Path logFile = directory.resolve(LOG_FILE);
+        if (Files.exists(logFile)) {
+            index.replayLog(logFile);
+        }
+        index.log = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(logFile.toFile(), true)));
+        return index;
+    }
+
+    /**
+     * Highest id indexed (ids are indexed in ascending order, late ones aside).
+     */
+    long lastId() {
+        lock.readLock().lock();
+        try {
+            return lastId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long logDocuments() {
+        return logDocuments;
+    }
+
+    int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index rows and append them to the log.
+     */
+    void add(Collection<AuditLog> rows) throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (AuditLog row : rows) {
+                Set<String> documentTerms = documentTerms(row);
+                index(row.getId(), documentTerms);
+                log.writeLong(row.getId());
+                log.writeInt(documentTerms.size());
+                for (String term : documentTerms) {
+                    log.writeUTF(term);
+                }
+                logDocuments++;
+            }
+            log.flush();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to limit ids below beforeId, newest first, that match every clause and every
+     * exact filter term and, unless months is empty, fall in one of the months. Phrases
+     * still need {@link #matchesPhrases} on the rows.
+     *
+     * The lists are intersected in place, leapfrogging from beforeId downward, so only
+     * as much of them is decoded as it takes to find limit ids.
+     */
+    long[] candidates(List<Clause> clauses, List<String> filterTerms, List<String> months, long beforeId, int limit) {
+        lock.readLock().lock();
+        try {
+            List<IdCursor> cursors = new ArrayList<>();
+            for (String term : filterTerms) {
+                Postings postings = terms.get(term);
+                if (postings == null) {
+                    return new long[0];
+                }
+                cursors.add(new PostingsCursor(postings));
+            }
+            for (Clause clause : clauses) {
+                if (clause.kind() == Kind.PREFIX) {
+                    cursors.add(new UnionCursor(prefixTerms(clause.words().get(0))));
+                    continue;
+                }
+                for (String word : clause.words()) {
+                    Postings postings = terms.get(word);
+                    if (postings == null) {
+                        return new long[0];
+                    }
+                    cursors.add(new PostingsCursor(postings));
+                }
+            }
+            if (!months.isEmpty()) {
+                List<Postings> monthPostings = new ArrayList<>();
+                for (String month : months) {
+                    Postings postings = terms.get(MONTH + month);
+                    if (postings != null) {
+                        monthPostings.add(postings);
+                    }
+                }
+                cursors.add(new UnionCursor(monthPostings));
+            }
+            if (cursors.isEmpty()) {
+                return new long[0];
+            }
+            // The sparsest list first, so it proposes the fewest ids for the others to check
+            cursors.sort(Comparator.comparingLong(IdCursor::estimatedSize));
+            return intersect(cursors, beforeId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrite the snapshot with everything indexed, dropping ids below minLiveId (rows no
+     * longer in audit_logs), and start an empty log.
+     */
+    void compact(long minLiveId) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (minLiveId > 0) {
+                terms.replaceAll((term, postings) -> postings.from(minLiveId));
+                terms.values().removeIf(postings -> postings.size == 0);
+            }
+            Path snapshot = directory.resolve(SNAPSHOT_FILE);
+            Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                         Channels.newOutputStream(channel), 1 << 16))) {
+                out.writeLong(MAGIC);
+                out.writeLong(lastId);
+                out.writeInt(terms.size());
+                for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+                    Postings postings = entry.getValue();
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(postings.size);
+                    long[] ids = new long[BLOCK_IDS];
+                    long previous = 0;
+                    for (int block = 0; block < postings.blocks; block++) {
+                        int count = postings.decode(block, ids);
+                        for (int i = 0; i < count; i++) {
+                            writeVarLong(out, ids[i] - previous);
+                            previous = ids[i];
+                        }
+                    }
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            log.close();
+            Path logFile = directory.resolve(LOG_FILE);
+            log = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(logFile.toFile(), false)));
+            logDocuments = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            log.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ============================================================
+    // TERMS AND QUERIES
+    // ============================================================
+
+    static Set<String> documentTerms(AuditLog row) {
+        Set<String> documentTerms = new LinkedHashSet<>();
+        documentTerms.addAll(words(row.getDetails()));
+        documentTerms.addAll(words(row.getOldValue()));
+        documentTerms.addAll(words(row.getNewValue()));
+        documentTerms.add(ENTITY_TYPE + row.getEntityType());
+        documentTerms.add(ACTION + row.getAction());
+        documentTerms.add(PERFORMED_BY + row.getPerformedBy());
+        documentTerms.add(MONTH + YearMonth.from(row.getTimestamp()));
+        return documentTerms;
+    }
+
+    /**
+     * Lower-cased runs of letters and digits; overly long runs are not indexed.
+     */
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start <= MAX_TERM_LENGTH) {
+                    words.add(lower.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Parse a query: "quoted phrase", prefix* or word, all required. A word that splits
+     * into several (e.g. bob@corp.com) is matched as a phrase.
+     */
+    static List<Clause> parse(String query) {
+        List<Clause> clauses = new ArrayList<>();
+        if (query == null) {
+            return clauses;
+        }
+        Matcher matcher = CLAUSE.matcher(query);
+        while (matcher.find()) {
+            if (matcher.group(1) != null) {
+                List<String> words = words(matcher.group(1));
+                if (!words.isEmpty()) {
+                    clauses.add(new Clause(words.size() == 1 ? Kind.TERM : Kind.PHRASE, words));
+                }
+                continue;
+            }
+            String token = matcher.group(2);
+            if (token.endsWith("*")) {
+                List<String> words = words(token.substring(0, token.length() - 1));
+                if (words.size() != 1 || words.get(0).length() < MIN_PREFIX_LENGTH) {
+                    throw new RuntimeException("Prefix queries need a single word of at least " +
+                            MIN_PREFIX_LENGTH + " characters: " + token);
+                }
+                clauses.add(new Clause(Kind.PREFIX, words));
+                continue;
+            }
+            List<String> words = words(token);
+            if (!words.isEmpty()) {
+                clauses.add(new Clause(words.size() == 1 ? Kind.TERM : Kind.PHRASE, words));
+            }
+        }
+        return clauses;
+    }
+
+    /**
+     * Whether the row has every phrase clause as consecutive words of one of its fields
+     * (single words and prefixes are exact in the index already).
+     */
+    static boolean matchesPhrases(AuditLog row, List<Clause> clauses) {
+        for (Clause clause : clauses) {
+            if (clause.kind() != Kind.PHRASE) {
+                continue;
+            }
+            String phrase = " " + String.join(" ", clause.words()) + " ";
+            if (!containsPhrase(row.getDetails(), phrase) && !containsPhrase(row.getOldValue(), phrase)
+                    && !containsPhrase(row.getNewValue(), phrase)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsPhrase(String text, String phrase) {
+        return text != null && (" " + String.join(" ", words(text)) + " ").contains(phrase);
+    }
+
+    private Collection<Postings> prefixTerms(String prefix) {
+        Collection<Postings> matching = terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        if (matching.size() > MAX_PREFIX_TERMS) {
+            throw new RuntimeException("Prefix " + prefix + "* matches more than " + MAX_PREFIX_TERMS +
+                    " terms; use a longer prefix");
+        }
+        return matching;
+    }
+
+    // Leapfrog: each cursor in turn moves to the highest id at or below the current target;
+    // a lower answer becomes the new target, and an id every cursor agrees on is a hit
+    private static long[] intersect(List<IdCursor> cursors, long beforeId, int limit) {
+        long[] hits = new long[Math.min(limit, 256)];
+        int found = 0;
+        long target = beforeId - 1;
+        int agreeing = 0;
+        for (int next = 0; found < limit; next = (next + 1) % cursors.size()) {
+            long id = cursors.get(next).atOrBelow(target);
+            if (id == IdCursor.NONE) {
+                break;
+            }
+            if (id < target) {
+                target = id;
+                agreeing = 0;
+            }
+            if (++agreeing == cursors.size()) {
+                if (found == hits.length) {
+                    hits = Arrays.copyOf(hits, Math.min(limit, found * 2));
+                }
+                hits[found++] = target;
+                target--;
+                agreeing = 0;
+            }
+        }
+        return Arrays.copyOf(hits, found);
+    }
+
+    // ============================================================
+    // PERSISTENCE
+    // ============================================================
+
+    private void index(long id, Collection<String> documentTerms) {
+        for (String term : documentTerms) {
+            terms.computeIfAbsent(term, t -> new Postings()).add(id);
+        }
+        lastId = Math.max(lastId, id);
+    }
+
+    private void readSnapshot(Path snapshot) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot), 1 << 16))) {
+            if (in.readLong() != MAGIC) {
+                throw new IOException("Not an audit search snapshot: " + snapshot);
+            }
+            lastId = in.readLong();
+            int termCount = in.readInt();
+            for (int t = 0; t < termCount; t++) {
+                String term = in.readUTF();
+                int count = in.readInt();
+                Postings postings = new Postings();
+                long id = 0;
+                for (int i = 0; i < count; i++) {
+                    id += readVarLong(in);
+                    postings.add(id);
+                }
+                terms.put(term, postings);
+            }
+        }
+    }
+
+    // The tail may be a document cut short by a crash: replay up to it and cut it off
+    private void replayLog(Path logFile) throws IOException {
+        long valid = 0;
+        try (CountingInputStream counting = new CountingInputStream(new BufferedInputStream(Files.newInputStream(logFile)));
+             DataInputStream in = new DataInputStream(counting)) {
+            while (true) {
+                long id;
+                List<String> documentTerms;
+                try {
+                    id = in.readLong();
+                    int count = in.readInt();
+                    documentTerms = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        documentTerms.add(in.readUTF());
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                index(id, documentTerms);
+                logDocuments++;
+                valid = counting.count;
+            }
+        }
+        if (Files.size(logFile) > valid) {
+            try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+            }
+        }
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static int writeVarLong(byte[] into, int at, long value) {
+        while ((value & ~0x7FL) != 0) {
+            into[at++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        into[at++] = (byte) value;
+        return at;
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed audit search snapshot");
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.dto.AuditLogPageDTO;
+import com.plantrack.backend.model.AuditLog;
+import com.plantrack.backend.repository.AuditLogRepository;
+import com.plantrack.backend.util.AuditLogCursor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Full-text search over audit log details, oldValue and newValue.
+ *
+ * An "audit-indexer" thread keeps the {@link AuditSearchIndex} caught up with
+ * audit_logs by id, whichever path wrote the rows (journal, queue or inline), and
+ * persists it under audit.search.dir so a restart only indexes what is new. Skipped
+ * ids may belong to transactions still committing, so they are re-checked for
+ * gap-timeout-ms before being given up as rolled back: each first after a second, then
+ * at doubling intervals, at most GAP_CHECK_CHUNK ids per pass.
+ *
+ * Results are newest first by id, filtered in the index and confirmed on the rows;
+ * rows archived or deleted since they were indexed are skipped, and dropped from the
+ * index at its next compaction.
+ */
+@Service
+public class AuditSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditSearchService.class);
+
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int FETCH_CHUNK = 200;
+    // Candidates confirmed per request at most; a page cut short by it still returns a cursor
+    private static final int MAX_SCANNED = 5000;
+    private static final int MAX_GAPS = 10000;
+    private static final int GAP_CHECK_CHUNK = 1000;
+    private static final long GAP_FIRST_CHECK_MS = 1000;
+    private static final long GAP_MAX_INTERVAL_MS = 15000;
+
+    private static final String NEW_ROWS_SQL =
+            "SELECT " + AuditDictionary.ROW_COLUMNS + " FROM audit_logs WHERE id > ? ORDER BY id LIMIT ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private AuditDictionary auditDictionary;
+
+    @Value("${audit.search.enabled:true}")
+    private boolean enabled;
+
+    @Value("${audit.search.dir:./data/audit-search}")
+    private String indexDir;
+
+    @Value("${audit.search.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${audit.search.refresh-ms:1000}")
+    private long refreshMillis;
+
+    @Value("${audit.search.gap-timeout-ms:60000}")
+    private long gapTimeoutMillis;
+
+    @Value("${audit.search.compact-after:200000}")
+    private long compactAfter;
+
+    private AuditSearchIndex index;
+    private Thread indexerThread;
+    private volatile boolean running;
+
+    // Skipped ids -> their re-check schedule; only touched by the indexer thread
+    private final TreeMap<Long, Gap> gaps = new TreeMap<>();
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        index = AuditSearchIndex.open(Paths.get(indexDir));
+        logger.info("Audit search index loaded: dir={}, lastId={}, terms={}, logDocuments={}",
+                indexDir, index.lastId(), index.termCount(), index.logDocuments());
+        running = true;
+        indexerThread = new Thread(this::runIndexer, "audit-indexer");
+        indexerThread.setDaemon(true);
+        indexerThread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (index == null) {
+            return;
+        }
+        running = false;
+        indexerThread.interrupt();
+        try {
+            indexerThread.join(10000);
+            index.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.warn("Audit search index close failed: error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * Audit logs matching query (words, "phrases" and prefix*, all required) and the
+     * optional filters, newest first.
+     */
+    public AuditLogPageDTO search(String query, String entityType, String action, String performedBy,
+                                  LocalDateTime startDate, LocalDateTime endDate, String cursor, int size) {
+        if (index == null) {
+            throw new RuntimeException("Audit search is disabled");
+        }
+        long startTime = System.currentTimeMillis();
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<AuditSearchIndex.Clause> clauses = AuditSearchIndex.parse(query);
+
+        List<String> filterTerms = new ArrayList<>();
+        if (entityType != null && !entityType.isBlank()) {
+            filterTerms.add(AuditSearchIndex.ENTITY_TYPE + entityType);
+        }
+        if (action != null && !action.isBlank()) {
+            filterTerms.add(AuditSearchIndex.ACTION + action);
+        }
+        if (performedBy != null && !performedBy.isBlank()) {
+            filterTerms.add(AuditSearchIndex.PERFORMED_BY + performedBy);
+        }
+        List<String> months = months(startDate, endDate);
+        if (clauses.isEmpty() && filterTerms.isEmpty() && months.isEmpty()) {
+            throw new RuntimeException("Search needs a query or at least one filter");
+        }
+
+        AuditLogCursor after = AuditLogCursor.decode(cursor);
+        long beforeId = after != null ? after.id() : Long.MAX_VALUE;
+        // Without phrases or exact dates to confirm, every candidate still on file is a hit
+        boolean exact = startDate == null
+                && clauses.stream().noneMatch(clause -> clause.kind() == AuditSearchIndex.Kind.PHRASE);
+
+        // Newest candidates first, a chunk at a time from the index, confirmed on the rows
+        List<AuditLog> rows = new ArrayList<>(pageSize + 1);
+        AuditLog lastScanned = null;
+        boolean exhausted = false;
+        int scanned = 0;
+        while (!exhausted && rows.size() <= pageSize && scanned < MAX_SCANNED) {
+            int wanted = Math.min(exact ? Math.min(pageSize + 1 - rows.size(), FETCH_CHUNK) : FETCH_CHUNK,
+                    MAX_SCANNED - scanned);
+            long[] candidates = index.candidates(clauses, filterTerms, months, beforeId, wanted);
+            exhausted = candidates.length < wanted;
+            if (candidates.length == 0) {
+                break;
+            }
+            beforeId = candidates[candidates.length - 1];
+            scanned += candidates.length;
+            List<Long> chunk = new ArrayList<>(candidates.length);
+            for (long id : candidates) {
+                chunk.add(id);
+            }
+            List<AuditLog> fetched = auditDictionary.decode(new ArrayList<>(auditLogRepository.findAllById(chunk)));
+            fetched.sort(Comparator.comparing(AuditLog::getId).reversed());
+            for (AuditLog row : fetched) {
+                if (rows.size() > pageSize) {
+                    break;
+                }
+                if (inRange(row, startDate, endDate) && AuditSearchIndex.matchesPhrases(row, clauses)) {
+                    rows.add(row);
+                }
+                lastScanned = row;
+            }
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        String nextCursor = null;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+            AuditLog last = rows.get(rows.size() - 1);
+            nextCursor = new AuditLogCursor(last.getTimestamp(), last.getId()).encode();
+        } else if (!exhausted && scanned >= MAX_SCANNED && lastScanned != null) {
+            // Scan limit reached: the next page continues below the last row looked at
+            hasMore = true;
+            nextCursor = new AuditLogCursor(lastScanned.getTimestamp(), lastScanned.getId()).encode();
+        }
+
+        logger.debug("Audit search served: clauses={}, filters={}, scanned={}, items={}, hasMore={}, duration={}ms",
+                clauses.size(), filterTerms.size(), scanned, rows.size(), hasMore,
+                System.currentTimeMillis() - startTime);
+        return new AuditLogPageDTO(rows, pageSize, hasMore, nextCursor);
+    }
+
+    private static List<String> months(LocalDateTime startDate, LocalDateTime endDate) {
+        List<String> months = new ArrayList<>();
+        if (startDate == null && endDate == null) {
+            return months;
+        }
+        if (startDate == null || endDate == null) {
+            throw new RuntimeException("startDate and endDate must be given together");
+        }
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(YearMonth.from(endDate)); month = month.plusMonths(1)) {
+            months.add(month.toString());
+        }
+        return months;
+    }
+
+    private static boolean inRange(AuditLog row, LocalDateTime startDate, LocalDateTime endDate) {
+        return startDate == null || (!row.getTimestamp().isBefore(startDate) && !row.getTimestamp().isAfter(endDate));
+    }
+
+    // ============================================================
+    // INDEXER THREAD
+    // ============================================================
+
+    private void runIndexer() {
+        while (running) {
+            try {
+                int indexed = indexNewRows();
+                recheckGaps();
+                if (index.logDocuments() >= compactAfter) {
+                    compact();
+                }
+                if (indexed < batchSize) {
+                    Thread.sleep(refreshMillis);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown is signalled through running
+                logger.debug("Audit indexer interrupted");
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Audit indexing failed, will retry: lastId={}, error={}", index.lastId(), e.getMessage());
+                sleepQuietly(refreshMillis * 5);
+            }
+        }
+        logger.info("Audit indexer stopped: lastId={}", index.lastId());
+    }
+
+    private int indexNewRows() throws IOException {
+        long lastId = index.lastId();
+        List<AuditLog> rows = auditDictionary.decode(
+                jdbcTemplate.query(NEW_ROWS_SQL, AuditDictionary.ROW_MAPPER, lastId, batchSize));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        // A skipped id may be a transaction still committing, however far behind the head the
+        // batch is; the oldest gaps give way first when there are too many to watch
+        long now = System.currentTimeMillis();
+        long previous = lastId;
+        for (AuditLog row : rows) {
+            if (previous > 0) {
+                for (long id = Math.max(previous + 1, row.getId() - MAX_GAPS); id < row.getId(); id++) {
+                    gaps.computeIfAbsent(id, key -> new Gap(now));
+                    if (gaps.size() > MAX_GAPS) {
+                        gaps.pollFirstEntry();
+                    }
+                }
+            }
+            previous = row.getId();
+        }
+        index.add(rows);
+        return rows.size();
+    }
+
+    // Reads the gaps that are due, oldest ids first; an expired gap gets one last check before it is dropped
+    private void recheckGaps() throws IOException {
+        long now = System.currentTimeMillis();
+        long expired = now - gapTimeoutMillis;
+        List<Long> due = new ArrayList<>();
+        List<Long> lastChecks = new ArrayList<>();
+        for (Iterator<Map.Entry<Long, Gap>> entries = gaps.entrySet().iterator();
+             entries.hasNext() && due.size() < GAP_CHECK_CHUNK; ) {
+            Map.Entry<Long, Gap> entry = entries.next();
+            Gap gap = entry.getValue();
+            if (gap.firstSeen < expired) {
+                due.add(entry.getKey());
+                lastChecks.add(entry.getKey());
+            } else if (gap.nextCheck <= now) {
+                due.add(entry.getKey());
+                gap.checked(now);
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        List<AuditLog> late = auditDictionary.decode(auditLogRepository.findAllById(due));
+        if (!late.isEmpty()) {
+            index.add(late);
+            late.forEach(row -> gaps.remove(row.getId()));
+            logger.debug("Audit search indexed late rows: rows={}, pendingGaps={}", late.size(), gaps.size());
+        }
+        lastChecks.forEach(gaps::remove);
+    }
+
+    private void compact() throws IOException {
+        long startTime = System.currentTimeMillis();
+        Long minLiveId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM audit_logs", Long.class);
+        index.compact(minLiveId != null ? minLiveId : 0);
+        logger.info("Audit search index compacted: lastId={}, minLiveId={}, terms={}, duration={}ms",
+                index.lastId(), minLiveId, index.termCount(), System.currentTimeMillis() - startTime);
+    }
+
+    private static final class Gap {
+        private final long firstSeen;
+        private long interval = GAP_FIRST_CHECK_MS;
+        private long nextCheck;
+
+        Gap(long firstSeen) {
+            this.firstSeen = firstSeen;
+            this.nextCheck = firstSeen + interval;
+        }
+
+        void checked(long now) {
+            interval = Math.min(interval * 2, GAP_MAX_INTERVAL_MS);
+            nextCheck = now + interval;
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
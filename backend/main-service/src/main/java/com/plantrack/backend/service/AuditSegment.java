@@ -0,0 +1,380 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.model.AuditLog;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * An immutable, compressed file of archived audit log rows in (timestamp, id) order.
+ *
+ * Layout: a 12-byte header (magic, version), then blocks of up to BLOCK_ROWS rows, each
+ * deflated and stored as [raw length][compressed length][crc32][bytes], then the sparse
+ * index (per block: file offset, first and last timestamp, row count) and a fixed footer
+ * (index offset, block count, row count, magic). Reads load only the footer and index,
+ * then inflate just the blocks whose timestamp span overlaps the query.
+ *
+ * Files are written under a temporary name, forced to disk and atomically renamed, so a
+ * segment is either complete or absent.
+ */
+final class AuditSegment {
+
+    private static final long MAGIC = 0x5054415544534547L; // "PTAUDSEG"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = Long.BYTES + Integer.BYTES;
+    private static final int FOOTER_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES + Long.BYTES;
+    private static final int INDEX_ENTRY_BYTES = Long.BYTES * 3 + Integer.BYTES;
+    private static final int BLOCK_HEADER_BYTES = Integer.BYTES * 3;
+
+    static final int BLOCK_ROWS = 1024;
+
+    private record Block(long offset, long firstMicros, long lastMicros, int rows) {}
+
+    private final Path path;
+    private final List<Block> blocks;
+    private final long rowCount;
+
+    private AuditSegment(Path path, List<Block> blocks, long rowCount) {
+        this.path = path;
+        this.blocks = blocks;
+        this.rowCount = rowCount;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long rowCount() {
+        return rowCount;
+    }
+
+    LocalDateTime minTimestamp() {
+        return blocks.isEmpty() ? null : fromMicros(blocks.get(0).firstMicros());
+    }
+
+    LocalDateTime maxTimestamp() {
+        return blocks.isEmpty() ? null : fromMicros(blocks.get(blocks.size() - 1).lastMicros());
+    }
+
+    /**
+     * Open a segment and load its sparse index; rows stay on disk.
+     */
+    static AuditSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + FOOTER_BYTES) {
+                throw new IOException("Audit segment too short: " + path);
+            }
+            ByteBuffer header = readFully(channel, 0, HEADER_BYTES);
+            if (header.getLong() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not an audit segment (or unsupported version): " + path);
+            }
+            ByteBuffer footer = readFully(channel, size - FOOTER_BYTES, FOOTER_BYTES);
+            long indexOffset = footer.getLong();
+            int blockCount = footer.getInt();
+            long rowCount = footer.getLong();
+            if (footer.getLong() != MAGIC) {
+                throw new IOException("Audit segment footer is corrupt: " + path);
+            }
+
+            ByteBuffer index = readFully(channel, indexOffset, blockCount * INDEX_ENTRY_BYTES);
+            List<Block> blocks = new ArrayList<>(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                blocks.add(new Block(index.getLong(), index.getLong(), index.getLong(), index.getInt()));
+            }
+            return new AuditSegment(path, List.copyOf(blocks), rowCount);
+        }
+    }
+
+    /**
+     * Rows with timestamp >= start and (timestamp, id) strictly before the given position,
+     * matching the filter, newest first, at most limit of them.
+     */
+    List<AuditLog> readBefore(LocalDateTime start, LocalDateTime beforeTimestamp, long beforeId,
+                              Predicate<AuditLog> filter, int limit) throws IOException {
+        long startMicros = toMicros(start);
+        long beforeMicros = toMicros(beforeTimestamp);
+        List<AuditLog> rows = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (int b = blocks.size() - 1; b >= 0 && rows.size() < limit; b--) {
+                Block block = blocks.get(b);
+                if (block.lastMicros() < startMicros) {
+                    break;
+                }
+                if (block.firstMicros() > beforeMicros) {
+                    continue;
+                }
+                List<AuditLog> decoded = readBlock(channel, block);
+                for (int i = decoded.size() - 1; i >= 0 && rows.size() < limit; i--) {
+                    AuditLog row = decoded.get(i);
+                    long micros = toMicros(row.getTimestamp());
+                    if (micros < startMicros) {
+                        break;
+                    }
+                    boolean beforePosition = micros < beforeMicros || (micros == beforeMicros && row.getId() < beforeId);
+                    if (beforePosition && filter.test(row)) {
+                        rows.add(row);
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Every row matching the filter, oldest first; blocks are inflated one at a time.
+     */
+    List<AuditLog> readAll(Predicate<AuditLog> filter) throws IOException {
+        List<AuditLog> rows = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (Block block : blocks) {
+                for (AuditLog row : readBlock(channel, block)) {
+                    if (filter.test(row)) {
+                        rows.add(row);
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    // ============================================================
+    // WRITING
+    // ============================================================
+
+    /**
+     * Streams rows (already in (timestamp, id) order) into a new segment at target.
+     */
+    static final class Writer implements AutoCloseable {
+        private final Path target;
+        private final Path temporary;
+        private final FileChannel channel;
+        private final List<Block> blocks = new ArrayList<>();
+        private final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream(64 * 1024);
+        private final DataOutputStream blockOut = new DataOutputStream(blockBytes);
+        private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        private long position;
+        private long rowCount;
+        private int blockRows;
+        private long blockFirstMicros;
+        private long blockLastMicros;
+        private long lastMicros = Long.MIN_VALUE;
+        private long lastId = Long.MIN_VALUE;
+        private boolean finished;
+
+        Writer(Path target) throws IOException {
+            this.target = target;
+            this.temporary = target.resolveSibling(target.getFileName() + ".tmp");
+            this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putLong(MAGIC).putInt(VERSION).flip();
+            writeFully(header);
+        }
+
+        void append(AuditLog row) throws IOException {
+            long micros = toMicros(row.getTimestamp());
+            if (micros < lastMicros || (micros == lastMicros && row.getId() <= lastId)) {
+                throw new IllegalStateException("Audit segment rows must be in (timestamp, id) order: id=" + row.getId());
+            }
+            lastMicros = micros;
+            lastId = row.getId();
+
+            if (blockRows == 0) {
+                blockFirstMicros = micros;
+            }
+            blockLastMicros = micros;
+            writeRow(blockOut, row, micros);
+            blockRows++;
+            rowCount++;
+            if (blockRows == BLOCK_ROWS) {
+                flushBlock();
+            }
+        }
+
+        long rowCount() {
+            return rowCount;
+        }
+
+        /**
+         * Write index and footer, force to disk and publish under the target name (read-only).
+         */
+        void finish() throws IOException {
+            flushBlock();
+            long indexOffset = position;
+            ByteBuffer index = ByteBuffer.allocate(blocks.size() * INDEX_ENTRY_BYTES);
+            for (Block block : blocks) {
+                index.putLong(block.offset()).putLong(block.firstMicros()).putLong(block.lastMicros()).putInt(block.rows());
+            }
+            writeFully(index.flip());
+            ByteBuffer footer = ByteBuffer.allocate(FOOTER_BYTES)
+                    .putLong(indexOffset).putInt(blocks.size()).putLong(rowCount).putLong(MAGIC);
+            writeFully(footer.flip());
+            channel.force(true);
+            channel.close();
+
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            target.toFile().setWritable(false, false);
+            finished = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            if (!finished) {
+                channel.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            if (blockRows == 0) {
+                return;
+            }
+            blockOut.flush();
+            byte[] raw = blockBytes.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(raw);
+
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                compressed.write(chunk, 0, n);
+            }
+            byte[] body = compressed.toByteArray();
+
+            blocks.add(new Block(position, blockFirstMicros, blockLastMicros, blockRows));
+            ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_BYTES)
+                    .putInt(raw.length).putInt(body.length).putInt((int) crc.getValue());
+            writeFully(blockHeader.flip());
+            writeFully(ByteBuffer.wrap(body));
+
+            blockBytes.reset();
+            blockRows = 0;
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer);
+            }
+        }
+    }
+
+    // ============================================================
+    // ENCODING
+    // ============================================================
+
+    private List<AuditLog> readBlock(FileChannel channel, Block block) throws IOException {
+        ByteBuffer header = readFully(channel, block.offset(), BLOCK_HEADER_BYTES);
+        int rawLength = header.getInt();
+        int compressedLength = header.getInt();
+        int expectedCrc = header.getInt();
+        ByteBuffer body = readFully(channel, block.offset() + BLOCK_HEADER_BYTES, compressedLength);
+
+        byte[] raw = new byte[rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(body.array(), 0, compressedLength);
+            int inflated = 0;
+            while (inflated < rawLength && !inflater.finished()) {
+                inflated += inflater.inflate(raw, inflated, rawLength - inflated);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Audit segment block is corrupt: " + path + "@" + block.offset(), e);
+        } finally {
+            inflater.end();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(raw);
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("Audit segment block checksum mismatch: " + path + "@" + block.offset());
+        }
+
+        List<AuditLog> rows = new ArrayList<>(block.rows());
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        for (int i = 0; i < block.rows(); i++) {
+            rows.add(readRow(in));
+        }
+        return rows;
+    }
+
+    private static void writeRow(DataOutputStream out, AuditLog row, long micros) throws IOException {
+        out.writeLong(row.getId());
+        out.writeLong(micros);
+        out.writeUTF(row.getAction());
+        out.writeUTF(row.getPerformedBy());
+        out.writeUTF(row.getEntityType());
+        out.writeBoolean(row.getEntityId() != null);
+        if (row.getEntityId() != null) {
+            out.writeLong(row.getEntityId());
+        }
+        writeNullable(out, row.getDetails());
+        writeNullable(out, row.getOldValue());
+        writeNullable(out, row.getNewValue());
+    }
+
+    private static AuditLog readRow(DataInputStream in) throws IOException {
+        AuditLog row = new AuditLog();
+        row.setId(in.readLong());
+        row.setTimestamp(fromMicros(in.readLong()));
+        row.setAction(in.readUTF());
+        row.setPerformedBy(in.readUTF());
+        row.setEntityType(in.readUTF());
+        row.setEntityId(in.readBoolean() ? in.readLong() : null);
+        row.setDetails(readNullable(in));
+        row.setOldValue(readNullable(in));
+        row.setNewValue(readNullable(in));
+        return row;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of audit segment at " + (offset + buffer.position()));
+            }
+        }
+        return buffer.flip();
+    }
+
+    static long toMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + timestamp.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
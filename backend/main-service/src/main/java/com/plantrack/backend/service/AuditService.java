@@ -1,74 +1,103 @@
 package com.plantrack.backend.service;
 
+import com.plantrack.backend.dto.AuditLogPageDTO;
+import com.plantrack.backend.model.AuditDictionaryEntry.Kind;
 import com.plantrack.backend.model.AuditLog;
 import com.plantrack.backend.repository.AuditLogRepository;
+import com.plantrack.backend.util.AuditLogCursor;
+import com.plantrack.backend.util.AuditTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
 @Service
 public class AuditService {
 
     private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
 
+    // Batches the inserts off the request thread; the principal is captured here, on the caller
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
     @Autowired
     private AuditLogRepository auditLogRepository;
 
+    @Autowired
+    private AuditArchiveService auditArchiveService;
+
+    // Strings <-> the ids audit_logs stores; filters on a value never logged match nothing
+    @Autowired
+    private AuditDictionary auditDictionary;
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Position before every stored entry: the first page of an open-ended query
+    private static final AuditLogCursor NEWEST = new AuditLogCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+    private interface PageQuery {
+        List<AuditLog> fetch(LocalDateTime beforeTimestamp, long beforeId, Pageable pageable);
+    }
+
+    private interface RangeQuery {
+        List<AuditLog> fetch(LocalDateTime startDate, LocalDateTime beforeTimestamp, long beforeId, Pageable pageable);
+    }
+
     /**
-     * Log a CREATE operation
+     * Log a CREATE operation. Details are a template with "{}" placeholders filled in,
+     * in order, by params; only the template's dictionary id and the params are stored.
      */
-    public void logCreate(String entityType, Long entityId, String details) {
+    public void logCreate(String entityType, Long entityId, String template, Object... params) {
         String performedBy = getCurrentUser();
         logger.debug("Creating audit log: action=CREATE, entityType={}, entityId={}, performedBy={}", 
                 entityType, entityId, performedBy);
-        AuditLog log = new AuditLog("CREATE", performedBy, entityType, entityId, details);
-        auditLogRepository.save(log);
-        logger.trace("Audit log created: auditLogId={}, entityType={}, entityId={}", 
-                log.getId(), entityType, entityId);
+        AuditLog log = new AuditLog("CREATE", performedBy, entityType, entityId, template, AuditTemplate.join(params));
+        auditLogWriter.write(log);
     }
 
     /**
      * Log an UPDATE operation
      */
-    public void logUpdate(String entityType, Long entityId, String details) {
+    public void logUpdate(String entityType, Long entityId, String template, Object... params) {
         String performedBy = getCurrentUser();
         logger.debug("Creating audit log: action=UPDATE, entityType={}, entityId={}, performedBy={}", 
                 entityType, entityId, performedBy);
-        AuditLog log = new AuditLog("UPDATE", performedBy, entityType, entityId, details);
-        auditLogRepository.save(log);
-        logger.trace("Audit log created: auditLogId={}, entityType={}, entityId={}", 
-                log.getId(), entityType, entityId);
+        AuditLog log = new AuditLog("UPDATE", performedBy, entityType, entityId, template, AuditTemplate.join(params));
+        auditLogWriter.write(log);
     }
 
     /**
      * Log a DELETE operation
      */
-    public void logDelete(String entityType, Long entityId, String details) {
+    public void logDelete(String entityType, Long entityId, String template, Object... params) {
         String performedBy = getCurrentUser();
         logger.info("Creating audit log: action=DELETE, entityType={}, entityId={}, performedBy={}", 
                 entityType, entityId, performedBy);
-        AuditLog log = new AuditLog("DELETE", performedBy, entityType, entityId, details);
-        auditLogRepository.save(log);
-        logger.trace("Audit log created: auditLogId={}, entityType={}, entityId={}", 
-                log.getId(), entityType, entityId);
+        AuditLog log = new AuditLog("DELETE", performedBy, entityType, entityId, template, AuditTemplate.join(params));
+        auditLogWriter.write(log);
     }
 
     /**
      * Log a status change with old and new values
      */
-    public void logStatusChange(String entityType, Long entityId, String oldStatus, String newStatus, String details) {
+    public void logStatusChange(String entityType, Long entityId, String oldStatus, String newStatus,
+                                String template, Object... params) {
         String performedBy = getCurrentUser();
         logger.info("Creating audit log: action=UPDATE_STATUS, entityType={}, entityId={}, status={}->{}, performedBy={}", 
                 entityType, entityId, oldStatus, newStatus, performedBy);
-        AuditLog log = new AuditLog("UPDATE_STATUS", performedBy, entityType, entityId, details);
+        AuditLog log = new AuditLog("UPDATE_STATUS", performedBy, entityType, entityId, template, AuditTemplate.join(params));
         log.setOldValue(oldStatus);
         log.setNewValue(newStatus);
-        auditLogRepository.save(log);
-        logger.trace("Audit log created: auditLogId={}, entityType={}, entityId={}", 
-                log.getId(), entityType, entityId);
+        auditLogWriter.write(log);
     }
 
     /**
@@ -84,5 +113,102 @@ public class AuditService {
         logger.trace("No authenticated user found, using SYSTEM");
         return "SYSTEM";
     }
-}
 
+    // ============================================================
+    // QUERIES (keyset pages, newest first)
+    // ============================================================
+
+    public AuditLogPageDTO getAuditLogs(String cursor, int size) {
+        return page(cursor, size, NEWEST, auditLogRepository::findPage);
+    }
+
+    public AuditLogPageDTO getByEntityType(String entityType, String cursor, int size) {
+        Integer entityTypeId = auditDictionary.findId(Kind.ENTITY_TYPE, entityType);
+        return page(cursor, size, NEWEST, (timestamp, id, pageable) -> entityTypeId == null ? List.of() :
+                auditLogRepository.findPageByEntityType(entityTypeId, timestamp, id, pageable));
+    }
+
+    public AuditLogPageDTO getByUser(String performedBy, String cursor, int size) {
+        Integer actorId = auditDictionary.findId(Kind.ACTOR, performedBy);
+        return page(cursor, size, NEWEST, (timestamp, id, pageable) -> actorId == null ? List.of() :
+                auditLogRepository.findPageByActor(actorId, timestamp, id, pageable));
+    }
+
+    public AuditLogPageDTO getByAction(String action, String cursor, int size) {
+        Integer actionId = auditDictionary.findId(Kind.ACTION, action);
+        return page(cursor, size, NEWEST, (timestamp, id, pageable) -> actionId == null ? List.of() :
+                auditLogRepository.findPageByAction(actionId, timestamp, id, pageable));
+    }
+
+    public AuditLogPageDTO getByEntity(String entityType, Long entityId, String cursor, int size) {
+        Integer entityTypeId = auditDictionary.findId(Kind.ENTITY_TYPE, entityType);
+        return page(cursor, size, NEWEST, (timestamp, id, pageable) -> entityTypeId == null ? List.of() :
+                auditLogRepository.findPageByEntity(entityTypeId, entityId, timestamp, id, pageable));
+    }
+
+    /**
+     * Entries with startDate <= timestamp <= endDate; the first page starts at endDate.
+     */
+    public AuditLogPageDTO getByDateRange(LocalDateTime startDate, LocalDateTime endDate, String cursor, int size) {
+        return page(cursor, size, new AuditLogCursor(endDate, Long.MAX_VALUE), withArchive(startDate, log -> true,
+                (start, timestamp, id, pageable) -> auditLogRepository.findPageByDateRange(start, timestamp, id, pageable)));
+    }
+
+    public AuditLogPageDTO getByUserAndDateRange(String performedBy, LocalDateTime startDate, LocalDateTime endDate,
+                                                 String cursor, int size) {
+        Integer actorId = auditDictionary.findId(Kind.ACTOR, performedBy);
+        return page(cursor, size, new AuditLogCursor(endDate, Long.MAX_VALUE),
+                withArchive(startDate, log -> performedBy.equals(log.getPerformedBy()), (start, timestamp, id, pageable) ->
+                        actorId == null ? List.of() :
+                                auditLogRepository.findPageByActorAndDateRange(actorId, start, timestamp, id, pageable)));
+    }
+
+    /**
+     * Date-range rows from both stores: the table from the archive watermark on, then
+     * archived segments (same position and filter) for whatever the table did not fill.
+     */
+    private PageQuery withArchive(LocalDateTime startDate, Predicate<AuditLog> filter, RangeQuery query) {
+        return (timestamp, id, pageable) -> auditArchiveService.withWatermark(watermark -> {
+            if (watermark == null || !startDate.isBefore(watermark)) {
+                return query.fetch(startDate, timestamp, id, pageable);
+            }
+            List<AuditLog> rows = new ArrayList<>();
+            if (!timestamp.isBefore(watermark)) {
+                rows.addAll(query.fetch(watermark, timestamp, id, pageable));
+            }
+            int limit = pageable.getPageSize();
+            if (rows.size() < limit) {
+                // Archived rows all precede the watermark; clamping keeps rows the table still holds out
+                boolean clamp = !timestamp.isBefore(watermark);
+                rows.addAll(auditArchiveService.readArchived(startDate, clamp ? watermark : timestamp,
+                        clamp ? Long.MIN_VALUE : id, filter, limit - rows.size()));
+            }
+            return rows;
+        });
+    }
+
+    private AuditLogPageDTO page(String cursor, int size, AuditLogCursor first, PageQuery query) {
+        long startTime = System.currentTimeMillis();
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        AuditLogCursor after = AuditLogCursor.decode(cursor);
+        AuditLogCursor position = after != null ? after : first;
+
+        // Fetch one extra row to know whether another page follows
+        List<AuditLog> rows = auditDictionary.decode(
+                query.fetch(position.timestamp(), position.id(), PageRequest.of(0, pageSize + 1)));
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            AuditLog last = rows.get(rows.size() - 1);
+            nextCursor = new AuditLogCursor(last.getTimestamp(), last.getId()).encode();
+        }
+
+        logger.debug("Audit log page served: items={}, hasMore={}, duration={}ms",
+                rows.size(), hasMore, System.currentTimeMillis() - startTime);
+        return new AuditLogPageDTO(rows, pageSize, hasMore, nextCursor);
+    }
+}
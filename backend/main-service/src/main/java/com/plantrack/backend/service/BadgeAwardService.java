@@ -0,0 +1,306 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.dto.BadgeDTO;
+import com.plantrack.backend.event.InitiativeChangedEvent;
+import com.plantrack.backend.event.UserChangedEvent;
+import com.plantrack.backend.model.UserBadge;
+import com.plantrack.backend.repository.UserBadgeRepository;
+import com.plantrack.backend.repository.UserMetricsRepository;
+import com.plantrack.backend.repository.projection.DepartmentVelocityAggregate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Awards badges when the data behind them changes and persists them with the time
+ * the rule first fired.
+ *
+ * Badges describe the current state (e.g. Quality Champion is "Maintain 95%+ completion
+ * rate"), so they are held only while their rule still holds: every evaluation awards
+ * the badges a user now meets and revokes the ones they no longer meet. A badge that
+ * keeps holding keeps its original awardedAt.
+ *
+ * An initiative or user change re-evaluates the affected users plus, in each affected
+ * department, the only other users whose badges can flip: the Rising Star slice (top
+ * 20% by overall score) and the Speed Demon slice (speed at or above 1.25x the
+ * department average), both read from the leaderboard trees, and the current holders of
+ * those two badges, who may have dropped out of the slices. Runs after the leaderboard
+ * has been refreshed.
+ *
+ * Reads are one indexed query on user_badges.
+ *
+ * Metrics: analytics.badges.evaluation{trigger} (timer, p50/p95/p99 per event),
+ * analytics.badges.awarded, analytics.badges.revoked.
+ */
+@Service
+public class BadgeAwardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BadgeAwardService.class);
+
+    private static final int SPEED_SCAN_PAGE = 50;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private UserBadgeRepository userBadgeRepository;
+
+    @Autowired
+    private UserMetricsRepository userMetricsRepository;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter awardedCounter;
+    private final Counter revokedCounter;
+
+    /**
+     * Badges awarded and revoked by one evaluation.
+     */
+    private record Outcome(int awarded, int revoked) {}
+
+    public BadgeAwardService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.awardedCounter = Counter.builder("analytics.badges.awarded")
+                .description("Badges awarded by the rule engine")
+                .register(meterRegistry);
+        this.revokedCounter = Counter.builder("analytics.badges.revoked")
+                .description("Badges revoked because their rule no longer holds")
+                .register(meterRegistry);
+    }
+
+    // ============================================================
+    // TRIGGERS
+    // ============================================================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(AnalyticsDataVersion.MAINTENANCE_ORDER + 1)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onInitiativeChanged(InitiativeChangedEvent event) {
+        if (!event.statusChanged() && !event.assigneesChanged()) {
+            return;
+        }
+        evaluate("initiative", event.affectedUserIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(AnalyticsDataVersion.MAINTENANCE_ORDER + 1)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.deleted()) {
+            userBadgeRepository.deleteByUserId(event.userId());
+            return;
+        }
+        evaluate("user", Set.of(event.userId()));
+    }
+
+    /**
+     * Award anything earned, and revoke anything lost, while the engine was not running
+     * (runs after the leaderboard rebuild).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(AnalyticsDataVersion.MAINTENANCE_ORDER + 1)
+    @Transactional
+    public void evaluateAll() {
+        List<Long> userIds = new ArrayList<>();
+        for (LeaderboardService.RankedStanding ranked : leaderboardService.rankedStandings()) {
+            userIds.add(ranked.standing().userId());
+        }
+        Outcome outcome = reconcile(userIds, departmentAggregates(userIds));
+        logger.info("Badge catch-up evaluation finished: users={}, awarded={}, revoked={}",
+                userIds.size(), outcome.awarded(), outcome.revoked());
+    }
+
+    /**
+     * Re-evaluate the given users and every user in their departments whose badges may have flipped.
+     */
+    public void evaluate(String trigger, Collection<Long> userIds) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Set<Long> candidates = new HashSet<>(userIds);
+        Map<String, DepartmentVelocityAggregate> aggregates = departmentAggregates(userIds);
+
+        for (DepartmentVelocityAggregate aggregate : aggregates.values()) {
+            String department = aggregate.department();
+            int size = leaderboardService.departmentSize(department);
+
+            // Rising Star candidates
+            for (LeaderboardService.Standing standing : leaderboardService.top("OVERALL", department, 0,
+                    BadgeRules.risingStarCutoff(size))) {
+                candidates.add(standing.userId());
+            }
+
+            // Speed Demon candidates: walk the SPEED ranking until below the threshold
+            double threshold = averageTasksPerWeek(aggregate) * BadgeRules.SPEED_DEMON_FACTOR;
+            if (threshold > 0) {
+                scan:
+                for (int offset = 0; offset < size; offset += SPEED_SCAN_PAGE) {
+                    for (LeaderboardService.Standing standing : leaderboardService.top("SPEED", department, offset, SPEED_SCAN_PAGE)) {
+                        if (standing.averageTasksPerWeek() < threshold) {
+                            break scan;
+                        }
+                        candidates.add(standing.userId());
+                    }
+                }
+            }
+        }
+
+        // Holders of department-relative badges, who may have lost them to others' changes
+        if (!aggregates.isEmpty()) {
+            candidates.addAll(userBadgeRepository.findHolderIds(aggregates.keySet(), BadgeRules.DEPARTMENT_RELATIVE));
+        }
+
+        Outcome outcome = reconcile(candidates, aggregates);
+        long nanos = sample.stop(Timer.builder("analytics.badges.evaluation")
+                .tag("trigger", trigger)
+                .description("Badge rule evaluation per triggering event")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry));
+        logger.debug("Badge evaluation: trigger={}, users={}, candidates={}, awarded={}, revoked={}, duration={}us",
+                trigger, userIds.size(), candidates.size(), outcome.awarded(), outcome.revoked(), nanos / 1000);
+    }
+
+    // ============================================================
+    // READS
+    // ============================================================
+
+    public List<BadgeDTO> badgesFor(Long userId) {
+        List<BadgeDTO> badges = new ArrayList<>();
+        for (UserBadge userBadge : userBadgeRepository.findByUserIdOrderByAwardedAtAsc(userId)) {
+            BadgeDTO badge = toDto(userBadge);
+            if (badge != null) {
+                badges.add(badge);
+            }
+        }
+        return badges;
+    }
+
+    public Map<Long, List<BadgeDTO>> badgesFor(Collection<Long> userIds) {
+        Map<Long, List<BadgeDTO>> result = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return result;
+        }
+        for (UserBadge userBadge : userBadgeRepository.findByUserIdIn(userIds)) {
+            BadgeDTO badge = toDto(userBadge);
+            if (badge != null) {
+                result.computeIfAbsent(userBadge.getUserId(), id -> new ArrayList<>()).add(badge);
+            }
+        }
+        return result;
+    }
+
+    // ============================================================
+    // INTERNALS
+    // ============================================================
+
+    private Map<String, DepartmentVelocityAggregate> departmentAggregates(Collection<Long> userIds) {
+        Set<String> departments = new HashSet<>();
+        for (Long userId : userIds) {
+            LeaderboardService.Standing standing = leaderboardService.standingOf(userId);
+            if (standing != null && standing.department() != null && !standing.department().isEmpty()) {
+                departments.add(standing.department());
+            }
+        }
+        Map<String, DepartmentVelocityAggregate> aggregates = new HashMap<>();
+        if (!departments.isEmpty()) {
+            for (DepartmentVelocityAggregate aggregate : userMetricsRepository.aggregateByDepartment(departments)) {
+                aggregates.put(aggregate.department(), aggregate);
+            }
+        }
+        return aggregates;
+    }
+
+    /**
+     * Award the badges the users now meet and revoke the ones they no longer meet.
+     */
+    private Outcome reconcile(Collection<Long> userIds, Map<String, DepartmentVelocityAggregate> aggregates) {
+        if (userIds.isEmpty()) {
+            return new Outcome(0, 0);
+        }
+        Map<String, UserBadge> held = new HashMap<>();
+        for (UserBadge existing : userBadgeRepository.findByUserIdIn(userIds)) {
+            held.put(existing.getUserId() + ":" + existing.getBadgeId(), existing);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<UserBadge> newBadges = new ArrayList<>();
+        List<UserBadge> revokedBadges = new ArrayList<>();
+        for (Long userId : userIds) {
+            LeaderboardService.Standing standing = leaderboardService.standingOf(userId);
+            if (standing == null) {
+                continue; // Not tracked; a deleted user's badges are removed with the user
+            }
+            DepartmentVelocityAggregate aggregate = standing.department() != null ? aggregates.get(standing.department()) : null;
+            BadgeRules.Input input = new BadgeRules.Input(standing.department(),
+                    standing.tasksAssigned(), standing.tasksCompleted(),
+                    standing.completionRate(), standing.averageTasksPerWeek(),
+                    PerformanceScoring.consistencyScore(standing.completionRate()),
+                    leaderboardService.ranksOf(userId).departmentRank(),
+                    aggregate != null && aggregate.size() != null ? aggregate.size().intValue() : 0,
+                    averageTasksPerWeek(aggregate));
+
+            Set<String> earned = new HashSet<>();
+            for (BadgeRules.Award award : BadgeRules.evaluate(input)) {
+                earned.add(award.badge().badgeId());
+                if (!held.containsKey(userId + ":" + award.badge().badgeId())) {
+                    newBadges.add(new UserBadge(userId, award.badge().badgeId(), now, award.criteria()));
+                }
+            }
+            // Retired badges (no longer in the catalog) are not shown and left alone
+            for (String badgeId : BadgeRules.CATALOG.keySet()) {
+                UserBadge existing = held.get(userId + ":" + badgeId);
+                if (existing != null && !earned.contains(badgeId)) {
+                    revokedBadges.add(existing);
+                }
+            }
+        }
+
+        if (!newBadges.isEmpty()) {
+            userBadgeRepository.saveAll(newBadges);
+            awardedCounter.increment(newBadges.size());
+            for (UserBadge badge : newBadges) {
+                logger.info("Badge awarded: userId={}, badgeId={}", badge.getUserId(), badge.getBadgeId());
+            }
+        }
+        if (!revokedBadges.isEmpty()) {
+            userBadgeRepository.deleteAllInBatch(revokedBadges);
+            revokedCounter.increment(revokedBadges.size());
+            for (UserBadge badge : revokedBadges) {
+                logger.info("Badge revoked: userId={}, badgeId={}", badge.getUserId(), badge.getBadgeId());
+            }
+        }
+        return new Outcome(newBadges.size(), revokedBadges.size());
+    }
+
+    private static double averageTasksPerWeek(DepartmentVelocityAggregate aggregate) {
+        if (aggregate == null || aggregate.size() == null || aggregate.size() == 0 || aggregate.totalTasksPerWeek() == null) {
+            return 0.0;
+        }
+        return aggregate.totalTasksPerWeek() / aggregate.size();
+    }
+
+    private static BadgeDTO toDto(UserBadge userBadge) {
+        BadgeRules.Badge badge = BadgeRules.CATALOG.get(userBadge.getBadgeId());
+        if (badge == null) {
+            return null; // Retired badge
+        }
+        return new BadgeDTO(badge.badgeId(), badge.badgeName(), badge.description(), badge.category(),
+                badge.icon(), userBadge.getAwardedAt(), true, userBadge.getCriteria());
+    }
+}
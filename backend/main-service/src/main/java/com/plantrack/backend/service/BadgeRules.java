@@ -0,0 +1,105 @@
+package com.plantrack.backend.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Badge catalog and award rules, evaluated against precomputed per-user metrics and
+ * department aggregates. Used by {@link BadgeAwardService} when events arrive.
+ */
+public final class BadgeRules {
+
+    private BadgeRules() {}
+
+    public record Badge(String badgeId, String badgeName, String description, String category, String icon) {}
+
+    /**
+     * Everything the rules look at for one user.
+     */
+    public record Input(String department, int tasksAssigned, int tasksCompleted,
+                        double completionRate, double averageTasksPerWeek, double consistencyScore,
+                        int departmentRank, int departmentSize, double departmentAverageTasksPerWeek) {}
+
+    /**
+     * A rule that fired, with the human-readable evidence recorded at award time.
+     */
+    public record Award(Badge badge, String criteria) {}
+
+    public static final Badge SPEED_DEMON = new Badge("speed_demon", "Speed Demon",
+            "Complete tasks 25% faster than department average", "SPEED", "⚡");
+    public static final Badge QUALITY_CHAMPION = new Badge("quality_champion", "Quality Champion",
+            "Maintain 95%+ completion rate", "QUALITY", "🏆");
+    public static final Badge CONSISTENCY_KING = new Badge("consistency_king", "Consistency King",
+            "Steady performance with high consistency", "CONSISTENCY", "👑");
+    public static final Badge PERFECT_WEEK = new Badge("perfect_week", "Perfect Week",
+            "100% completion rate", "QUALITY", "⭐");
+    public static final Badge RISING_STAR = new Badge("rising_star", "Rising Star",
+            "Top performer in your department", "IMPROVEMENT", "🌟");
+    public static final Badge TEAM_PLAYER = new Badge("team_player", "Team Player",
+            "Actively engaged with multiple tasks", "TEAMWORK", "🤝");
+
+    public static final Map<String, Badge> CATALOG = catalog(
+            SPEED_DEMON, QUALITY_CHAMPION, CONSISTENCY_KING, PERFECT_WEEK, RISING_STAR, TEAM_PLAYER);
+
+    // Badges judged against the rest of the department: other users' changes can take them away
+    public static final Set<String> DEPARTMENT_RELATIVE = Set.of(SPEED_DEMON.badgeId(), RISING_STAR.badgeId());
+
+    // Speed Demon: average tasks per week at least 25% above the department average
+    public static final double SPEED_DEMON_FACTOR = 1.25;
+
+    // Rising Star: top 20% of the department by overall score
+    public static int risingStarCutoff(int departmentSize) {
+        return (int) Math.ceil(departmentSize * 0.2);
+    }
+
+    public static List<Award> evaluate(Input input) {
+        List<Award> awards = new ArrayList<>();
+
+        if (input.departmentSize() > 0) {
+            double deptAvgTasksPerWeek = input.departmentAverageTasksPerWeek();
+            if (deptAvgTasksPerWeek > 0 && input.averageTasksPerWeek() >= deptAvgTasksPerWeek * SPEED_DEMON_FACTOR) {
+                awards.add(new Award(SPEED_DEMON,
+                        "Average tasks per week: " + String.format("%.1f", input.averageTasksPerWeek())));
+            }
+        }
+
+        if (input.completionRate() >= 95.0) {
+            awards.add(new Award(QUALITY_CHAMPION,
+                    "Completion rate: " + String.format("%.1f%%", input.completionRate())));
+        }
+
+        if (input.consistencyScore() >= 85.0) {
+            awards.add(new Award(CONSISTENCY_KING,
+                    "Consistency score: " + String.format("%.1f", input.consistencyScore())));
+        }
+
+        // Simplified check: 100% completion overall
+        if (input.completionRate() == 100.0 && input.tasksCompleted() > 0) {
+            awards.add(new Award(PERFECT_WEEK, "Perfect completion rate achieved"));
+        }
+
+        if (input.departmentSize() > 0 && input.departmentRank() > 0
+                && input.departmentRank() <= risingStarCutoff(input.departmentSize())) {
+            awards.add(new Award(RISING_STAR,
+                    "Rank #" + input.departmentRank() + " in " + input.department()));
+        }
+
+        // Simplified collaboration signal: tasks assigned
+        if (input.tasksAssigned() >= 10) {
+            awards.add(new Award(TEAM_PLAYER, "Assigned to " + input.tasksAssigned() + " tasks"));
+        }
+
+        return awards;
+    }
+
+    private static Map<String, Badge> catalog(Badge... badges) {
+        Map<String, Badge> catalog = new LinkedHashMap<>();
+        for (Badge badge : badges) {
+            catalog.put(badge.badgeId(), badge);
+        }
+        return Map.copyOf(catalog);
+    }
+}
@@ -72,7 +72,7 @@ public class CommentService {
 
         // Audit log
         auditService.logCreate("COMMENT", savedComment.getCommentId(),
-                "Created comment on initiative: " + initiative.getTitle());
+                "Created comment on initiative: {}", initiative.getTitle());
 
         // Notify mentioned users
         notifyMentionedUsers(mentionedUsers, currentUser, initiative, savedComment);
@@ -124,7 +124,7 @@ public class CommentService {
         Comment savedComment = commentRepository.save(comment);
 
         // Audit log
-        auditService.logUpdate("COMMENT", commentId, "Updated comment on initiative: " + comment.getInitiative().getTitle());
+        auditService.logUpdate("COMMENT", commentId, "Updated comment on initiative: {}", comment.getInitiative().getTitle());
 
         // Notify newly mentioned users (users in new set but not in old set)
         Set<Long> oldMentionedIds = oldMentionedUsers.stream()
@@ -167,7 +167,7 @@ public class CommentService {
         commentRepository.save(comment);
 
         // Audit log
-        auditService.logDelete("COMMENT", commentId, "Deleted comment on initiative: " + comment.getInitiative().getTitle());
+        auditService.logDelete("COMMENT", commentId, "Deleted comment on initiative: {}", comment.getInitiative().getTitle());
     }
 
     /**
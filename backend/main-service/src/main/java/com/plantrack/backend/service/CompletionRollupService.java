@@ -0,0 +1,208 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.event.InitiativeChangedEvent;
+import com.plantrack.backend.model.AuditLog;
+import com.plantrack.backend.model.UserDailyCompletion;
+import com.plantrack.backend.repository.UserDailyCompletionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the user_daily_completions rollup and serves velocity series from it.
+ *
+ * Each initiative transition into or out of COMPLETED (including assignee changes
+ * on a completed initiative and deletion) becomes a +1/-1 on the affected
+ * (user, day) counters, so an 8-week or 6-month series is a range scan over at most
+ * a few hundred rows per user.
+ *
+ * The first backfill stamps completion times from audit history, reading months already
+ * moved to the archive segments from there.
+ */
+@Service
+public class CompletionRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompletionRollupService.class);
+
+    public static final int WEEKS = 8;
+    public static final int MONTHS = 6;
+
+    @Autowired
+    private UserDailyCompletionRepository rollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditArchiveService auditArchiveService;
+
+    /**
+     * Weekly (keyed by Monday) and monthly (keyed by yyyy-MM) completion counts.
+     */
+    public record CompletionSeries(Map<LocalDate, Integer> weekly, Map<String, Integer> monthly) {}
+
+    // ============================================================
+    // MAINTENANCE
+    // ============================================================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(AnalyticsDataVersion.MAINTENANCE_ORDER)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onInitiativeChanged(InitiativeChangedEvent event) {
+        if (!event.completionChanged() && !event.assigneesChanged()) {
+            return;
+        }
+
+        // Net change per (user, day): remove the old completion, add the new one
+        Map<Long, Map<LocalDate, Integer>> deltas = new HashMap<>();
+        if (event.oldCompletedAt() != null) {
+            LocalDate day = event.oldCompletedAt().toLocalDate();
+            for (Long userId : event.oldAssigneeIds()) {
+                deltas.computeIfAbsent(userId, id -> new HashMap<>()).merge(day, -1, Integer::sum);
+            }
+        }
+        if (event.newCompletedAt() != null) {
+            LocalDate day = event.newCompletedAt().toLocalDate();
+            for (Long userId : event.newAssigneeIds()) {
+                deltas.computeIfAbsent(userId, id -> new HashMap<>()).merge(day, 1, Integer::sum);
+            }
+        }
+
+        int applied = 0;
+        for (Map.Entry<Long, Map<LocalDate, Integer>> userDeltas : deltas.entrySet()) {
+            for (Map.Entry<LocalDate, Integer> dayDelta : userDeltas.getValue().entrySet()) {
+                if (dayDelta.getValue() != 0) {
+                    rollupRepository.applyDelta(userDeltas.getKey(), dayDelta.getKey(), dayDelta.getValue());
+                    applied++;
+                }
+            }
+        }
+        if (applied > 0) {
+            logger.debug("Completion rollup updated: initiativeId={}, counters={}", event.initiativeId(), applied);
+        }
+    }
+
+    /**
+     * Populate the rollup from audit history the first time it is found empty.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() > 0) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        int stamped = auditArchiveService.withWatermark(watermark ->
+                rollupRepository.backfillCompletedAt() + (watermark != null ? backfillCompletedAtFromArchive() : 0));
+        int counters = rollupRepository.rebuildFromInitiatives();
+        logger.info("Completion rollup backfilled: initiativesStamped={}, counters={}, duration={}ms",
+                stamped, counters, System.currentTimeMillis() - startTime);
+    }
+
+    // Completed initiatives whose audit rows are all archived: stamped as backfillCompletedAt
+    // would (last transition to COMPLETED, else the CREATE row), from the segments
+    private int backfillCompletedAtFromArchive() {
+        Set<Long> unstamped = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT initiative_id FROM initiatives WHERE UPPER(status) = 'COMPLETED' AND completed_at IS NULL",
+                Long.class));
+        if (unstamped.isEmpty()) {
+            return 0;
+        }
+        Map<Long, LocalDateTime> completedAt = new HashMap<>();
+        Map<Long, LocalDateTime> createdAt = new HashMap<>();
+        List<AuditLog> rows = auditArchiveService.readAllArchived(row ->
+                "INITIATIVE".equals(row.getEntityType()) && unstamped.contains(row.getEntityId()));
+        for (AuditLog row : rows) {
+            if ("UPDATE_STATUS".equals(row.getAction()) && "COMPLETED".equalsIgnoreCase(row.getNewValue())) {
+                completedAt.merge(row.getEntityId(), row.getTimestamp(), (a, b) -> a.isAfter(b) ? a : b);
+            } else if ("CREATE".equals(row.getAction())) {
+                createdAt.merge(row.getEntityId(), row.getTimestamp(), (a, b) -> a.isBefore(b) ? a : b);
+            }
+        }
+        createdAt.forEach(completedAt::putIfAbsent);
+
+        List<Object[]> updates = new ArrayList<>(completedAt.size());
+        completedAt.forEach((initiativeId, timestamp) -> updates.add(new Object[] {Timestamp.valueOf(timestamp), initiativeId}));
+        jdbcTemplate.batchUpdate("UPDATE initiatives SET completed_at = ? WHERE initiative_id = ? AND completed_at IS NULL",
+                updates);
+        return updates.size();
+    }
+
+    // ============================================================
+    // QUERIES
+    // ============================================================
+
+    public CompletionSeries seriesFor(Long userId) {
+        LocalDate today = LocalDate.now();
+        return bucket(rollupRepository.findByUserIdAndActivityDateGreaterThanEqualOrderByActivityDate(
+                userId, windowStart(today)), today);
+    }
+
+    /**
+     * Series for every user with completions in the window; users without any are absent.
+     */
+    public Map<Long, CompletionSeries> seriesForAll() {
+        LocalDate today = LocalDate.now();
+        Map<Long, List<UserDailyCompletion>> rowsByUser = new HashMap<>();
+        for (UserDailyCompletion row : rollupRepository.findByActivityDateGreaterThanEqual(windowStart(today))) {
+            rowsByUser.computeIfAbsent(row.getUserId(), id -> new ArrayList<>()).add(row);
+        }
+        Map<Long, CompletionSeries> result = new HashMap<>(rowsByUser.size());
+        rowsByUser.forEach((userId, rows) -> result.put(userId, bucket(rows, today)));
+        return result;
+    }
+
+    public CompletionSeries emptySeries() {
+        return bucket(List.of(), LocalDate.now());
+    }
+
+    private static LocalDate windowStart(LocalDate today) {
+        LocalDate firstWeek = today.minusWeeks(WEEKS - 1).with(DayOfWeek.MONDAY);
+        LocalDate firstMonth = today.minusMonths(MONTHS - 1).withDayOfMonth(1);
+        return firstWeek.isBefore(firstMonth) ? firstWeek : firstMonth;
+    }
+
+    private static CompletionSeries bucket(List<UserDailyCompletion> rows, LocalDate today) {
+        Map<LocalDate, Integer> weekly = new HashMap<>();
+        for (int i = 0; i < WEEKS; i++) {
+            weekly.put(today.minusWeeks(i).with(DayOfWeek.MONDAY), 0);
+        }
+        Map<String, Integer> monthly = new HashMap<>();
+        for (int i = 0; i < MONTHS; i++) {
+            monthly.put(monthKey(today.minusMonths(i)), 0);
+        }
+
+        for (UserDailyCompletion row : rows) {
+            LocalDate day = row.getActivityDate();
+            if (day.isAfter(today)) {
+                continue;
+            }
+            weekly.computeIfPresent(day.with(DayOfWeek.MONDAY), (week, count) -> count + row.getCompletedCount());
+            monthly.computeIfPresent(monthKey(day), (month, count) -> count + row.getCompletedCount());
+        }
+        return new CompletionSeries(weekly, monthly);
+    }
+
+    private static String monthKey(LocalDate date) {
+        return date.getYear() + "-" + String.format("%02d", date.getMonthValue());
+    }
+}
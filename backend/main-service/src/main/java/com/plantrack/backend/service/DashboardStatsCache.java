@@ -0,0 +1,83 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.dto.DashboardStatsDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * In-process snapshot of the dashboard counters.
+ *
+ * A snapshot is served until it is older than the configured TTL or until a plan,
+ * milestone, initiative or user write moves the {@link AnalyticsDataVersion} on.
+ * A load that started before a write is stored under the old version, so it is
+ * never served after that write.
+ *
+ * Metrics: analytics.dashboard.cache.requests{result=hit|miss},
+ * analytics.dashboard.cache.hit.ratio and analytics.dashboard.cache.age (ms).
+ */
+@Service
+public class DashboardStatsCache {
+
+    private record Snapshot(DashboardStatsDTO stats, long loadedAt, long version) {}
+
+    private final AnalyticsDataVersion dataVersion;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final long ttlMillis;
+    private final Counter hits;
+    private final Counter misses;
+
+    public DashboardStatsCache(AnalyticsDataVersion dataVersion, MeterRegistry meterRegistry,
+                               @Value("${analytics.dashboard.cache-ttl-ms:5000}") long ttlMillis) {
+        this.dataVersion = dataVersion;
+        this.ttlMillis = ttlMillis;
+        this.hits = Counter.builder("analytics.dashboard.cache.requests")
+                .tag("result", "hit")
+                .description("Dashboard stats served from the snapshot")
+                .register(meterRegistry);
+        this.misses = Counter.builder("analytics.dashboard.cache.requests")
+                .tag("result", "miss")
+                .description("Dashboard stats recomputed from the database")
+                .register(meterRegistry);
+        Gauge.builder("analytics.dashboard.cache.hit.ratio", this, DashboardStatsCache::hitRatio)
+                .description("Share of dashboard requests served from the snapshot")
+                .register(meterRegistry);
+        Gauge.builder("analytics.dashboard.cache.age", this, DashboardStatsCache::snapshotAgeMillis)
+                .description("Age of the current dashboard snapshot in milliseconds (-1 when empty)")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Return the cached stats, or compute them with the loader and cache the result.
+     */
+    public DashboardStatsDTO get(Supplier<DashboardStatsDTO> loader) {
+        long now = System.currentTimeMillis();
+        long version = dataVersion.current();
+        Snapshot snapshot = current.get();
+        if (snapshot != null && snapshot.version() == version && now - snapshot.loadedAt() < ttlMillis) {
+            hits.increment();
+            return snapshot.stats();
+        }
+
+        misses.increment();
+        DashboardStatsDTO stats = loader.get();
+        current.set(new Snapshot(stats, now, version));
+        return stats;
+    }
+
+    double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total > 0 ? hits.count() / total : 0.0;
+    }
+
+    double snapshotAgeMillis() {
+        Snapshot snapshot = current.get();
+        return snapshot != null ? System.currentTimeMillis() - snapshot.loadedAt() : -1;
+    }
+}
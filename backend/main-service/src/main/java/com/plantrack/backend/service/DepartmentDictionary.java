@@ -0,0 +1,97 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.event.UserChangedEvent;
+import com.plantrack.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Process-wide department name <-> int code dictionary plus the cached list of
+ * departments that currently have users.
+ *
+ * Codes are dense, assigned on first sight and never reused, so analytics can group
+ * by int (array index) instead of hashing department strings. The department list
+ * is loaded with one DISTINCT query and dropped on every user create, update or
+ * delete; a load that overlaps an invalidation is not cached.
+ */
+@Service
+public class DepartmentDictionary {
+
+    private static final Logger logger = LoggerFactory.getLogger(DepartmentDictionary.class);
+
+    public static final int NO_DEPARTMENT = -1;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final StringDictionary dictionary = new StringDictionary();
+    private long generation; // guarded by this
+    private volatile List<String> cachedDepartments;
+
+    /**
+     * Code for the department, assigning one if it is new. Null or empty is {@link #NO_DEPARTMENT}.
+     */
+    public synchronized int encode(String department) {
+        if (department == null || department.isEmpty()) {
+            return NO_DEPARTMENT;
+        }
+        return dictionary.encode(department);
+    }
+
+    /**
+     * Code for the department, or {@link #NO_DEPARTMENT} if it has never been seen.
+     */
+    public synchronized int codeOf(String department) {
+        if (department == null || department.isEmpty()) {
+            return NO_DEPARTMENT;
+        }
+        return dictionary.codeOf(department);
+    }
+
+    public synchronized String nameOf(int code) {
+        return dictionary.valueOf(code);
+    }
+
+    /**
+     * One past the highest assigned code (codes are 0..size-1).
+     */
+    public synchronized int size() {
+        return dictionary.size();
+    }
+
+    /**
+     * Sorted non-empty department names of existing users.
+     */
+    public List<String> departments() {
+        List<String> departments = cachedDepartments;
+        if (departments != null) {
+            return departments;
+        }
+        long loadedAt;
+        synchronized (this) {
+            loadedAt = generation;
+        }
+        departments = List.copyOf(userRepository.findDistinctDepartments());
+        departments.forEach(this::encode);
+        synchronized (this) {
+            if (generation == loadedAt) {
+                cachedDepartments = departments;
+            }
+        }
+        logger.debug("Department list loaded: departments={}", departments.size());
+        return departments;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(AnalyticsDataVersion.MAINTENANCE_ORDER)
+    public synchronized void onUserChanged(UserChangedEvent event) {
+        generation++;
+        cachedDepartments = null;
+    }
+}
@@ -0,0 +1,366 @@
+package com.plantrack.backend.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.plantrack.backend.model.AuditDictionaryEntry.Kind;
+import com.plantrack.backend.model.AuditLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams reports, audit logs and plans as CSV or NDJSON.
+ *
+ * Rows are read through a JDBC result stream at a fixed fetch size and written to the
+ * output one at a time through an 8 KB buffer, so heap use does not grow with the number
+ * of rows. CSV starts with a header row; NDJSON writes one JSON object per line with
+ * camelCase keys. Timestamps are ISO-8601 local date-times.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private static final int BUFFER_SIZE = 8192;
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format of(String format) {
+            if (format == null || format.isEmpty()) {
+                return CSV;
+            }
+            try {
+                return valueOf(format.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported export format: " + format + " (expected csv or ndjson)");
+            }
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditDictionary auditDictionary;
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the result
+    @Value("${export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public long exportAuditLogs(Format format, OutputStream out, String entityType,
+                                LocalDateTime startDate, LocalDateTime endDate) {
+        StringBuilder sql = new StringBuilder("SELECT " + AuditDictionary.ROW_COLUMNS + " FROM audit_logs WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (entityType != null && !entityType.isEmpty()) {
+            Integer entityTypeId = auditDictionary.findId(Kind.ENTITY_TYPE, entityType);
+            if (entityTypeId == null) {
+                sql.append(" AND 1 = 0");
+            } else {
+                sql.append(" AND entity_type_id = ?");
+                args.add(entityTypeId);
+            }
+        }
+        if (startDate != null) {
+            sql.append(" AND timestamp >= ?");
+            args.add(Timestamp.valueOf(startDate));
+        }
+        if (endDate != null) {
+            sql.append(" AND timestamp <= ?");
+            args.add(Timestamp.valueOf(endDate));
+        }
+        sql.append(" ORDER BY id");
+        return export("audit-logs", format, out, new AuditRowReader(), sql.toString(), args.toArray());
+    }
+
+    public long exportReports(Format format, OutputStream out, String department) {
+        String sql = "SELECT report_id, scope, generated_date, avg_goal_completion, avg_milestone_completion, " +
+                     "avg_initiative_completion, total_users, granularity, sample_count FROM reports";
+        if (department != null && !department.isEmpty()) {
+            return export("reports", format, out, sql + " WHERE scope = ? ORDER BY report_id", department);
+        }
+        return export("reports", format, out, sql + " ORDER BY report_id");
+    }
+
+    public long exportPlans(Format format, OutputStream out, Long userId) {
+        String sql = "SELECT p.plan_id, p.title, p.priority, p.status, p.start_date, p.end_date, " +
+                     "p.user_id, u.name AS owner_name, u.department FROM plans p JOIN users u ON u.user_id = p.user_id";
+        if (userId != null) {
+            return export("plans", format, out, sql + " WHERE p.user_id = ? ORDER BY p.plan_id", userId);
+        }
+        return export("plans", format, out, sql + " ORDER BY p.plan_id");
+    }
+
+    // ============================================================
+    // STREAMING
+    // ============================================================
+
+    private long export(String dataset, Format format, OutputStream out, String sql, Object... args) {
+        return export(dataset, format, out, SELECTED_COLUMNS, sql, args);
+    }
+
+    private long export(String dataset, Format format, OutputStream out, RowReader rowReader, String sql, Object... args) {
+        long startTime = System.currentTimeMillis();
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(fetchSize);
+
+        Long rows = streaming.query(sql, (ResultSetExtractor<Long>) rs -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            try {
+                RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+                return writeRows(rs, rowReader, rowWriter);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Export write failed", e);
+            }
+        }, args);
+
+        logger.info("Export streamed: dataset={}, format={}, rows={}, duration={}ms",
+                dataset, format, rows, System.currentTimeMillis() - startTime);
+        return rows != null ? rows : 0;
+    }
+
+    private static long writeRows(ResultSet rs, RowReader rowReader, RowWriter rowWriter) throws SQLException, IOException {
+        String[] columns = rowReader.columns(rs.getMetaData());
+        Object[] values = new Object[columns.length];
+
+        rowWriter.begin(columns);
+        long rows = 0;
+        while (rs.next()) {
+            rowReader.read(rs, values);
+            rowWriter.row(columns, values);
+            rows++;
+        }
+        rowWriter.end();
+        return rows;
+    }
+
+    // Numbers and booleans stay typed for NDJSON; dates become ISO strings
+    private static Object exportValue(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate().toString();
+        }
+        if (value instanceof TemporalAccessor) {
+            return value.toString();
+        }
+        return value;
+    }
+
+    private static String camelCase(String label) {
+        String lower = label.toLowerCase(Locale.ROOT);
+        StringBuilder camel = new StringBuilder(lower.length());
+        boolean upperNext = false;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c == '_') {
+                upperNext = camel.length() > 0;
+            } else {
+                camel.append(upperNext ? Character.toUpperCase(c) : c);
+                upperNext = false;
+            }
+        }
+        return camel.toString();
+    }
+
+    // ============================================================
+    // ROW READERS
+    // ============================================================
+
+    private interface RowReader {
+        String[] columns(ResultSetMetaData metaData) throws SQLException;
+
+        void read(ResultSet rs, Object[] values) throws SQLException;
+    }
+
+    // Every selected column, named after its label
+    private static final RowReader SELECTED_COLUMNS = new RowReader() {
+        @Override
+        public String[] columns(ResultSetMetaData metaData) throws SQLException {
+            String[] columns = new String[metaData.getColumnCount()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = camelCase(metaData.getColumnLabel(i + 1));
+            }
+            return columns;
+        }
+
+        @Override
+        public void read(ResultSet rs, Object[] values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = exportValue(rs.getObject(i + 1));
+            }
+        }
+    };
+
+    // Audit rows with their dictionary ids decoded and details rendered
+    private final class AuditRowReader implements RowReader {
+        @Override
+        public String[] columns(ResultSetMetaData metaData) {
+            return new String[]{"id", "timestamp", "action", "entityType", "entityId", "performedBy",
+                    "oldValue", "newValue", "details"};
+        }
+
+        @Override
+        public void read(ResultSet rs, Object[] values) throws SQLException {
+            AuditLog log = AuditDictionary.ROW_MAPPER.mapRow(rs, 0);
+            auditDictionary.decode(List.of(log));
+            values[0] = log.getId();
+            values[1] = exportValue(log.getTimestamp());
+            values[2] = log.getAction();
+            values[3] = log.getEntityType();
+            values[4] = log.getEntityId();
+            values[5] = log.getPerformedBy();
+            values[6] = log.getOldValue();
+            values[7] = log.getNewValue();
+            values[8] = log.getDetails();
+        }
+    }
+
+    // ============================================================
+    // ROW WRITERS
+    // ============================================================
+
+    private interface RowWriter {
+        void begin(String[] columns) throws IOException;
+
+        void row(String[] columns, Object[] values) throws IOException;
+
+        void end() throws IOException;
+    }
+
+    // RFC 4180: fields holding a comma, quote or line break are quoted, quotes doubled
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void begin(String[] columns) throws IOException {
+            row(columns, columns);
+        }
+
+        @Override
+        public void row(String[] columns, Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(values[i].toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void end() throws IOException {
+            writer.flush();
+        }
+
+        private void writeField(String field) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < field.length() && !quote; i++) {
+                char c = field.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(field);
+                return;
+            }
+            writer.write('"');
+            writer.write(field.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private JsonGenerator generator;
+        private boolean empty = true;
+
+        NdjsonRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void begin(String[] columns) throws IOException {
+            generator = jsonFactory.createGenerator(writer);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        public void row(String[] columns, Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(columns[i]);
+                Object value = values[i];
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+                    generator.writeNumber(((Number) value).longValue());
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.doubleValue());
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBoolean(bool);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            empty = false;
+        }
+
+        @Override
+        public void end() throws IOException {
+            if (!empty) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        }
+    }
+}
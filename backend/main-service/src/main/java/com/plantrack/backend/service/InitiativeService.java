@@ -2,6 +2,7 @@ package com.plantrack.backend.service;
 
 import com.plantrack.backend.dto.InitiativeAssignedRequest;
 import com.plantrack.backend.dto.StatusUpdateRequest;
+import com.plantrack.backend.event.InitiativeChangedEvent;
 import com.plantrack.backend.feign.NotificationService;
 import com.plantrack.backend.model.Initiative;
 import com.plantrack.backend.model.Milestone;
@@ -12,10 +13,12 @@ import com.plantrack.backend.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -41,6 +44,9 @@ public class InitiativeService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // 1. Create Initiative
     public Initiative createInitiative(Long milestoneId, List<Long> assignedUserIds, Initiative initiative) {
         logger.debug("Creating initiative: milestoneId={}, assignedUserIds={}, title={}",
@@ -86,8 +92,8 @@ public class InitiativeService {
                 .map(User::getName)
                 .collect(Collectors.joining(", "));
         auditService.logCreate("INITIATIVE", savedInitiative.getInitiativeId(),
-                "Created initiative: " + savedInitiative.getTitle() + " in milestone: " + milestone.getTitle() +
-                        " assigned to: " + assigneeNames);
+                "Created initiative: {} in milestone: {} assigned to: {}",
+                savedInitiative.getTitle(), milestone.getTitle(), assigneeNames);
 
         // Notify all assigned users
         for (User user : assignedUsers) {
@@ -110,6 +116,10 @@ public class InitiativeService {
         // TRIGGER: Recalculate Progress immediately after adding a new task
         updateMilestoneProgress(milestone);
 
+        eventPublisher.publishEvent(new InitiativeChangedEvent(savedInitiative.getInitiativeId(),
+                null, savedInitiative.getStatus(), null, InitiativeChangedEvent.assigneeIdsOf(savedInitiative),
+                null, savedInitiative.getCompletedAt()));
+
         logger.debug("Completed initiative creation: initiativeId={}", savedInitiative.getInitiativeId());
         return savedInitiative;
     }
@@ -124,6 +134,8 @@ public class InitiativeService {
                 });
 
         String oldStatus = initiative.getStatus();
+        Set<Long> previousAssigneeIds = InitiativeChangedEvent.assigneeIdsOf(initiative);
+        LocalDateTime previousCompletedAt = initiative.getCompletedAt();
 
         // Security check: Employees can only update their own assigned initiatives
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -193,7 +205,7 @@ public class InitiativeService {
         // Audit Log - Status change
         if (updatedData.getStatus() != null && !oldStatus.equals(updatedData.getStatus())) {
             auditService.logStatusChange("INITIATIVE", id, oldStatus, updatedData.getStatus(),
-                    "Initiative '" + savedInitiative.getTitle() + "' status changed from " + oldStatus + " to " + updatedData.getStatus());
+                    "Initiative '{}' status changed from {} to {}", savedInitiative.getTitle(), oldStatus, updatedData.getStatus());
 
             // Notify Manager if employee updated status
             if (isEmployee) {
@@ -245,7 +257,7 @@ public class InitiativeService {
 
         // Audit Log - General update
         if (updatedData.getTitle() != null || updatedData.getDescription() != null) {
-            auditService.logUpdate("INITIATIVE", id, "Updated initiative: " + savedInitiative.getTitle());
+            auditService.logUpdate("INITIATIVE", id, "Updated initiative: {}", savedInitiative.getTitle());
         }
 
         // Audit Log - Assignment change
@@ -283,8 +295,7 @@ public class InitiativeService {
                         .collect(Collectors.joining(", "));
 
                 auditService.logUpdate("INITIATIVE", id,
-                        "Reassigned initiative from [" + oldAssigneeNames +
-                                "] to [" + newAssigneeNames + "]");
+                        "Reassigned initiative from [{}] to [{}]", oldAssigneeNames, newAssigneeNames);
 
                 // Notify newly assigned users (users in new set but not in old set)
                 Set<Long> newlyAssignedIds = new HashSet<>(newAssigneeIds);
@@ -311,6 +322,11 @@ public class InitiativeService {
 
         updateMilestoneProgress(initiative.getMilestone());
 
+        // Published after milestone progress is saved so listeners see the final state
+        eventPublisher.publishEvent(new InitiativeChangedEvent(id, oldStatus, savedInitiative.getStatus(),
+                previousAssigneeIds, InitiativeChangedEvent.assigneeIdsOf(savedInitiative),
+                previousCompletedAt, savedInitiative.getCompletedAt()));
+
         logger.info("Updated initiative: initiativeId={}, title={}, statusChanged={}",
                 id, savedInitiative.getTitle(), updatedData.getStatus() != null && !oldStatus.equals(updatedData.getStatus()));
         logger.debug("Completed initiative update: initiativeId={}", id);
@@ -0,0 +1,451 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.event.InitiativeChangedEvent;
+import com.plantrack.backend.event.UserChangedEvent;
+import com.plantrack.backend.model.User;
+import com.plantrack.backend.model.UserScoreSnapshot;
+import com.plantrack.backend.repository.InitiativeRepository;
+import com.plantrack.backend.repository.UserRepository;
+import com.plantrack.backend.repository.UserScoreSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Incrementally maintained leaderboard.
+ *
+ * Keeps one {@link RankedScoreTree} per metric type (OVERALL/SPEED/QUALITY/IMPROVEMENT)
+ * for the whole organisation and one per metric type per department. The trees are
+ * rebuilt from the database on startup and then patched for the affected users only
+ * whenever an initiative or user changes, so rank and top-K lookups are logarithmic
+ * instead of a full recompute-and-sort per request.
+ *
+ * IMPROVEMENT is the overall-score change against the latest weekly snapshot (the
+ * baseline), which is reloaded on rebuild.
+ *
+ * Every change is also written through to user_metrics (see {@link UserMetricsService})
+ * for the database-filtered, keyset-paginated listings.
+ *
+ * Rebuilds and refreshes are serialized from their database read through to that write,
+ * so a refresh can never be overwritten by a rebuild that read the database before it
+ * (and the other way round). Queries only take the read lock.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    public static final List<String> METRIC_TYPES = List.of("OVERALL", "SPEED", "QUALITY", "IMPROVEMENT");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private InitiativeRepository initiativeRepository;
+
+    @Autowired
+    private UserMetricsService userMetricsService;
+
+    @Autowired
+    private UserScoreSnapshotRepository snapshotRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Held by rebuild and refreshUsers across read, apply and write-through
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final Map<String, RankedScoreTree> overallTrees = new HashMap<>();
+    private final Map<String, Map<String, RankedScoreTree>> departmentTrees = new HashMap<>();
+    private final Map<Long, Standing> standings = new HashMap<>();
+    private volatile Map<Long, Baseline> baselines = Map.of();
+
+    /**
+     * Current scoring inputs and metric values for one user.
+     */
+    public record Standing(Long userId, String userName, String department,
+                           int tasksAssigned, int tasksCompleted,
+                           double overallScore, double averageTasksPerWeek,
+                           double completionRate, double improvementPercentage) {
+
+        public double metric(String metricType) {
+            return switch (normalizeMetric(metricType)) {
+                case "SPEED" -> averageTasksPerWeek;
+                case "QUALITY" -> completionRate;
+                case "IMPROVEMENT" -> improvementPercentage;
+                default -> overallScore;
+            };
+        }
+    }
+
+    public record Ranks(int rank, int departmentRank) {}
+
+    /**
+     * Score and ranks from the latest weekly snapshot.
+     */
+    public record Baseline(double overallScore, int rank, int departmentRank) {}
+
+    /**
+     * A standing with its current overall and department rank.
+     */
+    public record RankedStanding(Standing standing, int rank, int departmentRank) {}
+
+    // ============================================================
+    // MAINTENANCE
+    // ============================================================
+
+    /**
+     * Rebuild every tree (and reload the improvement baseline) from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(AnalyticsDataVersion.MAINTENANCE_ORDER)
+    public void rebuild() {
+        updateLock.lock();
+        try {
+            long startTime = System.currentTimeMillis();
+            baselines = loadBaselines();
+            List<User> users = userRepository.findAll();
+            AssignmentIndex index = AssignmentIndex.of(initiativeRepository.countAssignmentsByUser());
+            List<Standing> rebuilt = new ArrayList<>(users.size());
+            for (User user : users) {
+                rebuilt.add(toStanding(user, index));
+            }
+
+            lock.writeLock().lock();
+            try {
+                overallTrees.clear();
+                departmentTrees.clear();
+                standings.clear();
+                rebuilt.forEach(this::track);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            userMetricsService.replaceAll(rebuilt);
+
+            logger.info("Leaderboard rebuilt: users={}, departments={}, duration={}ms",
+                    users.size(), departmentTrees.size(), System.currentTimeMillis() - startTime);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(AnalyticsDataVersion.MAINTENANCE_ORDER)
+    public void onInitiativeChanged(InitiativeChangedEvent event) {
+        if (!event.statusChanged() && !event.assigneesChanged()) {
+            return;
+        }
+        refreshUsers(event.affectedUserIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(AnalyticsDataVersion.MAINTENANCE_ORDER)
+    public void onUserChanged(UserChangedEvent event) {
+        refreshUsers(Set.of(event.userId()));
+    }
+
+    /**
+     * Re-read counters for the given users and move them in every tree they belong to.
+     * Users that no longer exist are dropped.
+     */
+    public void refreshUsers(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        updateLock.lock();
+        try {
+            List<User> users = userRepository.findAllById(userIds);
+            AssignmentIndex index = AssignmentIndex.of(initiativeRepository.countAssignmentsForUsers(userIds));
+            List<Standing> refreshed = new ArrayList<>(users.size());
+            for (User user : users) {
+                refreshed.add(toStanding(user, index));
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (Long userId : userIds) {
+                    untrack(userId);
+                }
+                refreshed.forEach(this::track);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            userMetricsService.sync(refreshed, userIds);
+        } finally {
+            updateLock.unlock();
+        }
+        logger.debug("Leaderboard refreshed: userIds={}", userIds);
+    }
+
+    // ============================================================
+    // QUERIES
+    // ============================================================
+
+    /**
+     * Overall and department rank by OVERALL score. Users not yet tracked are loaded lazily.
+     */
+    public Ranks ranksOf(Long userId) {
+        Ranks ranks = readRanks(userId);
+        if (ranks == null) {
+            refreshUsers(List.of(userId));
+            ranks = readRanks(userId);
+        }
+        return ranks != null ? ranks : new Ranks(0, 1);
+    }
+
+    public Standing standingOf(Long userId) {
+        lock.readLock().lock();
+        try {
+            return standings.get(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Top entries for a metric, optionally restricted to one department, in rank order.
+     */
+    public List<Standing> top(String metricType, String department, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            RankedScoreTree tree = treeFor(normalizeMetric(metricType), department);
+            if (tree == null) {
+                return new ArrayList<>();
+            }
+            int count = limit > 0 ? limit : tree.size();
+            List<Standing> result = new ArrayList<>(Math.min(count, tree.size()));
+            for (Long userId : tree.range(offset, count)) {
+                result.add(standings.get(userId));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Baseline for the user, or null when no weekly snapshot covers them yet.
+     */
+    public Baseline baselineOf(Long userId) {
+        return baselines.get(userId);
+    }
+
+    /**
+     * Every tracked user with current ranks, in overall rank order.
+     */
+    public List<RankedStanding> rankedStandings() {
+        lock.readLock().lock();
+        try {
+            RankedScoreTree overall = overallTrees.get("OVERALL");
+            if (overall == null) {
+                return new ArrayList<>();
+            }
+            List<Long> order = overall.range(0, overall.size());
+            List<RankedStanding> result = new ArrayList<>(order.size());
+            for (int i = 0; i < order.size(); i++) {
+                Standing standing = standings.get(order.get(i));
+                int departmentRank = 1;
+                if (standing.department() != null && !standing.department().isEmpty()) {
+                    departmentRank = treeFor("OVERALL", standing.department()).rankOf(standing.userId());
+                }
+                result.add(new RankedStanding(standing, i + 1, departmentRank));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int departmentSize(String department) {
+        lock.readLock().lock();
+        try {
+            RankedScoreTree tree = treeFor("OVERALL", department);
+            return tree != null ? tree.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compare the incremental trees against a full recompute from the database.
+     */
+    public Map<String, Object> verifyConsistency() {
+        List<User> users = userRepository.findAll();
+        AssignmentIndex index = AssignmentIndex.of(initiativeRepository.countAssignmentsByUser());
+
+        // Full recompute into throwaway trees
+        Map<String, RankedScoreTree> expectedOverall = new HashMap<>();
+        Map<String, Map<String, RankedScoreTree>> expectedDepartments = new HashMap<>();
+        Map<Long, Standing> expectedStandings = new HashMap<>();
+        for (User user : users) {
+            Standing standing = toStanding(user, index);
+            expectedStandings.put(standing.userId(), standing);
+            insertInto(expectedOverall, expectedDepartments, standing);
+        }
+
+        List<String> mismatches = new ArrayList<>();
+        int checked = 0;
+
+        lock.readLock().lock();
+        try {
+            if (standings.size() != expectedStandings.size()) {
+                mismatches.add("tracked users: expected " + expectedStandings.size() + " but was " + standings.size());
+            }
+            for (Standing expected : expectedStandings.values()) {
+                long userId = expected.userId();
+                for (String metricType : METRIC_TYPES) {
+                    checked++;
+                    int expectedRank = expectedOverall.get(metricType).rankOf(userId);
+                    RankedScoreTree actualTree = overallTrees.get(metricType);
+                    int actualRank = actualTree != null ? actualTree.rankOf(userId) : 0;
+                    if (expectedRank != actualRank) {
+                        mismatches.add(metricType + " rank for user " + userId + ": expected " + expectedRank + " but was " + actualRank);
+                    }
+                    if (expected.department() != null && !expected.department().isEmpty()) {
+                        int expectedDeptRank = expectedDepartments.get(expected.department()).get(metricType).rankOf(userId);
+                        RankedScoreTree actualDeptTree = treeFor(metricType, expected.department());
+                        int actualDeptRank = actualDeptTree != null ? actualDeptTree.rankOf(userId) : 0;
+                        if (expectedDeptRank != actualDeptRank) {
+                            mismatches.add(metricType + " department rank for user " + userId + ": expected "
+                                    + expectedDeptRank + " but was " + actualDeptRank);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (!mismatches.isEmpty()) {
+            logger.warn("Leaderboard consistency check failed: mismatches={}, first={}", mismatches.size(), mismatches.get(0));
+        } else {
+            logger.info("Leaderboard consistency check passed: users={}, checks={}", expectedStandings.size(), checked);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("consistent", mismatches.isEmpty());
+        result.put("usersChecked", expectedStandings.size());
+        result.put("rankChecks", checked);
+        result.put("mismatchCount", mismatches.size());
+        result.put("mismatches", mismatches.size() > 50 ? mismatches.subList(0, 50) : mismatches);
+        return result;
+    }
+
+    // ============================================================
+    // INTERNALS (callers hold the write lock)
+    // ============================================================
+
+    static String normalizeMetric(String metricType) {
+        if (metricType == null) {
+            return "OVERALL";
+        }
+        return switch (metricType) {
+            case "SPEED", "QUALITY", "IMPROVEMENT" -> metricType;
+            default -> "OVERALL";
+        };
+    }
+
+    private Map<Long, Baseline> loadBaselines() {
+        return snapshotRepository.findLatestSnapshotDate(ScoreSnapshotService.WEEKLY)
+                .map(date -> {
+                    Map<Long, Baseline> loaded = new HashMap<>();
+                    for (UserScoreSnapshot snapshot : snapshotRepository.findByGranularityAndSnapshotDate(ScoreSnapshotService.WEEKLY, date)) {
+                        loaded.put(snapshot.getUserId(), new Baseline(snapshot.getOverallScore(),
+                                snapshot.getOverallRank(), snapshot.getDepartmentRank()));
+                    }
+                    return loaded;
+                })
+                .orElseGet(HashMap::new);
+    }
+
+    private Standing toStanding(User user, AssignmentIndex index) {
+        int tasksAssigned = index.assignedCount(user.getUserId());
+        int tasksCompleted = index.completedCount(user.getUserId());
+        double overallScore = PerformanceScoring.overallScore(tasksAssigned, tasksCompleted);
+        Baseline baseline = baselines.get(user.getUserId());
+        return new Standing(user.getUserId(), user.getName(), user.getDepartment(),
+                tasksAssigned, tasksCompleted,
+                overallScore,
+                PerformanceScoring.averageTasksPerWeek(tasksCompleted),
+                PerformanceScoring.completionRate(tasksAssigned, tasksCompleted),
+                baseline != null ? PerformanceScoring.improvementPercentage(baseline.overallScore(), overallScore) : 0.0);
+    }
+
+    private RankedScoreTree treeFor(String metricType, String department) {
+        if (department == null || department.isEmpty()) {
+            return overallTrees.get(metricType);
+        }
+        Map<String, RankedScoreTree> trees = departmentTrees.get(department);
+        return trees != null ? trees.get(metricType) : null;
+    }
+
+    private Ranks readRanks(Long userId) {
+        lock.readLock().lock();
+        try {
+            Standing standing = standings.get(userId);
+            if (standing == null) {
+                return null;
+            }
+            int rank = overallTrees.get("OVERALL").rankOf(userId);
+            int departmentRank = 1;
+            if (standing.department() != null && !standing.department().isEmpty()) {
+                departmentRank = treeFor("OVERALL", standing.department()).rankOf(userId);
+            }
+            return new Ranks(rank, departmentRank);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void track(Standing standing) {
+        standings.put(standing.userId(), standing);
+        insertInto(overallTrees, departmentTrees, standing);
+    }
+
+    private void untrack(Long userId) {
+        Standing previous = standings.remove(userId);
+        if (previous == null) {
+            return;
+        }
+        for (RankedScoreTree tree : overallTrees.values()) {
+            tree.remove(userId);
+        }
+        if (previous.department() != null && !previous.department().isEmpty()) {
+            Map<String, RankedScoreTree> trees = departmentTrees.get(previous.department());
+            if (trees != null) {
+                trees.values().forEach(tree -> tree.remove(userId));
+                if (trees.get("OVERALL").size() == 0) {
+                    departmentTrees.remove(previous.department());
+                }
+            }
+        }
+    }
+
+    private static void insertInto(Map<String, RankedScoreTree> overall,
+                                   Map<String, Map<String, RankedScoreTree>> departments,
+                                   Standing standing) {
+        String department = standing.department();
+        Map<String, RankedScoreTree> deptTrees = department != null && !department.isEmpty()
+                ? departments.computeIfAbsent(department, d -> new HashMap<>())
+                : null;
+        for (String metricType : METRIC_TYPES) {
+            double value = standing.metric(metricType);
+            overall.computeIfAbsent(metricType, m -> new RankedScoreTree()).put(standing.userId(), value);
+            if (deptTrees != null) {
+                deptTrees.computeIfAbsent(metricType, m -> new RankedScoreTree()).put(standing.userId(), value);
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.plantrack.backend.service;
 
 import com.plantrack.backend.dto.CreateNotificationRequest;
+import com.plantrack.backend.event.DataChangedEvent;
+import com.plantrack.backend.event.InitiativeChangedEvent;
 import com.plantrack.backend.feign.NotificationService;
 import com.plantrack.backend.model.Initiative;
 import com.plantrack.backend.model.Milestone;
@@ -14,13 +16,16 @@ import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class MilestoneService {
@@ -37,6 +42,8 @@ public class MilestoneService {
     private NotificationService notificationService;
     @Autowired
     private AuditService auditService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -49,7 +56,8 @@ public class MilestoneService {
 
         // Audit Log
         auditService.logCreate("MILESTONE", savedMilestone.getMilestoneId(),
-                "Created milestone: " + savedMilestone.getTitle() + " in plan: " + plan.getTitle());
+                "Created milestone: {} in plan: {}", savedMilestone.getTitle(), plan.getTitle());
+        eventPublisher.publishEvent(new DataChangedEvent("MILESTONE", savedMilestone.getMilestoneId()));
 
         return savedMilestone;
     }
@@ -74,10 +82,11 @@ public class MilestoneService {
         // Audit Log
         if (details.getStatus() != null && oldStatus != null && !oldStatus.equals(details.getStatus())) {
             auditService.logStatusChange("MILESTONE", milestoneId, oldStatus, details.getStatus(),
-                    "Milestone '" + savedMilestone.getTitle() + "' status changed from " + oldStatus + " to " + details.getStatus());
+                    "Milestone '{}' status changed from {} to {}", savedMilestone.getTitle(), oldStatus, details.getStatus());
         } else {
-            auditService.logUpdate("MILESTONE", milestoneId, "Updated milestone: " + savedMilestone.getTitle());
+            auditService.logUpdate("MILESTONE", milestoneId, "Updated milestone: {}", savedMilestone.getTitle());
         }
+        eventPublisher.publishEvent(new DataChangedEvent("MILESTONE", milestoneId));
 
         return savedMilestone;
     }
@@ -123,8 +132,15 @@ public class MilestoneService {
         // Flush to ensure all deletions are executed
         entityManager.flush();
 
+        for (Initiative initiative : initiatives) {
+            eventPublisher.publishEvent(new InitiativeChangedEvent(initiative.getInitiativeId(),
+                    initiative.getStatus(), null, InitiativeChangedEvent.assigneeIdsOf(initiative), null,
+                    initiative.getCompletedAt(), null));
+        }
+        eventPublisher.publishEvent(new DataChangedEvent("MILESTONE", milestoneId));
+
         // Audit Log (after successful deletion)
-        auditService.logDelete("MILESTONE", milestoneId, "Deleted milestone: " + milestoneTitle);
+        auditService.logDelete("MILESTONE", milestoneId, "Deleted milestone: {}", milestoneTitle);
     }
 
     /**
@@ -150,14 +166,19 @@ public class MilestoneService {
         for (Initiative initiative : initiatives) {
             if (!STATUS_CANCELLED.equals(initiative.getStatus())) {
                 String oldInitiativeStatus = initiative.getStatus();
+                LocalDateTime oldCompletedAt = initiative.getCompletedAt();
                 initiative.setStatus(STATUS_CANCELLED);
                 initiativeRepository.save(initiative);
                 initiativeCancelledCount++;
 
+                Set<Long> assigneeIds = InitiativeChangedEvent.assigneeIdsOf(initiative);
+                eventPublisher.publishEvent(new InitiativeChangedEvent(initiative.getInitiativeId(),
+                        oldInitiativeStatus, STATUS_CANCELLED, assigneeIds, assigneeIds, oldCompletedAt, null));
+
                 // Audit log for initiative
                 auditService.logStatusChange("INITIATIVE", initiative.getInitiativeId(),
                         oldInitiativeStatus, STATUS_CANCELLED,
-                        "Initiative '" + initiative.getTitle() + "' cancelled (cascade from milestone cancellation)");
+                        "Initiative '{}' cancelled (cascade from milestone cancellation)", initiative.getTitle());
 
                 // Collect user IDs for notification
                 if (initiative.getAssignedUsers() != null) {
@@ -176,8 +197,9 @@ public class MilestoneService {
 
         // Audit log for milestone
         auditService.logStatusChange("MILESTONE", milestoneId, oldStatus, STATUS_CANCELLED,
-                "Milestone '" + milestone.getTitle() + "' cancelled with cascade (" +
-                        initiativeCancelledCount + " initiatives affected)");
+                "Milestone '{}' cancelled with cascade ({} initiatives affected)",
+                milestone.getTitle(), initiativeCancelledCount);
+        eventPublisher.publishEvent(new DataChangedEvent("MILESTONE", milestoneId));
 
         // Send notifications to all affected users
         String planTitle = milestone.getPlan() != null ? milestone.getPlan().getTitle() : "Unknown Plan";
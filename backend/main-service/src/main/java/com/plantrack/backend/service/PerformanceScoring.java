@@ -0,0 +1,52 @@
+package com.plantrack.backend.service;
+
+/**
+ * Scoring formulas shared by AnalyticsService and the incremental leaderboard, so
+ * both always agree on a user's score for the same assigned/completed counters.
+ */
+public final class PerformanceScoring {
+
+    private PerformanceScoring() {}
+
+    public static double completionRate(int tasksAssigned, int tasksCompleted) {
+        return tasksAssigned > 0 ? ((double) tasksCompleted / tasksAssigned) * 100 : 0.0;
+    }
+
+    // Over last 8 weeks (simplified)
+    public static double averageTasksPerWeek(int tasksCompleted) {
+        return tasksCompleted / 8.0;
+    }
+
+    // Over last 6 months (simplified)
+    public static double averageTasksPerMonth(int tasksCompleted) {
+        return tasksCompleted / 6.0;
+    }
+
+    // Normalize to 5 tasks/week = 100
+    public static double speedScore(int tasksCompleted) {
+        return Math.min(100, (averageTasksPerWeek(tasksCompleted) / 5.0) * 100);
+    }
+
+    // Variance in completion (simplified - would need historical data)
+    public static double consistencyScore(double completionRate) {
+        return completionRate > 80 ? 90.0 : completionRate > 50 ? 70.0 : 50.0;
+    }
+
+    public static double overallScore(int tasksAssigned, int tasksCompleted) {
+        double completionRate = completionRate(tasksAssigned, tasksCompleted);
+        double speedScore = speedScore(tasksCompleted);
+        double qualityScore = completionRate;
+        double consistencyScore = consistencyScore(completionRate);
+        return (completionRate * 0.4) + (speedScore * 0.3) + (qualityScore * 0.2) + (consistencyScore * 0.1);
+    }
+
+    // Relative overall-score change against a snapshot baseline (0 when there is no baseline score)
+    public static double improvementPercentage(double previousScore, double currentScore) {
+        return previousScore > 0 ? ((currentScore - previousScore) / previousScore) * 100 : 0.0;
+    }
+
+    public static String performanceTier(double overallScore) {
+        return overallScore >= 85 ? "TOP_PERFORMER" :
+               overallScore >= 65 ? "CONSISTENT" : "NEEDS_IMPROVEMENT";
+    }
+}
@@ -1,6 +1,8 @@
 package com.plantrack.backend.service;
 
 import com.plantrack.backend.dto.CreateNotificationRequest;
+import com.plantrack.backend.event.DataChangedEvent;
+import com.plantrack.backend.event.InitiativeChangedEvent;
 import com.plantrack.backend.feign.NotificationService;
 import com.plantrack.backend.model.Initiative;
 import com.plantrack.backend.model.Milestone;
@@ -13,6 +15,7 @@ import com.plantrack.backend.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -23,6 +26,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class PlanService {
@@ -41,6 +45,8 @@ public class PlanService {
     private NotificationService notificationService;
     @Autowired
     private AuditService auditService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     // 1. Logic to Create a Plan linked to a User + Trigger Notification
     public Plan createPlan(Long userId, Plan plan) {
@@ -67,7 +73,8 @@ public class PlanService {
 
         // Audit Log
         auditService.logCreate("PLAN", savedPlan.getPlanId(),
-                "Created plan: " + savedPlan.getTitle() + " (Priority: " + savedPlan.getPriority() + ")");
+                "Created plan: {} (Priority: {})", savedPlan.getTitle(), savedPlan.getPriority());
+        eventPublisher.publishEvent(new DataChangedEvent("PLAN", savedPlan.getPlanId()));
 
         // --- TRIGGER NOTIFICATION ---
         // Automatically alert the user that a plan was assigned
@@ -150,12 +157,14 @@ public class PlanService {
             logger.info("Plan status changed: planId={}, title={}, status={}->{}",
                     planId, savedPlan.getTitle(), oldStatus, planDetails.getStatus());
             auditService.logStatusChange("PLAN", planId, oldStatus, planDetails.getStatus().toString(),
-                    "Plan '" + savedPlan.getTitle() + "' status changed from " + oldStatus + " to " + planDetails.getStatus());
+                    "Plan '{}' status changed from {} to {}", savedPlan.getTitle(), oldStatus, planDetails.getStatus());
         } else {
             logger.info("Plan updated: planId={}, title={}", planId, savedPlan.getTitle());
-            auditService.logUpdate("PLAN", planId, "Updated plan: " + savedPlan.getTitle());
+            auditService.logUpdate("PLAN", planId, "Updated plan: {}", savedPlan.getTitle());
         }
 
+        eventPublisher.publishEvent(new DataChangedEvent("PLAN", planId));
+
         logger.debug("Completed plan update: planId={}", planId);
         return savedPlan;
     }
@@ -199,21 +208,26 @@ public class PlanService {
                 // Audit log for milestone
                 auditService.logStatusChange("MILESTONE", milestone.getMilestoneId(),
                         oldMilestoneStatus, STATUS_CANCELLED,
-                        "Milestone '" + milestone.getTitle() + "' cancelled (cascade from plan cancellation)");
+                        "Milestone '{}' cancelled (cascade from plan cancellation)", milestone.getTitle());
             }
 
             // Cascade to initiatives
             for (Initiative initiative : milestone.getInitiatives()) {
                 if (!STATUS_CANCELLED.equals(initiative.getStatus())) {
                     String oldInitiativeStatus = initiative.getStatus();
+                    LocalDateTime oldCompletedAt = initiative.getCompletedAt();
                     initiative.setStatus(STATUS_CANCELLED);
                     initiativeRepository.save(initiative);
                     initiativeCancelledCount++;
 
+                    Set<Long> assigneeIds = InitiativeChangedEvent.assigneeIdsOf(initiative);
+                    eventPublisher.publishEvent(new InitiativeChangedEvent(initiative.getInitiativeId(),
+                            oldInitiativeStatus, STATUS_CANCELLED, assigneeIds, assigneeIds, oldCompletedAt, null));
+
                     // Audit log for initiative
                     auditService.logStatusChange("INITIATIVE", initiative.getInitiativeId(),
                             oldInitiativeStatus, STATUS_CANCELLED,
-                            "Initiative '" + initiative.getTitle() + "' cancelled (cascade from plan cancellation)");
+                            "Initiative '{}' cancelled (cascade from plan cancellation)", initiative.getTitle());
 
                     // Collect user IDs for notification
                     if (initiative.getAssignedUsers() != null) {
@@ -233,8 +247,9 @@ public class PlanService {
 
         // Audit log for plan
         auditService.logStatusChange("PLAN", planId, oldStatus, STATUS_CANCELLED,
-                "Plan '" + plan.getTitle() + "' cancelled with cascade (" +
-                        milestoneCancelledCount + " milestones, " + initiativeCancelledCount + " initiatives affected)");
+                "Plan '{}' cancelled with cascade ({} milestones, {} initiatives affected)",
+                plan.getTitle(), milestoneCancelledCount, initiativeCancelledCount);
+        eventPublisher.publishEvent(new DataChangedEvent("PLAN", planId));
 
         // Send notifications to all affected users
         for (Long notifyUserId : notifiedUserIds) {
@@ -336,10 +351,23 @@ public class PlanService {
                 });
 
         String planTitle = plan.getTitle();
+
+        // Capture initiatives removed by the orphan cascade before they are gone
+        List<InitiativeChangedEvent> removedInitiatives = new ArrayList<>();
+        for (Milestone milestone : plan.getMilestones()) {
+            for (Initiative initiative : milestone.getInitiatives()) {
+                removedInitiatives.add(new InitiativeChangedEvent(initiative.getInitiativeId(),
+                        initiative.getStatus(), null, InitiativeChangedEvent.assigneeIdsOf(initiative), null,
+                        initiative.getCompletedAt(), null));
+            }
+        }
+
         planRepository.deleteById(planId);
+        removedInitiatives.forEach(eventPublisher::publishEvent);
+        eventPublisher.publishEvent(new DataChangedEvent("PLAN", planId));
 
         // Audit Log
-        auditService.logDelete("PLAN", planId, "Deleted plan: " + planTitle);
+        auditService.logDelete("PLAN", planId, "Deleted plan: {}", planTitle);
         logger.info("Plan deleted: planId={}, title={}", planId, planTitle);
     }
 
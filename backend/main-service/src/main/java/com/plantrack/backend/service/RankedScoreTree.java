@@ -0,0 +1,200 @@
+package com.plantrack.backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Order-statistic treap of (userId, score) pairs.
+ *
+ * Entries are ordered by score descending, then userId ascending (the same order the
+ * leaderboard used when it sorted findAll() results). Every node carries its subtree
+ * size, so rank lookups, updates and top-K queries are O(log n) / O(log n + k).
+ *
+ * Not thread-safe; LeaderboardService guards all access with its own lock.
+ */
+public class RankedScoreTree {
+
+    private static final class Node {
+        final long userId;
+        final double score;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(long userId, double score, int priority) {
+            this.userId = userId;
+            this.score = score;
+            this.priority = priority;
+        }
+    }
+
+    private final Map<Long, Double> scores = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom(42);
+    private Node root;
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean contains(long userId) {
+        return scores.containsKey(userId);
+    }
+
+    public Double scoreOf(long userId) {
+        return scores.get(userId);
+    }
+
+    /**
+     * Insert or move a user to the given score.
+     */
+    public void put(long userId, double score) {
+        Double previous = scores.put(userId, score);
+        if (previous != null) {
+            if (Double.compare(previous, score) == 0) {
+                return;
+            }
+            root = erase(root, previous, userId);
+        }
+        Node[] parts = split(root, score, userId);
+        root = merge(merge(parts[0], new Node(userId, score, random.nextInt())), parts[1]);
+    }
+
+    public boolean remove(long userId) {
+        Double previous = scores.remove(userId);
+        if (previous == null) {
+            return false;
+        }
+        root = erase(root, previous, userId);
+        return true;
+    }
+
+    /**
+     * 1-based rank of the user, or 0 if the user is not in the tree.
+     */
+    public int rankOf(long userId) {
+        Double score = scores.get(userId);
+        if (score == null) {
+            return 0;
+        }
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(score, userId, node);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return rank + size(node.left) + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * User ids in rank order starting at the given 0-based offset.
+     */
+    public List<Long> range(int offset, int limit) {
+        List<Long> result = new ArrayList<>(Math.max(0, Math.min(limit, size() - offset)));
+        collect(root, Math.max(0, offset), limit, result);
+        return result;
+    }
+
+    public void clear() {
+        scores.clear();
+        root = null;
+    }
+
+    // --- treap internals ---
+
+    // Negative when (score, userId) ranks before the node
+    private static int compare(double score, long userId, Node node) {
+        int byScore = Double.compare(node.score, score);
+        return byScore != 0 ? byScore : Long.compare(userId, node.userId);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    // Returns {entries ranked before (score, userId), entries ranked at or after it}
+    private static Node[] split(Node node, double score, long userId) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (compare(score, userId, node) > 0) {
+            Node[] parts = split(node.right, score, userId);
+            node.right = parts[0];
+            update(node);
+            return new Node[] {node, parts[1]};
+        }
+        Node[] parts = split(node.left, score, userId);
+        node.left = parts[1];
+        update(node);
+        return new Node[] {parts[0], node};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node erase(Node node, double score, long userId) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(score, userId, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = erase(node.left, score, userId);
+        } else {
+            node.right = erase(node.right, score, userId);
+        }
+        update(node);
+        return node;
+    }
+
+    private static int collect(Node node, int skip, int limit, List<Long> out) {
+        if (node == null || out.size() >= limit) {
+            return skip;
+        }
+        int leftSize = size(node.left);
+        if (skip >= leftSize) {
+            skip -= leftSize;
+        } else {
+            skip = collect(node.left, skip, limit, out);
+        }
+        if (out.size() >= limit) {
+            return skip;
+        }
+        if (skip > 0) {
+            skip--;
+        } else {
+            out.add(node.userId);
+        }
+        return collect(node.right, skip, limit, out);
+    }
+}
@@ -0,0 +1,149 @@
+package com.plantrack.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Retention for the reports table: RAW reports are kept for the recent weeks, older ones
+ * are downsampled into one WEEKLY row per department and week, and WEEKLY rows past their
+ * own retention into one MONTHLY row per department and month. MONTHLY rows are kept.
+ *
+ * Each period is folded in its own transaction (insert the aggregate, delete the rows it
+ * replaces), so a run that stops part way leaves no double-counted data. Cutoffs are
+ * aligned to period starts, so a period is only ever folded once it is complete; an
+ * aggregate already present for a period is merged into the new one.
+ */
+@Service
+public class ReportRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportRetentionService.class);
+
+    public static final String RAW = "RAW";
+    public static final String WEEKLY = "WEEKLY";
+    public static final String MONTHLY = "MONTHLY";
+    public static final List<String> GRANULARITIES = List.of(RAW, WEEKLY, MONTHLY);
+
+    // Rows of the source granularity in [start, end) plus any target row already at start.
+    // report_id <= ? pins the set, so the delete never touches the row the insert just wrote.
+    private static final String FOLD_PREDICATE =
+            "((granularity = ? AND generated_date >= ? AND generated_date < ?) OR (granularity = ? AND generated_date = ?)) " +
+            "AND report_id <= ?";
+
+    // Averages are weighted by the raw reports each row stands for; "* 1.0" keeps the user
+    // average from integer division on databases where INT / INT truncates (H2)
+    private static final String FOLD_INSERT_SQL =
+            "INSERT INTO reports (scope, generated_date, granularity, sample_count, avg_goal_completion, " +
+            "avg_milestone_completion, avg_initiative_completion, total_users) " +
+            "SELECT scope, ?, ?, SUM(sample_count), " +
+            "SUM(avg_goal_completion * sample_count) / SUM(sample_count), " +
+            "SUM(avg_milestone_completion * sample_count) / SUM(sample_count), " +
+            "SUM(avg_initiative_completion * sample_count) / SUM(sample_count), " +
+            "ROUND(SUM(total_users * sample_count) * 1.0 / SUM(sample_count)) " +
+            "FROM reports WHERE " + FOLD_PREDICATE + " GROUP BY scope";
+
+    private static final String FOLD_DELETE_SQL = "DELETE FROM reports WHERE " + FOLD_PREDICATE;
+
+    private static final String OLDEST_SQL =
+            "SELECT MIN(generated_date) FROM reports WHERE granularity = ? AND generated_date < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${reports.retention.raw-days:28}")
+    private int rawRetentionDays;
+
+    @Value("${reports.retention.weekly-weeks:26}")
+    private int weeklyRetentionWeeks;
+
+    @Scheduled(cron = "${reports.retention.cron:0 45 1 * * *}")
+    public void applyRetentionScheduled() {
+        applyRetention(LocalDate.now());
+    }
+
+    public Map<String, Object> applyRetention(LocalDate today) {
+        long startTime = System.currentTimeMillis();
+        LocalDateTime rawCutoff = weekStart(today.minusDays(rawRetentionDays));
+        LocalDateTime weeklyCutoff = monthStart(today.minusWeeks(weeklyRetentionWeeks));
+
+        // Raw first, so raw rows older than both cutoffs reach MONTHLY in one run
+        int[] weekly = downsample(RAW, WEEKLY, rawCutoff);
+        int[] monthly = downsample(WEEKLY, MONTHLY, weeklyCutoff);
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Report retention applied: rawCutoff={}, weeklyCutoff={}, weeksFolded={}, rawDeleted={}, " +
+                    "monthsFolded={}, weeklyDeleted={}, duration={}ms",
+                rawCutoff, weeklyCutoff, weekly[0], weekly[1], monthly[0], monthly[1], duration);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("rawCutoff", rawCutoff);
+        result.put("weeklyCutoff", weeklyCutoff);
+        result.put("weeksFolded", weekly[0]);
+        result.put("rawDeleted", weekly[1]);
+        result.put("monthsFolded", monthly[0]);
+        result.put("weeklyDeleted", monthly[1]);
+        result.put("durationMs", duration);
+        return result;
+    }
+
+    // Fold source rows older than the cutoff one period at a time, oldest first; returns {periods, rows deleted}
+    private int[] downsample(String source, String target, LocalDateTime cutoff) {
+        int periods = 0;
+        int deleted = 0;
+        Timestamp cutoffTimestamp = Timestamp.valueOf(cutoff);
+        Timestamp oldest;
+        while ((oldest = jdbcTemplate.queryForObject(OLDEST_SQL, Timestamp.class, source, cutoffTimestamp)) != null) {
+            LocalDate oldestDate = oldest.toLocalDateTime().toLocalDate();
+            LocalDateTime start = WEEKLY.equals(target) ? weekStart(oldestDate) : monthStart(oldestDate);
+            LocalDateTime end = WEEKLY.equals(target) ? start.plusWeeks(1) : start.plusMonths(1);
+            deleted += fold(source, target, start, end);
+            periods++;
+        }
+        return new int[] {periods, deleted};
+    }
+
+    private int fold(String source, String target, LocalDateTime start, LocalDateTime end) {
+        Timestamp startTimestamp = Timestamp.valueOf(start);
+        Timestamp endTimestamp = Timestamp.valueOf(end);
+        Integer deleted = transactionTemplate.execute(status -> {
+            Long maxReportId = jdbcTemplate.queryForObject("SELECT MAX(report_id) FROM reports", Long.class);
+            Object[] predicate = {source, startTimestamp, endTimestamp, target, startTimestamp, maxReportId};
+            Object[] insertArgs = new Object[predicate.length + 2];
+            insertArgs[0] = startTimestamp;
+            insertArgs[1] = target;
+            System.arraycopy(predicate, 0, insertArgs, 2, predicate.length);
+
+            int aggregates = jdbcTemplate.update(FOLD_INSERT_SQL, insertArgs);
+            int removed = jdbcTemplate.update(FOLD_DELETE_SQL, predicate);
+            logger.debug("Report period folded: source={}, target={}, start={}, aggregates={}, deleted={}",
+                    source, target, start, aggregates, removed);
+            return removed;
+        });
+        return deleted != null ? deleted : 0;
+    }
+
+    private static LocalDateTime weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+    }
+
+    private static LocalDateTime monthStart(LocalDate date) {
+        return date.withDayOfMonth(1).atStartOfDay();
+    }
+}
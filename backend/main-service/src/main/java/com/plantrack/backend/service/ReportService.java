@@ -2,96 +2,415 @@ package com.plantrack.backend.service;
 
 import com.plantrack.backend.model.*;
 import com.plantrack.backend.repository.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Department reports. Every counter a report needs is maintained per department by the
+ * analytics cube as plan, milestone, initiative and user changes arrive, so generating a
+ * report reads O(departments) numbers instead of recomputing from the tables.
+ *
+ * A daily drift check recomputes the same counters from the database and compares them
+ * with the maintained ones (department names compared ignoring case, as reports are); a
+ * difference that survives one re-check is counted as reports.drift and rebuilds the cube.
+ */
 @Service
 public class ReportService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReportService.class);
 
+    private static final String INSERT_REPORT_SQL =
+            "INSERT INTO reports (scope, generated_date, avg_goal_completion, avg_milestone_completion, " +
+            "avg_initiative_completion, total_users, granularity, sample_count) VALUES (?, ?, ?, ?, ?, ?, 'RAW', 1)";
+
+    private static final int MAX_PAGE_SIZE = 200;
+    // Open date bounds for report history queries (both within MySQL DATETIME range)
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private static final int BATCH_SIZE = 500;
+
+    // Full recompute for the drift check; plans and milestones count for the owner's department
+    private static final String USERS_BY_DEPARTMENT_SQL =
+            "SELECT department, COUNT(*) FROM users WHERE department IS NOT NULL AND department <> '' " +
+            "GROUP BY department";
+    private static final String PLANS_BY_DEPARTMENT_SQL =
+            "SELECT u.department, COUNT(*), SUM(CASE WHEN UPPER(p.status) = 'COMPLETED' THEN 1 ELSE 0 END) " +
+            "FROM plans p JOIN users u ON u.user_id = p.user_id " +
+            "WHERE u.department IS NOT NULL AND u.department <> '' GROUP BY u.department";
+    private static final String MILESTONES_BY_DEPARTMENT_SQL =
+            "SELECT u.department, COUNT(*), COALESCE(SUM(m.completion_percent), 0) " +
+            "FROM milestones m JOIN plans p ON p.plan_id = m.plan_id JOIN users u ON u.user_id = p.user_id " +
+            "WHERE u.department IS NOT NULL AND u.department <> '' GROUP BY u.department";
+    // Initiatives count once per department (ignoring case) among their assignees, so rows are
+    // streamed in initiative order and de-duplicated here rather than by a collation-dependent GROUP BY
+    private static final String INITIATIVE_DEPARTMENTS_SQL =
+            "SELECT i.initiative_id, i.status, u.department FROM initiatives i " +
+            "JOIN initiative_assignees a ON a.initiative_id = i.initiative_id JOIN users u ON u.user_id = a.user_id " +
+            "WHERE u.department IS NOT NULL AND u.department <> '' ORDER BY i.initiative_id";
+
+    private static final double PERCENT_TOLERANCE = 1e-6;
+
     @Autowired
     private ReportRepository reportRepository;
     @Autowired
-    private UserRepository userRepository;
+    private AnalyticsCube analyticsCube;
     @Autowired
-    private PlanRepository planRepository;
+    private AnalyticsDataVersion dataVersion;
     @Autowired
-    private MilestoneRepository milestoneRepository;
+    private DepartmentDictionary departmentDictionary;
     @Autowired
-    private InitiativeRepository initiativeRepository;
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Same streaming setting as the analytics cube scan
+    @Value("${analytics.cube.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter driftDetected;
+    private final ThreadPoolExecutor reportExecutor;
+    private final int reportThreads;
+    private final ReentrantLock batchLock = new ReentrantLock();
+
+    public ReportService(MeterRegistry meterRegistry,
+                         @Value("${reports.batch.threads:4}") int reportThreads,
+                         @Value("${reports.batch.queue-capacity:64}") int queueCapacity) {
+        this.meterRegistry = meterRegistry;
+        this.reportThreads = reportThreads;
+
+        // Bounded queue; when it is full the submitting thread computes the chunk itself
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.reportExecutor = new ThreadPoolExecutor(reportThreads, reportThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-batch-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.reportExecutor.allowCoreThreadTimeOut(true);
+
+        this.driftDetected = Counter.builder("reports.drift")
+                .description("Departments whose maintained report counters differed from a full recompute")
+                .register(meterRegistry);
+    }
 
     public Report generateDepartmentReport(String departmentName) {
         logger.info("Generating department report: department={}", departmentName);
         long startTime = System.currentTimeMillis();
-        
-        // 1. Find all Users in the Department
-        List<User> deptUsers = userRepository.findAll().stream()
-                .filter(u -> departmentName.equalsIgnoreCase(u.getDepartment()))
-                .collect(Collectors.toList());
 
-        if (deptUsers.isEmpty()) {
+        // All counters come from the analytics cube (no table scans)
+        AnalyticsCube.DepartmentTotals totals = analyticsCube.departmentTotals(departmentName);
+
+        // 1. Count Users in the Department
+        int deptUserCount = totals.users();
+
+        if (deptUserCount == 0) {
             logger.warn("No users found in department: department={}", departmentName);
             throw new RuntimeException("No users found in department: " + departmentName);
         }
-        
-        logger.debug("Found {} users in department: department={}", deptUsers.size(), departmentName);
-
-        List<Long> userIds = deptUsers.stream().map(User::getUserId).collect(Collectors.toList());
-
-        // 2. Calculate Avg Goal (Plan) Completion
-        // (Assuming a simple: If status is COMPLETED = 100%, else 0% for Plans, or more complex logic)
-        List<Plan> deptPlans = planRepository.findAll().stream()
-                .filter(p -> userIds.contains(p.getUser().getUserId()))
-                .collect(Collectors.toList());
-
-        double avgGoal = deptPlans.isEmpty() ? 0.0 : deptPlans.stream()
-                .mapToDouble(p -> "COMPLETED".equals(p.getStatus()) ? 100.0 : 0.0)
-                .average().orElse(0.0);
-
-        // 3. Calculate Avg Milestone Completion (Using the % field we just added!)
-        List<Milestone> deptMilestones = milestoneRepository.findAll().stream()
-                .filter(m -> userIds.contains(m.getPlan().getUser().getUserId()))
-                .collect(Collectors.toList());
-
-        double avgMilestone = deptMilestones.isEmpty() ? 0.0 : deptMilestones.stream()
-                .mapToDouble(Milestone::getCompletionPercent)
-                .average().orElse(0.0);
-
-        // 4. Calculate Avg Initiative Completion
-        // (Simple: COMPLETED = 100, others = 0)
-        List<Initiative> deptInitiatives = initiativeRepository.findAll().stream()
-                .filter(i -> i.getAssignedUsers() != null && !i.getAssignedUsers().isEmpty() &&
-                        i.getAssignedUsers().stream()
-                                .anyMatch(assignedUser -> userIds.contains(assignedUser.getUserId())))
-                .collect(Collectors.toList());
-
-        double avgInitiative = deptInitiatives.isEmpty() ? 0.0 : deptInitiatives.stream()
-                .mapToDouble(i -> "COMPLETED".equals(i.getStatus()) ? 100.0 : 0.0)
-                .average().orElse(0.0);
+
+        logger.debug("Found {} users in department: department={}", deptUserCount, departmentName);
+
+        // 2-4. Plan, milestone and initiative completion averages
+        ReportMetrics metrics = toMetrics(totals);
 
         // 5. Create and Save Report
-        ReportMetrics metrics = new ReportMetrics(avgGoal, avgMilestone, avgInitiative, deptUsers.size());
         Report report = new Report(departmentName, metrics);
 
         Report savedReport = reportRepository.save(report);
-        
+
         long duration = System.currentTimeMillis() - startTime;
-        logger.info("Department report generated: reportId={}, department={}, avgGoal={}%, avgMilestone={}%, avgInitiative={}%, duration={}ms", 
-                savedReport.getReportId(), departmentName, avgGoal, avgMilestone, avgInitiative, duration);
-        
+        logger.info("Department report generated: reportId={}, department={}, avgGoal={}%, avgMilestone={}%, avgInitiative={}%, duration={}ms",
+                savedReport.getReportId(), departmentName, metrics.getAvgGoalCompletion(),
+                metrics.getAvgMilestoneCompletion(), metrics.getAvgInitiativeCompletion(), duration);
+
         return savedReport;
     }
 
-    public List<Report> getReportsByDepartment(String department) {
-        logger.debug("Fetching reports for department: department={}", department);
-        List<Report> reports = reportRepository.findByScopeOrderByGeneratedDateDesc(department);
-        logger.info("Found {} reports for department: department={}", reports.size(), department);
+    @Scheduled(cron = "${reports.batch.cron:0 30 1 * * *}")
+    public void generateAllDepartmentReportsScheduled() {
+        generateAllDepartmentReports();
+    }
+
+    /**
+     * Report for every department with users, as generateDepartmentReport would produce it
+     * per department, from one read of the cube's maintained department totals.
+     *
+     * Phases, timed as reports.batch.phase{phase}:
+     * - aggregate: maintained per-department totals from the cube
+     * - compute: ReportMetrics per department, in chunks on the bounded report executor
+     * - persist: every report row in JDBC batches inside one transaction
+     */
+    public Map<String, Object> generateAllDepartmentReports() {
+        if (!batchLock.tryLock()) {
+            throw new RuntimeException("Department report batch is already running");
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            Map<String, Long> phases = new LinkedHashMap<>();
+
+            long phaseStart = System.nanoTime();
+            List<String> departments = departmentDictionary.departments();
+            Map<String, AnalyticsCube.DepartmentTotals> totalsByName = analyticsCube.departmentTotalsByName();
+            phases.put("aggregate", recordPhase("aggregate", phaseStart));
+
+            phaseStart = System.nanoTime();
+            List<Report> reports = computeReports(departments, totalsByName);
+            phases.put("compute", recordPhase("compute", phaseStart));
+
+            phaseStart = System.nanoTime();
+            persist(reports);
+            phases.put("persist", recordPhase("persist", phaseStart));
+
+            long duration = System.currentTimeMillis() - startTime;
+            logger.info("Department report batch generated: departments={}, reports={}, phases={}, duration={}ms",
+                    departments.size(), reports.size(), phases, duration);
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("departments", reports.stream().map(Report::getScope).toList());
+            result.put("reports", reports.size());
+            result.put("phaseDurationsMs", phases);
+            result.put("durationMs", duration);
+            return result;
+        } finally {
+            batchLock.unlock();
+        }
+    }
+
+    @Scheduled(cron = "${reports.drift.cron:0 0 3 * * *}")
+    public void verifyDriftScheduled() {
+        verifyDrift();
+    }
+
+    /**
+     * Recompute every department's counters from the database and compare them with the
+     * maintained ones. Writes racing the check can make a department differ once, so
+     * differences are re-checked before they count; confirmed drift rebuilds the cube.
+     */
+    public Map<String, Object> verifyDrift() {
+        long startTime = System.currentTimeMillis();
+        Map<String, AnalyticsCube.DepartmentTotals> recomputed = recomputeFromDatabase();
+        Set<String> drifted = driftedDepartments(recomputed);
+        if (!drifted.isEmpty()) {
+            recomputed = recomputeFromDatabase();
+            drifted.retainAll(driftedDepartments(recomputed));
+        }
+
+        if (!drifted.isEmpty()) {
+            driftDetected.increment(drifted.size());
+            logger.warn("Report counter drift detected, rebuilding analytics cube: departments={}", drifted);
+            analyticsCube.rebuild();
+            dataVersion.increment();
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Report drift check finished: departments={}, drifted={}, duration={}ms",
+                recomputed.size(), drifted.size(), duration);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("departmentsChecked", recomputed.size());
+        result.put("driftedDepartments", drifted);
+        result.put("rebuilt", !drifted.isEmpty());
+        result.put("durationMs", duration);
+        return result;
+    }
+
+    /**
+     * One page of a department's report history in [from, to), newest first. Either bound
+     * may be null (open); granularity (RAW, WEEKLY, MONTHLY) is optional.
+     */
+    public Page<Report> getReportsByDepartment(String department, LocalDateTime from, LocalDateTime to,
+                                               String granularity, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Invalid page request: page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (granularity != null && !ReportRetentionService.GRANULARITIES.contains(granularity)) {
+            throw new RuntimeException("Unknown report granularity: " + granularity);
+        }
+        logger.debug("Fetching reports for department: department={}, from={}, to={}, granularity={}, page={}, size={}",
+                department, from, to, granularity, page, size);
+        Pageable pageable = PageRequest.of(page, size,
+                Sort.by(Sort.Order.desc("generatedDate"), Sort.Order.desc("reportId")));
+        Page<Report> reports = reportRepository.findByScopeAndDateRange(department,
+                from != null ? from : EARLIEST, to != null ? to : LATEST, granularity, pageable);
+        logger.info("Found {} reports for department: department={}, page={}, total={}",
+                reports.getNumberOfElements(), department, page, reports.getTotalElements());
         return reports;
     }
-}
\ No newline at end of file
+
+    @PreDestroy
+    public void shutdown() {
+        reportExecutor.shutdownNow();
+    }
+
+    // ============================================================
+    // DRIFT CHECK HELPERS
+    // ============================================================
+
+    // Lower-cased department names whose maintained totals differ from the recomputed ones
+    private Set<String> driftedDepartments(Map<String, AnalyticsCube.DepartmentTotals> recomputed) {
+        Map<String, AnalyticsCube.DepartmentTotals> maintained = analyticsCube.departmentTotalsByName();
+        Set<String> names = new HashSet<>(recomputed.keySet());
+        names.addAll(maintained.keySet());
+
+        AnalyticsCube.DepartmentTotals none = new AnalyticsCube.DepartmentTotals(0, 0, 0, 0, 0.0, 0, 0);
+        Set<String> drifted = new TreeSet<>();
+        for (String name : names) {
+            AnalyticsCube.DepartmentTotals expected = recomputed.getOrDefault(name, none);
+            AnalyticsCube.DepartmentTotals actual = maintained.getOrDefault(name, none);
+            boolean countsMatch = expected.users() == actual.users()
+                    && expected.plans() == actual.plans()
+                    && expected.completedPlans() == actual.completedPlans()
+                    && expected.milestones() == actual.milestones()
+                    && expected.initiatives() == actual.initiatives()
+                    && expected.completedInitiatives() == actual.completedInitiatives();
+            double percentDifference = Math.abs(expected.milestonePercentSum() - actual.milestonePercentSum());
+            if (!countsMatch || percentDifference > PERCENT_TOLERANCE * Math.max(1.0, Math.abs(expected.milestonePercentSum()))) {
+                drifted.add(name);
+            }
+        }
+        return drifted;
+    }
+
+    private Map<String, AnalyticsCube.DepartmentTotals> recomputeFromDatabase() {
+        Map<String, AnalyticsCube.DepartmentTotals> totals = new HashMap<>();
+        jdbcTemplate.query(USERS_BY_DEPARTMENT_SQL, (RowCallbackHandler) rs ->
+                add(totals, rs.getString(1), new AnalyticsCube.DepartmentTotals(rs.getInt(2), 0, 0, 0, 0.0, 0, 0)));
+        jdbcTemplate.query(PLANS_BY_DEPARTMENT_SQL, (RowCallbackHandler) rs ->
+                add(totals, rs.getString(1), new AnalyticsCube.DepartmentTotals(0, rs.getInt(2), rs.getInt(3), 0, 0.0, 0, 0)));
+        jdbcTemplate.query(MILESTONES_BY_DEPARTMENT_SQL, (RowCallbackHandler) rs ->
+                add(totals, rs.getString(1), new AnalyticsCube.DepartmentTotals(0, 0, 0, rs.getInt(2), rs.getDouble(3), 0, 0)));
+
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(fetchSize);
+        long[] currentInitiative = {-1};
+        Set<String> seenDepartments = new HashSet<>();
+        streaming.query(INITIATIVE_DEPARTMENTS_SQL, (RowCallbackHandler) rs -> {
+            long initiativeId = rs.getLong(1);
+            if (initiativeId != currentInitiative[0]) {
+                currentInitiative[0] = initiativeId;
+                seenDepartments.clear();
+            }
+            String department = rs.getString(3);
+            if (seenDepartments.add(department.toLowerCase(Locale.ROOT))) {
+                int completed = "COMPLETED".equalsIgnoreCase(rs.getString(2)) ? 1 : 0;
+                add(totals, department, new AnalyticsCube.DepartmentTotals(0, 0, 0, 0, 0.0, 1, completed));
+            }
+        });
+        return totals;
+    }
+
+    private static void add(Map<String, AnalyticsCube.DepartmentTotals> totals, String department,
+                            AnalyticsCube.DepartmentTotals delta) {
+        totals.merge(department.toLowerCase(Locale.ROOT), delta, AnalyticsCube.DepartmentTotals::plus);
+    }
+
+    // ============================================================
+    // BATCH HELPERS
+    // ============================================================
+
+    // Spellings that differ only in case share totals, matching generateDepartmentReport
+    private List<Report> computeReports(List<String> departments, Map<String, AnalyticsCube.DepartmentTotals> totalsByName) {
+        int chunkSize = Math.max(1, (departments.size() + reportThreads - 1) / reportThreads);
+        List<Future<List<Report>>> chunks = new ArrayList<>();
+        for (int from = 0; from < departments.size(); from += chunkSize) {
+            List<String> chunk = departments.subList(from, Math.min(departments.size(), from + chunkSize));
+            chunks.add(reportExecutor.submit(() -> {
+                List<Report> reports = new ArrayList<>(chunk.size());
+                for (String department : chunk) {
+                    AnalyticsCube.DepartmentTotals totals = totalsByName.get(department.toLowerCase(Locale.ROOT));
+                    if (totals != null && totals.users() > 0) {
+                        reports.add(new Report(department, toMetrics(totals)));
+                    }
+                }
+                return reports;
+            }));
+        }
+
+        List<Report> reports = new ArrayList<>(departments.size());
+        try {
+            for (Future<List<Report>> chunk : chunks) {
+                reports.addAll(chunk.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            chunks.forEach(chunk -> chunk.cancel(true));
+            throw new RuntimeException("Department report batch interrupted", e);
+        } catch (ExecutionException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            throw new RuntimeException("Department report batch failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        return reports;
+    }
+
+    private void persist(List<Report> reports) {
+        Timestamp generatedDate = Timestamp.valueOf(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_REPORT_SQL, reports, BATCH_SIZE, (ps, report) -> {
+                    ReportMetrics metrics = report.getMetrics();
+                    ps.setString(1, report.getScope());
+                    ps.setTimestamp(2, generatedDate);
+                    ps.setDouble(3, metrics.getAvgGoalCompletion());
+                    ps.setDouble(4, metrics.getAvgMilestoneCompletion());
+                    ps.setDouble(5, metrics.getAvgInitiativeCompletion());
+                    ps.setInt(6, metrics.getTotalUsers());
+                }));
+    }
+
+    private long recordPhase(String phase, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        Timer.builder("reports.batch.phase")
+                .description("Department report batch phase duration")
+                .tag("phase", phase)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        return TimeUnit.NANOSECONDS.toMillis(elapsed);
+    }
+
+    // Plans: COMPLETED = 100%, else 0%. Milestones: average completion %. Initiatives: COMPLETED = 100, others 0.
+    private static ReportMetrics toMetrics(AnalyticsCube.DepartmentTotals totals) {
+        double avgGoal = totals.plans() == 0 ? 0.0 : ((double) totals.completedPlans() / totals.plans()) * 100;
+        double avgMilestone = totals.milestones() == 0 ? 0.0 : totals.milestonePercentSum() / totals.milestones();
+        double avgInitiative = totals.initiatives() == 0 ? 0.0
+                : ((double) totals.completedInitiatives() / totals.initiatives()) * 100;
+        return new ReportMetrics(avgGoal, avgMilestone, avgInitiative, totals.users());
+    }
+}
@@ -0,0 +1,130 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.repository.UserScoreSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Writes daily and weekly per-user score/rank snapshots from the leaderboard and
+ * applies retention: expiring daily rows are downsampled to their Monday (weekly)
+ * row, then deleted in bounded batches. Re-running a job for the same day overwrites
+ * that day's rows.
+ */
+@Service
+public class ScoreSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoreSnapshotService.class);
+
+    public static final String DAILY = "DAILY";
+    public static final String WEEKLY = "WEEKLY";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO user_score_snapshots " +
+            "(user_id, snapshot_date, granularity, overall_score, overall_rank, department_rank, completion_rate, tasks_completed) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE overall_score = VALUES(overall_score), overall_rank = VALUES(overall_rank), " +
+            "department_rank = VALUES(department_rank), completion_rate = VALUES(completion_rate), " +
+            "tasks_completed = VALUES(tasks_completed)";
+
+    private static final int BATCH_SIZE = 500;
+    private static final int DELETE_BATCH_SIZE = 5000;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private AnalyticsDataVersion dataVersion;
+
+    @Autowired
+    private UserScoreSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${analytics.snapshot.daily-retention-days:90}")
+    private int dailyRetentionDays;
+
+    @Value("${analytics.snapshot.weekly-retention-weeks:104}")
+    private int weeklyRetentionWeeks;
+
+    @Scheduled(cron = "${analytics.snapshot.daily-cron:0 5 0 * * *}")
+    public void takeDailySnapshot() {
+        writeSnapshot(DAILY, LocalDate.now());
+        applyRetention(LocalDate.now());
+    }
+
+    /**
+     * Weekly snapshots become the new improvement baseline, so the leaderboard is rebuilt
+     * afterwards and cached analytics results (previous ranks, improvement) are invalidated.
+     */
+    @Scheduled(cron = "${analytics.snapshot.weekly-cron:0 15 0 * * MON}")
+    public void takeWeeklySnapshot() {
+        writeSnapshot(WEEKLY, LocalDate.now());
+        leaderboardService.rebuild();
+        dataVersion.increment();
+    }
+
+    /**
+     * Upsert one row per tracked user in JDBC batches, all in one transaction.
+     */
+    public int writeSnapshot(String granularity, LocalDate snapshotDate) {
+        long startTime = System.currentTimeMillis();
+        List<LeaderboardService.RankedStanding> ranked = leaderboardService.rankedStandings();
+        Date date = Date.valueOf(snapshotDate);
+
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(UPSERT_SQL, ranked, BATCH_SIZE, (ps, entry) -> {
+                    LeaderboardService.Standing standing = entry.standing();
+                    ps.setLong(1, standing.userId());
+                    ps.setDate(2, date);
+                    ps.setString(3, granularity);
+                    ps.setDouble(4, standing.overallScore());
+                    ps.setInt(5, entry.rank());
+                    ps.setInt(6, entry.departmentRank());
+                    ps.setDouble(7, standing.completionRate());
+                    ps.setInt(8, standing.tasksCompleted());
+                }));
+
+        logger.info("Score snapshot written: granularity={}, date={}, users={}, duration={}ms",
+                granularity, snapshotDate, ranked.size(), System.currentTimeMillis() - startTime);
+        return ranked.size();
+    }
+
+    /**
+     * Each repository call commits on its own, so deletes never hold locks for long.
+     */
+    public void applyRetention(LocalDate today) {
+        LocalDate dailyCutoff = today.minusDays(dailyRetentionDays);
+        LocalDate weeklyCutoff = today.minusWeeks(weeklyRetentionWeeks);
+
+        int promoted = snapshotRepository.promoteMondayDailies(dailyCutoff);
+        int dailyDeleted = deleteInBatches(DAILY, dailyCutoff);
+        int weeklyDeleted = deleteInBatches(WEEKLY, weeklyCutoff);
+
+        logger.info("Score snapshot retention applied: promotedToWeekly={}, dailyDeleted={}, weeklyDeleted={}",
+                promoted, dailyDeleted, weeklyDeleted);
+    }
+
+    private int deleteInBatches(String granularity, LocalDate cutoff) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = snapshotRepository.deleteOlderThan(granularity, cutoff, DELETE_BATCH_SIZE);
+            total += deleted;
+        } while (deleted == DELETE_BATCH_SIZE);
+        return total;
+    }
+}
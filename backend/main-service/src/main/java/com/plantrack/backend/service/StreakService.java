@@ -0,0 +1,246 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.event.InitiativeChangedEvent;
+import com.plantrack.backend.event.UserChangedEvent;
+import com.plantrack.backend.model.AuditLog;
+import com.plantrack.backend.model.UserActivityBitmap;
+import com.plantrack.backend.repository.UserActivityBitmapRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Daily and weekly activity streaks ("completed at least one initiative that day").
+ *
+ * Every user has an {@link ActivityBitmap} in memory. A transition into COMPLETED sets
+ * the completion day for the current assignees; only a newly set bit writes, and it
+ * writes that user's serialized bitmap (tens of bytes) to user_activity_bitmaps.
+ * Startup loads the persisted bitmaps; only an empty table is rebuilt by replaying the
+ * initiative status changes in audit_logs and in the archive segments.
+ *
+ * A rebuild holds off completions until the rebuilt bitmaps are swapped in. It also reads
+ * initiatives.completed_at, so a completion whose audit row is still queued in the audit
+ * writer is not lost.
+ */
+@Service
+public class StreakService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreakService.class);
+
+    private static final String COMPLETION_DAYS_SQL =
+            "SELECT a.user_id, DATE(l.timestamp) FROM audit_logs l " +
+            "JOIN audit_dictionary t ON t.id = l.entity_type_id AND t.kind = 'ENTITY_TYPE' AND t.name = 'INITIATIVE' " +
+            "JOIN audit_dictionary s ON s.id = l.action_id AND s.kind = 'ACTION' AND s.name = 'UPDATE_STATUS' " +
+            "JOIN initiative_assignees a ON a.initiative_id = l.entity_id " +
+            "WHERE UPPER(l.new_value) = 'COMPLETED' " +
+            "GROUP BY a.user_id, DATE(l.timestamp)";
+
+    private static final String COMPLETED_INITIATIVE_DAYS_SQL =
+            "SELECT a.user_id, DATE(i.completed_at) FROM initiatives i " +
+            "JOIN initiative_assignees a ON a.initiative_id = i.initiative_id " +
+            "WHERE i.completed_at IS NOT NULL " +
+            "GROUP BY a.user_id, DATE(i.completed_at)";
+
+    private static final int ASSIGNEE_BATCH_SIZE = 1000;
+
+    @Autowired
+    private UserActivityBitmapRepository bitmapRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AnalyticsDataVersion dataVersion;
+
+    @Autowired
+    private AuditArchiveService auditArchiveService;
+
+    /**
+     * Current daily streak, longest daily streak ever, and current weekly streak.
+     */
+    public record Streak(int currentDays, int longestDays, int currentWeeks) {}
+
+    private static final Streak NO_STREAK = new Streak(0, 0, 0);
+
+    private volatile Map<Long, ActivityBitmap> bitmaps = new ConcurrentHashMap<>();
+    // Completions share it; a rebuild or load holds it exclusively until the swap
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    // ============================================================
+    // MAINTENANCE
+    // ============================================================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(AnalyticsDataVersion.MAINTENANCE_ORDER)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onInitiativeChanged(InitiativeChangedEvent event) {
+        if (event.oldCompletedAt() != null || event.newCompletedAt() == null) {
+            return;
+        }
+        long day = event.newCompletedAt().toLocalDate().toEpochDay();
+        List<UserActivityBitmap> changed = new ArrayList<>();
+        swapLock.readLock().lock();
+        try {
+            for (Long userId : event.newAssigneeIds()) {
+                ActivityBitmap bitmap = bitmaps.computeIfAbsent(userId, id -> new ActivityBitmap());
+                synchronized (bitmap) {
+                    if (bitmap.set(day)) {
+                        changed.add(toRow(userId, bitmap));
+                    }
+                }
+            }
+            if (!changed.isEmpty()) {
+                bitmapRepository.saveAll(changed);
+                logger.debug("Activity bitmaps updated: initiativeId={}, users={}", event.initiativeId(), changed.size());
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(AnalyticsDataVersion.MAINTENANCE_ORDER)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.deleted() && bitmaps.remove(event.userId()) != null) {
+            bitmapRepository.deleteById(event.userId());
+        }
+    }
+
+    /**
+     * Load persisted bitmaps, replaying audit history only when none have been persisted yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void loadOrRebuild() {
+        if (bitmapRepository.count() == 0) {
+            rebuildFromAudit();
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        Map<Long, ActivityBitmap> loaded = new ConcurrentHashMap<>();
+        swapLock.writeLock().lock();
+        try {
+            for (UserActivityBitmap row : bitmapRepository.findAll()) {
+                loaded.put(row.getUserId(), ActivityBitmap.fromBytes(row.getBitmap()));
+            }
+            bitmaps = loaded;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        logger.info("Activity bitmaps loaded: users={}, duration={}ms",
+                loaded.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Rebuild every bitmap from the initiative completions recorded in audit_logs and the
+     * archive segments, plus current completion times, and replace the persisted copies.
+     */
+    @Transactional
+    public Map<String, Object> rebuildFromAudit() {
+        long startTime = System.currentTimeMillis();
+        Map<Long, ActivityBitmap> rebuilt = new ConcurrentHashMap<>();
+        RowCallbackHandler setDay = rs -> rebuilt.computeIfAbsent(rs.getLong(1), id -> new ActivityBitmap())
+                .set(rs.getDate(2).toLocalDate().toEpochDay());
+        List<UserActivityBitmap> rows = new ArrayList<>();
+        long activeDays = 0;
+
+        swapLock.writeLock().lock();
+        try {
+            int archived = auditArchiveService.withWatermark(watermark -> {
+                jdbcTemplate.query(COMPLETION_DAYS_SQL, setDay);
+                return watermark != null ? replayArchived(rebuilt) : 0;
+            });
+            jdbcTemplate.query(COMPLETED_INITIATIVE_DAYS_SQL, setDay);
+            logger.debug("Activity bitmap rebuild read archive: completions={}", archived);
+
+            for (Map.Entry<Long, ActivityBitmap> entry : rebuilt.entrySet()) {
+                UserActivityBitmap row = toRow(entry.getKey(), entry.getValue());
+                activeDays += row.getActiveDays();
+                rows.add(row);
+            }
+            bitmapRepository.deleteAllInBatch();
+            bitmapRepository.saveAll(rows);
+            bitmaps = rebuilt;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        // Streaks in cached analytics results were computed from the replaced bitmaps
+        dataVersion.increment();
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Activity bitmaps rebuilt from audit log: users={}, activeDays={}, duration={}ms",
+                rows.size(), activeDays, duration);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("users", rows.size());
+        result.put("activeDays", activeDays);
+        result.put("durationMs", duration);
+        return result;
+    }
+
+    // Sets the days of archived completions for the initiatives' current assignees, as
+    // COMPLETION_DAYS_SQL does for the table
+    private int replayArchived(Map<Long, ActivityBitmap> rebuilt) {
+        Map<Long, List<Long>> daysByInitiative = new HashMap<>();
+        List<AuditLog> completions = auditArchiveService.readAllArchived(row ->
+                "INITIATIVE".equals(row.getEntityType()) && "UPDATE_STATUS".equals(row.getAction())
+                        && row.getEntityId() != null && "COMPLETED".equalsIgnoreCase(row.getNewValue()));
+        for (AuditLog row : completions) {
+            daysByInitiative.computeIfAbsent(row.getEntityId(), id -> new ArrayList<>())
+                    .add(row.getTimestamp().toLocalDate().toEpochDay());
+        }
+
+        List<Long> initiativeIds = new ArrayList<>(daysByInitiative.keySet());
+        for (int from = 0; from < initiativeIds.size(); from += ASSIGNEE_BATCH_SIZE) {
+            List<Long> batch = initiativeIds.subList(from, Math.min(from + ASSIGNEE_BATCH_SIZE, initiativeIds.size()));
+            jdbcTemplate.query("SELECT initiative_id, user_id FROM initiative_assignees WHERE initiative_id IN (" +
+                            String.join(", ", Collections.nCopies(batch.size(), "?")) + ")",
+                    (RowCallbackHandler) rs -> {
+                        ActivityBitmap bitmap = rebuilt.computeIfAbsent(rs.getLong(2), id -> new ActivityBitmap());
+                        for (long day : daysByInitiative.get(rs.getLong(1))) {
+                            bitmap.set(day);
+                        }
+                    }, batch.toArray());
+        }
+        return completions.size();
+    }
+
+    // ============================================================
+    // QUERIES
+    // ============================================================
+
+    public Streak streakOf(Long userId) {
+        ActivityBitmap bitmap = bitmaps.get(userId);
+        if (bitmap == null) {
+            return NO_STREAK;
+        }
+        long today = LocalDate.now().toEpochDay();
+        synchronized (bitmap) {
+            return new Streak(bitmap.currentStreak(today), bitmap.longestStreak(), bitmap.currentWeekStreak(today));
+        }
+    }
+
+    private static UserActivityBitmap toRow(Long userId, ActivityBitmap bitmap) {
+        return new UserActivityBitmap(userId, bitmap.toBytes(), bitmap.activeDays(), LocalDateTime.now());
+    }
+}
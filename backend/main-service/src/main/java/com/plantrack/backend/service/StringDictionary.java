@@ -0,0 +1,53 @@
+package com.plantrack.backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense string <-> int code dictionary for low-cardinality columns (departments, statuses).
+ * Codes are assigned in first-seen order starting at 0 and are never reused.
+ *
+ * Not thread-safe; callers guard access with their own lock.
+ */
+public class StringDictionary {
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     * Code for the value, assigning the next free code if it has not been seen.
+     */
+    public int encode(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        int assigned = values.size();
+        codes.put(value, assigned);
+        values.add(value);
+        return assigned;
+    }
+
+    /**
+     * Code for the value, or -1 if it has not been seen.
+     */
+    public int codeOf(String value) {
+        Integer code = codes.get(value);
+        return code != null ? code : -1;
+    }
+
+    public String valueOf(int code) {
+        return values.get(code);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public void clear() {
+        codes.clear();
+        values.clear();
+    }
+}
@@ -0,0 +1,165 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.model.UserMetrics;
+import com.plantrack.backend.repository.UserMetricsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Persists leaderboard standings into user_metrics. Called by {@link LeaderboardService}
+ * after it has patched its trees, which happens in after-commit listeners, so writes
+ * run in their own transaction.
+ *
+ * Also serves the filtered keyset pages over user_metrics.
+ */
+@Service
+public class UserMetricsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserMetricsService.class);
+
+    private static final RowMapper<UserMetrics> ROW_MAPPER = (rs, rowNum) -> {
+        UserMetrics row = new UserMetrics();
+        row.setUserId(rs.getLong("user_id"));
+        row.setUserName(rs.getString("user_name"));
+        row.setDepartment(rs.getString("department"));
+        row.setTasksAssigned(rs.getInt("tasks_assigned"));
+        row.setTasksCompleted(rs.getInt("tasks_completed"));
+        row.setCompletionRate(rs.getDouble("completion_rate"));
+        row.setAverageTasksPerWeek(rs.getDouble("average_tasks_per_week"));
+        row.setAverageTasksPerMonth(rs.getDouble("average_tasks_per_month"));
+        row.setOverallScore(rs.getDouble("overall_score"));
+        row.setPerformanceTier(rs.getString("performance_tier"));
+        row.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        return row;
+    };
+
+    @Autowired
+    private UserMetricsRepository userMetricsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Keyset page ordered by (overall_score DESC, user_id ASC), starting after the given
+     * position (from the top when afterScore is null). Only the filters given are added
+     * to the WHERE clause, so each query can use the index matching its filters.
+     *
+     * search is a case-insensitive substring of the name or department, as on the unpaged
+     * listing. A leading wildcard cannot seek an index, so such a query walks the score
+     * index in page order and stops once the page is full. department and performanceTier
+     * are equality matches under the columns' case-insensitive collation, whereas the
+     * unpaged listing compares them case-sensitively.
+     */
+    public List<UserMetrics> findPage(String department, String search,
+                                      Double minCompletionRate, Double maxCompletionRate,
+                                      Integer minTasks, Integer maxTasks, String performanceTier,
+                                      Double afterScore, Long afterUserId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM user_metrics WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (department != null) {
+            sql.append(" AND department = ?");
+            args.add(department);
+        }
+        if (search != null) {
+            // The column collation is case-insensitive, so no LOWER() is needed
+            String pattern = "%" + search.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            sql.append(" AND (user_name LIKE ? OR department LIKE ?)");
+            args.add(pattern);
+            args.add(pattern);
+        }
+        if (minCompletionRate != null) {
+            sql.append(" AND completion_rate >= ?");
+            args.add(minCompletionRate);
+        }
+        if (maxCompletionRate != null) {
+            sql.append(" AND completion_rate <= ?");
+            args.add(maxCompletionRate);
+        }
+        if (minTasks != null) {
+            sql.append(" AND tasks_assigned >= ?");
+            args.add(minTasks);
+        }
+        if (maxTasks != null) {
+            sql.append(" AND tasks_assigned <= ?");
+            args.add(maxTasks);
+        }
+        if (performanceTier != null) {
+            sql.append(" AND performance_tier = ?");
+            args.add(performanceTier);
+        }
+        if (afterScore != null) {
+            // Written as a range plus a residual so the optimizer can seek the index
+            sql.append(" AND overall_score <= ? AND (overall_score < ? OR user_id > ?)");
+            args.add(afterScore);
+            args.add(afterScore);
+            args.add(afterUserId);
+        }
+        sql.append(" ORDER BY overall_score DESC, user_id ASC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Upsert the given standings and delete rows for the removed users that have none.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void sync(Collection<LeaderboardService.Standing> standings, Collection<Long> refreshedUserIds) {
+        Set<Long> removed = new HashSet<>(refreshedUserIds);
+        List<UserMetrics> rows = new ArrayList<>(standings.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (LeaderboardService.Standing standing : standings) {
+            removed.remove(standing.userId());
+            rows.add(toRow(standing, now));
+        }
+        userMetricsRepository.saveAll(rows);
+        if (!removed.isEmpty()) {
+            userMetricsRepository.deleteAllByIdInBatch(removed);
+        }
+        logger.debug("User metrics synced: upserted={}, deleted={}", rows.size(), removed.size());
+    }
+
+    /**
+     * Replace the whole table (startup rebuild).
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void replaceAll(Collection<LeaderboardService.Standing> standings) {
+        long startTime = System.currentTimeMillis();
+        userMetricsRepository.deleteAllInBatch();
+        LocalDateTime now = LocalDateTime.now();
+        List<UserMetrics> rows = new ArrayList<>(standings.size());
+        for (LeaderboardService.Standing standing : standings) {
+            rows.add(toRow(standing, now));
+        }
+        userMetricsRepository.saveAll(rows);
+        logger.info("User metrics rebuilt: users={}, duration={}ms", rows.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private static UserMetrics toRow(LeaderboardService.Standing standing, LocalDateTime now) {
+        UserMetrics row = new UserMetrics();
+        row.setUserId(standing.userId());
+        row.setUserName(standing.userName());
+        row.setDepartment(standing.department());
+        row.setTasksAssigned(standing.tasksAssigned());
+        row.setTasksCompleted(standing.tasksCompleted());
+        row.setCompletionRate(standing.completionRate());
+        row.setAverageTasksPerWeek(standing.averageTasksPerWeek());
+        row.setAverageTasksPerMonth(PerformanceScoring.averageTasksPerMonth(standing.tasksCompleted()));
+        row.setOverallScore(standing.overallScore());
+        row.setPerformanceTier(PerformanceScoring.performanceTier(standing.overallScore()));
+        row.setUpdatedAt(now);
+        return row;
+    }
+}
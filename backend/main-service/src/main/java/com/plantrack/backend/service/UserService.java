@@ -1,5 +1,8 @@
 package com.plantrack.backend.service;    
     
+import com.plantrack.backend.event.DataChangedEvent;    
+import com.plantrack.backend.event.InitiativeChangedEvent;    
+import com.plantrack.backend.event.UserChangedEvent;    
 import com.plantrack.backend.model.User;    
 import com.plantrack.backend.repository.UserRepository;
 import com.plantrack.backend.repository.CommentRepository;
@@ -9,10 +12,18 @@ import com.plantrack.backend.repository.InitiativeRepository;
 import jakarta.persistence.EntityManager;    
 import jakarta.transaction.Transactional;    
 import org.springframework.beans.factory.annotation.Autowired;    
+import org.springframework.context.ApplicationEventPublisher;    
 import org.springframework.security.crypto.password.PasswordEncoder;    
 import org.springframework.stereotype.Service;    
     
+import java.sql.Timestamp;    
+import java.time.LocalDateTime;    
+import java.util.ArrayList;    
+import java.util.HashSet;    
+import java.util.LinkedHashMap;    
 import java.util.List;    
+import java.util.Map;    
+import java.util.Set;    
     
 @Service    
 public class UserService {    
@@ -41,6 +52,9 @@ public class UserService {
     @Autowired    
     private EntityManager entityManager;    
 
+    @Autowired    
+    private ApplicationEventPublisher eventPublisher;    
+
     public User createUser(User user) {  
         // Check if email already exists  
         if (userRepository.findByEmail(user.getEmail()).isPresent()) {  
@@ -52,10 +66,11 @@ public class UserService {
             user.setPassword(passwordEncoder.encode(user.getPassword()));  
         }  
         User savedUser = userRepository.save(user);  
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser.getUserId(), false));  
           
         // Audit Log  
         auditService.logCreate("USER", savedUser.getUserId(),  
-            "Created user: " + savedUser.getName() + " (" + savedUser.getEmail() + ") with role: " + savedUser.getRole());  
+            "Created user: {} ({}) with role: {}", savedUser.getName(), savedUser.getEmail(), savedUser.getRole());  
           
         return savedUser;  
     }  
@@ -95,9 +110,10 @@ public class UserService {
         }    
             
         User savedUser = userRepository.save(user);    
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser.getUserId(), false));    
             
         // Audit Log    
-        auditService.logUpdate("USER", id, "Updated user: " + savedUser.getName() + " (" + savedUser.getEmail() + ")");    
+        auditService.logUpdate("USER", id, "Updated user: {} ({})", savedUser.getName(), savedUser.getEmail());    
             
         return savedUser;    
     }    
@@ -143,6 +159,8 @@ public class UserService {
             .setParameter("userId", id)    
             .getResultList();    
             
+        // Capture initiatives removed with the plans before they are gone    
+        List<InitiativeChangedEvent> removedInitiatives = new ArrayList<>();    
         for (Long planId : planIds) {    
             // Get all milestones for this plan    
             List<Long> milestoneIds = entityManager.createNativeQuery("SELECT milestone_id FROM milestones WHERE plan_id = :planId", Long.class)    
@@ -151,6 +169,8 @@ public class UserService {
                 
             // Delete all initiatives for each milestone    
             for (Long milestoneId : milestoneIds) {    
+                removedInitiatives.addAll(removedInitiativesOf(milestoneId));    
+                    
                 // Clear initiative_assignees for initiatives in this milestone    
                 entityManager.createNativeQuery("DELETE ia FROM initiative_assignees ia " +    
                     "INNER JOIN initiatives i ON ia.initiative_id = i.initiative_id " +    
@@ -184,8 +204,43 @@ public class UserService {
             
         // Step 7: Finally delete the user    
         userRepository.deleteById(id);    
+        removedInitiatives.forEach(eventPublisher::publishEvent);    
+        planIds.forEach(planId -> eventPublisher.publishEvent(new DataChangedEvent("PLAN", planId)));    
+        eventPublisher.publishEvent(new UserChangedEvent(id, true));    
             
         // Audit Log    
-        auditService.logDelete("USER", id, "Deleted user: " + userName + " (" + userEmail + ")");    
+        auditService.logDelete("USER", id, "Deleted user: {} ({})", userName, userEmail);    
+    }    
+    
+    // One deletion event per initiative of the milestone, with the assignees left after Step 4    
+    private List<InitiativeChangedEvent> removedInitiativesOf(Long milestoneId) {    
+        List<Object[]> rows = entityManager.createNativeQuery("SELECT i.initiative_id, i.status, i.completed_at, a.user_id " +    
+            "FROM initiatives i LEFT JOIN initiative_assignees a ON a.initiative_id = i.initiative_id " +    
+            "WHERE i.milestone_id = :milestoneId")    
+            .setParameter("milestoneId", milestoneId)    
+            .getResultList();    
+            
+        Map<Long, Object[]> initiatives = new LinkedHashMap<>();    
+        Map<Long, Set<Long>> assignees = new LinkedHashMap<>();    
+        for (Object[] row : rows) {    
+            Long initiativeId = ((Number) row[0]).longValue();    
+            initiatives.putIfAbsent(initiativeId, row);    
+            Set<Long> ids = assignees.computeIfAbsent(initiativeId, key -> new HashSet<>());    
+            if (row[3] != null) {    
+                ids.add(((Number) row[3]).longValue());    
+            }    
+        }    
+            
+        List<InitiativeChangedEvent> events = new ArrayList<>();    
+        initiatives.forEach((initiativeId, row) -> events.add(new InitiativeChangedEvent(initiativeId,    
+            (String) row[1], null, assignees.get(initiativeId), null, toLocalDateTime(row[2]), null)));    
+        return events;    
+    }    
+    
+    private static LocalDateTime toLocalDateTime(Object value) {    
+        if (value instanceof Timestamp timestamp) {    
+            return timestamp.toLocalDateTime();    
+        }    
+        return (LocalDateTime) value;    
     }    
 }
\ No newline at end of file
@@ -0,0 +1,229 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.dto.WeeklyReportBatchRequest;
+import com.plantrack.backend.dto.WeeklyReportRequest;
+import com.plantrack.backend.feign.NotificationService;
+import com.plantrack.backend.model.WeeklyDigestDelivery;
+import com.plantrack.backend.repository.UserRepository;
+import com.plantrack.backend.repository.WeeklyDigestDeliveryRepository;
+import com.plantrack.backend.util.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Weekly analytics digest for admins, delivered through the notification service.
+ *
+ * The summary for every department is computed once per run from shared aggregates
+ * (the analytics cube's maintained department totals and the daily completion rollup)
+ * and rendered once; each active admin gets that summary, and all of them go out in a
+ * single batched call.
+ *
+ * Delivery is idempotent per week: a delivered week is recorded in
+ * weekly_digest_deliveries and skipped afterwards, and the batch carries a per-week key
+ * the notification service uses to drop admins it already notified, so a run that dies
+ * between sending and recording does not notify anyone twice when it is repeated.
+ */
+@Service
+public class WeeklyDigestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeeklyDigestService.class);
+
+    // The notification message column holds 255 characters, including the "Weekly Analytics Report: " prefix
+    private static final int MAX_SUMMARY_LENGTH = 225;
+    private static final int TOP_DEPARTMENTS = 3;
+    private static final int MAX_DEPARTMENT_NAME = 20;
+    // The digest token only has to outlive the one batched call it authorizes
+    private static final long DIGEST_TOKEN_VALIDITY_MS = 60_000;
+
+    // Assignee completions per department in [weekStart, weekEnd)
+    private static final String WEEKLY_COMPLETIONS_SQL =
+            "SELECT u.department, SUM(d.completed_count) FROM user_daily_completions d " +
+            "JOIN users u ON u.user_id = d.user_id " +
+            "WHERE d.activity_date >= ? AND d.activity_date < ? AND u.department IS NOT NULL AND u.department <> '' " +
+            "GROUP BY u.department";
+
+    @Autowired
+    private AnalyticsCube analyticsCube;
+    @Autowired
+    private DepartmentDictionary departmentDictionary;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private WeeklyDigestDeliveryRepository deliveryRepository;
+    @Autowired
+    private NotificationService notificationService;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReentrantLock digestLock = new ReentrantLock();
+
+    private record DepartmentWeek(String department, long completions) {}
+
+    /**
+     * Runs daily; only the first successful run after a week ends delivers it, later
+     * runs that week are a single lookup. A failed delivery is retried by the next run.
+     */
+    @Scheduled(cron = "${weekly-digest.cron:0 0 8 * * *}")
+    public void deliverLastWeekScheduled() {
+        try {
+            deliverWeek(lastCompletedWeek(LocalDate.now()));
+        } catch (RuntimeException e) {
+            logger.error("Weekly digest delivery failed, will retry on the next run: error={}", e.getMessage(), e);
+        }
+    }
+
+    public Map<String, Object> deliverLastWeek() {
+        return deliverWeek(lastCompletedWeek(LocalDate.now()));
+    }
+
+    public Map<String, Object> deliverWeek(LocalDate weekStart) {
+        if (!digestLock.tryLock()) {
+            throw new RuntimeException("Weekly digest delivery is already running");
+        }
+        try {
+            Map<String, Object> result = new HashMap<>();
+            result.put("weekStart", weekStart);
+            if (deliveryRepository.existsByWeekStart(weekStart)) {
+                logger.debug("Weekly digest already delivered: weekStart={}", weekStart);
+                result.put("status", "ALREADY_DELIVERED");
+                return result;
+            }
+
+            long startTime = System.currentTimeMillis();
+            List<Long> adminIds = userRepository.findActiveAdminIds();
+            if (adminIds.isEmpty()) {
+                logger.warn("No active admins for weekly digest: weekStart={}", weekStart);
+                result.put("status", "NO_RECIPIENTS");
+                return result;
+            }
+
+            String summary = renderSummary(weekStart);
+            List<WeeklyReportRequest> reports = new ArrayList<>(adminIds.size());
+            for (Long adminId : adminIds) {
+                reports.add(new WeeklyReportRequest(adminId, summary));
+            }
+
+            notificationService.notifyWeeklyReports("Bearer " + jwtUtil.generateToken("system:weekly-digest", "ROLE_ADMIN", null,
+                            DIGEST_TOKEN_VALIDITY_MS),
+                    new WeeklyReportBatchRequest("weekly-report:" + weekStart, reports));
+            recordDelivery(weekStart, adminIds.size());
+
+            long duration = System.currentTimeMillis() - startTime;
+            logger.info("Weekly digest delivered: weekStart={}, recipients={}, duration={}ms",
+                    weekStart, adminIds.size(), duration);
+            result.put("status", "DELIVERED");
+            result.put("recipients", adminIds.size());
+            result.put("summary", summary);
+            result.put("durationMs", duration);
+            return result;
+        } finally {
+            digestLock.unlock();
+        }
+    }
+
+    // Monday of the most recent full week
+    static LocalDate lastCompletedWeek(LocalDate today) {
+        return today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(1);
+    }
+
+    private void recordDelivery(LocalDate weekStart, int recipients) {
+        try {
+            deliveryRepository.save(new WeeklyDigestDelivery(weekStart, recipients, LocalDateTime.now()));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance recorded the same week; the notification service de-duplicated the batch
+            logger.info("Weekly digest delivery already recorded: weekStart={}", weekStart);
+        }
+    }
+
+    // ============================================================
+    // SUMMARY
+    // ============================================================
+
+    /**
+     * One line over all departments, e.g. "Week of 2025-03-10: 42 initiative completions
+     * across 7 departments; initiatives 63% complete, plans 35%. Top: IT 15, HR 9, Sales 6."
+     * Department names differing only in case are reported together, as reports do.
+     */
+    String renderSummary(LocalDate weekStart) {
+        AnalyticsCube.DepartmentTotals[] totalsByCode = analyticsCube.departmentTotalsByCode();
+        AnalyticsCube.DepartmentTotals overall = new AnalyticsCube.DepartmentTotals(0, 0, 0, 0, 0.0, 0, 0);
+        for (AnalyticsCube.DepartmentTotals totals : totalsByCode) {
+            if (totals != null) {
+                overall = overall.plus(totals);
+            }
+        }
+
+        Map<String, Long> completionsByName = new HashMap<>();
+        jdbcTemplate.query(WEEKLY_COMPLETIONS_SQL, (RowCallbackHandler) rs ->
+                        completionsByName.merge(rs.getString(1).toLowerCase(Locale.ROOT), rs.getLong(2), Long::sum),
+                Date.valueOf(weekStart), Date.valueOf(weekStart.plusWeeks(1)));
+
+        // First spelling of each name in the (sorted) department list represents it
+        List<DepartmentWeek> departmentWeeks = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String department : departmentDictionary.departments()) {
+            String key = department.toLowerCase(Locale.ROOT);
+            if (seen.add(key)) {
+                departmentWeeks.add(new DepartmentWeek(department, completionsByName.getOrDefault(key, 0L)));
+            }
+        }
+        long completions = departmentWeeks.stream().mapToLong(DepartmentWeek::completions).sum();
+
+        StringBuilder summary = new StringBuilder()
+                .append("Week of ").append(weekStart).append(": ")
+                .append(completions).append(" initiative completions across ")
+                .append(departmentWeeks.size()).append(" departments; initiatives ")
+                .append(percent(overall.completedInitiatives(), overall.initiatives())).append("% complete, plans ")
+                .append(percent(overall.completedPlans(), overall.plans())).append("%.");
+
+        List<DepartmentWeek> top = departmentWeeks.stream()
+                .filter(week -> week.completions() > 0)
+                .sorted(Comparator.comparingLong(DepartmentWeek::completions).reversed()
+                        .thenComparing(DepartmentWeek::department))
+                .limit(TOP_DEPARTMENTS)
+                .toList();
+        if (!top.isEmpty()) {
+            summary.append(" Top: ");
+            for (int i = 0; i < top.size(); i++) {
+                if (i > 0) {
+                    summary.append(", ");
+                }
+                String name = top.get(i).department();
+                summary.append(name.length() > MAX_DEPARTMENT_NAME ? name.substring(0, MAX_DEPARTMENT_NAME) : name)
+                        .append(' ').append(top.get(i).completions());
+            }
+            summary.append('.');
+        }
+
+        return summary.length() > MAX_SUMMARY_LENGTH
+                ? summary.substring(0, MAX_SUMMARY_LENGTH - 3) + "..."
+                : summary.toString();
+    }
+
+    private static long percent(int part, int total) {
+        return total == 0 ? 0 : Math.round(part * 100.0 / total);
+    }
+}
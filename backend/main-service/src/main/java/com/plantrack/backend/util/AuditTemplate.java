@@ -0,0 +1,60 @@
+package com.plantrack.backend.util;
+
+/**
+ * Audit details as a template with "{}" placeholders plus its parameters, e.g.
+ * "Created plan: {} (Priority: {})" with ["Q3 launch", "HIGH"]. Parameters are stored
+ * joined by the unit separator (U+001F), which is replaced by a space inside a value.
+ */
+public final class AuditTemplate {
+
+    public static final String PLACEHOLDER = "{}";
+
+    // Template of details stored verbatim as its only parameter
+    public static final String VERBATIM = PLACEHOLDER;
+
+    private static final char SEPARATOR = '\u001F';
+
+    private AuditTemplate() {}
+
+    /**
+     * Parameters joined for storage; null when there are none. Values are rendered with
+     * String.valueOf, as string concatenation would.
+     */
+    public static String join(Object... params) {
+        if (params == null || params.length == 0) {
+            return null;
+        }
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < params.length; i++) {
+            if (i > 0) {
+                joined.append(SEPARATOR);
+            }
+            joined.append(String.valueOf(params[i]).replace(SEPARATOR, ' '));
+        }
+        return joined.toString();
+    }
+
+    /**
+     * The template with each placeholder replaced, in order, by the next joined parameter.
+     * Placeholders beyond the parameters are kept as they are.
+     */
+    public static String render(String template, String params) {
+        if (template == null || params == null) {
+            return template;
+        }
+        StringBuilder rendered = new StringBuilder(template.length() + params.length());
+        int from = 0;
+        int param = 0;
+        int placeholder;
+        while ((placeholder = template.indexOf(PLACEHOLDER, from)) >= 0 && param <= params.length()) {
+            int end = params.indexOf(SEPARATOR, param);
+            if (end < 0) {
+                end = params.length();
+            }
+            rendered.append(template, from, placeholder).append(params, param, end);
+            from = placeholder + PLACEHOLDER.length();
+            param = end + 1;
+        }
+        return rendered.append(template, from, template.length()).toString();
+    }
+}
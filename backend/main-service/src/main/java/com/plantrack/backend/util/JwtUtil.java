@@ -32,6 +32,11 @@ public class JwtUtil {
      * role should already be like: ROLE_USER / ROLE_ADMIN
      */
     public String generateToken(String username, String role, Long userId) {
+        return generateToken(username, role, userId, expirationMs);
+    }
+
+    /** Same, valid for validityMs instead of jwt.expiration-ms (short-lived service tokens) */
+    public String generateToken(String username, String role, Long userId, long validityMs) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", role);     // single role
         if (userId != null) {
@@ -42,7 +47,7 @@ public class JwtUtil {
                 .setClaims(claims)
                 .setSubject(username)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expirationMs))
+                .setExpiration(new Date(System.currentTimeMillis() + validityMs))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
@@ -0,0 +1,18 @@
+-- Migration Script: Audit Log Keyset Pagination Indexes
+-- Audit log listings page by (timestamp, id) newest first; these indexes serve each filter.
+-- Hibernate (ddl-auto=update) creates them too, but on a large audit_logs table build them
+-- here first so they are built online rather than during application startup.
+
+-- Step 1: Create the indexes without blocking writes (InnoDB appends id to each index)
+ALTER TABLE audit_logs
+    ADD INDEX idx_audit_logs_timestamp (timestamp),
+    ADD INDEX idx_audit_logs_entity (entity_type, entity_id, timestamp),
+    ADD INDEX idx_audit_logs_performed_by (performed_by, timestamp),
+    ADD INDEX idx_audit_logs_action (action, timestamp),
+    ALGORITHM = INPLACE, LOCK = NONE;
+
+-- Step 2: Verify a page uses the entity index (key = idx_audit_logs_entity, no filesort)
+-- EXPLAIN SELECT * FROM audit_logs
+--  WHERE entity_type = 'INITIATIVE' AND entity_id = 1
+--    AND timestamp <= '9999-12-31 00:00:00' AND (timestamp < '9999-12-31 00:00:00' OR id < 9223372036854775807)
+--  ORDER BY timestamp DESC, id DESC LIMIT 51;
@@ -0,0 +1,20 @@
+-- Migration Script: Report History Retention
+-- Adds the granularity and sample_count columns used to downsample old reports into
+-- weekly and monthly aggregates, plus the indexes for retention and paged history reads
+
+-- Step 1: Add the columns (existing rows become RAW reports standing for themselves)
+-- Skip this step if Hibernate (ddl-auto=update) has already added them
+ALTER TABLE reports
+    ADD COLUMN granularity VARCHAR(10) NOT NULL DEFAULT 'RAW',
+    ADD COLUMN sample_count INT NOT NULL DEFAULT 1;
+
+-- Step 2: Backfill the implicit defaults left when Hibernate added the columns first
+UPDATE reports SET granularity = 'RAW' WHERE granularity IS NULL OR granularity = '';
+UPDATE reports SET sample_count = 1 WHERE sample_count IS NULL OR sample_count = 0;
+
+-- Step 3: Indexes (also declared on the entity; skip any Hibernate has already created)
+CREATE INDEX idx_reports_scope_date ON reports (scope, generated_date);
+CREATE INDEX idx_reports_granularity_date ON reports (granularity, generated_date);
+
+-- Step 4: Verify
+-- SELECT granularity, COUNT(*), SUM(sample_count) FROM reports GROUP BY granularity;
@@ -0,0 +1,74 @@
+-- Migration Script: Dictionary-Encoded Audit Logs
+-- audit_logs stores action, actor (performed_by) and entity type as ids into audit_dictionary,
+-- and details as a template id plus the template's parameters (see AuditTemplate); the
+-- application (AuditDictionary) maps them back on read. Existing details become parameters of
+-- the verbatim template '{}'. Run with the application stopped (entries still in its audit
+-- journal are inserted encoded after the upgrade); steps 4 and 5 rebuild the table.
+
+-- Step 1: Record the size before (compare with Step 7)
+-- SELECT TABLE_ROWS, DATA_LENGTH, INDEX_LENGTH, AVG_ROW_LENGTH FROM information_schema.TABLES
+--  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'audit_logs';
+
+-- Step 2: Lookup table; names compare case-sensitively so 'Bob@corp.com' and 'bob@corp.com' stay apart
+CREATE TABLE IF NOT EXISTS audit_dictionary (
+    id INT NOT NULL AUTO_INCREMENT,
+    kind VARCHAR(20) NOT NULL,
+    name VARCHAR(500) COLLATE utf8mb4_bin NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_audit_dictionary_kind_name (kind, name)
+);
+
+INSERT IGNORE INTO audit_dictionary (kind, name)
+SELECT DISTINCT 'ACTION', action FROM audit_logs
+UNION SELECT DISTINCT 'ACTOR', performed_by FROM audit_logs
+UNION SELECT DISTINCT 'ENTITY_TYPE', entity_type FROM audit_logs
+UNION SELECT 'TEMPLATE', '{}';
+
+-- Step 3: Id columns, filled from the dictionary (CHAR(31) separates template parameters)
+ALTER TABLE audit_logs
+    ADD COLUMN action_id INT NULL,
+    ADD COLUMN actor_id INT NULL,
+    ADD COLUMN entity_type_id INT NULL,
+    ADD COLUMN details_template_id INT NULL,
+    ADD COLUMN details_params VARCHAR(1000) NULL;
+
+UPDATE audit_logs l
+    JOIN audit_dictionary a ON a.kind = 'ACTION' AND a.name = l.action COLLATE utf8mb4_bin
+    JOIN audit_dictionary p ON p.kind = 'ACTOR' AND p.name = l.performed_by COLLATE utf8mb4_bin
+    JOIN audit_dictionary e ON e.kind = 'ENTITY_TYPE' AND e.name = l.entity_type COLLATE utf8mb4_bin
+    JOIN audit_dictionary t ON t.kind = 'TEMPLATE' AND t.name = '{}'
+SET l.action_id = a.id,
+    l.actor_id = p.id,
+    l.entity_type_id = e.id,
+    l.details_template_id = IF(l.details IS NULL, NULL, t.id),
+    l.details_params = REPLACE(l.details, CHAR(31), ' ');
+
+-- Step 4: Check nothing was left unmapped (expect 0), then drop the string columns and their indexes
+-- SELECT COUNT(*) FROM audit_logs WHERE action_id IS NULL OR actor_id IS NULL OR entity_type_id IS NULL;
+ALTER TABLE audit_logs
+    DROP INDEX idx_audit_logs_entity,
+    DROP INDEX idx_audit_logs_performed_by,
+    DROP INDEX idx_audit_logs_action,
+    DROP COLUMN action,
+    DROP COLUMN performed_by,
+    DROP COLUMN entity_type,
+    DROP COLUMN details,
+    MODIFY action_id INT NOT NULL,
+    MODIFY actor_id INT NOT NULL,
+    MODIFY entity_type_id INT NOT NULL,
+    ADD INDEX idx_audit_logs_entity (entity_type_id, entity_id, timestamp),
+    ADD INDEX idx_audit_logs_actor (actor_id, timestamp),
+    ADD INDEX idx_audit_logs_action (action_id, timestamp);
+
+-- Step 5: Rebuild so the space of the dropped columns is returned
+OPTIMIZE TABLE audit_logs;
+
+-- Step 6: Verify a filtered page still uses its index (key = idx_audit_logs_actor, no filesort)
+-- EXPLAIN SELECT * FROM audit_logs
+--  WHERE actor_id = (SELECT id FROM audit_dictionary WHERE kind = 'ACTOR' AND name = 'bob@corp.com')
+--    AND timestamp <= '9999-12-31 00:00:00' AND (timestamp < '9999-12-31 00:00:00' OR id < 9223372036854775807)
+--  ORDER BY timestamp DESC, id DESC LIMIT 51;
+
+-- Step 7: Storage after, to report the saving against Step 1
+-- SELECT TABLE_ROWS, DATA_LENGTH, INDEX_LENGTH, AVG_ROW_LENGTH FROM information_schema.TABLES
+--  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME IN ('audit_logs', 'audit_dictionary');
@@ -0,0 +1,37 @@
+-- Migration Script: Monthly Partitions for Audit Logs
+-- audit_logs is RANGE-partitioned by month so the archiver (AuditArchiveService) can move an
+-- expired month to a segment file and drop its partition instead of deleting row by row.
+-- The application adds future monthly partitions itself by splitting pmax; months that stay
+-- in p_history are archived with batched deletes instead.
+-- Adjust the monthly partitions below to the months the table actually holds.
+
+-- Step 1: Every unique key of a partitioned table must contain the partitioning column
+ALTER TABLE audit_logs
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, timestamp);
+
+-- Step 2: Partition by month (rebuilds the table; run in a maintenance window)
+ALTER TABLE audit_logs
+    PARTITION BY RANGE (TO_DAYS(timestamp)) (
+        PARTITION p_history VALUES LESS THAN (TO_DAYS('2025-01-01')),
+        PARTITION p202501 VALUES LESS THAN (TO_DAYS('2025-02-01')),
+        PARTITION p202502 VALUES LESS THAN (TO_DAYS('2025-03-01')),
+        PARTITION p202503 VALUES LESS THAN (TO_DAYS('2025-04-01')),
+        PARTITION p202504 VALUES LESS THAN (TO_DAYS('2025-05-01')),
+        PARTITION p202505 VALUES LESS THAN (TO_DAYS('2025-06-01')),
+        PARTITION p202506 VALUES LESS THAN (TO_DAYS('2025-07-01')),
+        PARTITION p202507 VALUES LESS THAN (TO_DAYS('2025-08-01')),
+        PARTITION p202508 VALUES LESS THAN (TO_DAYS('2025-09-01')),
+        PARTITION p202509 VALUES LESS THAN (TO_DAYS('2025-10-01')),
+        PARTITION p202510 VALUES LESS THAN (TO_DAYS('2025-11-01')),
+        PARTITION p202511 VALUES LESS THAN (TO_DAYS('2025-12-01')),
+        PARTITION p202512 VALUES LESS THAN (TO_DAYS('2026-01-01')),
+        PARTITION pmax VALUES LESS THAN MAXVALUE
+    );
+
+-- Step 3: Verify the layout and that a date-range page prunes to the months it covers
+-- SELECT PARTITION_NAME, TABLE_ROWS FROM information_schema.PARTITIONS
+--  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'audit_logs' ORDER BY PARTITION_ORDINAL_POSITION;
+-- EXPLAIN SELECT * FROM audit_logs
+--  WHERE timestamp >= '2025-06-01 00:00:00' AND timestamp <= '2025-06-30 00:00:00'
+--  ORDER BY timestamp DESC, id DESC LIMIT 51;
@@ -0,0 +1,21 @@
+-- Migration Script: Descending User Metrics Keyset Indexes
+-- Gamified velocity pages are ordered by (overall_score DESC, user_id ASC). The indexes now
+-- match that order (MySQL 8 descending index keys), so a page is a forward range scan with
+-- no filesort. Hibernate (ddl-auto=update) does not alter existing indexes of the same name,
+-- so replace them here.
+
+-- Step 1: Replace the keyset indexes
+ALTER TABLE user_metrics
+    DROP INDEX idx_user_metrics_score,
+    DROP INDEX idx_user_metrics_department_score,
+    DROP INDEX idx_user_metrics_tier_score,
+    ADD INDEX idx_user_metrics_score (overall_score DESC, user_id),
+    ADD INDEX idx_user_metrics_department_score (department, overall_score DESC, user_id),
+    ADD INDEX idx_user_metrics_tier_score (performance_tier, overall_score DESC, user_id),
+    ALGORITHM = INPLACE, LOCK = NONE;
+
+-- Step 2: Verify a department page uses its index (key = idx_user_metrics_department_score, no filesort)
+-- EXPLAIN SELECT * FROM user_metrics
+--  WHERE department = 'Engineering'
+--    AND overall_score <= 80 AND (overall_score < 80 OR user_id > 42)
+--  ORDER BY overall_score DESC, user_id ASC LIMIT 21;
@@ -0,0 +1,147 @@
+package com.plantrack.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActivityBitmapTest {
+
+	@Test
+	void setReportsOnlyNewDays() {
+		ActivityBitmap bitmap = new ActivityBitmap();
+		assertTrue(bitmap.set(100));
+		assertFalse(bitmap.set(100));
+		assertTrue(bitmap.get(100));
+		assertFalse(bitmap.get(101));
+		assertEquals(1, bitmap.activeDays());
+	}
+
+	@Test
+	void emptyBitmapHasNoStreaks() {
+		ActivityBitmap bitmap = new ActivityBitmap();
+		assertEquals(0, bitmap.currentStreak(20_000));
+		assertEquals(0, bitmap.longestStreak());
+		assertEquals(0, bitmap.currentWeekStreak(20_000));
+	}
+
+	@Test
+	void currentStreakCrossesWordBoundaries() {
+		// Days 120..200 span words 1, 2 and 3 (64 days each)
+		ActivityBitmap bitmap = new ActivityBitmap();
+		for (long day = 120; day <= 200; day++) {
+			bitmap.set(day);
+		}
+		assertEquals(81, bitmap.currentStreak(200));
+		assertEquals(81, bitmap.longestStreak());
+		assertEquals(64, bitmap.currentStreak(183));
+		assertEquals(8, bitmap.currentStreak(127));
+		assertEquals(9, bitmap.currentStreak(128));
+	}
+
+	@Test
+	void currentStreakMayEndYesterdayButNotEarlier() {
+		ActivityBitmap bitmap = new ActivityBitmap();
+		bitmap.set(62);
+		bitmap.set(63);
+		assertEquals(2, bitmap.currentStreak(63));
+		assertEquals(2, bitmap.currentStreak(64));
+		assertEquals(0, bitmap.currentStreak(65));
+	}
+
+	@Test
+	void fullWordsCarryTheLongestRun() {
+		ActivityBitmap bitmap = new ActivityBitmap();
+		for (long day = 64; day < 256; day++) {
+			bitmap.set(day);
+		}
+		bitmap.set(300);
+		assertEquals(192, bitmap.longestStreak());
+		assertEquals(192, bitmap.currentStreak(256));
+		assertEquals(1, bitmap.currentStreak(300));
+	}
+
+	@Test
+	void weekStreakCountsMondayBasedWeeks() {
+		LocalDate monday = LocalDate.of(2026, 3, 2);
+		assertEquals(DayOfWeek.MONDAY, monday.getDayOfWeek());
+		ActivityBitmap bitmap = new ActivityBitmap();
+		bitmap.set(monday.minusDays(1).toEpochDay());   // Sunday of the previous week
+		bitmap.set(monday.minusDays(13).toEpochDay());  // Tuesday two weeks back
+		bitmap.set(monday.toEpochDay());
+
+		assertEquals(3, bitmap.currentWeekStreak(monday.plusDays(6).toEpochDay()));
+		// Nothing yet in the following week: the streak still ends last week
+		assertEquals(3, bitmap.currentWeekStreak(monday.plusDays(7).toEpochDay()));
+		assertEquals(0, bitmap.currentWeekStreak(monday.plusDays(14).toEpochDay()));
+	}
+
+	@Test
+	void serializedFormRoundTrips() {
+		ActivityBitmap bitmap = new ActivityBitmap();
+		for (long day : new long[] {-70, -1, 0, 63, 64, 20_000, 20_001, 40_000}) {
+			bitmap.set(day);
+		}
+		ActivityBitmap copy = ActivityBitmap.fromBytes(bitmap.toBytes());
+		assertArrayEquals(bitmap.toBytes(), copy.toBytes());
+		assertEquals(8, copy.activeDays());
+		assertTrue(copy.get(-70));
+		assertTrue(copy.get(20_001));
+		assertFalse(copy.get(1));
+		assertEquals(0, ActivityBitmap.fromBytes(new ActivityBitmap().toBytes()).activeDays());
+	}
+
+	@Test
+	void streaksMatchADayByDayCount() {
+		Random random = new Random(5);
+		for (int round = 0; round < 200; round++) {
+			ActivityBitmap bitmap = new ActivityBitmap();
+			TreeSet<Long> days = new TreeSet<>();
+			long base = 19_000 + random.nextInt(64);
+			// Dense bursts so runs reach across words
+			for (int i = 0; i < 40; i++) {
+				long start = base + random.nextInt(400);
+				int length = 1 + random.nextInt(random.nextBoolean() ? 5 : 130);
+				for (long day = start; day < start + length; day++) {
+					bitmap.set(day);
+					days.add(day);
+				}
+			}
+			assertEquals(days.size(), bitmap.activeDays());
+			assertEquals(longestRun(days), bitmap.longestStreak());
+			for (int probe = 0; probe < 20; probe++) {
+				long today = base + random.nextInt(600);
+				assertEquals(currentStreak(days, today), bitmap.currentStreak(today), "today " + today);
+			}
+		}
+	}
+
+	private static int longestRun(TreeSet<Long> days) {
+		int longest = 0;
+		int run = 0;
+		Long previous = null;
+		for (long day : days) {
+			run = previous != null && day == previous + 1 ? run + 1 : 1;
+			longest = Math.max(longest, run);
+			previous = day;
+		}
+		return longest;
+	}
+
+	private static int currentStreak(TreeSet<Long> days, long today) {
+		long day = days.contains(today) ? today : today - 1;
+		int streak = 0;
+		while (days.contains(day)) {
+			streak++;
+			day--;
+		}
+		return streak;
+	}
+}
@@ -0,0 +1,185 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.event.DataChangedEvent;
+import com.plantrack.backend.event.InitiativeChangedEvent;
+import com.plantrack.backend.event.UserChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AnalyticsCubeTest {
+
+	private EmbeddedDatabase database;
+	private JdbcTemplate jdbcTemplate;
+	private DepartmentDictionary departmentDictionary;
+
+	@BeforeEach
+	void createTables() {
+		database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+		jdbcTemplate = new JdbcTemplate(database);
+		departmentDictionary = new DepartmentDictionary();
+		jdbcTemplate.execute("CREATE TABLE users (user_id BIGINT PRIMARY KEY, department VARCHAR(100))");
+		jdbcTemplate.execute("CREATE TABLE plans (plan_id BIGINT PRIMARY KEY, user_id BIGINT, status VARCHAR(20))");
+		jdbcTemplate.execute("CREATE TABLE milestones (milestone_id BIGINT PRIMARY KEY, plan_id BIGINT, " +
+				"status VARCHAR(20), completion_percent DOUBLE)");
+		jdbcTemplate.execute("CREATE TABLE initiatives (initiative_id BIGINT PRIMARY KEY, status VARCHAR(20), " +
+				"milestone_id BIGINT)");
+		jdbcTemplate.execute("CREATE TABLE initiative_assignees (initiative_id BIGINT, user_id BIGINT)");
+
+		jdbcTemplate.update("INSERT INTO users VALUES (1, 'ENG'), (2, 'OPS')");
+		jdbcTemplate.update("INSERT INTO plans VALUES (10, 1, 'ACTIVE')");
+		jdbcTemplate.update("INSERT INTO milestones VALUES (1000, 10, 'IN_PROGRESS', 50.0)");
+		jdbcTemplate.update("INSERT INTO initiatives VALUES (100, 'COMPLETED', 1000), (101, 'IN_PROGRESS', 1000), " +
+				"(102, 'PLANNED', 1000)");
+		jdbcTemplate.update("INSERT INTO initiative_assignees VALUES (100, 1), (101, 1), (101, 2), (102, 2)");
+	}
+
+	@AfterEach
+	void dropTables() {
+		database.shutdown();
+	}
+
+	@Test
+	void dashboardCountsUsersThatExistRatherThanSlots() {
+		// Plan 11 and initiative 103 refer to users 3 and 4, who have no users row
+		jdbcTemplate.update("INSERT INTO plans VALUES (11, 3, 'ACTIVE')");
+		jdbcTemplate.update("INSERT INTO initiatives VALUES (103, 'PLANNED', 1000)");
+		jdbcTemplate.update("INSERT INTO initiative_assignees VALUES (103, 4)");
+
+		AnalyticsCube cube = cube();
+
+		assertEquals(2, cube.dashboardStats().getTotalUsers());
+		assertEquals(2, cube.dashboardStats().getTotalPlans());
+		assertEquals(3, cube.dashboardStats().getActiveInitiatives());
+	}
+
+	@Test
+	void departmentMoveCarriesTheUsersInitiatives() {
+		AnalyticsCube cube = cube();
+		assertEquals(new AnalyticsCube.DepartmentTotals(1, 1, 0, 1, 50.0, 2, 1), cube.departmentTotals("ENG"));
+		assertEquals(new AnalyticsCube.DepartmentTotals(1, 0, 0, 0, 0.0, 2, 0), cube.departmentTotals("OPS"));
+
+		jdbcTemplate.update("UPDATE users SET department = 'OPS' WHERE user_id = 1");
+		cube.onUserChanged(new UserChangedEvent(1L, false));
+
+		assertEquals(new AnalyticsCube.DepartmentTotals(0, 0, 0, 0, 0.0, 0, 0), cube.departmentTotals("ENG"));
+		// Initiative 101 is assigned to both users and still counts once
+		assertEquals(new AnalyticsCube.DepartmentTotals(2, 1, 0, 1, 50.0, 3, 1), cube.departmentTotals("OPS"));
+		assertEquals(2, cube.dashboardStats().getTotalUsers());
+	}
+
+	@Test
+	void reassignedAndDeletedInitiativesNoLongerFollowTheirOldAssignee() {
+		AnalyticsCube cube = cube();
+
+		jdbcTemplate.update("DELETE FROM initiative_assignees WHERE initiative_id = 101 AND user_id = 1");
+		cube.onInitiativeChanged(new InitiativeChangedEvent(101L, "IN_PROGRESS", "IN_PROGRESS",
+				Set.of(1L, 2L), Set.of(2L), null, null));
+		jdbcTemplate.update("DELETE FROM initiative_assignees WHERE initiative_id = 100");
+		jdbcTemplate.update("DELETE FROM initiatives WHERE initiative_id = 100");
+		cube.onInitiativeChanged(new InitiativeChangedEvent(100L, "COMPLETED", null,
+				Set.of(1L), Set.of(), null, null));
+		assertEquals(0, cube.departmentTotals("ENG").initiatives());
+
+		jdbcTemplate.update("UPDATE users SET department = 'SALES' WHERE user_id = 1");
+		cube.onUserChanged(new UserChangedEvent(1L, false));
+
+		assertEquals(new AnalyticsCube.DepartmentTotals(1, 1, 0, 1, 50.0, 0, 0), cube.departmentTotals("SALES"));
+		assertEquals(new AnalyticsCube.DepartmentTotals(1, 0, 0, 0, 0.0, 2, 0), cube.departmentTotals("OPS"));
+		assertEquals(2, cube.assignmentIndex(2L).assignedCount(2L));
+		assertEquals(0, cube.assignmentIndex(1L).assignedCount(1L));
+
+		// The maintained state matches a cube built from scratch
+		AnalyticsCube rebuilt = cube();
+		for (String department : List.of("ENG", "OPS", "SALES")) {
+			assertEquals(rebuilt.departmentTotals(department), cube.departmentTotals(department), department);
+		}
+		assertEquals(rebuilt.dashboardStats().getActiveInitiatives(), cube.dashboardStats().getActiveInitiatives());
+	}
+
+	@Test
+	void initiativeAssignedIntoTwoSpellingsCountsOncePerDepartment() {
+		jdbcTemplate.update("INSERT INTO users VALUES (3, 'eng')");
+		jdbcTemplate.update("INSERT INTO initiatives VALUES (103, 'COMPLETED', 1000)");
+		jdbcTemplate.update("INSERT INTO initiative_assignees VALUES (103, 1), (103, 3), (102, 3)");
+		AnalyticsCube cube = cube();
+
+		// 100, 101 and 103 through user 1, 102 and 103 through user 3: four initiatives, not five
+		AnalyticsCube.DepartmentTotals eng = new AnalyticsCube.DepartmentTotals(2, 1, 0, 1, 50.0, 4, 2);
+		assertEquals(eng, cube.departmentTotals("ENG"));
+		assertEquals(eng, cube.departmentTotals("eng"));
+		assertEquals(eng, cube.departmentTotalsByName().get("eng"));
+		// Per spelling, 103 counts in both
+		AnalyticsCube.DepartmentTotals[] byCode = cube.departmentTotalsByCode();
+		assertEquals(3, byCode[departmentDictionary.codeOf("ENG")].initiatives());
+		assertEquals(2, byCode[departmentDictionary.codeOf("eng")].initiatives());
+
+		// Moving user 1 out leaves 103 counted through user 3 alone
+		jdbcTemplate.update("UPDATE users SET department = 'OPS' WHERE user_id = 1");
+		cube.onUserChanged(new UserChangedEvent(1L, false));
+		assertEquals(new AnalyticsCube.DepartmentTotals(1, 0, 0, 0, 0.0, 2, 1), cube.departmentTotals("Eng"));
+		Map<String, AnalyticsCube.DepartmentTotals> rebuilt = cube().departmentTotalsByName();
+		assertEquals(rebuilt.get("eng"), cube.departmentTotalsByName().get("eng"));
+		assertEquals(rebuilt.get("ops"), cube.departmentTotalsByName().get("ops"));
+	}
+
+	@Test
+	void deletedUserTakesTheirPlansAndAssignmentsWithThem() {
+		// User 2 owns plan 20; initiative 200 is shared with user 1 and 201 has no assignee
+		jdbcTemplate.update("INSERT INTO plans VALUES (20, 2, 'ACTIVE')");
+		jdbcTemplate.update("INSERT INTO milestones VALUES (2000, 20, 'COMPLETED', 100.0)");
+		jdbcTemplate.update("INSERT INTO initiatives VALUES (200, 'IN_PROGRESS', 2000), (201, 'PLANNED', 2000)");
+		jdbcTemplate.update("INSERT INTO initiative_assignees VALUES (200, 1), (200, 2)");
+		AnalyticsCube cube = cube();
+		assertEquals(3, cube.assignmentIndex(1L).assignedCount(1L));
+
+		// The cascade UserService.deleteUser runs, and the events it publishes
+		jdbcTemplate.update("DELETE FROM initiative_assignees WHERE user_id = 2 OR initiative_id IN (200, 201)");
+		jdbcTemplate.update("DELETE FROM initiatives WHERE milestone_id = 2000");
+		jdbcTemplate.update("DELETE FROM milestones WHERE plan_id = 20");
+		jdbcTemplate.update("DELETE FROM plans WHERE plan_id = 20");
+		jdbcTemplate.update("DELETE FROM users WHERE user_id = 2");
+		cube.onInitiativeChanged(new InitiativeChangedEvent(200L, "IN_PROGRESS", null, Set.of(1L), null, null, null));
+		cube.onInitiativeChanged(new InitiativeChangedEvent(201L, "PLANNED", null, Set.of(), null, null, null));
+		cube.onDataChanged(new DataChangedEvent("PLAN", 20L));
+		cube.onUserChanged(new UserChangedEvent(2L, true));
+
+		assertEquals(new AnalyticsCube.DepartmentTotals(0, 0, 0, 0, 0.0, 0, 0), cube.departmentTotals("OPS"));
+		assertEquals(new AnalyticsCube.DepartmentTotals(1, 1, 0, 1, 50.0, 2, 1), cube.departmentTotals("ENG"));
+		assertEquals(1, cube.dashboardStats().getTotalUsers());
+		assertEquals(1, cube.dashboardStats().getTotalPlans());
+		// 101 and the now unassigned 102
+		assertEquals(2, cube.dashboardStats().getActiveInitiatives());
+		assertEquals(2, cube.assignmentIndex(1L).assignedCount(1L));
+		assertEquals(0, cube.assignmentIndex(2L).assignedCount(2L));
+		assertEquals(new AnalyticsCube.PlanCounts(0, 0), cube.planCounts(2L));
+
+		AnalyticsCube rebuilt = cube();
+		for (String department : List.of("ENG", "OPS")) {
+			assertEquals(rebuilt.departmentTotals(department), cube.departmentTotals(department), department);
+		}
+		assertEquals(rebuilt.dashboardStats().getCompletedMilestones(), cube.dashboardStats().getCompletedMilestones());
+		assertEquals(rebuilt.dashboardStats().getActiveInitiatives(), cube.dashboardStats().getActiveInitiatives());
+	}
+
+	private AnalyticsCube cube() {
+		AnalyticsCube cube = new AnalyticsCube(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(cube, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(cube, "departmentDictionary", departmentDictionary);
+		ReflectionTestUtils.setField(cube, "fetchSize", 100);
+		cube.rebuild();
+		return cube;
+	}
+}
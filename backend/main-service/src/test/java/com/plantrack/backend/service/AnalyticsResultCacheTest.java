@@ -0,0 +1,53 @@
+package com.plantrack.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class AnalyticsResultCacheTest {
+
+	@Test
+	void keyKeepsCaseAndBlanks() {
+		assertNotEquals(AnalyticsResultCache.key("gamified-velocity", "IT"), AnalyticsResultCache.key("gamified-velocity", "it"));
+		assertNotEquals(AnalyticsResultCache.key("leaderboard", "SPEED", null, 50),
+				AnalyticsResultCache.key("leaderboard", "speed", null, 50));
+		assertNotEquals(AnalyticsResultCache.key("gamified-velocity", "IT", "  "),
+				AnalyticsResultCache.key("gamified-velocity", "IT", null));
+		assertNotEquals(AnalyticsResultCache.key("gamified-velocity", "IT", ""),
+				AnalyticsResultCache.key("gamified-velocity", "IT", null));
+		assertNotEquals(AnalyticsResultCache.key("gamified-velocity", " IT"), AnalyticsResultCache.key("gamified-velocity", "IT"));
+		assertEquals(AnalyticsResultCache.key("leaderboard", "SPEED", "IT", 50),
+				AnalyticsResultCache.key("leaderboard", "SPEED", "IT", 50));
+	}
+
+	@Test
+	void keyCannotBeForgedAcrossParameters() {
+		assertNotEquals(AnalyticsResultCache.key("gamified-velocity", "a|b", null),
+				AnalyticsResultCache.key("gamified-velocity", "a", "b"));
+		assertNotEquals(AnalyticsResultCache.key("gamified-velocity", "1:a", "b"),
+				AnalyticsResultCache.key("gamified-velocity", "1", "a|1:b"));
+		assertNotEquals(AnalyticsResultCache.key("gamified-velocity", "-"),
+				AnalyticsResultCache.key("gamified-velocity", (Object) null));
+		assertNotEquals(AnalyticsResultCache.key("velocity", 12L), AnalyticsResultCache.key("velocity-user", 2L));
+	}
+
+	@Test
+	void parametersDifferingOnlyInCaseAreLoadedSeparately() {
+		AnalyticsDataVersion version = new AnalyticsDataVersion();
+		AnalyticsResultCache cache = new AnalyticsResultCache(version, new SimpleMeterRegistry(), 10, 60_000, 1);
+		AtomicInteger loads = new AtomicInteger();
+		try {
+			assertEquals("IT#1", cache.get("gamified-velocity", () -> "IT#" + loads.incrementAndGet(), "IT"));
+			assertEquals("it#2", cache.get("gamified-velocity", () -> "it#" + loads.incrementAndGet(), "it"));
+			assertEquals("IT#1", cache.get("gamified-velocity", () -> "IT#" + loads.incrementAndGet(), "IT"));
+			assertEquals(2, cache.size());
+			assertEquals(2, loads.get());
+		} finally {
+			cache.shutdown();
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.model.AuditLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditJournalTest {
+
+	private static final int SEGMENT_BYTES = 1024;
+	private static final int MAX_SEGMENTS = 64;
+	private static final LocalDateTime START = LocalDateTime.of(2025, 6, 1, 9, 0);
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void entriesRoundTripInOrder() throws Exception {
+		AuditJournal journal = open();
+		for (int i = 1; i <= 3; i++) {
+			assertTrue(journal.append(entry(i), 0));
+		}
+		AuditJournal.Batch batch = journal.read(journal.startPosition(), 10);
+
+		assertEquals(3, batch.entries().size());
+		assertEquals(journal.writePosition(), batch.end());
+		assertEquals(batch.end(), batch.entryEnds()[2]);
+		AuditLog first = batch.entries().get(0);
+		assertEquals("UPDATE_STATUS", first.getAction());
+		assertEquals("user1@corp.com", first.getPerformedBy());
+		assertEquals("INITIATIVE", first.getEntityType());
+		assertEquals(Long.valueOf(1), first.getEntityId());
+		assertEquals(START.plusSeconds(1), first.getTimestamp());
+		assertEquals("Initiative 1 moved to COMPLETED", first.getDetails());
+		assertEquals("COMPLETED", first.getNewValue());
+	}
+
+	@Test
+	void tornTailIsIgnoredOnReopenAndOverwritten() throws Exception {
+		AuditJournal journal = open();
+		for (int i = 1; i <= 3; i++) {
+			journal.append(entry(i), 0);
+		}
+		long end = journal.writePosition();
+		journal.close();
+
+		// A record whose length made it to disk but whose payload did not
+		try (RandomAccessFile raf = new RandomAccessFile(segment(0).toFile(), "rw")) {
+			raf.seek(AuditJournal.offset(end));
+			raf.writeInt(40);
+			raf.writeInt(12345);
+		}
+
+		AuditJournal reopened = open();
+		assertEquals(end, reopened.writePosition());
+		assertEquals(3, reopened.read(reopened.startPosition(), 10).entries().size());
+
+		reopened.append(entry(4), 0);
+		reopened.close();
+		AuditJournal again = open();
+		List<AuditLog> entries = again.read(again.startPosition(), 10).entries();
+		assertEquals(4, entries.size());
+		assertEquals(Long.valueOf(4), entries.get(3).getEntityId());
+	}
+
+	@Test
+	void replayStartsAtTheCheckpointAcrossSegments() throws Exception {
+		AuditJournal journal = open();
+		for (int i = 1; i <= 40; i++) {
+			journal.append(entry(i), 0);
+		}
+		assertTrue(AuditJournal.sequence(journal.writePosition()) >= 2, "entries should span several segments");
+
+		AuditJournal.Batch drained = journal.read(journal.startPosition(), 25);
+		assertEquals(25, drained.entries().size());
+		long checkpoint = drained.end();
+		journal.release(checkpoint);
+		journal.close();
+
+		AuditJournal reopened = open();
+		assertEquals(AuditJournal.sequence(checkpoint), AuditJournal.sequence(reopened.startPosition()));
+		List<AuditLog> replayed = reopened.read(checkpoint, 100).entries();
+		assertEquals(15, replayed.size());
+		assertEquals(Long.valueOf(26), replayed.get(0).getEntityId());
+		assertEquals(Long.valueOf(40), replayed.get(14).getEntityId());
+		assertEquals(reopened.distance(checkpoint, reopened.writePosition()), reopened.backlogBytes(checkpoint));
+	}
+
+	@Test
+	void unreadableRecordEndsTheBatchAndIsSkippedToTheNextSegment() throws Exception {
+		AuditJournal journal = open();
+		for (int i = 1; i <= 40; i++) {
+			journal.append(entry(i), 0);
+		}
+		AuditJournal.Batch first = journal.read(journal.startPosition(), 1);
+		long second = first.end();
+
+		// Flip a payload byte of the second record: its checksum no longer holds
+		try (RandomAccessFile raf = new RandomAccessFile(segment(0).toFile(), "rw")) {
+			raf.seek(AuditJournal.offset(second) + 8 + 2);
+			int b = raf.read();
+			raf.seek(AuditJournal.offset(second) + 8 + 2);
+			raf.write(b ^ 0xFF);
+		}
+		journal.close();
+		AuditJournal reopened = open();
+
+		AuditJournal.Batch partial = reopened.read(reopened.startPosition(), 100);
+		assertEquals(1, partial.entries().size());
+		assertEquals(second, partial.end());
+		assertThrows(IOException.class, () -> reopened.read(second, 100));
+
+		long resume = reopened.skip(second);
+		assertEquals(AuditJournal.position(1, 8), resume);
+		AuditJournal.Batch rest = reopened.read(resume, 100);
+		assertTrue(rest.entries().size() > 0);
+		assertEquals(Long.valueOf(40), rest.entries().get(rest.entries().size() - 1).getEntityId());
+		assertTrue(reopened.distance(second, resume) > 0);
+	}
+
+	@Test
+	void forceCoversSegmentsRolledOverSinceTheLastCall() throws Exception {
+		AuditJournal journal = open();
+		journal.force();
+		for (int i = 1; i <= 40; i++) {
+			journal.append(entry(i), 0);
+		}
+		journal.force();
+		journal.force();
+		try (Stream<Path> files = Files.list(directory)) {
+			assertTrue(files.filter(file -> file.getFileName().toString().endsWith(".log")).count() >= 3);
+		}
+	}
+
+	private AuditJournal open() throws IOException {
+		return AuditJournal.open(directory, SEGMENT_BYTES, MAX_SEGMENTS);
+	}
+
+	private Path segment(long sequence) {
+		return directory.resolve(String.format("audit-journal-%020d.log", sequence));
+	}
+
+	private static AuditLog entry(int i) {
+		AuditLog entry = new AuditLog("UPDATE_STATUS", "user" + i + "@corp.com", "INITIATIVE", (long) i,
+				"Initiative {} moved to {}", i + "\u001FCOMPLETED");
+		entry.setTimestamp(START.plusSeconds(i));
+		entry.setOldValue("IN_PROGRESS");
+		entry.setNewValue("COMPLETED");
+		return entry;
+	}
+}
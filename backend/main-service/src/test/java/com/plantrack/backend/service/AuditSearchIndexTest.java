@@ -0,0 +1,255 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.model.AuditLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditSearchIndexTest {
+
+	private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+	private static final String[] WORDS = {"plan", "planning", "milestone", "blocked", "completed", "budget",
+			"review", "launch", "q3", "risk"};
+	private static final String[] ACTIONS = {"CREATE", "UPDATE", "UPDATE_STATUS", "DELETE"};
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void parseSplitsTermsPhrasesAndPrefixes() {
+		List<AuditSearchIndex.Clause> clauses = AuditSearchIndex.parse(
+				"Budget \"Launch Review\" plan* \"risk\" bob@corp.com");
+
+		assertEquals(List.of(
+				new AuditSearchIndex.Clause(AuditSearchIndex.Kind.TERM, List.of("budget")),
+				new AuditSearchIndex.Clause(AuditSearchIndex.Kind.PHRASE, List.of("launch", "review")),
+				new AuditSearchIndex.Clause(AuditSearchIndex.Kind.PREFIX, List.of("plan")),
+				new AuditSearchIndex.Clause(AuditSearchIndex.Kind.TERM, List.of("risk")),
+				// A token that splits into several words is matched as a phrase
+				new AuditSearchIndex.Clause(AuditSearchIndex.Kind.PHRASE, List.of("bob", "corp", "com"))), clauses);
+		assertTrue(AuditSearchIndex.parse(null).isEmpty());
+		assertTrue(AuditSearchIndex.parse("  \"\" -- ").isEmpty());
+		assertThrows(RuntimeException.class, () -> AuditSearchIndex.parse("p*"));
+		assertThrows(RuntimeException.class, () -> AuditSearchIndex.parse("bob@corp*"));
+	}
+
+	@Test
+	void wordsSkipOverlyLongRuns() {
+		assertEquals(List.of("status", "in", "progress", "42"), AuditSearchIndex.words("Status: IN_PROGRESS (42)"));
+		assertTrue(AuditSearchIndex.words("x".repeat(65)).isEmpty());
+		assertEquals(List.of("x".repeat(64)), AuditSearchIndex.words("x".repeat(64)));
+	}
+
+	@Test
+	void candidatesIntersectWordsFiltersAndMonthsNewestFirst() throws IOException {
+		AuditSearchIndex index = AuditSearchIndex.open(directory);
+		index.add(List.of(
+				row(1, "CREATE", "INITIATIVE", "Budget review for launch", START),
+				row(2, "UPDATE", "INITIATIVE", "Launch review moved", START.plusMonths(1)),
+				row(3, "UPDATE", "PLAN", "Launch review moved", START.plusMonths(1)),
+				row(4, "UPDATE", "INITIATIVE", "Review of the launch budget", START.plusMonths(2))));
+
+		assertArrayEquals(new long[] {4, 2, 1}, candidates(index, "launch review", List.of(AuditSearchIndex.ENTITY_TYPE + "INITIATIVE"),
+				List.of(), Long.MAX_VALUE, 10));
+		assertArrayEquals(new long[] {4, 3, 2}, candidates(index, "launch", List.of(AuditSearchIndex.ACTION + "UPDATE"),
+				List.of(), Long.MAX_VALUE, 10));
+		assertArrayEquals(new long[] {3, 2, 1}, candidates(index, "review",
+				List.of(), List.of("2025-01", "2025-02"), Long.MAX_VALUE, 10));
+		assertArrayEquals(new long[] {2}, candidates(index, "review", List.of(), List.of(), 3, 1));
+		assertArrayEquals(new long[] {4, 1}, candidates(index, "bud*", List.of(), List.of(), Long.MAX_VALUE, 10));
+		assertArrayEquals(new long[0], candidates(index, "launch missing", List.of(), List.of(), Long.MAX_VALUE, 10));
+		assertArrayEquals(new long[0], candidates(index, "launch", List.of(), List.of("2024-12"), Long.MAX_VALUE, 10));
+		assertArrayEquals(new long[0], candidates(index, "zz*", List.of(), List.of(), Long.MAX_VALUE, 10));
+		index.close();
+	}
+
+	@Test
+	void candidatesMatchABruteForceScanPageByPage() throws IOException {
+		Random random = new Random(24);
+		AuditSearchIndex index = AuditSearchIndex.open(directory);
+		Map<Long, Set<String>> documents = new LinkedHashMap<>();
+		List<AuditLog> indexed = new ArrayList<>();
+		List<Long> ids = new ArrayList<>();
+		for (long id = 1; id <= 6000; id++) {
+			ids.add(id);
+		}
+		// Most ids arrive in order; some arrive late, as the gap re-check adds them
+		List<Long> late = new ArrayList<>();
+		for (int i = 0; i < 400; i++) {
+			late.add(ids.remove(random.nextInt(ids.size())));
+		}
+		Collections.shuffle(late, random);
+		ids.addAll(late);
+		for (List<Long> batch : batches(ids, 250)) {
+			List<AuditLog> rows = new ArrayList<>();
+			for (long id : batch) {
+				AuditLog row = randomRow(id, random);
+				rows.add(row);
+				indexed.add(row);
+				documents.put(id, AuditSearchIndex.documentTerms(row));
+			}
+			index.add(rows);
+		}
+		// Adding what is already indexed changes nothing
+		index.add(indexed.subList(0, 500));
+
+		for (int query = 0; query < 300; query++) {
+			String text = randomQuery(random);
+			List<String> filters = random.nextInt(3) == 0
+					? List.of(AuditSearchIndex.ACTION + ACTIONS[random.nextInt(ACTIONS.length)]) : List.of();
+			List<String> months = random.nextInt(3) == 0
+					? List.of(YearMonth.from(START).plusMonths(random.nextInt(8)).toString(),
+					YearMonth.from(START).plusMonths(random.nextInt(8)).toString()) : List.of();
+			if (text.isEmpty() && filters.isEmpty() && months.isEmpty()) {
+				continue;
+			}
+			List<AuditSearchIndex.Clause> clauses = AuditSearchIndex.parse(text);
+			long[] expected = bruteForce(documents, clauses, filters, months);
+			int page = 1 + random.nextInt(60);
+
+			// Page through from the top, each page starting below the last id returned
+			List<Long> paged = new ArrayList<>();
+			long beforeId = Long.MAX_VALUE;
+			while (true) {
+				long[] hits = index.candidates(clauses, filters, months, beforeId, page);
+				assertTrue(hits.length <= page);
+				for (long id : hits) {
+					paged.add(id);
+				}
+				if (hits.length < page) {
+					break;
+				}
+				beforeId = hits[hits.length - 1];
+			}
+			assertArrayEquals(expected, paged.stream().mapToLong(Long::longValue).toArray(),
+					text + " " + filters + " " + months);
+		}
+		index.close();
+	}
+
+	@Test
+	void compactDropsRemovedRowsAndReloadsWithTheLog() throws IOException {
+		AuditSearchIndex index = AuditSearchIndex.open(directory);
+		List<AuditLog> rows = new ArrayList<>();
+		for (long id = 1; id <= 1000; id++) {
+			rows.add(row(id, "UPDATE", "INITIATIVE", id % 2 == 0 ? "launch review" : "launch", START));
+		}
+		index.add(rows);
+		index.compact(401);
+		index.add(List.of(row(1001, "UPDATE", "INITIATIVE", "launch review", START),
+				row(5, "UPDATE", "INITIATIVE", "late launch review", START)));
+		index.close();
+
+		AuditSearchIndex reopened = AuditSearchIndex.open(directory);
+		assertEquals(1001, reopened.lastId());
+		assertEquals(2, reopened.logDocuments());
+		long[] hits = candidates(reopened, "review", List.of(), List.of(), Long.MAX_VALUE, 1000);
+		assertEquals(302, hits.length);
+		assertEquals(1001, hits[0]);
+		assertEquals(402, hits[hits.length - 2]);
+		assertEquals(5, hits[hits.length - 1]);
+		assertArrayEquals(new long[] {5}, candidates(reopened, "late", List.of(), List.of(), Long.MAX_VALUE, 10));
+		reopened.close();
+	}
+
+	@Test
+	void phrasesAreConfirmedOnTheRow() {
+		AuditLog row = row(1, "UPDATE", "INITIATIVE", "Launch review moved to Q3", START);
+		row.setNewValue("Blocked by budget");
+
+		assertTrue(AuditSearchIndex.matchesPhrases(row, AuditSearchIndex.parse("\"launch review\" budget")));
+		assertTrue(AuditSearchIndex.matchesPhrases(row, AuditSearchIndex.parse("\"blocked by\"")));
+		assertFalse(AuditSearchIndex.matchesPhrases(row, AuditSearchIndex.parse("\"review launch\"")));
+		// A phrase does not run from one field into the next
+		assertFalse(AuditSearchIndex.matchesPhrases(row, AuditSearchIndex.parse("\"q3 blocked\"")));
+	}
+
+	private static long[] candidates(AuditSearchIndex index, String query, List<String> filters, List<String> months,
+									 long beforeId, int limit) {
+		return index.candidates(AuditSearchIndex.parse(query), filters, months, beforeId, limit);
+	}
+
+	private static long[] bruteForce(Map<Long, Set<String>> documents, List<AuditSearchIndex.Clause> clauses,
+									 List<String> filters, List<String> months) {
+		return documents.entrySet().stream()
+				.filter(document -> matches(document.getValue(), clauses, filters, months))
+				.mapToLong(Map.Entry::getKey)
+				.boxed()
+				.sorted(Collections.reverseOrder())
+				.mapToLong(Long::longValue)
+				.toArray();
+	}
+
+	private static boolean matches(Set<String> terms, List<AuditSearchIndex.Clause> clauses, List<String> filters,
+								   List<String> months) {
+		for (AuditSearchIndex.Clause clause : clauses) {
+			if (clause.kind() == AuditSearchIndex.Kind.PREFIX) {
+				String prefix = clause.words().get(0);
+				if (terms.stream().noneMatch(term -> term.startsWith(prefix))) {
+					return false;
+				}
+			} else if (!terms.containsAll(clause.words())) {
+				return false;
+			}
+		}
+		if (!terms.containsAll(filters)) {
+			return false;
+		}
+		return months.isEmpty() || months.stream().anyMatch(month -> terms.contains(AuditSearchIndex.MONTH + month));
+	}
+
+	private static String randomQuery(Random random) {
+		List<String> parts = new ArrayList<>();
+		int count = random.nextInt(4);
+		for (int i = 0; i < count; i++) {
+			String word = WORDS[random.nextInt(WORDS.length)];
+			parts.add(random.nextInt(4) == 0 ? word.substring(0, 2 + random.nextInt(word.length() - 1)) + "*" : word);
+		}
+		return String.join(" ", parts);
+	}
+
+	private static AuditLog randomRow(long id, Random random) {
+		StringBuilder details = new StringBuilder();
+		int count = 1 + random.nextInt(5);
+		for (int i = 0; i < count; i++) {
+			// Skewed, so some words are dense and others sparse
+			int word = Math.min(random.nextInt(WORDS.length), random.nextInt(WORDS.length));
+			details.append(WORDS[word]).append(' ');
+		}
+		return row(id, ACTIONS[random.nextInt(ACTIONS.length)], "INITIATIVE", details.toString(),
+				START.plusMonths(id * 8 / 6001));
+	}
+
+	private static AuditLog row(long id, String action, String entityType, String details, LocalDateTime timestamp) {
+		AuditLog row = new AuditLog(action, "user" + (id % 5) + "@corp.com", entityType, id, null, null);
+		row.setId(id);
+		row.setTimestamp(timestamp);
+		row.setDetails(details);
+		return row;
+	}
+
+	private static List<List<Long>> batches(List<Long> ids, int size) {
+		List<List<Long>> batches = new ArrayList<>();
+		for (int from = 0; from < ids.size(); from += size) {
+			batches.add(ids.subList(from, Math.min(from + size, ids.size())));
+		}
+		return batches;
+	}
+}
@@ -0,0 +1,137 @@
+package com.plantrack.backend.service;
+
+import com.plantrack.backend.model.AuditLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditSegmentTest {
+
+	private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+	// Spans three blocks, the last one partial
+	private static final int ROWS = AuditSegment.BLOCK_ROWS * 2 + 100;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void rowsRoundTripAcrossBlocks() throws IOException {
+		AuditSegment segment = AuditSegment.open(write(directory.resolve("audit-logs-2025-01.seg")));
+
+		assertEquals(ROWS, segment.rowCount());
+		assertEquals(START, segment.minTimestamp());
+		assertEquals(timestampOf(ROWS), segment.maxTimestamp());
+
+		List<AuditLog> all = segment.readAll(row -> true);
+		assertEquals(ROWS, all.size());
+		for (int i = 1; i <= ROWS; i++) {
+			AuditLog row = all.get(i - 1);
+			assertEquals(Long.valueOf(i), row.getId());
+			assertEquals(timestampOf(i), row.getTimestamp());
+			assertEquals(i % 2 == 0 ? "UPDATE_STATUS" : "CREATE", row.getAction());
+			assertEquals("user" + (i % 7) + "@corp.com", row.getPerformedBy());
+			assertEquals("INITIATIVE", row.getEntityType());
+			assertEquals(i % 5 == 0 ? null : Long.valueOf(i), row.getEntityId());
+			assertEquals("Initiative " + i + " changed", row.getDetails());
+			assertNull(row.getOldValue());
+			assertEquals(i % 2 == 0 ? "COMPLETED" : null, row.getNewValue());
+		}
+	}
+
+	@Test
+	void readBeforeReturnsNewestFirstFromThePosition() throws IOException {
+		AuditSegment segment = AuditSegment.open(write(directory.resolve("audit-logs-2025-01.seg")));
+
+		// Strictly before row 1500, back to row 1000 at most, every third row
+		List<AuditLog> rows = segment.readBefore(timestampOf(1000), timestampOf(1500), 1500,
+				row -> row.getId() % 3 == 0, 10);
+		assertEquals(10, rows.size());
+		assertEquals(Long.valueOf(1497), rows.get(0).getId());
+		assertEquals(Long.valueOf(1470), rows.get(9).getId());
+
+		List<AuditLog> tail = segment.readBefore(timestampOf(1000), timestampOf(1010), 1010, row -> true, 100);
+		assertEquals(10, tail.size());
+		assertEquals(Long.valueOf(1000), tail.get(9).getId());
+		assertTrue(segment.readBefore(START, START, 1, row -> true, 10).isEmpty());
+	}
+
+	@Test
+	void corruptBlockFailsItsChecksum() throws IOException {
+		Path file = write(directory.resolve("audit-logs-2025-01.seg"));
+		file.toFile().setWritable(true);
+		// The first block header follows the 12-byte file header: raw length, compressed length, crc32
+		try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+			raf.seek(12 + 8);
+			int crc = raf.readInt();
+			raf.seek(12 + 8);
+			raf.writeInt(~crc);
+		}
+		AuditSegment segment = AuditSegment.open(file);
+
+		IOException failure = assertThrows(IOException.class, () -> segment.readAll(row -> true));
+		assertTrue(failure.getMessage().contains("checksum"), failure.getMessage());
+		// Blocks after the damaged one still read
+		assertEquals(100, segment.readBefore(timestampOf(ROWS - 99), timestampOf(ROWS), ROWS + 1, row -> true, 1000).size());
+	}
+
+	@Test
+	void truncatedFileIsRejectedOnOpen() throws IOException {
+		Path file = write(directory.resolve("audit-logs-2025-01.seg"));
+		Path truncated = directory.resolve("audit-logs-2025-02.seg");
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 5));
+
+		assertThrows(IOException.class, () -> AuditSegment.open(truncated));
+	}
+
+	@Test
+	void unfinishedWriterLeavesNothingBehind() throws IOException {
+		Path target = directory.resolve("audit-logs-2025-03.seg");
+		try (AuditSegment.Writer writer = new AuditSegment.Writer(target)) {
+			writer.append(row(1));
+			assertThrows(IllegalStateException.class, () -> writer.append(row(1)));
+		}
+		assertFalse(Files.exists(target));
+		try (var files = Files.list(directory)) {
+			assertEquals(0, files.count());
+		}
+	}
+
+	private static Path write(Path target) throws IOException {
+		try (AuditSegment.Writer writer = new AuditSegment.Writer(target)) {
+			for (int i = 1; i <= ROWS; i++) {
+				writer.append(row(i));
+			}
+			writer.finish();
+		}
+		return target;
+	}
+
+	private static AuditLog row(int i) {
+		AuditLog row = new AuditLog(i % 2 == 0 ? "UPDATE_STATUS" : "CREATE", "user" + (i % 7) + "@corp.com",
+				"INITIATIVE", i % 5 == 0 ? null : (long) i, null, null);
+		row.setId((long) i);
+		row.setTimestamp(timestampOf(i));
+		row.setDetails("Initiative " + i + " changed");
+		row.setNewValue(i % 2 == 0 ? "COMPLETED" : null);
+		return row;
+	}
+
+	// A few rows share each second, so (timestamp, id) ordering is exercised
+	private static LocalDateTime timestampOf(int i) {
+		return START.plusSeconds((i - 1) / 3).plusNanos(((i - 1) % 3) * 1000L);
+	}
+}
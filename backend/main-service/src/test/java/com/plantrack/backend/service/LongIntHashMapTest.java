@@ -0,0 +1,95 @@
+package com.plantrack.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongIntHashMapTest {
+
+	@Test
+	void absentKeysReadAsMissing() {
+		LongIntHashMap map = new LongIntHashMap();
+		assertEquals(-1, map.get(7));
+		assertEquals(-1, map.remove(7));
+
+		map.put(7, 3);
+		map.put(7, 4);
+		assertEquals(1, map.size());
+		assertEquals(4, map.get(7));
+		assertEquals(4, map.remove(7));
+		assertEquals(-1, map.get(7));
+		assertEquals(0, map.size());
+	}
+
+	@Test
+	void rejectsTheReservedKey() {
+		LongIntHashMap map = new LongIntHashMap();
+		assertThrows(IllegalArgumentException.class, () -> map.put(Long.MIN_VALUE, 1));
+	}
+
+	@Test
+	void growsPastItsExpectedSizeWithoutLosingEntries() {
+		LongIntHashMap map = new LongIntHashMap(4);
+		long before = map.footprintBytes();
+		for (int i = 0; i < 10_000; i++) {
+			map.put(i * 31L, i);
+		}
+		assertEquals(10_000, map.size());
+		for (int i = 0; i < 10_000; i++) {
+			assertEquals(i, map.get(i * 31L));
+		}
+		assertTrue(map.footprintBytes() > before);
+	}
+
+	@Test
+	void removalKeepsEveryOtherProbeChainReachable() {
+		// A small key range keeps the table dense, so removals close gaps inside long
+		// chains and across the wraparound at the end of the table
+		Random random = new Random(11);
+		LongIntHashMap map = new LongIntHashMap();
+		Map<Long, Integer> expected = new HashMap<>();
+		for (int op = 0; op < 200_000; op++) {
+			long key = random.nextInt(512) - 256;
+			if (random.nextInt(3) == 0) {
+				Integer previous = expected.remove(key);
+				assertEquals(previous != null ? previous : -1, map.remove(key));
+			} else {
+				expected.put(key, op);
+				map.put(key, op);
+			}
+			if (op % 1000 == 0) {
+				assertSameEntries(expected, map);
+			}
+		}
+		assertSameEntries(expected, map);
+	}
+
+	@Test
+	void clearEmptiesTheMapForReuse() {
+		LongIntHashMap map = new LongIntHashMap();
+		for (int i = 1; i <= 100; i++) {
+			map.put(i, i);
+		}
+		map.clear();
+		assertEquals(0, map.size());
+		assertEquals(-1, map.get(50));
+
+		map.put(50, 5);
+		assertEquals(5, map.get(50));
+		assertEquals(1, map.size());
+	}
+
+	private static void assertSameEntries(Map<Long, Integer> expected, LongIntHashMap map) {
+		assertEquals(expected.size(), map.size());
+		for (long key = -256; key < 256; key++) {
+			Integer value = expected.get(key);
+			assertEquals(value != null ? value : -1, map.get(key), "key " + key);
+		}
+	}
+}
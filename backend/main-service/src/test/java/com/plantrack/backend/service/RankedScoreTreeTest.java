@@ -0,0 +1,106 @@
+package com.plantrack.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankedScoreTreeTest {
+
+	@Test
+	void ranksByScoreDescendingThenUserIdAscending() {
+		RankedScoreTree tree = new RankedScoreTree();
+		tree.put(3, 50.0);
+		tree.put(1, 80.0);
+		tree.put(2, 50.0);
+		tree.put(4, 10.0);
+
+		assertEquals(1, tree.rankOf(1));
+		assertEquals(2, tree.rankOf(2));
+		assertEquals(3, tree.rankOf(3));
+		assertEquals(4, tree.rankOf(4));
+		assertEquals(0, tree.rankOf(99));
+		assertEquals(List.of(1L, 2L, 3L, 4L), tree.range(0, 10));
+	}
+
+	@Test
+	void moveSplitsOutTheOldPositionAndMergesInTheNewOne() {
+		RankedScoreTree tree = new RankedScoreTree();
+		for (long userId = 1; userId <= 5; userId++) {
+			tree.put(userId, userId * 10.0);
+		}
+
+		tree.put(1, 100.0);
+		assertEquals(5, tree.size());
+		assertEquals(1, tree.rankOf(1));
+		assertEquals(List.of(1L, 5L, 4L, 3L, 2L), tree.range(0, 5));
+
+		// Same score again is a no-op
+		tree.put(1, 100.0);
+		assertEquals(5, tree.size());
+		assertEquals(1, tree.rankOf(1));
+	}
+
+	@Test
+	void removeMergesTheChildrenBackTogether() {
+		RankedScoreTree tree = new RankedScoreTree();
+		for (long userId = 1; userId <= 5; userId++) {
+			tree.put(userId, userId * 10.0);
+		}
+
+		assertTrue(tree.remove(3));
+		assertFalse(tree.remove(3));
+		assertFalse(tree.contains(3));
+		assertEquals(4, tree.size());
+		assertEquals(0, tree.rankOf(3));
+		assertEquals(List.of(5L, 4L, 2L, 1L), tree.range(0, 10));
+		assertEquals(3, tree.rankOf(2));
+	}
+
+	@Test
+	void rangeSkipsOffsetAndStopsAtLimit() {
+		RankedScoreTree tree = new RankedScoreTree();
+		for (long userId = 1; userId <= 20; userId++) {
+			tree.put(userId, 100.0 - userId);
+		}
+
+		assertEquals(List.of(6L, 7L, 8L), tree.range(5, 3));
+		assertEquals(List.of(19L, 20L), tree.range(18, 10));
+		assertEquals(List.of(), tree.range(25, 10));
+	}
+
+	@Test
+	void matchesASortedListUnderRandomUpdates() {
+		RankedScoreTree tree = new RankedScoreTree();
+		Map<Long, Double> expected = new HashMap<>();
+		Random random = new Random(7);
+		for (int i = 0; i < 5000; i++) {
+			long userId = random.nextInt(300);
+			if (random.nextInt(5) == 0) {
+				assertEquals(expected.remove(userId) != null, tree.remove(userId));
+			} else {
+				// Few distinct scores, so ties are broken by user id often
+				double score = random.nextInt(20) * 5.0;
+				expected.put(userId, score);
+				tree.put(userId, score);
+			}
+		}
+
+		List<Long> order = new ArrayList<>(expected.keySet());
+		order.sort(Comparator.comparing((Long userId) -> expected.get(userId)).reversed()
+				.thenComparing(Comparator.naturalOrder()));
+		assertEquals(order.size(), tree.size());
+		assertEquals(order, tree.range(0, order.size()));
+		for (int i = 0; i < order.size(); i++) {
+			assertEquals(i + 1, tree.rankOf(order.get(i)));
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package com.plantrack.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReportRetentionServiceTest {
+
+	// A Monday: raw rows before 2025-06-02 and weekly rows before 2024-12-01 are folded
+	private static final LocalDate TODAY = LocalDate.of(2025, 6, 30);
+	private static final double DELTA = 1e-9;
+
+	private EmbeddedDatabase database;
+	private JdbcTemplate jdbcTemplate;
+	private ReportRetentionService service;
+
+	@BeforeEach
+	void createTable() {
+		database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+		jdbcTemplate = new JdbcTemplate(database);
+		jdbcTemplate.execute("CREATE TABLE reports (report_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+				"scope VARCHAR(255) NOT NULL, generated_date TIMESTAMP NOT NULL, granularity VARCHAR(10) NOT NULL, " +
+				"sample_count INT NOT NULL, avg_goal_completion DOUBLE, avg_milestone_completion DOUBLE, " +
+				"avg_initiative_completion DOUBLE, total_users INT)");
+
+		service = new ReportRetentionService();
+		ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(service, "transactionTemplate",
+				new TransactionTemplate(new DataSourceTransactionManager(database)));
+		ReflectionTestUtils.setField(service, "rawRetentionDays", 28);
+		ReflectionTestUtils.setField(service, "weeklyRetentionWeeks", 26);
+	}
+
+	@AfterEach
+	void dropTable() {
+		database.shutdown();
+	}
+
+	@Test
+	void rawReportsFoldIntoWeeklyAveragesPerDepartment() {
+		insert("IT", LocalDateTime.of(2025, 5, 19, 10, 0), "RAW", 1, 50, 40, 30, 10);
+		insert("IT", LocalDateTime.of(2025, 5, 21, 10, 0), "RAW", 1, 70, 60, 50, 11);
+		insert("HR", LocalDateTime.of(2025, 5, 20, 10, 0), "RAW", 1, 20, 20, 20, 5);
+		insert("IT", LocalDateTime.of(2025, 5, 26, 10, 0), "RAW", 1, 80, 80, 80, 12);
+		// Inside the raw retention window
+		insert("IT", LocalDateTime.of(2025, 6, 3, 10, 0), "RAW", 1, 90, 90, 90, 13);
+
+		Map<String, Object> result = service.applyRetention(TODAY);
+
+		assertEquals(2, result.get("weeksFolded"));
+		assertEquals(4, result.get("rawDeleted"));
+		List<Map<String, Object>> rows = rows();
+		assertEquals(4, rows.size());
+		assertRow(rows.get(0), "HR", LocalDateTime.of(2025, 5, 19, 0, 0), "WEEKLY", 1, 20, 20, 20, 5);
+		// Two reports of one week: plain averages, and 10.5 users rounds up
+		assertRow(rows.get(1), "IT", LocalDateTime.of(2025, 5, 19, 0, 0), "WEEKLY", 2, 60, 50, 40, 11);
+		assertRow(rows.get(2), "IT", LocalDateTime.of(2025, 5, 26, 0, 0), "WEEKLY", 1, 80, 80, 80, 12);
+		assertRow(rows.get(3), "IT", LocalDateTime.of(2025, 6, 3, 10, 0), "RAW", 1, 90, 90, 90, 13);
+	}
+
+	@Test
+	void lateRawReportIsMergedIntoTheExistingWeeklyAggregate() {
+		// A weekly aggregate standing for three reports, and a raw report of that week arriving later
+		insert("IT", LocalDateTime.of(2025, 5, 19, 0, 0), "WEEKLY", 3, 40, 30, 20, 9);
+		insert("IT", LocalDateTime.of(2025, 5, 20, 10, 0), "RAW", 1, 80, 70, 60, 13);
+
+		service.applyRetention(TODAY);
+
+		// One row, weighted by sample_count. The merged row has the same granularity and date
+		// as the one it replaces; the report_id pin keeps the delete from removing it too.
+		List<Map<String, Object>> rows = rows();
+		assertEquals(1, rows.size());
+		assertRow(rows.get(0), "IT", LocalDateTime.of(2025, 5, 19, 0, 0), "WEEKLY", 4, 50, 40, 30, 10);
+	}
+
+	@Test
+	void rawReportsPastBothCutoffsReachMonthlyInOneRun() {
+		insert("IT", LocalDateTime.of(2024, 10, 7, 10, 0), "RAW", 1, 10, 10, 10, 4);
+		insert("IT", LocalDateTime.of(2024, 10, 16, 10, 0), "RAW", 1, 30, 20, 10, 6);
+		insert("IT", LocalDateTime.of(2024, 10, 28, 0, 0), "WEEKLY", 2, 60, 50, 40, 7);
+		// Weekly rows from the weekly cutoff on are kept
+		insert("IT", LocalDateTime.of(2024, 12, 2, 0, 0), "WEEKLY", 1, 50, 50, 50, 8);
+
+		Map<String, Object> result = service.applyRetention(TODAY);
+
+		assertEquals(2, result.get("weeksFolded"));
+		assertEquals(2, result.get("rawDeleted"));
+		assertEquals(1, result.get("monthsFolded"));
+		assertEquals(3, result.get("weeklyDeleted"));
+		List<Map<String, Object>> rows = rows();
+		assertEquals(2, rows.size());
+		// (10 + 30 + 60 * 2) / 4 = 40 goal; (4 + 6 + 7 * 2) / 4 = 6 users
+		assertRow(rows.get(0), "IT", LocalDateTime.of(2024, 10, 1, 0, 0), "MONTHLY", 4, 40, 32.5, 25, 6);
+		assertRow(rows.get(1), "IT", LocalDateTime.of(2024, 12, 2, 0, 0), "WEEKLY", 1, 50, 50, 50, 8);
+	}
+
+	@Test
+	void secondRunChangesNothing() {
+		insert("IT", LocalDateTime.of(2025, 5, 19, 10, 0), "RAW", 1, 50, 40, 30, 10);
+		service.applyRetention(TODAY);
+		List<Map<String, Object>> once = rows();
+
+		Map<String, Object> result = service.applyRetention(TODAY);
+
+		assertEquals(0, result.get("weeksFolded"));
+		assertEquals(0, result.get("monthsFolded"));
+		assertEquals(once, rows());
+	}
+
+	private void insert(String scope, LocalDateTime generatedDate, String granularity, int sampleCount,
+						double goal, double milestone, double initiative, int users) {
+		jdbcTemplate.update("INSERT INTO reports (scope, generated_date, granularity, sample_count, " +
+						"avg_goal_completion, avg_milestone_completion, avg_initiative_completion, total_users) " +
+						"VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+				scope, Timestamp.valueOf(generatedDate), granularity, sampleCount, goal, milestone, initiative, users);
+	}
+
+	private List<Map<String, Object>> rows() {
+		return jdbcTemplate.queryForList("SELECT scope, generated_date, granularity, sample_count, avg_goal_completion, " +
+				"avg_milestone_completion, avg_initiative_completion, total_users FROM reports " +
+				"ORDER BY scope, generated_date, granularity");
+	}
+
+	private static void assertRow(Map<String, Object> row, String scope, LocalDateTime generatedDate, String granularity,
+								  int sampleCount, double goal, double milestone, double initiative, int users) {
+		assertEquals(scope, row.get("scope"));
+		assertEquals(Timestamp.valueOf(generatedDate), row.get("generated_date"));
+		assertEquals(granularity, row.get("granularity"));
+		assertEquals(sampleCount, ((Number) row.get("sample_count")).intValue());
+		assertEquals(goal, ((Number) row.get("avg_goal_completion")).doubleValue(), DELTA);
+		assertEquals(milestone, ((Number) row.get("avg_milestone_completion")).doubleValue(), DELTA);
+		assertEquals(initiative, ((Number) row.get("avg_initiative_completion")).doubleValue(), DELTA);
+		assertEquals(users, ((Number) row.get("total_users")).intValue());
+	}
+}
@@ -0,0 +1,136 @@
+package com.plantrack.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeeklyDigestServiceTest {
+
+	private static final LocalDate WEEK = LocalDate.of(2025, 3, 10);
+
+	private EmbeddedDatabase database;
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void createTables() {
+		database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+		jdbcTemplate = new JdbcTemplate(database);
+		jdbcTemplate.execute("CREATE TABLE users (user_id BIGINT PRIMARY KEY, department VARCHAR(100))");
+		jdbcTemplate.execute("CREATE TABLE plans (plan_id BIGINT PRIMARY KEY, user_id BIGINT, status VARCHAR(20))");
+		jdbcTemplate.execute("CREATE TABLE milestones (milestone_id BIGINT PRIMARY KEY, plan_id BIGINT, " +
+				"status VARCHAR(20), completion_percent DOUBLE)");
+		jdbcTemplate.execute("CREATE TABLE initiatives (initiative_id BIGINT PRIMARY KEY, status VARCHAR(20), " +
+				"milestone_id BIGINT)");
+		jdbcTemplate.execute("CREATE TABLE initiative_assignees (initiative_id BIGINT, user_id BIGINT)");
+		jdbcTemplate.execute("CREATE TABLE user_daily_completions (user_id BIGINT, activity_date DATE, " +
+				"completed_count INT, PRIMARY KEY (user_id, activity_date))");
+	}
+
+	@AfterEach
+	void dropTables() {
+		database.shutdown();
+	}
+
+	@Test
+	void lastCompletedWeekIsTheMondayOfTheWeekBefore() {
+		assertEquals(WEEK, WeeklyDigestService.lastCompletedWeek(LocalDate.of(2025, 3, 17)));
+		assertEquals(WEEK, WeeklyDigestService.lastCompletedWeek(LocalDate.of(2025, 3, 19)));
+		assertEquals(WEEK, WeeklyDigestService.lastCompletedWeek(LocalDate.of(2025, 3, 23)));
+		// Sunday still belongs to the running week
+		assertEquals(WEEK.minusWeeks(1), WeeklyDigestService.lastCompletedWeek(LocalDate.of(2025, 3, 16)));
+	}
+
+	@Test
+	void summaryMergesSpellingsAndRanksTheTopThree() {
+		jdbcTemplate.update("INSERT INTO users VALUES (1, 'IT'), (2, 'it'), (3, 'HR'), (4, 'Sales'), (5, 'Ops'), " +
+				"(6, 'Finance')");
+		jdbcTemplate.update("INSERT INTO plans VALUES (10, 1, 'COMPLETED'), (11, 3, 'ACTIVE')");
+		jdbcTemplate.update("INSERT INTO initiatives VALUES (100, 'COMPLETED', 1), (101, 'IN_PROGRESS', 1), " +
+				"(102, 'COMPLETED', 1), (103, 'PLANNED', 1)");
+		jdbcTemplate.update("INSERT INTO initiative_assignees VALUES (100, 1), (101, 3), (102, 2), (103, 4)");
+		completions(1, WEEK, 4);
+		completions(2, WEEK.plusDays(6), 3);
+		completions(3, WEEK.plusDays(2), 5);
+		completions(4, WEEK.plusDays(1), 5);
+		completions(5, WEEK.plusDays(3), 1);
+		// Either side of the week
+		completions(5, WEEK.plusWeeks(1), 9);
+		completions(6, WEEK.minusDays(1), 9);
+		WeeklyDigestService service = service(List.of("Finance", "HR", "IT", "Ops", "Sales", "it"));
+
+		// IT and it are one department under the first spelling; HR and Sales tie and go by name
+		assertEquals("Week of 2025-03-10: 18 initiative completions across 5 departments; " +
+				"initiatives 50% complete, plans 50%. Top: IT 7, HR 5, Sales 5.", service.renderSummary(WEEK));
+		assertEquals("Week of 2025-03-03: 9 initiative completions across 5 departments; " +
+				"initiatives 50% complete, plans 50%. Top: Finance 9.", service.renderSummary(WEEK.minusWeeks(1)));
+		assertEquals("Week of 2025-03-24: 0 initiative completions across 5 departments; " +
+				"initiatives 50% complete, plans 50%.", service.renderSummary(WEEK.plusWeeks(2)));
+	}
+
+	@Test
+	void summaryFitsTheNotificationMessageColumn() {
+		List<String> departments = new ArrayList<>(List.of("Customer Success Americas", "Customer Success Asia Pacific",
+				"Customer Success Europe"));
+		long userId = 1;
+		for (String department : departments) {
+			for (int user = 0; user < 40; user++, userId++) {
+				jdbcTemplate.update("INSERT INTO users VALUES (?, ?)", userId, department);
+				for (int day = 0; day < 7; day++) {
+					completions(userId, WEEK.plusDays(day), 2_000_000_000);
+				}
+			}
+		}
+		// Departments without completions still count in the header
+		for (int i = 0; i < 10000; i++) {
+			departments.add(String.format("Dept %05d", i));
+		}
+		WeeklyDigestService service = service(departments);
+
+		String summary = service.renderSummary(WEEK);
+
+		assertEquals(225, summary.length());
+		assertTrue(("Weekly Analytics Report: " + summary).length() <= 255);
+		assertTrue(summary.startsWith("Week of 2025-03-10: 1680000000000 initiative completions across 10003 departments;"),
+				summary);
+		// Names are cut to 20 characters, and the summary to the column with an ellipsis
+		assertTrue(summary.contains(" Top: Customer Success Ame 560000000000, Customer Success Asi 560000000000, "),
+				summary);
+		assertTrue(summary.endsWith("..."), summary);
+	}
+
+	private void completions(long userId, LocalDate date, int count) {
+		jdbcTemplate.update("INSERT INTO user_daily_completions VALUES (?, ?, ?)", userId, Date.valueOf(date), count);
+	}
+
+	// The department list is taken as the dictionary's cached one instead of a repository query
+	private WeeklyDigestService service(List<String> departments) {
+		DepartmentDictionary departmentDictionary = new DepartmentDictionary();
+		ReflectionTestUtils.setField(departmentDictionary, "cachedDepartments", List.copyOf(departments));
+
+		AnalyticsCube cube = new AnalyticsCube(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(cube, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(cube, "departmentDictionary", departmentDictionary);
+		ReflectionTestUtils.setField(cube, "fetchSize", 100);
+		cube.rebuild();
+
+		WeeklyDigestService service = new WeeklyDigestService();
+		ReflectionTestUtils.setField(service, "analyticsCube", cube);
+		ReflectionTestUtils.setField(service, "departmentDictionary", departmentDictionary);
+		ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+		return service;
+	}
+}
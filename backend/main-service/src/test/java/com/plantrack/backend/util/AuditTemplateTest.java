@@ -0,0 +1,54 @@
+package com.plantrack.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AuditTemplateTest {
+
+	@Test
+	void placeholdersTakeTheParametersInOrder() {
+		assertEquals("Created plan: Q3 launch (Priority: HIGH)",
+				AuditTemplate.render("Created plan: {} (Priority: {})", AuditTemplate.join("Q3 launch", "HIGH")));
+		assertEquals("Milestone 42 is 75.5% complete",
+				AuditTemplate.render("Milestone {} is {}% complete", AuditTemplate.join(42L, 75.5)));
+		assertEquals("No placeholders", AuditTemplate.render("No placeholders", AuditTemplate.join("unused")));
+	}
+
+	@Test
+	void missingTemplateOrParametersLeaveTheTemplateAsIs() {
+		assertNull(AuditTemplate.render(null, AuditTemplate.join("a")));
+		assertNull(AuditTemplate.render(null, null));
+		assertEquals("Status changed to {}", AuditTemplate.render("Status changed to {}", null));
+	}
+
+	@Test
+	void placeholdersBeyondTheParametersAreKept() {
+		assertEquals("A moved to {}", AuditTemplate.render("{} moved to {}", AuditTemplate.join("A")));
+		assertEquals("Plan a", AuditTemplate.render("Plan {}", AuditTemplate.join("a", "b", "c")));
+	}
+
+	@Test
+	void emptyParametersRenderAsEmpty() {
+		assertEquals("[]", AuditTemplate.render("[{}]", AuditTemplate.join("")));
+		assertEquals("[][]", AuditTemplate.render("[{}][{}]", AuditTemplate.join("", "")));
+		assertEquals("[a][]", AuditTemplate.render("[{}][{}]", AuditTemplate.join("a", "")));
+	}
+
+	@Test
+	void joinRendersValuesAndReplacesTheSeparator() {
+		String joined = AuditTemplate.join("a\u001Fb", 3, null);
+		assertEquals("a b\u001F3\u001Fnull", joined);
+		assertEquals("a b | 3 | null", AuditTemplate.render("{} | {} | {}", joined));
+		assertNull(AuditTemplate.join());
+		assertNull(AuditTemplate.join((Object[]) null));
+	}
+
+	@Test
+	void verbatimDetailsAreNotExpandedAgain() {
+		String details = "Renamed to \"{} draft\" by bob@corp.com";
+		assertEquals(details, AuditTemplate.render(AuditTemplate.VERBATIM, AuditTemplate.join(details)));
+		assertEquals("", AuditTemplate.render(AuditTemplate.VERBATIM, AuditTemplate.join("")));
+	}
+}
@@ -3,6 +3,7 @@ package com.plantrack.notificationservice.controller;
 import com.plantrack.notificationservice.dto.CreateNotificationRequest;
 import com.plantrack.notificationservice.dto.InitiativeAssignedRequest;
 import com.plantrack.notificationservice.dto.StatusUpdateRequest;
+import com.plantrack.notificationservice.dto.WeeklyReportBatchRequest;
 import com.plantrack.notificationservice.dto.WeeklyReportRequest;
 import com.plantrack.notificationservice.model.Notification;
 import com.plantrack.notificationservice.service.NotificationService;
@@ -10,7 +11,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -95,4 +98,13 @@ public class NotificationController {
                 req.getReportSummary()
         );
     }
+
+    // One call for a whole weekly digest; safe to repeat with the same digestKey
+    @PostMapping("/weekly-report/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public void notifyWeeklyReports(@RequestBody WeeklyReportBatchRequest req) {
+        Map<Long, String> summariesByAdmin = new LinkedHashMap<>();
+        req.getReports().forEach(report -> summariesByAdmin.put(report.getAdminUserId(), report.getReportSummary()));
+        notificationService.notifyWeeklyReports(req.getDigestKey(), summariesByAdmin);
+    }
 }
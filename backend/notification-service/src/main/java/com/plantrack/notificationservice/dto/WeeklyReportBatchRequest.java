@@ -0,0 +1,15 @@
+package com.plantrack.notificationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeeklyReportBatchRequest {
+    private String digestKey; // One key per digest week; admins already notified under it are skipped
+    private List<WeeklyReportRequest> reports;
+}
@@ -33,6 +33,10 @@ public class Notification {
     @Column(name = "user_id", nullable = false)
     private Long user;
 
+    // Set for batch deliveries (e.g. "weekly-report:2025-03-10:7") so a repeated batch is not stored twice
+    @Column(name = "dedup_key", unique = true, length = 100)
+    private String dedupKey;
+
     public Notification() {
         this.createdDate = LocalDateTime.now();
         this.status = "UNREAD";
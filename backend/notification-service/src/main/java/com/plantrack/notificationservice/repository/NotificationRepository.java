@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
@@ -15,4 +16,7 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.user = :userId AND n.status = 'UNREAD'")
     Long countUnreadByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT n.dedupKey FROM Notification n WHERE n.dedupKey IN :keys")
+    List<String> findExistingDedupKeys(@Param("keys") Collection<String> keys);
 }
\ No newline at end of file
@@ -6,12 +6,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -110,6 +116,53 @@ public class NotificationService {
         createNotification(adminUserId, "WEEKLY_REPORT", "Weekly Analytics Report: " + reportSummary, "SYSTEM", null);
     }
 
+    /**
+     * Weekly reports for many admins in one insert batch. Admins that already have a
+     * notification under digestKey are skipped, so re-sending a batch is harmless.
+     * Connected admins are pushed their report once the batch has committed, so a
+     * rolled-back batch never shows up in anyone's stream.
+     */
+    @Transactional
+    public int notifyWeeklyReports(String digestKey, Map<Long, String> summariesByAdmin) {
+        if (summariesByAdmin.isEmpty()) {
+            return 0;
+        }
+        Map<String, Long> adminsByKey = new LinkedHashMap<>();
+        summariesByAdmin.keySet().forEach(adminUserId -> adminsByKey.put(digestKey + ":" + adminUserId, adminUserId));
+        Set<String> existing = new HashSet<>(notificationRepository.findExistingDedupKeys(adminsByKey.keySet()));
+
+        List<Notification> notifications = new ArrayList<>();
+        adminsByKey.forEach((key, adminUserId) -> {
+            if (existing.contains(key)) {
+                return;
+            }
+            Notification notification = new Notification();
+            notification.setUser(adminUserId);
+            notification.setType("WEEKLY_REPORT");
+            notification.setMessage("Weekly Analytics Report: " + summariesByAdmin.get(adminUserId));
+            notification.setEntityType("SYSTEM");
+            notification.setDedupKey(key);
+            notifications.add(notification);
+        });
+
+        List<Notification> saved = notificationRepository.saveAll(notifications);
+        Runnable push = () -> saved.forEach(notification -> pushNotificationToUser(notification.getUser(), notification));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    push.run();
+                }
+            });
+        } else {
+            push.run();
+        }
+
+        logger.info("Weekly reports created: digestKey={}, created={}, skipped={}",
+                digestKey, saved.size(), existing.size());
+        return saved.size();
+    }
+
     // --- Getters & Helpers ---
 
     public List<Notification> getUnreadNotifications(Long userId) {